@@ -0,0 +1,58 @@
+-- ============================================================
+-- Carga para medir la capacidad reservable con y sin división de bloques
+-- ============================================================
+-- Ejecutar sobre una base recién migrada (V1..V9). Crea 500 profesionales con un bloque
+-- libre de 8 horas (09:00-17:00) en cada uno de los próximos 20 días (80.000 horas
+-- ofertadas) y una secuencia fija de 100.000 solicitudes que capacidad-medicion.sql
+-- reproduce con cada política:
+--   * 90% reservas de 1 hora (70%) o 2 horas (30%) a una hora en punto al azar dentro del bloque
+--   * 10% cancelaciones de una reserva aceptada anterior, elegida al azar
+
+INSERT INTO profesionales (id, nombres, apellidos, especialidad, estado_activo)
+SELECT ('e0000000-0000-0000-0000-' || lpad(p::TEXT, 12, '0'))::UUID, 'Prof ' || p, 'Capacidad', 'Carga', TRUE
+FROM generate_series(1, 500) p;
+
+DO
+$$
+BEGIN
+    PERFORM crear_particiones_mes(m::DATE)
+    FROM generate_series(date_trunc('month', CURRENT_DATE + 1),
+                         date_trunc('month', CURRENT_DATE + 20), INTERVAL '1 month') m;
+END;
+$$;
+
+INSERT INTO horarios_disponibles (id, profesional_id, fecha, hora_inicio, hora_fin, estado)
+SELECT uuid_v7(),
+       ('e0000000-0000-0000-0000-' || lpad(p::TEXT, 12, '0'))::UUID,
+       CURRENT_DATE + d,
+       TIME '09:00',
+       TIME '17:00',
+       TRUE
+FROM generate_series(1, 500) p,
+     generate_series(1, 20) d;
+
+ANALYZE horarios_disponibles;
+
+-- tipo: 'R' reserva, 'C' cancelación. azar elige la reserva a cancelar entre las aceptadas.
+CREATE TABLE bench_solicitudes (
+    n              INT PRIMARY KEY,
+    tipo           CHAR(1) NOT NULL,
+    profesional_id UUID,
+    fecha          DATE,
+    hora_inicio    TIME,
+    hora_fin       TIME,
+    azar           DOUBLE PRECISION NOT NULL
+);
+
+SELECT setseed(0.42);
+
+INSERT INTO bench_solicitudes
+SELECT n, s.tipo, s.profesional_id, s.fecha, s.hora_inicio, s.hora_inicio + make_interval(hours => s.horas), s.azar
+FROM generate_series(1, 100000) n,
+     LATERAL (SELECT CASE WHEN random() < 0.1 THEN 'C' ELSE 'R' END AS tipo,
+                     ('e0000000-0000-0000-0000-' || lpad((1 + floor(random() * 500))::TEXT, 12, '0'))::UUID AS profesional_id,
+                     CURRENT_DATE + 1 + floor(random() * 20)::INT AS fecha,
+                     h.horas,
+                     TIME '09:00' + make_interval(hours => floor(random() * (9 - h.horas))::INT) AS hora_inicio,
+                     random() AS azar
+              FROM (SELECT CASE WHEN random() < 0.7 THEN 1 ELSE 2 END AS horas WHERE n > 0) h) s;
@@ -0,0 +1,129 @@
+-- ============================================================
+-- Capacidad reservable: bloque completo frente a división de bloques
+-- ============================================================
+-- Reproduce las solicitudes de capacidad-carga.sql contra horarios_disponibles con las
+-- mismas consultas que ReservaService:
+--   * 'bloque':      la reserva marca ocupado el bloque completo que la cubre (comportamiento
+--                    anterior) y la cancelación lo vuelve a liberar.
+--   * 'fraccionado': la reserva recorta el bloque al tramo reservado y guarda el resto como
+--                    bloques libres; la cancelación libera el tramo y lo fusiona con los
+--                    bloques libres contiguos.
+-- Cada política se ejecuta en su propia transacción y se deshace al terminar.
+CREATE FUNCTION bench_capacidad(p_politica TEXT)
+    RETURNS TABLE (politica TEXT, solicitudes INT, aceptadas INT, rechazadas INT, canceladas INT,
+                   horas_reservadas NUMERIC, utilizacion NUMERIC, bloques_finales BIGINT, ms_por_solicitud NUMERIC)
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    s           RECORD;
+    h           RECORD;
+    a           RECORD;
+    v_ini       TIME;
+    v_fin       TIME;
+    v_reserva   RECORD;
+    v_aceptadas INT := 0;
+    v_rechazos  INT := 0;
+    v_cancel    INT := 0;
+    v_inicio    TIMESTAMPTZ := clock_timestamp();
+    v_ofertadas NUMERIC;
+BEGIN
+    SELECT sum(extract(EPOCH FROM hora_fin - hora_inicio)) / 3600 INTO v_ofertadas
+    FROM horarios_disponibles WHERE profesional_id::TEXT LIKE 'e0000000-%';
+
+    CREATE TEMP TABLE bench_reservas (
+        n              SERIAL PRIMARY KEY,
+        horario_id     UUID,
+        profesional_id UUID,
+        fecha          DATE,
+        hora_inicio    TIME,
+        hora_fin       TIME,
+        activa         BOOLEAN
+    ) ON COMMIT DROP;
+
+    FOR s IN SELECT * FROM bench_solicitudes ORDER BY n
+        LOOP
+            IF s.tipo = 'R' THEN
+                -- findDisponibleParaReserva
+                SELECT hd.id, hd.fecha, hd.hora_inicio, hd.hora_fin INTO h
+                FROM horarios_disponibles hd
+                WHERE hd.profesional_id = s.profesional_id AND hd.fecha = s.fecha AND hd.estado = TRUE
+                  AND hd.rango @> tsrange(s.fecha + s.hora_inicio, s.fecha + s.hora_fin, '[)')
+                LIMIT 1 FOR UPDATE;
+                IF NOT FOUND THEN
+                    v_rechazos := v_rechazos + 1;
+                    CONTINUE;
+                END IF;
+                IF p_politica = 'fraccionado' THEN
+                    IF h.hora_inicio < s.hora_inicio THEN
+                        INSERT INTO horarios_disponibles (id, profesional_id, fecha, hora_inicio, hora_fin, estado)
+                        VALUES (uuid_v7(), s.profesional_id, s.fecha, h.hora_inicio, s.hora_inicio, TRUE);
+                    END IF;
+                    IF h.hora_fin > s.hora_fin THEN
+                        INSERT INTO horarios_disponibles (id, profesional_id, fecha, hora_inicio, hora_fin, estado)
+                        VALUES (uuid_v7(), s.profesional_id, s.fecha, s.hora_fin, h.hora_fin, TRUE);
+                    END IF;
+                    UPDATE horarios_disponibles SET hora_inicio = s.hora_inicio, hora_fin = s.hora_fin, estado = FALSE
+                    WHERE id = h.id AND fecha = s.fecha;
+                ELSE
+                    UPDATE horarios_disponibles SET estado = FALSE WHERE id = h.id AND fecha = s.fecha;
+                END IF;
+                INSERT INTO bench_reservas (horario_id, profesional_id, fecha, hora_inicio, hora_fin, activa)
+                VALUES (h.id, s.profesional_id, s.fecha, s.hora_inicio, s.hora_fin, TRUE);
+                v_aceptadas := v_aceptadas + 1;
+            ELSE
+                SELECT * INTO v_reserva FROM bench_reservas
+                WHERE n = 1 + floor(s.azar * (SELECT count(*) FROM bench_reservas))::INT AND activa;
+                IF NOT FOUND THEN
+                    CONTINUE;
+                END IF;
+                UPDATE bench_reservas SET activa = FALSE WHERE n = v_reserva.n;
+                v_cancel := v_cancel + 1;
+                -- Liberación por clave primaria; con 'fraccionado' el bloque es exactamente el tramo
+                UPDATE horarios_disponibles SET estado = TRUE
+                WHERE id = v_reserva.horario_id AND fecha = v_reserva.fecha
+                RETURNING id, hora_inicio, hora_fin INTO h;
+                IF p_politica = 'fraccionado' THEN
+                    -- findLibresAdyacentes: el tramo liberado absorbe los bloques libres contiguos
+                    v_ini := h.hora_inicio;
+                    v_fin := h.hora_fin;
+                    FOR a IN
+                        SELECT hd.id, hd.hora_inicio, hd.hora_fin
+                        FROM horarios_disponibles hd
+                        WHERE hd.profesional_id = v_reserva.profesional_id AND hd.fecha = v_reserva.fecha
+                          AND hd.estado = TRUE AND hd.id <> h.id
+                          AND hd.rango -|- tsrange(v_reserva.fecha + h.hora_inicio, v_reserva.fecha + h.hora_fin, '[)')
+                        LOOP
+                            v_ini := least(v_ini, a.hora_inicio);
+                            v_fin := greatest(v_fin, a.hora_fin);
+                            DELETE FROM horarios_disponibles WHERE id = a.id AND fecha = v_reserva.fecha;
+                        END LOOP;
+                    UPDATE horarios_disponibles SET hora_inicio = v_ini, hora_fin = v_fin
+                    WHERE id = h.id AND fecha = v_reserva.fecha;
+                END IF;
+            END IF;
+        END LOOP;
+
+    politica := p_politica;
+    solicitudes := (SELECT count(*) FROM bench_solicitudes);
+    aceptadas := v_aceptadas;
+    rechazadas := v_rechazos;
+    canceladas := v_cancel;
+    horas_reservadas := (SELECT sum(extract(EPOCH FROM hora_fin - hora_inicio)) / 3600 FROM bench_reservas WHERE activa);
+    utilizacion := round(100 * horas_reservadas / v_ofertadas, 1);
+    horas_reservadas := round(horas_reservadas, 0);
+    bloques_finales := (SELECT count(*) FROM horarios_disponibles WHERE profesional_id::TEXT LIKE 'e0000000-%');
+    ms_por_solicitud := round((extract(EPOCH FROM clock_timestamp() - v_inicio) * 1000 / solicitudes)::NUMERIC, 3);
+    RETURN NEXT;
+END;
+$$;
+
+BEGIN;
+SELECT * FROM bench_capacidad('bloque');
+ROLLBACK;
+
+BEGIN;
+SELECT * FROM bench_capacidad('fraccionado');
+ROLLBACK;
+
+DROP FUNCTION bench_capacidad(TEXT);
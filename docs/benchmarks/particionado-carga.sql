@@ -0,0 +1,72 @@
+-- ============================================================
+-- Carga sintética de ~51M horarios_disponibles para medir el particionado (V5)
+-- ============================================================
+-- Ejecutar sobre una base recién migrada:
+--   * esquema monolítico: migraciones V1..V4
+--   * esquema particionado: migraciones V1..V5
+-- 5.000 profesionales × 730 días × 14 bloques de 1 hora (08:00-22:00) = 51.100.000 filas.
+-- Los índices se eliminan antes de la carga y se recrean después, en ambos esquemas,
+-- para que los tamaños comparados correspondan a índices recién construidos.
+
+SET maintenance_work_mem = '1GB';
+
+ALTER TABLE reservas DROP CONSTRAINT fk_reservas_horario;
+ALTER TABLE horarios_disponibles DROP CONSTRAINT pk_horarios_disponibles;
+DROP INDEX idx_horarios_profesional_fecha;
+DROP INDEX idx_horarios_profesional_rango;
+
+INSERT INTO profesionales (id, nombres, apellidos, especialidad, estado_activo)
+SELECT ('e0000000-0000-0000-0000-' || lpad(p::TEXT, 12, '0'))::UUID, 'Prof ' || p, 'Bench', 'Carga', TRUE
+FROM generate_series(1, 5000) p;
+
+-- Particiones de los 25 meses cubiertos (solo en el esquema particionado)
+DO
+$$
+BEGIN
+    IF to_regproc('crear_particiones_mes') IS NOT NULL THEN
+        PERFORM crear_particiones_mes(m::DATE)
+        FROM generate_series(date_trunc('month', CURRENT_DATE),
+                             date_trunc('month', CURRENT_DATE + 729), INTERVAL '1 month') m;
+    END IF;
+END;
+$$;
+
+-- Un día por sentencia para acotar la memoria de cada INSERT
+DO
+$$
+BEGIN
+    FOR d IN 0..729
+        LOOP
+            INSERT INTO horarios_disponibles (id, profesional_id, fecha, hora_inicio, hora_fin, estado)
+            SELECT gen_random_uuid(),
+                   ('e0000000-0000-0000-0000-' || lpad(p::TEXT, 12, '0'))::UUID,
+                   CURRENT_DATE + d,
+                   TIME '08:00' + make_interval(hours => b),
+                   TIME '09:00' + make_interval(hours => b),
+                   (p + b + d) % 3 <> 0
+            FROM generate_series(1, 5000) p,
+                 generate_series(0, 13) b;
+        END LOOP;
+END;
+$$;
+
+-- Mismas definiciones que V4 (monolítico) o V5 (particionado: la PK incluye fecha)
+DO
+$$
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = 'horarios_disponibles'::REGCLASS) = 'p' THEN
+        ALTER TABLE horarios_disponibles ADD CONSTRAINT pk_horarios_disponibles PRIMARY KEY (id, fecha);
+        ALTER TABLE reservas ADD CONSTRAINT fk_reservas_horario
+            FOREIGN KEY (horario_id, fecha) REFERENCES horarios_disponibles (id, fecha) ON DELETE SET NULL (horario_id);
+    ELSE
+        ALTER TABLE horarios_disponibles ADD CONSTRAINT pk_horarios_disponibles PRIMARY KEY (id);
+        ALTER TABLE reservas ADD CONSTRAINT fk_reservas_horario
+            FOREIGN KEY (horario_id) REFERENCES horarios_disponibles (id) ON DELETE SET NULL;
+    END IF;
+END;
+$$;
+
+CREATE INDEX idx_horarios_profesional_fecha ON horarios_disponibles (profesional_id, fecha);
+CREATE INDEX idx_horarios_profesional_rango ON horarios_disponibles USING GIST (profesional_id, rango);
+
+ANALYZE horarios_disponibles;
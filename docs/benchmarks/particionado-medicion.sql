@@ -0,0 +1,69 @@
+-- ============================================================
+-- Medición de tamaños de índice y latencia tras particionado-carga.sql
+-- ============================================================
+-- Tamaños: suma de todas las particiones (o de la tabla, en el esquema monolítico).
+SELECT coalesce(i.grupo, 'total')                      AS indice,
+       pg_size_pretty(sum(pg_relation_size(format('%I', i.indexname)::REGCLASS))) AS total,
+       pg_size_pretty(max(pg_relation_size(format('%I', i.indexname)::REGCLASS))) AS mayor_particion
+FROM (SELECT CASE
+                 WHEN indexname LIKE '%_pkey' OR indexname = 'pk_horarios_disponibles' THEN 'pk'
+                 WHEN indexname LIKE '%rango%' THEN 'gist_profesional_rango'
+                 ELSE 'btree_profesional_fecha'
+                 END AS grupo,
+             indexname
+      FROM pg_indexes
+      WHERE tablename LIKE 'horarios_disponibles%') i
+GROUP BY ROLLUP (i.grupo)
+ORDER BY 1;
+
+-- Latencia media (ms) de las cuatro consultas de HorarioDisponibleRepository sobre
+-- 2.000 combinaciones aleatorias profesional/fecha/hora, con el mismo SQL que envía
+-- la aplicación (EXECUTE ... USING equivale a una sentencia con parámetros).
+-- Se ejecuta dos veces: la primera calienta la caché y se descarta.
+CREATE OR REPLACE FUNCTION bench_horarios(p_muestras INT)
+    RETURNS TABLE (consulta TEXT, ms_media NUMERIC)
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_consultas TEXT[] := ARRAY [
+        'h.rango && tsrange($2 + $3, $2 + $4, ''[)'')',
+        'h.estado = true AND h.rango @> tsrange($2 + $3, $2 + $4, ''[)'') LIMIT 1 FOR UPDATE',
+        'h.estado = false AND h.rango @> tsrange($2 + $3, $2 + $4, ''[)'') LIMIT 1',
+        'h.estado = true AND h.rango -|- tsrange($2 + $3, $2 + $4, ''[)'')'];
+    v_nombres   TEXT[] := ARRAY ['findSolapados', 'findDisponibleParaReserva',
+                                 'findOcupadoPorReserva', 'findLibresAdyacentes'];
+    v_sql       TEXT;
+    v_inicio    TIMESTAMPTZ;
+    v_total     INTERVAL;
+    v_prof      UUID;
+    v_fecha     DATE;
+    v_hora      TIME;
+BEGIN
+    FOR q IN 1..4
+        LOOP
+            v_sql := 'SELECT h.id, h.profesional_id, h.fecha, h.hora_inicio, h.hora_fin, h.estado ' ||
+                     'FROM horarios_disponibles h WHERE h.profesional_id = $1 AND h.fecha = $2 AND ' ||
+                     v_consultas[q];
+            v_total := INTERVAL '0';
+            PERFORM setseed(0.42);
+            FOR i IN 1..p_muestras
+                LOOP
+                    v_prof := ('e0000000-0000-0000-0000-' || lpad((1 + floor(random() * 5000))::TEXT, 12, '0'))::UUID;
+                    v_fecha := CURRENT_DATE + floor(random() * 730)::INT;
+                    v_hora := TIME '08:00' + make_interval(hours => floor(random() * 14)::INT);
+                    v_inicio := clock_timestamp();
+                    EXECUTE v_sql USING v_prof, v_fecha, v_hora, v_hora + INTERVAL '30 minutes';
+                    v_total := v_total + (clock_timestamp() - v_inicio);
+                END LOOP;
+            consulta := v_nombres[q];
+            ms_media := round((extract(EPOCH FROM v_total) * 1000 / p_muestras)::NUMERIC, 3);
+            RETURN NEXT;
+        END LOOP;
+END;
+$$;
+
+SELECT * FROM bench_horarios(2000);
+SELECT * FROM bench_horarios(2000);
+
+DROP FUNCTION bench_horarios(INT);
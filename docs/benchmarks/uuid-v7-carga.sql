@@ -0,0 +1,94 @@
+-- ============================================================
+-- Inserción con PK UUIDv4 vs UUIDv7 sobre una tabla de 10M filas (V8)
+-- ============================================================
+-- Ejecutar sobre una base con la migración V8 (función uuid_v7()).
+-- Crea dos tablas con la forma de `reservas` (mismas columnas e índices, sin particionar
+-- ni claves foráneas, para aislar el efecto del id) y las precarga con 10.000.000 filas:
+--   * bench_ids_v4: ids de gen_random_uuid(), como @GeneratedValue(strategy = UUID)
+--   * bench_ids_v7: ids de uuid_v7() con instantes crecientes de 1 ms, como si se
+--     hubieran generado a lo largo del tiempo con @UuidGenerator(style = VERSION_7)
+-- Los índices se crean después de la precarga en ambas tablas, así las dos parten de
+-- un índice recién construido; la medición está en uuid-v7-medicion.sql.
+
+CREATE EXTENSION IF NOT EXISTS pgstattuple;
+
+SET maintenance_work_mem = '1GB';
+
+DROP TABLE IF EXISTS bench_ids_v4, bench_ids_v7, bench_ids_resultados;
+
+CREATE TABLE bench_ids_v4
+(
+    id             UUID        NOT NULL,
+    fecha          DATE        NOT NULL,
+    hora_inicio    TIME        NOT NULL,
+    hora_fin       TIME        NOT NULL,
+    estado         VARCHAR(20) NOT NULL DEFAULT 'CREADA',
+    cliente_id     UUID        NOT NULL,
+    profesional_id UUID        NOT NULL
+);
+
+CREATE TABLE bench_ids_v7 (LIKE bench_ids_v4 INCLUDING DEFAULTS);
+
+INSERT INTO bench_ids_v4 (id, fecha, hora_inicio, hora_fin, cliente_id, profesional_id)
+SELECT gen_random_uuid(),
+       CURRENT_DATE + (n % 365)::INT,
+       make_time(8 + (n % 14)::INT, 0, 0),
+       make_time(9 + (n % 14)::INT, 0, 0),
+       ('b2000000-0000-0000-0000-' || lpad((n % 50000)::TEXT, 12, '0'))::UUID,
+       ('a1000000-0000-0000-0000-' || lpad((n % 5000)::TEXT, 12, '0'))::UUID
+FROM generate_series(1, 10000000) n;
+
+INSERT INTO bench_ids_v7 (id, fecha, hora_inicio, hora_fin, cliente_id, profesional_id)
+SELECT uuid_v7(clock_timestamp() - INTERVAL '1 ms' * (10000000 - n)),
+       CURRENT_DATE + (n % 365)::INT,
+       make_time(8 + (n % 14)::INT, 0, 0),
+       make_time(9 + (n % 14)::INT, 0, 0),
+       ('b2000000-0000-0000-0000-' || lpad((n % 50000)::TEXT, 12, '0'))::UUID,
+       ('a1000000-0000-0000-0000-' || lpad((n % 5000)::TEXT, 12, '0'))::UUID
+FROM generate_series(1, 10000000) n;
+
+ALTER TABLE bench_ids_v4 ADD CONSTRAINT pk_bench_ids_v4 PRIMARY KEY (id);
+ALTER TABLE bench_ids_v7 ADD CONSTRAINT pk_bench_ids_v7 PRIMARY KEY (id);
+CREATE INDEX idx_bench_ids_v4_profesional_fecha ON bench_ids_v4 (profesional_id, fecha);
+CREATE INDEX idx_bench_ids_v7_profesional_fecha ON bench_ids_v7 (profesional_id, fecha);
+
+-- Una fila por tabla medida
+CREATE TABLE bench_ids_resultados
+(
+    tabla     TEXT PRIMARY KEY,
+    filas     BIGINT,
+    segundos  NUMERIC,
+    wal_bytes NUMERIC
+);
+
+-- Inserta p_lotes transacciones de p_filas filas cada una, con el generador de la tabla,
+-- y registra tiempo total y WAL generado.
+CREATE OR REPLACE PROCEDURE bench_insertar_ids(p_tabla TEXT, p_lotes INT, p_filas INT)
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_generador TEXT := CASE WHEN p_tabla LIKE '%v7' THEN 'uuid_v7()' ELSE 'gen_random_uuid()' END;
+    v_inicio    TIMESTAMPTZ := clock_timestamp();
+    v_lsn       pg_lsn      := pg_current_wal_lsn();
+BEGIN
+    FOR i IN 1..p_lotes LOOP
+        EXECUTE format(
+                'INSERT INTO %I (id, fecha, hora_inicio, hora_fin, cliente_id, profesional_id)
+                 SELECT %s, CURRENT_DATE + (n %% 365)::INT,
+                        make_time(8 + (n %% 14)::INT, 0, 0), make_time(9 + (n %% 14)::INT, 0, 0),
+                        (''b2000000-0000-0000-0000-'' || lpad((n %% 50000)::TEXT, 12, ''0''))::UUID,
+                        (''a1000000-0000-0000-0000-'' || lpad((n %% 5000)::TEXT, 12, ''0''))::UUID
+                 FROM generate_series(1, %s) n',
+                p_tabla, v_generador, p_filas);
+        COMMIT;
+    END LOOP;
+
+    INSERT INTO bench_ids_resultados
+    VALUES (p_tabla,
+            p_lotes::BIGINT * p_filas,
+            round(extract(EPOCH FROM clock_timestamp() - v_inicio)::NUMERIC, 1),
+            pg_current_wal_lsn() - v_lsn);
+    COMMIT;
+END;
+$$;
@@ -0,0 +1,42 @@
+-- ============================================================
+-- Medición: 2.000 transacciones de 1.000 filas sobre cada tabla de 10M filas
+-- ============================================================
+-- Ejecutar con psql después de uuid-v7-carga.sql, sentencia a sentencia (CALL con COMMIT
+-- no admite un bloque de transacción externo). Cada tabla parte de un checkpoint, de modo
+-- que las escrituras de página completa (full_page_writes) cuentan igual para ambas.
+-- Las lecturas de bloques del índice de la PK se toman de pg_statio antes y después.
+
+CREATE TEMP TABLE io_antes AS
+SELECT indexrelname, idx_blks_read, idx_blks_hit
+FROM pg_statio_user_indexes
+WHERE indexrelname IN ('pk_bench_ids_v4', 'pk_bench_ids_v7');
+
+CHECKPOINT;
+CALL bench_insertar_ids('bench_ids_v4', 2000, 1000);
+CHECKPOINT;
+CALL bench_insertar_ids('bench_ids_v7', 2000, 1000);
+SELECT pg_stat_force_next_flush();
+
+-- Throughput, WAL y bloques del índice de la PK leídos fuera de shared_buffers
+SELECT r.tabla,
+       r.filas,
+       r.segundos,
+       round(r.filas / r.segundos)          AS filas_por_segundo,
+       pg_size_pretty(r.wal_bytes)          AS wal,
+       round(r.wal_bytes / r.filas)         AS wal_bytes_por_fila,
+       s.idx_blks_read - a.idx_blks_read    AS pk_bloques_leidos,
+       s.idx_blks_hit - a.idx_blks_hit      AS pk_bloques_hit
+FROM bench_ids_resultados r
+         JOIN pg_statio_user_indexes s ON s.indexrelname = 'pk_' || r.tabla
+         JOIN io_antes a ON a.indexrelname = s.indexrelname
+ORDER BY r.tabla;
+
+-- Estado del índice de la PK tras la carga: tamaño, densidad de hojas y fragmentación
+SELECT i.indexrelname                                 AS indice,
+       pg_size_pretty(pg_relation_size(i.indexrelid)) AS tamano,
+       s.avg_leaf_density,
+       s.leaf_fragmentation
+FROM pg_stat_user_indexes i,
+     LATERAL pgstatindex(i.indexrelid::regclass) s
+WHERE i.indexrelname IN ('pk_bench_ids_v4', 'pk_bench_ids_v7')
+ORDER BY i.indexrelname;
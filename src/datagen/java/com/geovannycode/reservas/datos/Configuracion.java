@@ -0,0 +1,62 @@
+package com.geovannycode.reservas.datos;
+
+import com.geovannycode.reservas.herramientas.Argumentos;
+
+import java.time.DayOfWeek;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Parámetros del generador de datos, leídos de argumentos {@code --clave=valor}.
+ *
+ * @param jdbcUrl          base de datos destino (ya migrada)
+ * @param usuario          usuario de la base de datos
+ * @param clave            contraseña de la base de datos
+ * @param profesionales    profesionales a generar
+ * @param clientes         clientes a generar
+ * @param diasPasados      días de historia antes de hoy
+ * @param diasFuturos      días de agenda a partir de hoy
+ * @param ocupacion        probabilidad base de que una hora esté reservada
+ * @param calientes        fracción de profesionales con demanda alta
+ * @param factorCaliente   multiplicador de ocupación de los profesionales calientes
+ * @param diasPico         días de la semana con demanda alta
+ * @param factorPico       multiplicador de ocupación en días pico
+ * @param cancelacion      fracción de reservas canceladas
+ * @param semilla          semilla del generador aleatorio (mismo valor, mismos datos)
+ */
+record Configuracion(String jdbcUrl,
+                     String usuario,
+                     String clave,
+                     int profesionales,
+                     int clientes,
+                     int diasPasados,
+                     int diasFuturos,
+                     double ocupacion,
+                     double calientes,
+                     double factorCaliente,
+                     Set<DayOfWeek> diasPico,
+                     double factorPico,
+                     double cancelacion,
+                     long semilla) {
+
+    static Configuracion desdeArgumentos(String[] args) {
+        var argumentos = Argumentos.leer(args);
+        return new Configuracion(
+                argumentos.texto("jdbc-url", "jdbc:postgresql://localhost:5432/reservas_db"),
+                argumentos.texto("usuario", "postgres"),
+                argumentos.texto("clave", "postgres"),
+                argumentos.entero("profesionales", 5000),
+                argumentos.entero("clientes", 200000),
+                argumentos.entero("dias-pasados", 365),
+                argumentos.entero("dias-futuros", 90),
+                argumentos.decimal("ocupacion", 0.4),
+                argumentos.decimal("calientes", 0.05),
+                argumentos.decimal("factor-caliente", 2.0),
+                argumentos.lista("dias-pico", "MONDAY,FRIDAY").stream()
+                        .map(DayOfWeek::valueOf)
+                        .collect(Collectors.toUnmodifiableSet()),
+                argumentos.decimal("factor-pico", 1.5),
+                argumentos.decimal("cancelacion", 0.1),
+                argumentos.largo("semilla", 42));
+    }
+}
@@ -0,0 +1,76 @@
+package com.geovannycode.reservas.datos;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * {@code COPY ... FROM STDIN} en formato texto sobre una conexión propia, con las filas
+ * acumuladas en un búfer que se envía cada {@value #TAMANO_BUFER} caracteres.
+ * Varias instancias sobre conexiones distintas pueden alimentarse desde el mismo hilo.
+ */
+class CopiaTabla implements AutoCloseable {
+
+    private static final int TAMANO_BUFER = 1 << 20;
+
+    private final Connection conexion;
+    private final CopyIn copia;
+    private final StringBuilder bufer = new StringBuilder(TAMANO_BUFER + 512);
+    private long filas;
+
+    CopiaTabla(Connection conexion, String tabla, String columnas) throws SQLException {
+        this.conexion = conexion;
+        this.copia = conexion.unwrap(PGConnection.class).getCopyAPI()
+                .copyIn("COPY " + tabla + " (" + columnas + ") FROM STDIN");
+    }
+
+    /**
+     * Añade una fila; los valores se escriben con {@code toString()} y {@code null} como {@code \N}.
+     * Ningún valor generado contiene tabuladores, saltos de línea ni barras invertidas.
+     */
+    void fila(Object... valores) throws SQLException {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                bufer.append('\t');
+            }
+            bufer.append(valores[i] == null ? "\\N" : valores[i]);
+        }
+        bufer.append('\n');
+        filas++;
+        if (bufer.length() >= TAMANO_BUFER) {
+            vaciar();
+        }
+    }
+
+    long filas() {
+        return filas;
+    }
+
+    private void vaciar() throws SQLException {
+        var bytes = bufer.toString().getBytes(StandardCharsets.UTF_8);
+        copia.writeToCopy(bytes, 0, bytes.length);
+        bufer.setLength(0);
+    }
+
+    /**
+     * Envía lo pendiente, cierra el COPY y confirma la transacción.
+     */
+    void terminar() throws SQLException {
+        vaciar();
+        copia.endCopy();
+        conexion.commit();
+    }
+
+    /**
+     * Cancela el COPY si no se llegó a {@link #terminar()}: no se confirma nada a medias.
+     */
+    @Override
+    public void close() throws SQLException {
+        if (copia.isActive()) {
+            copia.cancelCopy();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.geovannycode.reservas.datos;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Retira durante la carga los índices secundarios y las claves foráneas de las tablas
+ * indicadas y los vuelve a crear después, con la definición exacta que tenían
+ * ({@code pg_indexes.indexdef} y {@code pg_get_constraintdef}). Sobre tablas particionadas
+ * se opera en la tabla padre, así que cada partición recupera sus índices.
+ * <p>
+ * Las claves primarias y restricciones únicas se mantienen: los ids son UUIDv7 y se
+ * insertan en orden, por lo que su índice se llena por la derecha.
+ */
+class EsquemaCarga {
+
+    private record Objeto(String tabla, String nombre, String definicion, boolean restriccion) {
+    }
+
+    private static final String INDICES = """
+            SELECT i.tablename, i.indexname, i.indexdef
+            FROM pg_indexes i
+            WHERE i.schemaname = current_schema()
+              AND i.tablename = ANY (?)
+              AND NOT EXISTS (SELECT 1 FROM pg_constraint c WHERE c.conname = i.indexname)
+            """;
+
+    private static final String CLAVES_FORANEAS = """
+            SELECT c.conrelid::regclass::text, c.conname, pg_get_constraintdef(c.oid)
+            FROM pg_constraint c
+            WHERE c.contype = 'f'
+              AND c.conparentid = 0
+              AND c.conrelid::regclass::text = ANY (?)
+            """;
+
+    private final Connection conexion;
+    private final String[] tablas;
+    private final List<Objeto> retirados = new ArrayList<>();
+
+    EsquemaCarga(Connection conexion, String... tablas) {
+        this.conexion = conexion;
+        this.tablas = tablas;
+    }
+
+    void desmontar() throws SQLException {
+        leer(CLAVES_FORANEAS, true);
+        leer(INDICES, false);
+        try (var st = conexion.createStatement()) {
+            for (var objeto : retirados) {
+                st.execute(objeto.restriccion()
+                        ? "ALTER TABLE " + objeto.tabla() + " DROP CONSTRAINT " + objeto.nombre()
+                        : "DROP INDEX " + objeto.nombre());
+            }
+        }
+    }
+
+    /**
+     * Recrea primero los índices y después las claves foráneas, que así validan contra
+     * índices ya construidos.
+     */
+    void restaurar() throws SQLException {
+        try (var st = conexion.createStatement()) {
+            for (var objeto : retirados.reversed()) {
+                st.execute(objeto.restriccion()
+                        ? "ALTER TABLE " + objeto.tabla() + " ADD CONSTRAINT " + objeto.nombre() + " " + objeto.definicion()
+                        : objeto.definicion());
+            }
+        }
+        retirados.clear();
+    }
+
+    private void leer(String consulta, boolean restriccion) throws SQLException {
+        try (var st = conexion.prepareStatement(consulta)) {
+            st.setArray(1, conexion.createArrayOf("text", tablas));
+            try (var rs = st.executeQuery()) {
+                while (rs.next()) {
+                    retirados.add(new Objeto(rs.getString(1), rs.getString(2), rs.getString(3), restriccion));
+                }
+            }
+        }
+    }
+}
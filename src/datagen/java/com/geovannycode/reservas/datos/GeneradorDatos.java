@@ -0,0 +1,225 @@
+package com.geovannycode.reservas.datos;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Llena una base PostgreSQL ya migrada con un volumen de datos realista para pruebas de
+ * rendimiento: profesionales, clientes, horarios y reservas de {@code --dias-pasados}
+ * días de historia y {@code --dias-futuros} de agenda.
+ * <p>
+ * Cada profesional trabaja de lunes a sábado de 08:00 a 20:00 en tramos de una hora.
+ * Cada tramo se reserva con probabilidad {@code --ocupacion}, multiplicada por
+ * {@code --factor-caliente} para la fracción {@code --calientes} de profesionales y por
+ * {@code --factor-pico} en {@code --dias-pico}. Los horarios resultantes tienen la misma
+ * forma que deja la aplicación tras dividir y fusionar bloques: un bloque ocupado por
+ * reserva activa y bloques libres fusionados entre ellos. Una fracción
+ * {@code --cancelacion} de las reservas queda {@code CANCELADA} (con su tramo libre y sin
+ * {@code horario_id}); el resto es {@code COMPLETADA} en el pasado y {@code CREADA} en el futuro.
+ * <p>
+ * Los datos se envían con {@code COPY FROM STDIN}. Durante la carga se eliminan los índices
+ * secundarios y las claves foráneas de {@code horarios_disponibles} y {@code reservas}, y se
+ * recrean al terminar (también si la carga falla).
+ *
+ * <pre>
+ * ./mvnw -Pdatos test-compile exec:exec@datos -Ddatos.args="--profesionales=5000 --dias-pasados=365"
+ * </pre>
+ */
+public class GeneradorDatos {
+
+    private static final LocalTime APERTURA = LocalTime.of(8, 0);
+    private static final int TRAMOS_POR_DIA = 12;
+
+    private static final String[] NOMBRES = {
+            "Ana", "Luis", "Sofía", "Carlos", "María", "Jorge", "Lucía", "Andrés", "Valentina", "Diego",
+            "Camila", "Mateo", "Isabella", "Santiago", "Daniela", "Sebastián", "Gabriela", "Nicolás"};
+    private static final String[] APELLIDOS = {
+            "Torres", "Salazar", "Ramírez", "Paredes", "Gómez", "Rodríguez", "Martínez", "López",
+            "García", "Herrera", "Vargas", "Castro", "Morales", "Ortiz", "Rojas", "Mendoza"};
+    private static final String[] ESPECIALIDADES = {
+            "Psicología Clínica", "Nutrición", "Fisioterapia", "Odontología", "Medicina General",
+            "Dermatología", "Pediatría", "Terapia Ocupacional"};
+
+    private final Configuracion config;
+    private final SplittableRandom random;
+    private final IdsV7 ids;
+
+    GeneradorDatos(Configuracion config) {
+        this.config = config;
+        this.random = new SplittableRandom(config.semilla());
+        this.ids = new IdsV7(random.split());
+    }
+
+    public static void main(String[] args) throws SQLException {
+        var config = Configuracion.desdeArgumentos(args);
+        new GeneradorDatos(config).generar();
+    }
+
+    void generar() throws SQLException {
+        var inicio = System.nanoTime();
+        try (var ddl = conectar();
+             var copiaHorarios = conectar();
+             var copiaReservas = conectar()) {
+            ddl.setAutoCommit(true);
+            var desde = LocalDate.now().minusDays(config.diasPasados());
+            var hasta = LocalDate.now().plusDays(config.diasFuturos());
+            crearParticiones(ddl, desde, hasta);
+
+            var profesionales = new ArrayList<UUID>(config.profesionales());
+            var clientes = new ArrayList<UUID>(config.clientes());
+            try (var conexion = conectar()) {
+                cargarProfesionales(conexion, profesionales);
+            }
+            try (var conexion = conectar()) {
+                cargarClientes(conexion, clientes);
+            }
+            paso("Profesionales y clientes", profesionales.size() + clientes.size(), inicio);
+
+            var esquema = new EsquemaCarga(ddl, "horarios_disponibles", "reservas");
+            esquema.desmontar();
+            try {
+                var carga = System.nanoTime();
+                var filas = cargarAgenda(copiaHorarios, copiaReservas, profesionales, clientes, desde, hasta);
+                paso("Horarios y reservas", filas, carga);
+            } finally {
+                var indices = System.nanoTime();
+                esquema.restaurar();
+                paso("Índices y claves foráneas", 0, indices);
+            }
+            try (var st = ddl.createStatement()) {
+                st.execute("ANALYZE profesionales, clientes, horarios_disponibles, reservas");
+            }
+        }
+        paso("Total", 0, inicio);
+    }
+
+    private Connection conectar() throws SQLException {
+        var conexion = DriverManager.getConnection(config.jdbcUrl(), config.usuario(), config.clave());
+        conexion.setAutoCommit(false);
+        return conexion;
+    }
+
+    private void crearParticiones(Connection ddl, LocalDate desde, LocalDate hasta) throws SQLException {
+        try (var st = ddl.prepareStatement("SELECT crear_particiones_mes(?)")) {
+            for (var mes = desde.withDayOfMonth(1); !mes.isAfter(hasta); mes = mes.plusMonths(1)) {
+                st.setObject(1, mes);
+                st.execute();
+            }
+        }
+    }
+
+    private void cargarProfesionales(Connection conexion, List<UUID> profesionales) throws SQLException {
+        try (var copia = new CopiaTabla(conexion, "profesionales",
+                "id, nombres, apellidos, especialidad, estado_activo")) {
+            for (int i = 0; i < config.profesionales(); i++) {
+                var id = ids.siguiente();
+                profesionales.add(id);
+                copia.fila(id, elegir(NOMBRES), elegir(APELLIDOS), elegir(ESPECIALIDADES), true);
+            }
+            copia.terminar();
+        }
+    }
+
+    private void cargarClientes(Connection conexion, List<UUID> clientes) throws SQLException {
+        try (var copia = new CopiaTabla(conexion, "clientes",
+                "id, nombres, apellidos, email, telefono, estado_activo")) {
+            for (int i = 0; i < config.clientes(); i++) {
+                var id = ids.siguiente();
+                clientes.add(id);
+                var nombre = elegir(NOMBRES);
+                var apellido = elegir(APELLIDOS);
+                // El sufijo numérico garantiza la unicidad de uk_clientes_email
+                var email = ascii(nombre + "." + apellido).toLowerCase() + "." + i + "@datos.local";
+                copia.fila(id, nombre, apellido, email,
+                        String.format("+57 3%02d %07d", random.nextInt(100), random.nextInt(10_000_000)), true);
+            }
+            copia.terminar();
+        }
+    }
+
+    /**
+     * Recorre profesional por profesional y día por día, escribiendo horarios y reservas
+     * en sus dos COPY a la vez.
+     *
+     * @return filas insertadas entre ambas tablas
+     */
+    private long cargarAgenda(Connection conexionHorarios, Connection conexionReservas,
+                              List<UUID> profesionales, List<UUID> clientes,
+                              LocalDate desde, LocalDate hasta) throws SQLException {
+        var hoy = LocalDate.now();
+        try (var horarios = new CopiaTabla(conexionHorarios, "horarios_disponibles",
+                "id, profesional_id, fecha, hora_inicio, hora_fin, estado");
+             var reservas = new CopiaTabla(conexionReservas, "reservas",
+                     "id, fecha, hora_inicio, hora_fin, cliente_id, profesional_id, estado, horario_id")) {
+            for (var profesional : profesionales) {
+                var factor = random.nextDouble() < config.calientes() ? config.factorCaliente() : 1.0;
+                for (var fecha = desde; fecha.isBefore(hasta); fecha = fecha.plusDays(1)) {
+                    if (fecha.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                        continue;
+                    }
+                    var pico = config.diasPico().contains(fecha.getDayOfWeek()) ? config.factorPico() : 1.0;
+                    var ocupacion = Math.min(1.0, config.ocupacion() * factor * pico);
+                    var finalizada = fecha.isBefore(hoy) ? "COMPLETADA" : "CREADA";
+
+                    int inicioLibre = -1;
+                    for (int tramo = 0; tramo <= TRAMOS_POR_DIA; tramo++) {
+                        boolean ocupado = false;
+                        if (tramo < TRAMOS_POR_DIA && random.nextDouble() < ocupacion) {
+                            var hora = APERTURA.plusHours(tramo);
+                            var cliente = clientes.get(random.nextInt(clientes.size()));
+                            if (random.nextDouble() < config.cancelacion()) {
+                                // Cancelada: el tramo vuelve a estar libre y el bloque se fusionó
+                                reservas.fila(ids.siguiente(), fecha, hora, hora.plusHours(1),
+                                        cliente, profesional, "CANCELADA", null);
+                            } else {
+                                ocupado = true;
+                                var horarioId = ids.siguiente();
+                                horarios.fila(horarioId, profesional, fecha, hora, hora.plusHours(1), false);
+                                reservas.fila(ids.siguiente(), fecha, hora, hora.plusHours(1),
+                                        cliente, profesional, finalizada, horarioId);
+                            }
+                        }
+                        if (tramo == TRAMOS_POR_DIA || ocupado) {
+                            if (inicioLibre >= 0) {
+                                horarios.fila(ids.siguiente(), profesional, fecha,
+                                        APERTURA.plusHours(inicioLibre), APERTURA.plusHours(tramo), true);
+                            }
+                            inicioLibre = -1;
+                        } else if (inicioLibre < 0) {
+                            inicioLibre = tramo;
+                        }
+                    }
+                }
+            }
+            horarios.terminar();
+            reservas.terminar();
+            return horarios.filas() + reservas.filas();
+        }
+    }
+
+    private String elegir(String[] valores) {
+        return valores[random.nextInt(valores.length)];
+    }
+
+    private static String ascii(String texto) {
+        return Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+    }
+
+    private static void paso(String descripcion, long filas, long desdeNanos) {
+        var segundos = (System.nanoTime() - desdeNanos) / 1e9;
+        if (filas > 0) {
+            System.out.printf("%-28s %,14d filas %8.1f s %,12.0f filas/s%n", descripcion, filas, segundos, filas / segundos);
+        } else {
+            System.out.printf("%-28s %35.1f s%n", descripcion, segundos);
+        }
+    }
+}
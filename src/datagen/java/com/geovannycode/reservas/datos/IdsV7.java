@@ -0,0 +1,35 @@
+package com.geovannycode.reservas.datos;
+
+import java.util.UUID;
+import java.util.random.RandomGenerator;
+
+/**
+ * Generador de UUIDv7 monótonos, como los de las entidades: 48 bits de milisegundos,
+ * 12 bits de contador dentro del mismo milisegundo y 62 bits aleatorios.
+ * Al agotarse el contador se adelanta el milisegundo, de modo que los ids salen
+ * siempre ordenados y el índice de la PK se llena por la derecha.
+ */
+class IdsV7 {
+
+    private final RandomGenerator random;
+    private long milisegundo;
+    private int contador;
+
+    IdsV7(RandomGenerator random) {
+        this.random = random;
+    }
+
+    UUID siguiente() {
+        var ahora = System.currentTimeMillis();
+        if (ahora > milisegundo) {
+            milisegundo = ahora;
+            contador = 0;
+        } else if (++contador > 0xFFF) {
+            milisegundo++;
+            contador = 0;
+        }
+        var altos = (milisegundo << 16) | 0x7000L | contador;
+        var bajos = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(altos, bajos);
+    }
+}
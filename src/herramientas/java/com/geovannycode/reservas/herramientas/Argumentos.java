@@ -0,0 +1,60 @@
+package com.geovannycode.reservas.herramientas;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Argumentos {@code --clave=valor} de las herramientas de línea de comandos (perfiles
+ * {@code carga} y {@code datos}). Cada clave puede faltar; en ese caso se usa el valor
+ * por defecto que indica quien la lee.
+ */
+public final class Argumentos {
+
+    private final Map<String, String> valores;
+
+    private Argumentos(Map<String, String> valores) {
+        this.valores = valores;
+    }
+
+    /**
+     * @throws IllegalArgumentException si algún argumento no tiene la forma {@code --clave=valor}
+     */
+    public static Argumentos leer(String[] args) {
+        Map<String, String> valores = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento no válido (se espera --clave=valor): " + arg);
+            }
+            var separador = arg.indexOf('=');
+            valores.put(arg.substring(2, separador), arg.substring(separador + 1));
+        }
+        return new Argumentos(valores);
+    }
+
+    public String texto(String clave, String porDefecto) {
+        return valores.getOrDefault(clave, porDefecto);
+    }
+
+    public int entero(String clave, int porDefecto) {
+        return valores.containsKey(clave) ? Integer.parseInt(valores.get(clave)) : porDefecto;
+    }
+
+    public long largo(String clave, long porDefecto) {
+        return valores.containsKey(clave) ? Long.parseLong(valores.get(clave)) : porDefecto;
+    }
+
+    public double decimal(String clave, double porDefecto) {
+        return valores.containsKey(clave) ? Double.parseDouble(valores.get(clave)) : porDefecto;
+    }
+
+    /**
+     * Valor separado por comas, sin espacios alrededor de cada elemento.
+     */
+    public List<String> lista(String clave, String porDefecto) {
+        return Arrays.stream(texto(clave, porDefecto).split(","))
+                .map(String::trim)
+                .toList();
+    }
+}
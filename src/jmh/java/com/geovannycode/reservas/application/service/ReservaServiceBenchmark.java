@@ -0,0 +1,55 @@
+package com.geovannycode.reservas.application.service;
+
+import com.geovannycode.reservas.application.dto.response.ProfesionalConReservasResponse;
+import com.geovannycode.reservas.application.dto.response.ReservaResponse;
+import com.geovannycode.reservas.benchmark.DatosSinteticos;
+import com.geovannycode.reservas.infrastructure.mapper.ClienteMapper;
+import com.geovannycode.reservas.infrastructure.mapper.ProfesionalMapper;
+import com.geovannycode.reservas.infrastructure.mapper.ReservaMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pipelines {@code groupingBy} de {@link ReservaService} sin la consulta: el ranking de
+ * profesionales por reservas activas y la agrupación de reservas por fecha.
+ * <p>
+ * Los repositorios no intervienen, así que el servicio se construye sin ellos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReservaServiceBenchmark {
+
+    private final ReservaService reservaService;
+
+    public ReservaServiceBenchmark() {
+        var profesionalMapper = new ProfesionalMapper();
+        var reservaMapper = new ReservaMapper(new ClienteMapper(), profesionalMapper);
+        this.reservaService = new ReservaService(null, null, null, null, reservaMapper, profesionalMapper, null, null);
+    }
+
+    @Benchmark
+    public List<ProfesionalConReservasResponse> rankingPorReservas(DatosSinteticos datos) {
+        return reservaService.rankingPorReservas(datos.reservas);
+    }
+
+    @Benchmark
+    public Map<LocalDate, List<ReservaResponse>> agruparPorFecha(DatosSinteticos datos) {
+        return reservaService.agruparPorFecha(datos.reservas);
+    }
+}
@@ -0,0 +1,99 @@
+package com.geovannycode.reservas.benchmark;
+
+import com.geovannycode.reservas.domain.enums.EstadoReserva;
+import com.geovannycode.reservas.domain.model.Cliente;
+import com.geovannycode.reservas.domain.model.HorarioDisponible;
+import com.geovannycode.reservas.domain.model.Profesional;
+import com.geovannycode.reservas.domain.model.Reserva;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Conjunto de datos en memoria compartido por los benchmarks: {@code tamano} reservas
+ * activas y otros tantos horarios, repartidos entre un profesional por cada 200 reservas
+ * (mínimo 5), un cliente por cada 20 y 90 días a partir de hoy, en bloques de una hora
+ * entre las 08:00 y las 22:00.
+ * <p>
+ * La semilla es fija para que dos ejecuciones con el mismo tamaño midan los mismos datos.
+ */
+@State(Scope.Benchmark)
+public class DatosSinteticos {
+
+    private static final long SEMILLA = 42L;
+    private static final int DIAS = 90;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int tamano;
+
+    public List<Reserva> reservas;
+    public List<HorarioDisponible> horarios;
+
+    @Setup(Level.Trial)
+    public void generar() {
+        var random = new SplittableRandom(SEMILLA);
+        var hoy = LocalDate.now();
+        var profesionales = IntStream.range(0, Math.max(5, tamano / 200))
+                .mapToObj(DatosSinteticos::profesional)
+                .toList();
+        var clientes = IntStream.range(0, Math.max(5, tamano / 20))
+                .mapToObj(DatosSinteticos::cliente)
+                .toList();
+
+        reservas = new ArrayList<>(tamano);
+        horarios = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            var profesional = profesionales.get(random.nextInt(profesionales.size()));
+            var fecha = hoy.plusDays(random.nextInt(DIAS));
+            var inicio = LocalTime.of(8 + random.nextInt(14), 0);
+            reservas.add(Reserva.builder()
+                    .id(UUID.randomUUID())
+                    .fecha(fecha)
+                    .horaInicio(inicio)
+                    .horaFin(inicio.plusHours(1))
+                    .cliente(clientes.get(random.nextInt(clientes.size())))
+                    .profesional(profesional)
+                    .estado(EstadoReserva.CREADA)
+                    .build());
+            horarios.add(HorarioDisponible.builder()
+                    .id(UUID.randomUUID())
+                    .profesional(profesional)
+                    .fecha(fecha)
+                    .horaInicio(inicio)
+                    .horaFin(inicio.plusHours(1 + random.nextInt(3)))
+                    .estado(random.nextBoolean())
+                    .build());
+        }
+    }
+
+    private static Profesional profesional(int n) {
+        return Profesional.builder()
+                .id(UUID.randomUUID())
+                .nombres("Profesional " + n)
+                .apellidos("Benchmark")
+                .especialidad("Carga")
+                .estadoActivo(true)
+                .build();
+    }
+
+    private static Cliente cliente(int n) {
+        return Cliente.builder()
+                .id(UUID.randomUUID())
+                .nombres("Cliente " + n)
+                .apellidos("Benchmark")
+                .email("cliente" + n + "@benchmark.local")
+                .telefono("+5930000" + n)
+                .estadoActivo(true)
+                .build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.geovannycode.reservas.infrastructure.mapper;
+
+import com.geovannycode.reservas.application.dto.response.ReservaResponse;
+import com.geovannycode.reservas.benchmark.DatosSinteticos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversión entidad → DTO de {@link ReservaMapper#toResponse} sobre la lista completa,
+ * que es lo que hacen {@code listarTodas()} y la vista por fecha en cada petición.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReservaMapperBenchmark {
+
+    private final ReservaMapper reservaMapper = new ReservaMapper(new ClienteMapper(), new ProfesionalMapper());
+
+    @Benchmark
+    public List<ReservaResponse> toResponse(DatosSinteticos datos) {
+        return datos.reservas.stream()
+                .map(reservaMapper::toResponse)
+                .toList();
+    }
+}
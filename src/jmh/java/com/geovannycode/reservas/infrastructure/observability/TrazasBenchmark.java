@@ -0,0 +1,129 @@
+package com.geovannycode.reservas.infrastructure.observability;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.smallrye.mutiny.Uni;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Coste de las trazas en la creación de una reserva sin base de datos: el span de servidor y
+ * las seis etapas de {@code ReservaService.crear} encadenadas como allí, cada una un
+ * {@link Uni} ya resuelto.
+ * <p>
+ * {@code modo}: {@code sin-trazas} no abre spans; {@code desactivado} usa el tracer no-op que
+ * queda con {@code quarkus.otel.sdk.disabled=true}; {@code muestreo-10} y {@code todo} usan el
+ * SDK con el muestreo de producción (10 % de las trazas) y con todas, exportando por lotes a un
+ * exportador que descarta los spans. No incluye los spans SQL ni el envío OTLP.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TrazasBenchmark {
+
+    private static final List<String> ETAPAS = List.of(
+            "reserva.profesional", "reserva.cliente", "reserva.horario",
+            "reserva.solapamiento", "reserva.persistir", "reserva.commit");
+
+    @Param({"sin-trazas", "desactivado", "muestreo-10", "todo"})
+    public String modo;
+
+    private SdkTracerProvider proveedor;
+    private Tracer tracer;
+    private Trazas trazas;
+
+    @Setup
+    public void preparar() {
+        var muestreo = switch (modo) {
+            case "muestreo-10" -> Sampler.parentBased(Sampler.traceIdRatioBased(0.1));
+            case "todo" -> Sampler.alwaysOn();
+            default -> null;
+        };
+        if (muestreo != null) {
+            proveedor = SdkTracerProvider.builder()
+                    .setSampler(muestreo)
+                    .addSpanProcessor(BatchSpanProcessor.builder(new ExportadorDescartado()).build())
+                    .build();
+            tracer = proveedor.get("reservas");
+        } else {
+            tracer = OpenTelemetry.noop().getTracer("reservas");
+        }
+        trazas = "sin-trazas".equals(modo) ? null : new Trazas(tracer);
+    }
+
+    @TearDown
+    public void cerrar() {
+        if (proveedor != null) {
+            proveedor.close();
+        }
+    }
+
+    @Benchmark
+    public Integer crearReserva() {
+        if (trazas == null) {
+            return pipeline().await().indefinitely();
+        }
+        var servidor = tracer.spanBuilder("POST /api/reservas").startSpan();
+        try (var ignorado = servidor.makeCurrent()) {
+            return pipeline().await().indefinitely();
+        } finally {
+            servidor.end();
+        }
+    }
+
+    private Uni<Integer> pipeline() {
+        var resultado = etapa(ETAPAS.get(0), () -> Uni.createFrom().item(1));
+        for (var i = 1; i < ETAPAS.size(); i++) {
+            var nombre = ETAPAS.get(i);
+            resultado = resultado.flatMap(previo -> etapa(nombre, () -> Uni.createFrom().item(previo + 1)));
+        }
+        return resultado;
+    }
+
+    private Uni<Integer> etapa(String nombre, Supplier<Uni<Integer>> etapa) {
+        return trazas == null ? etapa.get() : trazas.span(nombre, Attributes.empty(), etapa);
+    }
+
+    private static final class ExportadorDescartado implements SpanExporter {
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.geovannycode.reservas.infrastructure.repository;
+
+import com.geovannycode.reservas.benchmark.DatosSinteticos;
+import com.geovannycode.reservas.domain.model.HorarioDisponible;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Predicados de intervalo que los repositorios evalúan en SQL, aplicados en memoria
+ * sobre la lista completa de horarios (equivalente a un recorrido secuencial sin índice):
+ * <ul>
+ *   <li>solapamiento ({@code rango && tsrange} / {@code horaInicio < fin AND horaFin > inicio}),</li>
+ *   <li>cobertura ({@code rango @> tsrange}),</li>
+ *   <li>adyacencia ({@code rango -|- tsrange}).</li>
+ * </ul>
+ * Sirve de línea base para comparar con las consultas indexadas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SolapamientoBenchmark {
+
+    private static final LocalTime INICIO = LocalTime.of(10, 0);
+    private static final LocalTime FIN = LocalTime.of(11, 0);
+
+    @Benchmark
+    public long solapados(DatosSinteticos datos) {
+        return contar(datos, h -> h.getHoraInicio().isBefore(FIN) && h.getHoraFin().isAfter(INICIO));
+    }
+
+    @Benchmark
+    public long cubren(DatosSinteticos datos) {
+        return contar(datos, h -> h.isEstado()
+                && !h.getHoraInicio().isAfter(INICIO) && !h.getHoraFin().isBefore(FIN));
+    }
+
+    @Benchmark
+    public long adyacentes(DatosSinteticos datos) {
+        return contar(datos, h -> h.isEstado()
+                && (h.getHoraFin().equals(INICIO) || h.getHoraInicio().equals(FIN)));
+    }
+
+    private long contar(DatosSinteticos datos, Predicate<HorarioDisponible> predicado) {
+        return datos.horarios.stream().filter(predicado).count();
+    }
+}
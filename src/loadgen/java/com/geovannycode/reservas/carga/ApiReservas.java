@@ -0,0 +1,96 @@
+package com.geovannycode.reservas.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cliente HTTP mínimo de la API REST, sobre {@link HttpClient} del JDK.
+ * Devuelve el código de estado y el cuerpo sin interpretar errores: el generador
+ * necesita contar los 400/409 igual que los 201.
+ */
+class ApiReservas {
+
+    record Respuesta(int estado, String cuerpo) {
+    }
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final URI base;
+    private final ObjectMapper json = new ObjectMapper();
+
+    ApiReservas(URI base, HttpClient http) {
+        this.base = base;
+        this.http = http;
+    }
+
+    Respuesta crearProfesional(int n) throws IOException, InterruptedException {
+        return post("/api/profesionales", Map.of(
+                "nombres", "Profesional " + n,
+                "apellidos", "Carga",
+                "especialidad", "Psicología",
+                "estadoActivo", true));
+    }
+
+    Respuesta crearCliente(String prefijo, int n) throws IOException, InterruptedException {
+        return post("/api/clientes", Map.of(
+                "nombres", "Cliente " + n,
+                "apellidos", "Carga",
+                "email", prefijo + "-" + n + "@carga.local",
+                "telefono", String.format("+57 300 %07d", n),
+                "estadoActivo", true));
+    }
+
+    Respuesta crearHorario(UUID profesionalId, LocalDate fecha, LocalTime inicio, LocalTime fin)
+            throws IOException, InterruptedException {
+        return post("/api/horarios", Map.of(
+                "profesionalId", profesionalId,
+                "fecha", fecha.toString(),
+                "horaInicio", inicio.toString(),
+                "horaFin", fin.toString()));
+    }
+
+    Respuesta crearReserva(UUID clienteId, UUID profesionalId, LocalDate fecha, LocalTime inicio, LocalTime fin)
+            throws IOException, InterruptedException {
+        return post("/api/reservas", Map.of(
+                "fecha", fecha.toString(),
+                "horaInicio", inicio.toString(),
+                "horaFin", fin.toString(),
+                "clienteId", clienteId,
+                "profesionalId", profesionalId));
+    }
+
+    Respuesta cancelarReserva(UUID reservaId) throws IOException, InterruptedException {
+        return enviar(HttpRequest.newBuilder(base.resolve("/api/reservas/" + reservaId + "/cancelar"))
+                .method("PATCH", HttpRequest.BodyPublishers.noBody()));
+    }
+
+    Respuesta ranking() throws IOException, InterruptedException {
+        return enviar(HttpRequest.newBuilder(base.resolve("/api/profesionales/ranking/por-reservas-activas")).GET());
+    }
+
+    UUID id(Respuesta respuesta) throws IOException {
+        return UUID.fromString(json.readTree(respuesta.cuerpo()).get("id").asText());
+    }
+
+    private Respuesta post(String ruta, Map<String, ?> cuerpo) throws IOException, InterruptedException {
+        return enviar(HttpRequest.newBuilder(base.resolve(ruta))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(cuerpo))));
+    }
+
+    private Respuesta enviar(HttpRequest.Builder peticion) throws IOException, InterruptedException {
+        var respuesta = http.send(peticion.timeout(TIMEOUT).build(), HttpResponse.BodyHandlers.ofString());
+        return new Respuesta(respuesta.statusCode(), respuesta.body());
+    }
+}
@@ -0,0 +1,47 @@
+package com.geovannycode.reservas.carga;
+
+import com.geovannycode.reservas.herramientas.Argumentos;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Parámetros del generador de carga, leídos de argumentos {@code --clave=valor}.
+ *
+ * @param url          URL base de la instancia bajo prueba
+ * @param escenario    mezcla de operaciones a ejecutar
+ * @param tasas        peticiones por segundo de cada escalón, en orden
+ * @param duracion     segundos que dura cada escalón
+ * @param maxEnVuelo   peticiones simultáneas como máximo
+ * @param profesionales profesionales a sembrar
+ * @param clientes     clientes a sembrar
+ * @param dias         días de horarios a sembrar a partir de mañana
+ * @param salida       directorio de los histogramas {@code .hgrm}
+ */
+record Configuracion(URI url,
+                     Escenario escenario,
+                     List<Integer> tasas,
+                     int duracion,
+                     int maxEnVuelo,
+                     int profesionales,
+                     int clientes,
+                     int dias,
+                     Path salida) {
+
+    static Configuracion desdeArgumentos(String[] args) {
+        var argumentos = Argumentos.leer(args);
+        return new Configuracion(
+                URI.create(argumentos.texto("url", "http://localhost:8080")),
+                Escenario.desdeNombre(argumentos.texto("escenario", "uniforme")),
+                argumentos.lista("tasas", "25,50,100,200").stream()
+                        .map(Integer::valueOf)
+                        .toList(),
+                argumentos.entero("duracion", 30),
+                argumentos.entero("max-en-vuelo", 512),
+                argumentos.entero("profesionales", 50),
+                argumentos.entero("clientes", 500),
+                argumentos.entero("dias", 14),
+                Path.of(argumentos.texto("salida", "target/carga")));
+    }
+}
@@ -0,0 +1,60 @@
+package com.geovannycode.reservas.carga;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Mezclas de operaciones soportadas. Cada petición elige su operación con
+ * {@link #siguiente(RandomGenerator)}; lo que no es reservar ni cancelar es consultar el ranking.
+ */
+enum Escenario {
+
+    /** Solo reservas, repartidas uniformemente entre profesionales, días y horas. */
+    UNIFORME("uniforme", 1.0, 0.0),
+
+    /** Solo reservas; el 80 % se concentra en el 5 % de los profesionales (contención). */
+    PROFESIONAL_CALIENTE("profesional-caliente", 1.0, 0.0),
+
+    /** Mitad reservas, mitad cancelaciones de reservas creadas en la misma ejecución. */
+    CANCELACIONES("cancelaciones", 0.5, 0.5),
+
+    /** 90 % consultas del ranking por reservas activas, 10 % reservas. */
+    RANKING("ranking", 0.1, 0.0);
+
+    enum Operacion { RESERVAR, CANCELAR, RANKING }
+
+    private final String nombre;
+    private final double reservar;
+    private final double cancelar;
+
+    Escenario(String nombre, double reservar, double cancelar) {
+        this.nombre = nombre;
+        this.reservar = reservar;
+        this.cancelar = cancelar;
+    }
+
+    static Escenario desdeNombre(String nombre) {
+        return Arrays.stream(values())
+                .filter(e -> e.nombre.equals(nombre))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Escenario desconocido: " + nombre
+                        + " (uniforme, profesional-caliente, cancelaciones, ranking)"));
+    }
+
+    Operacion siguiente(RandomGenerator random) {
+        var r = random.nextDouble();
+        if (r < reservar) {
+            return Operacion.RESERVAR;
+        }
+        return r < reservar + cancelar ? Operacion.CANCELAR : Operacion.RANKING;
+    }
+
+    boolean concentraProfesionales() {
+        return this == PROFESIONAL_CALIENTE;
+    }
+
+    @Override
+    public String toString() {
+        return nombre;
+    }
+}
@@ -0,0 +1,156 @@
+package com.geovannycode.reservas.carga;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generador de carga de extremo a extremo contra una instancia local.
+ * <p>
+ * Siembra datos por la API ({@link Siembra}) y después recorre los escalones de
+ * {@code --tasas}: en cada uno lanza peticiones en lazo abierto a tasa fija durante
+ * {@code --duracion} segundos, según el {@link Escenario} elegido. La latencia se mide
+ * desde el instante en que la petición debía salir, no desde que salió, para que una
+ * instancia saturada no oculte su cola (omisión coordinada).
+ * <p>
+ * Al terminar cada escalón imprime percentiles por endpoint y resultado (201/400/409...)
+ * y guarda los histogramas HDR en {@code --salida}.
+ *
+ * <pre>
+ * ./mvnw -Pcarga test-compile exec:exec@carga -Dcarga.args="--escenario=profesional-caliente --tasas=50,100,200"
+ * </pre>
+ */
+public class GeneradorCarga {
+
+    private static final String RESERVAS = "POST /api/reservas";
+    private static final String CANCELAR = "PATCH /api/reservas/{id}/cancelar";
+    private static final String RANKING = "GET /api/profesionales/ranking";
+
+    private final Configuracion config;
+    private final ApiReservas api;
+    private final Siembra.Datos datos;
+    private final ConcurrentLinkedQueue<UUID> reservasCreadas = new ConcurrentLinkedQueue<>();
+
+    GeneradorCarga(Configuracion config, ApiReservas api, Siembra.Datos datos) {
+        this.config = config;
+        this.api = api;
+        this.datos = datos;
+    }
+
+    public static void main(String[] args) throws Exception {
+        var config = Configuracion.desdeArgumentos(args);
+        try (var http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build()) {
+            var api = new ApiReservas(config.url(), http);
+            System.out.printf("Sembrando %d profesionales, %d clientes y %d días de horarios en %s%n",
+                    config.profesionales(), config.clientes(), config.dias(), config.url());
+            var datos = new Siembra(api).sembrar(config);
+
+            var generador = new GeneradorCarga(config, api, datos);
+            for (int tasa : config.tasas()) {
+                generador.ejecutarEscalon(tasa);
+            }
+        }
+    }
+
+    void ejecutarEscalon(int tasa) throws InterruptedException, IOException {
+        var registro = new Registro();
+        var enVuelo = new Semaphore(config.maxEnVuelo());
+        var intervalo = TimeUnit.SECONDS.toNanos(1) / tasa;
+        var total = (long) tasa * config.duracion();
+
+        System.out.printf("%nEscenario %s, %d req/s durante %d s%n", config.escenario(), tasa, config.duracion());
+        var inicio = System.nanoTime();
+        try (var ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                var previsto = inicio + i * intervalo;
+                var espera = previsto - System.nanoTime();
+                if (espera > 0) {
+                    LockSupport.parkNanos(espera);
+                }
+                enVuelo.acquire();
+                ejecutor.execute(() -> {
+                    try {
+                        ejecutarOperacion(registro, previsto);
+                    } finally {
+                        enVuelo.release();
+                    }
+                });
+            }
+        }
+        var segundos = (System.nanoTime() - inicio) / 1e9;
+        registro.imprimir(System.out, segundos);
+        registro.guardar(config.salida(), config.escenario() + "-" + tasa);
+    }
+
+    private void ejecutarOperacion(Registro registro, long previsto) {
+        var random = ThreadLocalRandom.current();
+        var operacion = config.escenario().siguiente(random);
+        if (operacion == Escenario.Operacion.CANCELAR) {
+            var reservaId = reservasCreadas.poll();
+            if (reservaId != null) {
+                medir(registro, CANCELAR, previsto, () -> api.cancelarReserva(reservaId));
+                return;
+            }
+            operacion = Escenario.Operacion.RESERVAR;
+        }
+        if (operacion == Escenario.Operacion.RANKING) {
+            medir(registro, RANKING, previsto, api::ranking);
+            return;
+        }
+        var respuesta = medir(registro, RESERVAS, previsto, () -> {
+            var inicio = Siembra.APERTURA.plusHours(random.nextInt(Siembra.CIERRE.getHour() - Siembra.APERTURA.getHour()));
+            return api.crearReserva(
+                    datos.clientes().get(random.nextInt(datos.clientes().size())),
+                    elegirProfesional(random),
+                    datos.fechas().get(random.nextInt(datos.fechas().size())),
+                    inicio,
+                    inicio.plusHours(1));
+        });
+        if (respuesta != null && respuesta.estado() == 201 && config.escenario() == Escenario.CANCELACIONES) {
+            try {
+                reservasCreadas.add(api.id(respuesta));
+            } catch (IOException e) {
+                // Cuerpo inesperado: la reserva cuenta como creada, solo no se podrá cancelar
+            }
+        }
+    }
+
+    /**
+     * En el escenario de profesional caliente, el 80 % de las reservas va al 5 % de los profesionales.
+     */
+    private UUID elegirProfesional(ThreadLocalRandom random) {
+        var profesionales = datos.profesionales();
+        if (config.escenario().concentraProfesionales() && random.nextDouble() < 0.8) {
+            return profesionales.get(random.nextInt(Math.max(1, profesionales.size() / 20)));
+        }
+        return profesionales.get(random.nextInt(profesionales.size()));
+    }
+
+    private interface Peticion {
+        ApiReservas.Respuesta enviar() throws IOException, InterruptedException;
+    }
+
+    private ApiReservas.Respuesta medir(Registro registro, String endpoint, long previsto, Peticion peticion) {
+        try {
+            var respuesta = peticion.enviar();
+            registro.registrar(endpoint, String.valueOf(respuesta.estado()), System.nanoTime() - previsto);
+            return respuesta;
+        } catch (IOException e) {
+            registro.registrar(endpoint, "error", System.nanoTime() - previsto);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
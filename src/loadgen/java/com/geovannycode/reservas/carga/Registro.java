@@ -0,0 +1,60 @@
+package com.geovannycode.reservas.carga;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Histogramas HDR de latencia por endpoint y resultado (código HTTP o {@code error}),
+ * en microsegundos. Uno por escalón de tasa.
+ */
+class Registro {
+
+    private static final long MAXIMO_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Map<String, Histogram> histogramas = new ConcurrentHashMap<>();
+
+    void registrar(String endpoint, String resultado, long latenciaNanos) {
+        histogramas.computeIfAbsent(endpoint + " " + resultado, k -> new ConcurrentHistogram(MAXIMO_MICROS, 3))
+                .recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latenciaNanos), MAXIMO_MICROS));
+    }
+
+    /**
+     * Imprime una fila por endpoint y resultado con los percentiles en milisegundos.
+     */
+    void imprimir(PrintStream salida, double segundos) {
+        salida.printf("%-48s %8s %8s %9s %9s %9s %9s %9s%n",
+                "endpoint resultado", "total", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        new TreeMap<>(histogramas).forEach((clave, h) -> salida.printf(
+                "%-48s %8d %8.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                clave, h.getTotalCount(), h.getTotalCount() / segundos,
+                ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(90)),
+                ms(h.getValueAtPercentile(99)), ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue())));
+    }
+
+    /**
+     * Escribe un fichero {@code .hgrm} por histograma, en milisegundos, apto para
+     * HdrHistogram Plotter.
+     */
+    void guardar(Path directorio, String prefijo) throws IOException {
+        Files.createDirectories(directorio);
+        for (var entrada : histogramas.entrySet()) {
+            var nombre = prefijo + "-" + entrada.getKey().replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm";
+            try (var salida = new PrintStream(Files.newOutputStream(directorio.resolve(nombre)))) {
+                entrada.getValue().outputPercentileDistribution(salida, 1000.0);
+            }
+        }
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,78 @@
+package com.geovannycode.reservas.carga;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Crea por la API REST los datos sobre los que corre la carga: profesionales, clientes
+ * y un bloque de 08:00 a 20:00 por profesional y día, a partir de mañana (así el cierre
+ * automático de reservas vencidas no interfiere).
+ * <p>
+ * Los emails llevan un prefijo por ejecución para poder sembrar varias veces la misma base.
+ */
+class Siembra {
+
+    static final LocalTime APERTURA = LocalTime.of(8, 0);
+    static final LocalTime CIERRE = LocalTime.of(20, 0);
+
+    private static final int PARALELISMO = 16;
+
+    record Datos(List<UUID> profesionales, List<UUID> clientes, List<LocalDate> fechas) {
+    }
+
+    private final ApiReservas api;
+
+    Siembra(ApiReservas api) {
+        this.api = api;
+    }
+
+    Datos sembrar(Configuracion config) throws InterruptedException {
+        var prefijo = "carga-" + System.currentTimeMillis();
+        var manana = LocalDate.now().plusDays(1);
+        var fechas = manana.datesUntil(manana.plusDays(config.dias())).toList();
+
+        var profesionales = crearTodos(config.profesionales(), n -> api.id(esperar(api.crearProfesional(n), 201)));
+        var clientes = crearTodos(config.clientes(), n -> api.id(esperar(api.crearCliente(prefijo, n), 201)));
+        crearTodos(profesionales.size() * fechas.size(), n -> {
+            var profesional = profesionales.get(n / fechas.size());
+            var fecha = fechas.get(n % fechas.size());
+            return api.id(esperar(api.crearHorario(profesional, fecha, APERTURA, CIERRE), 201));
+        });
+        return new Datos(profesionales, clientes, fechas);
+    }
+
+    private interface Creacion {
+        UUID crear(int n) throws Exception;
+    }
+
+    private List<UUID> crearTodos(int total, Creacion creacion) throws InterruptedException {
+        try (var ejecutor = Executors.newFixedThreadPool(PARALELISMO, Thread.ofVirtual().factory())) {
+            var pendientes = new ArrayList<Future<UUID>>(total);
+            for (int i = 0; i < total; i++) {
+                int n = i;
+                pendientes.add(ejecutor.submit((Callable<UUID>) () -> creacion.crear(n)));
+            }
+            var ids = new ArrayList<UUID>(total);
+            for (var pendiente : pendientes) {
+                ids.add(pendiente.get());
+            }
+            return ids;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló la siembra de datos: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static ApiReservas.Respuesta esperar(ApiReservas.Respuesta respuesta, int estado) {
+        if (respuesta.estado() != estado) {
+            throw new IllegalStateException("Respuesta " + respuesta.estado() + ": " + respuesta.cuerpo());
+        }
+        return respuesta;
+    }
+}
@@ -0,0 +1,30 @@
+package com.geovannycode.reservas.application.dto.response;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DTO de salida con un bloqueo detectado en un bucle de eventos de Vert.x.
+ * Usa Java Record para concisión e inmutabilidad.
+ */
+@Schema(description = "Bloqueo de un bucle de eventos por encima del umbral")
+public record BloqueoBucleResponse(
+
+        @Schema(description = "Instante en que se detectó el bloqueo")
+        Instant detectado,
+
+        @Schema(description = "Hilo del bucle de eventos", example = "vert.x-eventloop-thread-1")
+        String hilo,
+
+        @Schema(description = "Retraso total del bucle en milisegundos", example = "412")
+        long duracionMs,
+
+        @Schema(description = "Último método de recurso iniciado en ese bucle", example = "ReservaResource.reservasPorFecha")
+        String ruta,
+
+        @Schema(description = "Pila del hilo capturada durante el bloqueo")
+        List<String> pila
+) {
+}
@@ -0,0 +1,44 @@
+package com.geovannycode.reservas.application.dto.response;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+/**
+ * DTO de salida con las estadísticas acumuladas de una huella de consulta SQL.
+ * Usa Java Record para concisión e inmutabilidad.
+ */
+@Schema(description = "Estadísticas de las consultas SQL que comparten huella")
+public record EstadisticaConsultaResponse(
+
+        @Schema(description = "Identificador de la huella (hash del SQL normalizado)", example = "9f3c2a71d04be815")
+        String huella,
+
+        @Schema(description = "SQL normalizado: literales y parámetros sustituidos por ?",
+                example = "select c1_0.id,c1_0.email from clientes c1_0 where lower(c1_0.email)=lower(?)")
+        String sql,
+
+        @Schema(description = "Último método de repositorio que la ejecutó", example = "ClienteRepository.findByEmail")
+        String origen,
+
+        @Schema(description = "Ejecuciones", example = "1523")
+        long llamadas,
+
+        @Schema(description = "Ejecuciones fallidas o canceladas", example = "0")
+        long errores,
+
+        @Schema(description = "Tiempo total en milisegundos", example = "2841.7")
+        double totalMs,
+
+        @Schema(description = "Tiempo medio en milisegundos", example = "1.87")
+        double mediaMs,
+
+        @Schema(description = "Percentil 99 en milisegundos (cota superior de su cubo, error menor del 12,5 %)",
+                example = "6.1")
+        double p99Ms,
+
+        @Schema(description = "Tiempo máximo en milisegundos", example = "14.2")
+        double maxMs,
+
+        @Schema(description = "Filas devueltas o afectadas en total", example = "1523")
+        long filas
+) {
+}
@@ -0,0 +1,28 @@
+package com.geovannycode.reservas.application.dto.response;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DTO de salida con las estadísticas de consultas SQL por huella desde el último reinicio.
+ * Usa Java Record para concisión e inmutabilidad.
+ */
+@Schema(description = "Estadísticas de consultas SQL agrupadas por huella")
+public record EstadisticasConsultasResponse(
+
+        @Schema(description = "Inicio de la medición (arranque o último reinicio)")
+        Instant desde,
+
+        @Schema(description = "Huellas distintas registradas", example = "42")
+        int huellas,
+
+        @Schema(description = "Máximo de huellas propias; las nuevas por encima se agrupan en una sola entrada",
+                example = "500")
+        int maxHuellas,
+
+        @Schema(description = "Huellas ordenadas según el criterio pedido")
+        List<EstadisticaConsultaResponse> consultas
+) {
+}
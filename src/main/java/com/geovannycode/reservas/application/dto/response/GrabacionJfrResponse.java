@@ -0,0 +1,29 @@
+package com.geovannycode.reservas.application.dto.response;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.time.Instant;
+
+/**
+ * DTO de salida con el estado de la grabación JFR bajo demanda.
+ * Usa Java Record para concisión e inmutabilidad.
+ */
+@Schema(description = "Estado de la grabación JFR bajo demanda")
+public record GrabacionJfrResponse(
+
+        @Schema(description = "Nombre de la grabación", example = "reservas-bajo-demanda")
+        String nombre,
+
+        @Schema(description = "Estado JFR: RUNNING, STOPPED, ...", example = "RUNNING")
+        String estado,
+
+        @Schema(description = "Instante de inicio")
+        Instant inicio,
+
+        @Schema(description = "Duración máxima en segundos; al cumplirse la grabación se detiene sola", example = "120")
+        long duracionSegundos,
+
+        @Schema(description = "Tamaño máximo en bytes", example = "104857600")
+        long tamanoMaximoBytes
+) {
+}
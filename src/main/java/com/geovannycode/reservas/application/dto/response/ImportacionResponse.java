@@ -0,0 +1,26 @@
+package com.geovannycode.reservas.application.dto.response;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO de salida con el reporte de una importación masiva desde CSV.
+ * Usa Java Record para concisión e inmutabilidad.
+ */
+@Schema(description = "Reporte de una importación masiva: filas leídas, importadas y rechazadas")
+public record ImportacionResponse(
+
+        @Schema(description = "Total de filas de datos leídas del archivo", example = "25000")
+        long totalFilas,
+
+        @Schema(description = "Filas insertadas en la tabla destino", example = "24987")
+        long importadas,
+
+        @Schema(description = "Filas rechazadas por validación", example = "13")
+        long rechazadas,
+
+        @Schema(description = "Detalle de las filas rechazadas, ordenadas por línea")
+        List<RechazoImportacionResponse> rechazos
+) {
+}
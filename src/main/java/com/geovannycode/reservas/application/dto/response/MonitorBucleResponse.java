@@ -0,0 +1,23 @@
+package com.geovannycode.reservas.application.dto.response;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO de salida con la configuración del monitor de bucles de eventos y los últimos bloqueos.
+ * Usa Java Record para concisión e inmutabilidad.
+ */
+@Schema(description = "Monitor de retraso de los bucles de eventos de Vert.x")
+public record MonitorBucleResponse(
+
+        @Schema(description = "Intervalo de muestreo en milisegundos", example = "50")
+        long intervaloMs,
+
+        @Schema(description = "Retraso a partir del cual se registra un bloqueo, en milisegundos", example = "100")
+        long umbralMs,
+
+        @Schema(description = "Bloqueos recientes, más recientes primero")
+        List<BloqueoBucleResponse> bloqueos
+) {
+}
@@ -0,0 +1,21 @@
+package com.geovannycode.reservas.application.dto.response;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+/**
+ * DTO de salida con una fila rechazada durante una importación masiva.
+ * Usa Java Record para concisión e inmutabilidad.
+ */
+@Schema(description = "Fila del archivo CSV que no fue importada")
+public record RechazoImportacionResponse(
+
+        @Schema(description = "Número de línea en el archivo (la cabecera es la línea 1)", example = "42")
+        long linea,
+
+        @Schema(description = "Valor que identifica la fila (email o profesional/fecha)", example = "ana.torres@email.com")
+        String valor,
+
+        @Schema(description = "Motivo del rechazo", example = "Email ya registrado")
+        String motivo
+) {
+}
@@ -0,0 +1,50 @@
+package com.geovannycode.reservas.application.service;
+
+import com.geovannycode.reservas.infrastructure.repository.ReservaRepository;
+import io.quarkus.hibernate.reactive.panache.common.WithSession;
+import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Servicio de aplicación que cierra las reservas ya atendidas.
+ * <p>
+ * Regla: una reserva {@code CREADA} cuya hora de fin ya pasó se considera {@code COMPLETADA}.
+ * Sin este cierre el conjunto de reservas activas crece con todo el histórico y
+ * {@code findAllActivas()}, el ranking y la vista por fecha lo recorren completo.
+ */
+@ApplicationScoped
+public class CierreReservasService {
+
+    private final ReservaRepository reservaRepository;
+
+    public CierreReservasService(ReservaRepository reservaRepository) {
+        this.reservaRepository = reservaRepository;
+    }
+
+    /**
+     * Completa un lote de reservas vencidas en su propia transacción, para que los
+     * bloqueos de fila duren solo lo que tarda el lote.
+     *
+     * @return número de reservas completadas en el lote
+     */
+    @WithTransaction
+    public Uni<Integer> completarLote(int tamanoLote) {
+        var ahora = LocalDateTime.now();
+        return reservaRepository.completarVencidas(ahora.toLocalDate(), ahora.toLocalTime(), tamanoLote);
+    }
+
+    /**
+     * Tiempo transcurrido desde el fin de la reserva vencida más antigua que sigue activa.
+     * Es cero cuando no queda ninguna pendiente de completar.
+     */
+    @WithSession
+    public Uni<Duration> calcularRetraso() {
+        var ahora = LocalDateTime.now();
+        return reservaRepository.findFinVencidaMasAntigua(ahora.toLocalDate(), ahora.toLocalTime())
+                .map(fin -> fin.map(f -> Duration.between(f, ahora)).orElse(Duration.ZERO));
+    }
+}
@@ -4,6 +4,7 @@ import com.geovannycode.reservas.application.dto.request.ClienteRequest;
 import com.geovannycode.reservas.application.dto.response.ClienteResponse;
 import com.geovannycode.reservas.domain.exception.EmailDuplicadoException;
 import com.geovannycode.reservas.domain.exception.ResourceNotFoundException;
+import com.geovannycode.reservas.infrastructure.datasource.SoloLectura;
 import com.geovannycode.reservas.infrastructure.mapper.ClienteMapper;
 import com.geovannycode.reservas.infrastructure.repository.ClienteRepository;
 import io.quarkus.hibernate.reactive.panache.common.WithSession;
@@ -31,6 +32,7 @@ public class ClienteService {
     }
 
     @WithSession
+    @SoloLectura
     public Uni<List<ClienteResponse>> listarTodos() {
         return clienteRepository.listAll()
                 .map(clientes -> clientes.stream()
@@ -39,6 +41,7 @@ public class ClienteService {
     }
 
     @WithSession
+    @SoloLectura
     public Uni<ClienteResponse> buscarPorId(UUID id) {
         return clienteRepository.findById(id)
                 .onItem().ifNull().failWith(() ->
@@ -0,0 +1,118 @@
+package com.geovannycode.reservas.application.service;
+
+import com.geovannycode.reservas.application.dto.response.ReservaResponse;
+import com.geovannycode.reservas.domain.exception.ResourceNotFoundException;
+import com.geovannycode.reservas.infrastructure.datasource.Fragmentos;
+import com.geovannycode.reservas.infrastructure.datasource.SoloLectura;
+import com.geovannycode.reservas.infrastructure.mapper.ReservaMapper;
+import com.geovannycode.reservas.infrastructure.repository.ClienteRepository;
+import com.geovannycode.reservas.infrastructure.repository.ProfesionalRepository;
+import com.geovannycode.reservas.infrastructure.repository.ReservaHistoricoRepository;
+import com.geovannycode.reservas.infrastructure.repository.ReservaRepository;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Servicio de aplicación para el historial de reservas de clientes y profesionales.
+ * <p>
+ * Las reservas finalizadas antiguas viven en {@code reservas_historico}
+ * (ver {@link #archivarLote(LocalDate, int)}); el historial combina ambas tablas,
+ * de modo que para el consumidor del API el archivo es transparente.
+ * <p>
+ * El historial de un profesional se lee de su fragmento; el de un cliente se reúne de
+ * todos (ver {@link Fragmentos}). {@link #archivarLote(LocalDate, int)} actúa sobre el
+ * fragmento desde el que se invoca.
+ */
+@ApplicationScoped
+public class HistorialReservasService {
+
+    private static final Comparator<ReservaResponse> MAS_RECIENTES_PRIMERO =
+            Comparator.comparing(ReservaResponse::fecha)
+                    .thenComparing(ReservaResponse::horaInicio)
+                    .reversed();
+
+    private final ReservaRepository reservaRepository;
+    private final ReservaHistoricoRepository historicoRepository;
+    private final ClienteRepository clienteRepository;
+    private final ProfesionalRepository profesionalRepository;
+    private final ReservaMapper reservaMapper;
+    private final Fragmentos fragmentos;
+
+    public HistorialReservasService(ReservaRepository reservaRepository,
+                                    ReservaHistoricoRepository historicoRepository,
+                                    ClienteRepository clienteRepository,
+                                    ProfesionalRepository profesionalRepository,
+                                    ReservaMapper reservaMapper,
+                                    Fragmentos fragmentos) {
+        this.reservaRepository = reservaRepository;
+        this.historicoRepository = historicoRepository;
+        this.clienteRepository = clienteRepository;
+        this.profesionalRepository = profesionalRepository;
+        this.reservaMapper = reservaMapper;
+        this.fragmentos = fragmentos;
+    }
+
+    /**
+     * Historial completo de un cliente (reservas vivas y archivadas), más recientes primero.
+     */
+    @SoloLectura
+    public Uni<List<ReservaResponse>> listarPorCliente(UUID clienteId) {
+        return Panache.withSession(() -> clienteRepository.findById(clienteId))
+                .onItem().ifNull().failWith(() ->
+                        new ResourceNotFoundException(
+                                String.format("Cliente no encontrado con id: %s", clienteId)))
+                .flatMap(cliente -> fragmentos.reunir(() -> Panache.withSession(() ->
+                                        // Hibernate Reactive no admite consultas paralelas en la misma sesión
+                                        reservaRepository.findByClienteId(clienteId)
+                                                .flatMap(vivas -> historicoRepository.findByClienteId(clienteId)
+                                                        .map(archivadas -> Stream.concat(
+                                                                        vivas.stream().map(reservaMapper::toResponse),
+                                                                        archivadas.stream().map(reservaMapper::toResponse))
+                                                                .toList()))),
+                                reserva -> reserva.profesional().id()))
+                .map(reservas -> reservas.stream()
+                        .sorted(MAS_RECIENTES_PRIMERO)
+                        .toList());
+    }
+
+    /**
+     * Historial completo de un profesional (reservas vivas y archivadas), más recientes primero.
+     */
+    @SoloLectura
+    public Uni<List<ReservaResponse>> listarPorProfesional(UUID profesionalId) {
+        return fragmentos.en(profesionalId, () -> Panache.withSession(() ->
+                profesionalRepository.findById(profesionalId)
+                        .onItem().ifNull().failWith(() ->
+                                new ResourceNotFoundException(
+                                        String.format("Profesional no encontrado con id: %s", profesionalId)))
+                        .flatMap(profesional -> reservaRepository.findByProfesionalId(profesionalId))
+                        .flatMap(vivas -> historicoRepository.findByProfesionalId(profesionalId)
+                                .map(archivadas -> combinar(
+                                        vivas.stream().map(reservaMapper::toResponse),
+                                        archivadas.stream().map(reservaMapper::toResponse))))));
+    }
+
+    /**
+     * Archiva un lote de reservas finalizadas anteriores a {@code limite} en su propia transacción.
+     *
+     * @return número de reservas archivadas en el lote
+     */
+    @WithTransaction
+    public Uni<Integer> archivarLote(LocalDate limite, int tamanoLote) {
+        return historicoRepository.archivarFinalizadasAnterioresA(limite, tamanoLote);
+    }
+
+    private List<ReservaResponse> combinar(Stream<ReservaResponse> vivas, Stream<ReservaResponse> archivadas) {
+        return Stream.concat(vivas, archivadas)
+                .sorted(MAS_RECIENTES_PRIMERO)
+                .toList();
+    }
+}
@@ -5,11 +5,12 @@ import com.geovannycode.reservas.application.dto.response.HorarioDisponibleRespo
 import com.geovannycode.reservas.domain.exception.HorarioSolapamientoException;
 import com.geovannycode.reservas.domain.exception.ResourceNotFoundException;
 import com.geovannycode.reservas.domain.model.HorarioDisponible;
+import com.geovannycode.reservas.infrastructure.datasource.Fragmentos;
+import com.geovannycode.reservas.infrastructure.datasource.SoloLectura;
 import com.geovannycode.reservas.infrastructure.mapper.HorarioDisponibleMapper;
 import com.geovannycode.reservas.infrastructure.repository.HorarioDisponibleRepository;
 import com.geovannycode.reservas.infrastructure.repository.ProfesionalRepository;
-import io.quarkus.hibernate.reactive.panache.common.WithSession;
-import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
+import io.quarkus.hibernate.reactive.panache.Panache;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 
@@ -21,6 +22,9 @@ import java.util.stream.Collectors;
  * Servicio de aplicación para registrar y consultar los horarios disponibles de profesionales.
  * <p>
  * Regla clave: no se permiten horarios solapados para el mismo profesional en la misma fecha.
+ * <p>
+ * Los horarios viven en el fragmento de su profesional (ver {@link Fragmentos}); el registro
+ * y la validación de solapamientos son locales a ese fragmento.
  */
 @ApplicationScoped
 public class HorarioDisponibleService {
@@ -28,38 +32,46 @@ public class HorarioDisponibleService {
     private final HorarioDisponibleRepository horarioRepository;
     private final ProfesionalRepository profesionalRepository;
     private final HorarioDisponibleMapper horarioMapper;
+    private final Fragmentos fragmentos;
 
     public HorarioDisponibleService(HorarioDisponibleRepository horarioRepository,
                                     ProfesionalRepository profesionalRepository,
-                                    HorarioDisponibleMapper horarioMapper) {
+                                    HorarioDisponibleMapper horarioMapper,
+                                    Fragmentos fragmentos) {
         this.horarioRepository = horarioRepository;
         this.profesionalRepository = profesionalRepository;
         this.horarioMapper = horarioMapper;
+        this.fragmentos = fragmentos;
     }
 
-    @WithSession
+    @SoloLectura
     public Uni<List<HorarioDisponibleResponse>> listarTodos() {
-        return horarioRepository.listAll()
-                .map(horarios -> horarios.stream()
-                        .map(horarioMapper::toResponse)
-                        .collect(Collectors.toList()));
+        return fragmentos.reunir(() -> Panache.withSession(() -> horarioRepository.listAll()
+                                .map(horarios -> horarios.stream()
+                                        .map(horarioMapper::toResponse)
+                                        .collect(Collectors.toList()))),
+                        horario -> horario.profesional().id());
     }
 
-    @WithSession
+    @SoloLectura
     public Uni<List<HorarioDisponibleResponse>> listarPorProfesional(UUID profesionalId) {
-        return horarioRepository.findByProfesionalId(profesionalId)
-                .map(horarios -> horarios.stream()
-                        .map(horarioMapper::toResponse)
-                        .collect(Collectors.toList()));
+        return fragmentos.en(profesionalId, () -> Panache.withSession(() ->
+                horarioRepository.findByProfesionalId(profesionalId)
+                        .map(horarios -> horarios.stream()
+                                .map(horarioMapper::toResponse)
+                                .collect(Collectors.toList()))));
     }
 
-    @WithTransaction
     public Uni<HorarioDisponibleResponse> registrar(HorarioDisponibleRequest request) {
         // Validar que el horario fin sea posterior al inicio
         if (!request.horaFin().isAfter(request.horaInicio())) {
             throw new IllegalArgumentException("La hora de fin debe ser posterior a la hora de inicio");
         }
 
+        return fragmentos.en(request.profesionalId(), () -> Panache.withTransaction(() -> registrarEnFragmento(request)));
+    }
+
+    private Uni<HorarioDisponibleResponse> registrarEnFragmento(HorarioDisponibleRequest request) {
         return profesionalRepository.findById(request.profesionalId())
                 .onItem().ifNull().failWith(() ->
                         new ResourceNotFoundException(
@@ -90,8 +102,14 @@ public class HorarioDisponibleService {
                 .map(horarioMapper::toResponse);
     }
 
-    @WithTransaction
     public Uni<Void> eliminar(UUID id) {
+        return fragmentos.enFragmentoDe(
+                () -> Panache.withSession(() -> horarioRepository.findById(id)
+                        .map(horario -> horario == null ? null : horario.getProfesional().getId())),
+                () -> Panache.withTransaction(() -> eliminarEnFragmento(id)));
+    }
+
+    private Uni<Void> eliminarEnFragmento(UUID id) {
         return horarioRepository.findById(id)
                 .onItem().ifNull().failWith(() ->
                         new ResourceNotFoundException(
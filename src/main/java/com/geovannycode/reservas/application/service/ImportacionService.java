@@ -0,0 +1,55 @@
+package com.geovannycode.reservas.application.service;
+
+import com.geovannycode.reservas.application.dto.response.ImportacionResponse;
+import com.geovannycode.reservas.domain.exception.BusinessException;
+import com.geovannycode.reservas.infrastructure.datasource.Fragmentos;
+import com.geovannycode.reservas.infrastructure.repository.ImportacionRepository;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.core.Response;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Servicio de aplicación para la carga masiva de clientes y horarios desde archivos CSV.
+ * <p>
+ * Pensado para el alta inicial de un centro: en lugar de validar fila a fila
+ * (una consulta {@code existsByEmail} o {@code findSolapados} por registro), delega en
+ * {@link ImportacionRepository}, que valida el archivo completo con SQL por conjuntos.
+ * El trabajo JDBC es bloqueante: se ejecuta en el hilo worker de la petición, porque
+ * {@code ImportacionResource} es {@code @Blocking} para leer el cuerpo a medida que llega.
+ * <p>
+ * La importación usa el datasource JDBC por defecto (fragmento 0). Los clientes se replican
+ * desde ahí a los demás fragmentos, pero los horarios tendrían que repartirse por profesional,
+ * así que con varios fragmentos (ver {@link Fragmentos}) su importación se rechaza.
+ */
+@ApplicationScoped
+public class ImportacionService {
+
+    private final ImportacionRepository importacionRepository;
+    private final Fragmentos fragmentos;
+
+    public ImportacionService(ImportacionRepository importacionRepository, Fragmentos fragmentos) {
+        this.importacionRepository = importacionRepository;
+        this.fragmentos = fragmentos;
+    }
+
+    public Uni<ImportacionResponse> importarClientes(InputStream csv) {
+        return Uni.createFrom()
+                .item(() -> importacionRepository.importarClientes(
+                        new InputStreamReader(csv, StandardCharsets.UTF_8)));
+    }
+
+    public Uni<ImportacionResponse> importarHorarios(InputStream csv) {
+        if (fragmentos.cantidad() > 1) {
+            return Uni.createFrom().failure(new BusinessException(
+                    "La importación de horarios no está disponible con varios fragmentos",
+                    Response.Status.NOT_IMPLEMENTED));
+        }
+        return Uni.createFrom()
+                .item(() -> importacionRepository.importarHorarios(
+                        new InputStreamReader(csv, StandardCharsets.UTF_8)));
+    }
+}
@@ -3,6 +3,7 @@ package com.geovannycode.reservas.application.service;
 import com.geovannycode.reservas.application.dto.request.ProfesionalRequest;
 import com.geovannycode.reservas.application.dto.response.ProfesionalResponse;
 import com.geovannycode.reservas.domain.exception.ResourceNotFoundException;
+import com.geovannycode.reservas.infrastructure.datasource.SoloLectura;
 import com.geovannycode.reservas.infrastructure.mapper.ProfesionalMapper;
 import com.geovannycode.reservas.infrastructure.repository.ProfesionalRepository;
 import io.quarkus.hibernate.reactive.panache.common.WithSession;
@@ -32,6 +33,7 @@ public class ProfesionalService {
     }
 
     @WithSession
+    @SoloLectura
     public Uni<List<ProfesionalResponse>> listarTodos() {
         return profesionalRepository.listAll()
                 .map(profesionales -> profesionales.stream()
@@ -40,6 +42,7 @@ public class ProfesionalService {
     }
 
     @WithSession
+    @SoloLectura
     public Uni<ProfesionalResponse> buscarPorId(UUID id) {
         return profesionalRepository.findById(id)
                 .onItem().ifNull().failWith(() ->
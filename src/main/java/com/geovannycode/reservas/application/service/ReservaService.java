@@ -9,25 +9,31 @@ import com.geovannycode.reservas.domain.exception.EntidadInactivaException;
 import com.geovannycode.reservas.domain.exception.HorarioNoDisponibleException;
 import com.geovannycode.reservas.domain.exception.ReservaSolapamientoException;
 import com.geovannycode.reservas.domain.exception.ResourceNotFoundException;
+import com.geovannycode.reservas.domain.model.HorarioDisponible;
 import com.geovannycode.reservas.domain.model.Profesional;
 import com.geovannycode.reservas.domain.model.Reserva;
+import com.geovannycode.reservas.infrastructure.datasource.Fragmentos;
+import com.geovannycode.reservas.infrastructure.datasource.Reporte;
+import com.geovannycode.reservas.infrastructure.datasource.SoloLectura;
 import com.geovannycode.reservas.infrastructure.mapper.ProfesionalMapper;
 import com.geovannycode.reservas.infrastructure.mapper.ReservaMapper;
+import com.geovannycode.reservas.infrastructure.observability.Trazas;
 import com.geovannycode.reservas.infrastructure.repository.ClienteRepository;
 import com.geovannycode.reservas.infrastructure.repository.HorarioDisponibleRepository;
 import com.geovannycode.reservas.infrastructure.repository.ProfesionalRepository;
 import com.geovannycode.reservas.infrastructure.repository.ReservaRepository;
-import io.quarkus.hibernate.reactive.panache.common.WithSession;
-import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
-import org.eclipse.microprofile.faulttolerance.Fallback;
-import org.eclipse.microprofile.faulttolerance.Retry;
-import org.eclipse.microprofile.faulttolerance.Timeout;
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
 
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.time.LocalTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 /**
@@ -38,51 +44,77 @@ import java.util.stream.Collectors;
  *   <li>Verificación de disponibilidad horaria antes de crear una reserva.</li>
  *   <li>Prevención de solapamientos de reservas activas.</li>
  *   <li>Validación de estado activo de cliente y profesional.</li>
- *   <li>Liberación de disponibilidad al cancelar.</li>
+ *   <li>División del bloque horario al reservar: solo se ocupa el tramo reservado.</li>
+ *   <li>Liberación y fusión de bloques contiguos al cancelar.</li>
  * </ul>
+ * Reservar y cancelar bloquean antes la agenda del profesional en esa fecha
+ * ({@link HorarioDisponibleRepository#bloquearAgenda}), porque ambas reescriben sus bloques.
  * <p>
- * El método {@link #listarProfesionalesPorReservasActivas()} está protegido
- * con SmallRye Fault Tolerance (@Retry, @Timeout, @Fallback).
+ * El endpoint sirve {@link #listarProfesionalesPorReservasActivas()} a través de
+ * {@code CacheRanking}, que limita cada recarga con {@code reservas.ranking.plazo}.
+ * <p>
+ * El ranking y la vista por fecha recorren todas las reservas activas: son {@link Reporte}
+ * (pool de conexiones propio) y tienen un {@code @Bulkhead} de {@value #REPORTES_CONCURRENTES}
+ * ejecuciones con cola de {@value #REPORTES_EN_ESPERA}, para que un panel que los refresca no
+ * deje sin conexiones a las reservas. Si la cola está llena responden 503.
+ * <p>
+ * Con varios fragmentos (ver {@link Fragmentos}) la creación y la cancelación se ejecutan en
+ * el fragmento del profesional y los listados reúnen los de todos. Por eso las sesiones se
+ * abren con {@link Panache#withSession}/{@link Panache#withTransaction} dentro de cada
+ * fragmento y no con {@code @WithSession}/{@code @WithTransaction} sobre el método.
  */
 @ApplicationScoped
 public class ReservaService {
 
+    static final int REPORTES_CONCURRENTES = 4;
+    static final int REPORTES_EN_ESPERA = 16;
+
     private final ReservaRepository reservaRepository;
     private final ProfesionalRepository profesionalRepository;
     private final ClienteRepository clienteRepository;
     private final HorarioDisponibleRepository horarioRepository;
     private final ReservaMapper reservaMapper;
     private final ProfesionalMapper profesionalMapper;
+    private final Trazas trazas;
+    private final Fragmentos fragmentos;
 
     public ReservaService(ReservaRepository reservaRepository,
                           ProfesionalRepository profesionalRepository,
                           ClienteRepository clienteRepository,
                           HorarioDisponibleRepository horarioRepository,
                           ReservaMapper reservaMapper,
-                          ProfesionalMapper profesionalMapper) {
+                          ProfesionalMapper profesionalMapper,
+                          Trazas trazas,
+                          Fragmentos fragmentos) {
         this.reservaRepository = reservaRepository;
         this.profesionalRepository = profesionalRepository;
         this.clienteRepository = clienteRepository;
         this.horarioRepository = horarioRepository;
         this.reservaMapper = reservaMapper;
         this.profesionalMapper = profesionalMapper;
+        this.trazas = trazas;
+        this.fragmentos = fragmentos;
     }
 
-    @WithSession
+    @SoloLectura
     public Uni<List<ReservaResponse>> listarTodas() {
-        return reservaRepository.listAll()
-                .map(reservas -> reservas.stream()
-                        .map(reservaMapper::toResponse)
-                        .collect(Collectors.toList()));
+        return fragmentos.reunir(() -> Panache.withSession(() -> reservaRepository.listAll()
+                                .map(reservas -> reservas.stream()
+                                        .map(reservaMapper::toResponse)
+                                        .collect(Collectors.toList()))),
+                        reserva -> reserva.profesional().id());
     }
 
-    @WithSession
+    @SoloLectura
     public Uni<ReservaResponse> buscarPorId(UUID id) {
-        return reservaRepository.findById(id)
-                .onItem().ifNull().failWith(() ->
+        return fragmentos.reunir(() -> Panache.withSession(() -> reservaRepository.findById(id)
+                                .map(reserva -> reserva == null
+                                        ? List.<ReservaResponse>of()
+                                        : List.of(reservaMapper.toResponse(reserva)))),
+                        reserva -> reserva.profesional().id())
+                .map(reservas -> reservas.stream().findFirst().orElseThrow(() ->
                         new ResourceNotFoundException(
-                                String.format("Reserva no encontrada con id: %s", id)))
-                .map(reservaMapper::toResponse);
+                                String.format("Reserva no encontrada con id: %s", id))));
     }
 
     /**
@@ -90,14 +122,33 @@ public class ReservaService {
      * 1. Cliente y profesional deben existir y estar activos.
      * 2. Debe existir un HorarioDisponible que cubra el intervalo solicitado.
      * 3. No deben existir reservas activas solapadas para el mismo profesional.
+     * <p>
+     * Cada etapa tiene su span ({@code reserva.profesional}, {@code reserva.cliente},
+     * {@code reserva.horario}, {@code reserva.solapamiento}, {@code reserva.persistir} y
+     * {@code reserva.commit}). La transacción se abre con {@link Panache#withTransaction}
+     * en lugar de {@code @WithTransaction} para poder medir el commit por separado, y
+     * {@code reserva.persistir} hace flush para que los INSERT/UPDATE caigan en su etapa.
+     * La transacción es local al fragmento del profesional.
      */
-    @WithTransaction
     public Uni<ReservaResponse> crearReserva(ReservaRequest request) {
         if (!request.horaFin().isAfter(request.horaInicio())) {
             throw new IllegalArgumentException("La hora de fin debe ser posterior a la hora de inicio");
         }
 
-        return profesionalRepository.findById(request.profesionalId())
+        var commit = new AtomicReference<Span>();
+        return fragmentos.en(request.profesionalId(), () -> Panache.withTransaction(() -> reservar(request)
+                        .map(reservaMapper::toResponse)
+                        .invoke(() -> commit.set(trazas.iniciar("reserva.commit", Attributes.empty())))))
+                .onTermination().invoke((reserva, fallo, cancelado) -> {
+                    var span = commit.get();
+                    if (span != null) {
+                        trazas.terminar(span, fallo, cancelado);
+                    }
+                });
+    }
+
+    private Uni<Reserva> reservar(ReservaRequest request) {
+        return trazas.span("reserva.profesional", () -> profesionalRepository.findById(request.profesionalId()))
                 .onItem().ifNull().failWith(() ->
                         new ResourceNotFoundException(
                                 String.format("Profesional no encontrado con id: %s", request.profesionalId())))
@@ -107,7 +158,7 @@ public class ReservaService {
                                 String.format("El profesional '%s %s' no está activo",
                                         profesional.getNombres(), profesional.getApellidos()));
                     }
-                    return clienteRepository.findById(request.clienteId())
+                    return trazas.span("reserva.cliente", () -> clienteRepository.findById(request.clienteId()))
                             .onItem().ifNull().failWith(() ->
                                     new ResourceNotFoundException(
                                             String.format("Cliente no encontrado con id: %s", request.clienteId())))
@@ -117,11 +168,13 @@ public class ReservaService {
                                             String.format("El cliente '%s %s' no está activo",
                                                     cliente.getNombres(), cliente.getApellidos()));
                                 }
-                                return horarioRepository.findDisponibleParaReserva(
-                                                request.profesionalId(),
-                                                request.fecha(),
-                                                request.horaInicio(),
-                                                request.horaFin())
+                                return trazas.span("reserva.horario", () -> horarioRepository.bloquearAgenda(
+                                                        request.profesionalId(), request.fecha())
+                                                .flatMap(v -> horarioRepository.findDisponibleParaReserva(
+                                                        request.profesionalId(),
+                                                        request.fecha(),
+                                                        request.horaInicio(),
+                                                        request.horaFin())))
                                         .flatMap(horarioOpt -> {
                                             var horario = horarioOpt.orElseThrow(() ->
                                                     new HorarioNoDisponibleException(
@@ -129,11 +182,11 @@ public class ReservaService {
                                                                     "No existe horario disponible para el profesional en la fecha %s de %s a %s",
                                                                     request.fecha(), request.horaInicio(), request.horaFin())));
 
-                                            return reservaRepository.findSolapadasActivas(
+                                            return trazas.span("reserva.solapamiento", () -> reservaRepository.findSolapadasActivas(
                                                             request.profesionalId(),
                                                             request.fecha(),
                                                             request.horaInicio(),
-                                                            request.horaFin())
+                                                            request.horaFin()))
                                                     .flatMap(solapadas -> {
                                                         if (!solapadas.isEmpty()) {
                                                             throw new ReservaSolapamientoException(
@@ -141,6 +194,9 @@ public class ReservaService {
                                                                             "El profesional ya tiene una reserva activa que se solapa en la fecha %s entre %s y %s",
                                                                             request.fecha(), request.horaInicio(), request.horaFin()));
                                                         }
+                                                        // Solo se ocupa el tramo reservado; el resto del bloque sigue libre
+                                                        var fragmentosLibres = dividirHorario(
+                                                                horario, request.horaInicio(), request.horaFin());
                                                         horario.setEstado(false);
 
                                                         var nuevaReserva = Reserva.builder()
@@ -149,22 +205,31 @@ public class ReservaService {
                                                                 .horaFin(request.horaFin())
                                                                 .cliente(cliente)
                                                                 .profesional(profesional)
+                                                                .horario(horario)
                                                                 .estado(EstadoReserva.CREADA)
                                                                 .build();
 
-                                                        return reservaRepository.persist(nuevaReserva);
+                                                        return trazas.span("reserva.persistir", () ->
+                                                                horarioRepository.persist(fragmentosLibres)
+                                                                        .flatMap(v -> reservaRepository.persistAndFlush(nuevaReserva)));
                                                     });
                                         });
                             });
-                })
-                .map(reservaMapper::toResponse);
+                });
     }
 
     /**
-     * Cancela una reserva cambiando su estado a CANCELADA y liberando el horario asociado.
+     * Cancela una reserva cambiando su estado a CANCELADA y liberando el horario asociado,
+     * en una transacción del fragmento que la contiene.
      */
-    @WithTransaction
     public Uni<ReservaResponse> cancelarReserva(UUID id) {
+        return fragmentos.enFragmentoDe(
+                () -> Panache.withSession(() -> reservaRepository.findById(id)
+                        .map(reserva -> reserva == null ? null : reserva.getProfesional().getId())),
+                () -> Panache.withTransaction(() -> cancelar(id)));
+    }
+
+    private Uni<ReservaResponse> cancelar(UUID id) {
         return reservaRepository.findById(id)
                 .onItem().ifNull().failWith(() ->
                         new ResourceNotFoundException(
@@ -182,51 +247,151 @@ public class ReservaService {
                     reserva.setEstado(EstadoReserva.CANCELADA);
 
                     // Liberar el horario que fue bloqueado por esta reserva
-                    return horarioRepository.findOcupadoPorReserva(
-                                    reserva.getProfesional().getId(),
-                                    reserva.getFecha(),
-                                    reserva.getHoraInicio(),
-                                    reserva.getHoraFin())
-                            .map(horarioOpt -> {
-                                horarioOpt.ifPresent(h -> h.setEstado(true));
-                                return reservaMapper.toResponse(reserva);
-                            });
+                    return horarioRepository.bloquearAgenda(reserva.getProfesional().getId(), reserva.getFecha())
+                            .flatMap(v -> buscarHorarioOcupado(reserva))
+                            .flatMap(horarioOpt -> horarioOpt
+                                    .map(horario -> liberarTramo(horario, reserva))
+                                    .orElseGet(() -> Uni.createFrom().voidItem()))
+                            .map(v -> reservaMapper.toResponse(reserva));
                 });
     }
 
+    /**
+     * Obtiene el bloque ocupado por la reserva: por clave primaria si la reserva guarda su
+     * {@code horario_id}, o por rango para reservas antiguas sin bloque asociado.
+     * <p>
+     * El bloque de la clave primaria solo se usa si sigue ocupado y cubre la reserva. Un bloque
+     * compartido por varias reservas anteriores a la división se recorta al cancelar la primera,
+     * y las demás siguen apuntando a él aunque ya esté libre o sea de otra reserva; en ese caso
+     * se busca por rango.
+     */
+    private Uni<Optional<HorarioDisponible>> buscarHorarioOcupado(Reserva reserva) {
+        if (reserva.getHorario() == null) {
+            return buscarHorarioOcupadoPorRango(reserva);
+        }
+        // getId() sobre el proxy lazy no dispara ninguna consulta
+        return horarioRepository.findByIdAndFecha(reserva.getHorario().getId(), reserva.getFecha())
+                .flatMap(horario -> horario != null && ocupaReserva(horario, reserva)
+                        ? Uni.createFrom().item(Optional.of(horario))
+                        : buscarHorarioOcupadoPorRango(reserva));
+    }
+
+    private Uni<Optional<HorarioDisponible>> buscarHorarioOcupadoPorRango(Reserva reserva) {
+        return horarioRepository.findOcupadoPorReserva(
+                reserva.getProfesional().getId(),
+                reserva.getFecha(),
+                reserva.getHoraInicio(),
+                reserva.getHoraFin());
+    }
+
+    private static boolean ocupaReserva(HorarioDisponible horario, Reserva reserva) {
+        return !horario.isEstado()
+                && !horario.getHoraInicio().isAfter(reserva.getHoraInicio())
+                && !horario.getHoraFin().isBefore(reserva.getHoraFin());
+    }
+
+    /**
+     * Libera el tramo de la reserva dentro del bloque ocupado que la contiene y lo fusiona
+     * con los bloques libres contiguos, de modo que la disponibilidad vuelva a quedar en un
+     * solo bloque. Si el bloque ocupado es más amplio que la reserva (datos anteriores a la
+     * división de bloques), las partes sobrantes permanecen ocupadas.
+     */
+    private Uni<Void> liberarTramo(HorarioDisponible horario, Reserva reserva) {
+        var restosOcupados = dividirHorario(horario, reserva.getHoraInicio(), reserva.getHoraFin());
+        horario.setEstado(true);
+
+        return horarioRepository.persist(restosOcupados)
+                .flatMap(v -> horarioRepository.findLibresAdyacentes(
+                        horario.getProfesional().getId(),
+                        horario.getFecha(),
+                        horario.getHoraInicio(),
+                        horario.getHoraFin()))
+                .flatMap(adyacentes -> {
+                    var fusionables = adyacentes.stream()
+                            .filter(adyacente -> !adyacente.getId().equals(horario.getId()))
+                            .toList();
+                    fusionables.forEach(adyacente -> {
+                        if (adyacente.getHoraInicio().isBefore(horario.getHoraInicio())) {
+                            horario.setHoraInicio(adyacente.getHoraInicio());
+                        }
+                        if (adyacente.getHoraFin().isAfter(horario.getHoraFin())) {
+                            horario.setHoraFin(adyacente.getHoraFin());
+                        }
+                    });
+                    // Hibernate Reactive no admite operaciones paralelas en la misma sesión
+                    return Multi.createFrom().iterable(fusionables)
+                            .onItem().transformToUniAndConcatenate(horarioRepository::delete)
+                            .collect().last()
+                            .replaceWithVoid();
+                });
+    }
+
+    /**
+     * Recorta el bloque al intervalo {@code [horaInicio, horaFin)} y devuelve los fragmentos
+     * sobrantes (antes y después) como nuevos bloques con el mismo estado que el original.
+     * Los fragmentos devueltos aún no están persistidos.
+     */
+    private List<HorarioDisponible> dividirHorario(HorarioDisponible horario, LocalTime horaInicio, LocalTime horaFin) {
+        var fragmentos = new ArrayList<HorarioDisponible>(2);
+        if (horario.getHoraInicio().isBefore(horaInicio)) {
+            fragmentos.add(fragmento(horario, horario.getHoraInicio(), horaInicio));
+        }
+        if (horario.getHoraFin().isAfter(horaFin)) {
+            fragmentos.add(fragmento(horario, horaFin, horario.getHoraFin()));
+        }
+        horario.setHoraInicio(horaInicio);
+        horario.setHoraFin(horaFin);
+        return fragmentos;
+    }
+
+    private HorarioDisponible fragmento(HorarioDisponible origen, LocalTime horaInicio, LocalTime horaFin) {
+        return HorarioDisponible.builder()
+                .profesional(origen.getProfesional())
+                .fecha(origen.getFecha())
+                .horaInicio(horaInicio)
+                .horaFin(horaFin)
+                .estado(origen.isEstado())
+                .build();
+    }
+
     /**
      * Lista los profesionales ordenados de forma descendente por número de reservas activas.
      * El conteo y ordenamiento se realiza en memoria usando programación funcional (Streams).
      * <p>
-     * Protegido con SmallRye Fault Tolerance: reintenta hasta 3 veces con 200ms de espera,
-     * timeout de 10s y fallback a lista vacía si falla.
+     * Sin timeout, reintentos ni fallback propios: el endpoint lo consulta a través de
+     * {@code CacheRanking}, que limita la recarga con {@code reservas.ranking.plazo} (cancelando
+     * también la consulta en PostgreSQL) y ante un fallo sigue sirviendo el último ranking bueno
+     * en lugar de reintentar contra una base de datos saturada.
+     * <p>
+     * Las reservas de un profesional están en un solo fragmento, así que basta con reunir
+     * las reservas activas de todos y agruparlas.
      */
-    @WithSession
-    @Retry(maxRetries = 3, delay = 200, delayUnit = ChronoUnit.MILLIS)
-    @Timeout(value = 10, unit = ChronoUnit.SECONDS)
-    @Fallback(fallbackMethod = "listarProfesionalesVacio")
+    @SoloLectura
+    @Reporte
+    @Bulkhead(value = REPORTES_CONCURRENTES, waitingTaskQueue = REPORTES_EN_ESPERA)
     public Uni<List<ProfesionalConReservasResponse>> listarProfesionalesPorReservasActivas() {
-        return reservaRepository.findAllActivas()
-                .map(reservas -> reservas.stream()
-                        // Agrupar por profesional y contar reservas activas
-                        .collect(Collectors.groupingBy(
-                                Reserva::getProfesional,
-                                Collectors.counting()))
-                        .entrySet().stream()
-                        // Ordenar descendente por total de reservas activas
-                        .sorted(Map.Entry.<Profesional, Long>comparingByValue().reversed())
-                        .map(entry -> new ProfesionalConReservasResponse(
-                                profesionalMapper.toResponse(entry.getKey()),
-                                entry.getValue()))
-                        .collect(Collectors.toList()));
+        return fragmentos.reunir(() -> Panache.withSession(reservaRepository::findAllActivas),
+                        reserva -> reserva.getProfesional().getId())
+                .map(this::rankingPorReservas);
     }
 
     /**
-     * Fallback para {@link #listarProfesionalesPorReservasActivas()}.
-     * Retorna una lista vacía en caso de fallo del servicio.
+     * Pipeline en memoria de {@link #listarProfesionalesPorReservasActivas()}, separado de la
+     * consulta para poder medirlo aislado (benchmarks JMH en {@code src/jmh/java}).
      */
-    public Uni<List<ProfesionalConReservasResponse>> listarProfesionalesVacio() {
-        return Uni.createFrom().item(Collections.emptyList());
+    List<ProfesionalConReservasResponse> rankingPorReservas(List<Reserva> reservas) {
+        return reservas.stream()
+                // Agrupar por profesional y contar reservas activas
+                .collect(Collectors.groupingBy(
+                        Reserva::getProfesional,
+                        Collectors.counting()))
+                .entrySet().stream()
+                // Ordenar descendente por total de reservas activas
+                .sorted(Map.Entry.<Profesional, Long>comparingByValue().reversed())
+                .map(entry -> new ProfesionalConReservasResponse(
+                        profesionalMapper.toResponse(entry.getKey()),
+                        entry.getValue()))
+                .collect(Collectors.toList());
     }
 
     /**
@@ -239,14 +404,25 @@ public class ReservaService {
      * 2025-11-12: [Reserva 3 (Mito X / Code Y)]
      * </pre>
      */
-    @WithSession
+    @SoloLectura
+    @Reporte
+    @Bulkhead(value = REPORTES_CONCURRENTES, waitingTaskQueue = REPORTES_EN_ESPERA)
     public Uni<Map<LocalDate, List<ReservaResponse>>> listarReservasPorFecha() {
-        return reservaRepository.findAllActivas()
-                .map(reservas -> reservas.stream()
-                        .map(reservaMapper::toResponse)
-                        .collect(Collectors.groupingBy(
-                                ReservaResponse::fecha,
-                                TreeMap::new,  // TreeMap para ordenar fechas cronológicamente
-                                Collectors.toList())));
+        return fragmentos.reunir(() -> Panache.withSession(reservaRepository::findAllActivas),
+                        reserva -> reserva.getProfesional().getId())
+                .map(this::agruparPorFecha);
+    }
+
+    /**
+     * Pipeline en memoria de {@link #listarReservasPorFecha()}, separado de la consulta
+     * para poder medirlo aislado.
+     */
+    Map<LocalDate, List<ReservaResponse>> agruparPorFecha(List<Reserva> reservas) {
+        return reservas.stream()
+                .map(reservaMapper::toResponse)
+                .collect(Collectors.groupingBy(
+                        ReservaResponse::fecha,
+                        TreeMap::new,  // TreeMap para ordenar fechas cronológicamente
+                        Collectors.toList()));
     }
 }
@@ -0,0 +1,28 @@
+package com.geovannycode.reservas.domain.exception;
+
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Excepción lanzada cuando un cliente agota su cuota de creación de reservas.
+ * Mapea al código HTTP 429 Too Many Requests.
+ */
+public class CuotaExcedidaException extends BusinessException {
+
+    private final int limite;
+    private final long reintentarEnSegundos;
+
+    public CuotaExcedidaException(int limite, long reintentarEnSegundos) {
+        super("Demasiadas solicitudes de reserva, intente de nuevo en " + reintentarEnSegundos + " s",
+                Response.Status.TOO_MANY_REQUESTS);
+        this.limite = limite;
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
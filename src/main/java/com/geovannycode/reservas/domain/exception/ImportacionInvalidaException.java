@@ -0,0 +1,15 @@
+package com.geovannycode.reservas.domain.exception;
+
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Excepción lanzada cuando un archivo CSV de importación no puede procesarse
+ * (cabecera incorrecta, número de columnas distinto o codificación inválida).
+ * Mapea al código HTTP 400 Bad Request.
+ */
+public class ImportacionInvalidaException extends BusinessException {
+
+    public ImportacionInvalidaException(String message) {
+        super(message, Response.Status.BAD_REQUEST);
+    }
+}
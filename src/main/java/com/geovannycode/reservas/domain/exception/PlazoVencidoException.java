@@ -0,0 +1,16 @@
+package com.geovannycode.reservas.domain.exception;
+
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Excepción lanzada cuando el plazo de una petición vence (o su cliente se desconecta) antes
+ * de obtener una conexión a la base de datos, o con una consulta en curso que PostgreSQL
+ * cancela por ello (SQLSTATE 57014).
+ * Mapea al código HTTP 504 Gateway Timeout.
+ */
+public class PlazoVencidoException extends BusinessException {
+
+    public PlazoVencidoException() {
+        super("El plazo de la petición venció antes de completar la consulta", Response.Status.GATEWAY_TIMEOUT);
+    }
+}
@@ -3,8 +3,6 @@ package com.geovannycode.reservas.domain.model;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
@@ -15,6 +13,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.PartitionKey;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -26,6 +26,9 @@ import java.util.UUID;
  * <p>
  * Regla de negocio: no puede haber solapamiento de horarios para
  * el mismo profesional en la misma fecha.
+ * <p>
+ * La tabla incluye además la columna generada {@code rango} (tsrange de fecha + horas) con índice
+ * GiST; no se mapea aquí porque solo la usan las consultas nativas de {@code HorarioDisponibleRepository}.
  */
 @Entity
 @Table(name = "horarios_disponibles",
@@ -38,7 +41,7 @@ import java.util.UUID;
 public class HorarioDisponible {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
@@ -46,6 +49,11 @@ public class HorarioDisponible {
     @JoinColumn(name = "profesional_id", nullable = false)
     private Profesional profesional;
 
+    /**
+     * Clave de partición (migración V5): se añade al WHERE de los UPDATE/DELETE por id
+     * para que PostgreSQL solo toque la partición del mes.
+     */
+    @PartitionKey
     @Column(name = "fecha", nullable = false)
     private LocalDate fecha;
 
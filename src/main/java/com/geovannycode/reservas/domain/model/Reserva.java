@@ -6,8 +6,6 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
@@ -18,6 +16,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.PartitionKey;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -39,7 +39,8 @@ import java.util.UUID;
         indexes = {
                 @Index(name = "idx_reservas_profesional_fecha", columnList = "profesional_id, fecha"),
                 @Index(name = "idx_reservas_cliente", columnList = "cliente_id"),
-                @Index(name = "idx_reservas_estado", columnList = "estado")
+                @Index(name = "idx_reservas_estado", columnList = "estado"),
+                @Index(name = "idx_reservas_horario", columnList = "horario_id")
         })
 @Getter
 @Setter
@@ -49,10 +50,15 @@ import java.util.UUID;
 public class Reserva {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
+    /**
+     * Clave de partición (migración V5): se añade al WHERE de los UPDATE/DELETE por id
+     * para que PostgreSQL solo toque la partición del mes.
+     */
+    @PartitionKey
     @Column(name = "fecha", nullable = false)
     private LocalDate fecha;
 
@@ -70,6 +76,14 @@ public class Reserva {
     @JoinColumn(name = "profesional_id", nullable = false)
     private Profesional profesional;
 
+    /**
+     * Bloque horario ocupado por esta reserva. Permite liberarlo por clave primaria al cancelar.
+     * Es null en reservas previas a la migración V3 sin bloque asociado.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "horario_id")
+    private HorarioDisponible horario;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "estado", nullable = false, length = 20)
     @Builder.Default
@@ -0,0 +1,73 @@
+package com.geovannycode.reservas.domain.model;
+
+import com.geovannycode.reservas.domain.enums.EstadoReserva;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Reserva finalizada ({@code CANCELADA} o {@code COMPLETADA}) movida a la tabla de archivo.
+ * <p>
+ * Solo lectura: las filas las inserta {@code ArchivarReservasJob} con SQL por lotes
+ * y nunca se modifican. Conserva el mismo {@code id} que tenía en {@code reservas}.
+ */
+@Entity
+@Immutable
+@Table(name = "reservas_historico",
+        indexes = {
+                @Index(name = "idx_reservas_historico_cliente", columnList = "cliente_id, fecha"),
+                @Index(name = "idx_reservas_historico_profesional", columnList = "profesional_id, fecha")
+        })
+@Getter
+@NoArgsConstructor
+public class ReservaHistorico {
+
+    @Id
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "fecha", nullable = false)
+    private LocalDate fecha;
+
+    @Column(name = "hora_inicio", nullable = false)
+    private LocalTime horaInicio;
+
+    @Column(name = "hora_fin", nullable = false)
+    private LocalTime horaFin;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "cliente_id", nullable = false)
+    private Cliente cliente;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "profesional_id", nullable = false)
+    private Profesional profesional;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private EstadoReserva estado;
+
+    /**
+     * Bloque horario que ocupaba; sin FK porque el bloque puede haberse fusionado o archivado.
+     */
+    @Column(name = "horario_id")
+    private UUID horarioId;
+
+    @Column(name = "archivada_en", nullable = false)
+    private LocalDateTime archivadaEn;
+}
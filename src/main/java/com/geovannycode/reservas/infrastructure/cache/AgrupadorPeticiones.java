@@ -0,0 +1,148 @@
+package com.geovannycode.reservas.infrastructure.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geovannycode.reservas.infrastructure.datasource.Plazo;
+import com.geovannycode.reservas.infrastructure.datasource.Plazos;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Vertx;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Agrupa peticiones GET idénticas que llegan a la vez (single-flight).
+ * <p>
+ * La primera petición con una clave dada (la líder) ejecuta la consulta y serializa el
+ * resultado a JSON una sola vez; las que llegan con la misma clave mientras tanto (seguidoras)
+ * esperan ese mismo resultado y responden con el mismo buffer. En cuanto la consulta termina la
+ * clave se libera: no es una caché, una petición posterior vuelve a consultar. Un fallo de la
+ * consulta llega a todas las peticiones agrupadas.
+ * <p>
+ * La consulta corre en el contexto de la líder (traza, sesión, enrutado a la réplica), así que
+ * la clave debe incluir todo lo que cambia el resultado: parámetros de la ruta y la cabecera
+ * {@code X-Reservas-Lsn}, ver {@link #clave(Object...)}. Conserva el plazo restante de la líder,
+ * pero no se cancela si la líder se desconecta (ver {@link Plazos#desacoplar()}).
+ * <p>
+ * Una lectura no se une a una consulta lanzada antes de la última escritura confirmada en esta
+ * instancia: {@link EscrituraCompletadaFilter} llama a {@link #registrarEscritura()} antes de
+ * responder a la escritura, y la generación forma parte de la clave. Así quien lee tras su
+ * propia escritura no recibe el resultado de una consulta anterior a ella. Las escrituras de
+ * otras instancias no se ven: una lectura puede recibir datos de hasta una consulta de
+ * antigüedad; quien necesite leer sus escrituras entre instancias debe enviar
+ * {@code X-Reservas-Lsn}, que también forma parte de la clave.
+ * <p>
+ * Solo se agrupan los endpoints de {@code reservas.agrupacion.endpoints}; el resto ejecuta la
+ * consulta y serializa como siempre.
+ */
+@ApplicationScoped
+public class AgrupadorPeticiones {
+
+    private final ObjectMapper mapper;
+    private final MeterRegistry registry;
+    private final Plazos plazos;
+    private final Set<String> endpoints;
+
+    private final Map<String, CompletableFuture<byte[]>> enCurso = new ConcurrentHashMap<>();
+    private final AtomicLong escrituras = new AtomicLong();
+
+    public AgrupadorPeticiones(ObjectMapper mapper,
+                               MeterRegistry registry,
+                               Plazos plazos,
+                               @ConfigProperty(name = "reservas.agrupacion.endpoints")
+                               Optional<List<String>> endpoints) {
+        this.mapper = mapper;
+        this.registry = registry;
+        this.plazos = plazos;
+        this.endpoints = Set.copyOf(endpoints.orElse(List.of()));
+    }
+
+    /**
+     * Clave normalizada a partir de los parámetros de la petición; los nulos (cabecera ausente)
+     * cuentan como vacíos.
+     */
+    public static String clave(Object... partes) {
+        return Arrays.stream(partes)
+                .map(parte -> Objects.toString(parte, "").trim())
+                .collect(Collectors.joining("|"));
+    }
+
+    /**
+     * Cierra las consultas en curso a nuevas seguidoras: las lecturas que lleguen después
+     * lanzan una consulta propia, que ya ve la escritura.
+     */
+    public void registrarEscritura() {
+        escrituras.incrementAndGet();
+    }
+
+    public <T> Uni<Response> compartir(String endpoint, String clave, Supplier<Uni<T>> consulta) {
+        if (!endpoints.contains(endpoint)) {
+            return Uni.createFrom().deferred(consulta::get).map(valor -> Response.ok(valor).build());
+        }
+        return Uni.createFrom().deferred(() -> {
+            var llave = endpoint + "|" + escrituras.get() + "|" + clave;
+            var propio = new CompletableFuture<byte[]>();
+            var existente = enCurso.putIfAbsent(llave, propio);
+            contar(endpoint, existente == null ? "lider" : "seguidor");
+            if (existente == null) {
+                ejecutar(llave, propio, consulta);
+            }
+            var origen = Vertx.currentContext();
+            var uni = Uni.createFrom().completionStage(existente == null ? propio : existente);
+            // Cada seguidora continúa en su propio contexto, no en el de la líder
+            return (origen == null ? uni : uni.emitOn(tarea -> origen.runOnContext(ignorado -> tarea.run())))
+                    .map(cuerpo -> Response.ok(cuerpo, MediaType.APPLICATION_JSON_TYPE).build());
+        });
+    }
+
+    private <T> void ejecutar(String llave, CompletableFuture<byte[]> futuro, Supplier<Uni<T>> consulta) {
+        // Suscripción y plazo propios: si la líder se desconecta, las seguidoras siguen esperando el resultado
+        var plazo = plazos.desacoplar();
+        Uni.createFrom().deferred(consulta::get)
+                .map(this::serializar)
+                .subscribe().with(
+                        cuerpo -> {
+                            plazo.ifPresent(Plazo::terminar);
+                            enCurso.remove(llave, futuro);
+                            futuro.complete(cuerpo);
+                        },
+                        fallo -> {
+                            plazo.ifPresent(Plazo::terminar);
+                            enCurso.remove(llave, futuro);
+                            futuro.completeExceptionally(fallo);
+                        });
+    }
+
+    private byte[] serializar(Object valor) {
+        try {
+            return mapper.writeValueAsBytes(valor);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void contar(String endpoint, String rol) {
+        Counter.builder("reservas.agrupacion.peticiones")
+                .description("Peticiones GET agrupadas: la líder consulta, las seguidoras reutilizan su respuesta")
+                .tag("endpoint", endpoint)
+                .tag("rol", rol)
+                .register(registry)
+                .increment();
+    }
+}
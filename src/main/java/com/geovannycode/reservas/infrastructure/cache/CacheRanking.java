@@ -0,0 +1,167 @@
+package com.geovannycode.reservas.infrastructure.cache;
+
+import com.geovannycode.reservas.application.dto.response.ProfesionalConReservasResponse;
+import com.geovannycode.reservas.application.service.ReservaService;
+import com.geovannycode.reservas.infrastructure.datasource.Plazos;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.vertx.core.runtime.context.VertxContextSafetyToggle;
+import io.smallrye.common.vertx.VertxContext;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Caché del ranking de profesionales por reservas activas con revalidación en segundo plano
+ * (stale-while-revalidate).
+ * <p>
+ * Mientras la copia tiene menos de {@code reservas.ranking.ttl} se sirve sin consultar la base
+ * de datos. Pasado ese tiempo se sigue sirviendo de inmediato y se lanza una única recarga en
+ * segundo plano; las peticiones no esperan por ella. Si la recarga falla, la copia anterior se
+ * conserva (marcada con {@link ResultadoCache#revalidacionFallida()}) y no se vuelve a intentar
+ * hasta pasado otro TTL, en lugar de reintentar contra una base de datos saturada.
+ * <p>
+ * Solo la primera carga, cuando aún no hay copia, hace esperar a las peticiones; las que llegan
+ * a la vez comparten esa misma carga. Su fallo sí llega al cliente.
+ * <p>
+ * Las cargas corren en un contexto de Vert.x duplicado propio, no en el de la petición que las
+ * lanzó: una recarga en segundo plano sigue viva aunque esa petición ya haya respondido. Tienen
+ * su propio plazo, {@code reservas.ranking.plazo}: si vence, la consulta se cancela también en
+ * PostgreSQL.
+ */
+@ApplicationScoped
+public class CacheRanking {
+
+    private static final Logger LOG = Logger.getLogger(CacheRanking.class);
+
+    private final ReservaService reservaService;
+    private final Vertx vertx;
+    private final MeterRegistry registry;
+    private final Plazos plazos;
+    private final Duration ttl;
+    private final Duration plazoCarga;
+
+    private final AtomicReference<Entrada> entrada = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<Entrada>> carga = new AtomicReference<>();
+
+    public CacheRanking(ReservaService reservaService,
+                        Vertx vertx,
+                        MeterRegistry registry,
+                        Plazos plazos,
+                        @ConfigProperty(name = "reservas.ranking.ttl") Duration ttl,
+                        @ConfigProperty(name = "reservas.ranking.plazo") Duration plazoCarga) {
+        this.reservaService = reservaService;
+        this.vertx = vertx;
+        this.registry = registry;
+        this.plazos = plazos;
+        this.ttl = ttl;
+        this.plazoCarga = plazoCarga;
+    }
+
+    public Uni<ResultadoCache<List<ProfesionalConReservasResponse>>> obtener() {
+        var actual = entrada.get();
+        if (actual == null) {
+            contar("sin-copia");
+            var origen = Vertx.currentContext();
+            var uni = Uni.createFrom().completionStage(cargar()).map(this::resultado);
+            // Quien espera continúa en su contexto, no en el de la carga
+            return origen == null ? uni : uni.emitOn(tarea -> origen.runOnContext(ignorado -> tarea.run()));
+        }
+        if (Instant.now().isBefore(actual.revalidarDesde())) {
+            contar("fresca");
+        } else {
+            contar("obsoleta");
+            cargar();
+        }
+        return Uni.createFrom().item(resultado(actual));
+    }
+
+    /**
+     * Devuelve la carga en curso o lanza una nueva; nunca hay más de una a la vez.
+     */
+    private CompletableFuture<Entrada> cargar() {
+        while (true) {
+            var enCurso = carga.get();
+            if (enCurso != null) {
+                return enCurso;
+            }
+            var nueva = new CompletableFuture<Entrada>();
+            if (carga.compareAndSet(null, nueva)) {
+                lanzar(nueva);
+                return nueva;
+            }
+        }
+    }
+
+    private void lanzar(CompletableFuture<Entrada> futuro) {
+        Context contexto = VertxContext.createNewDuplicatedContext(vertx.getOrCreateContext());
+        VertxContextSafetyToggle.setContextSafe(contexto, true);
+        var plazo = plazos.iniciar(contexto, plazoCarga);
+        contexto.runOnContext(ignorado -> reservaService.listarProfesionalesPorReservasActivas()
+                .subscribe().with(
+                        ranking -> {
+                            plazo.terminar();
+                            var ahora = Instant.now();
+                            var nueva = new Entrada(ranking, ahora, ahora.plus(ttl), false);
+                            entrada.set(nueva);
+                            carga.set(null);
+                            contarRevalidacion("ok");
+                            futuro.complete(nueva);
+                        },
+                        fallo -> {
+                            plazo.terminar();
+                            var reintentarDesde = Instant.now().plus(ttl);
+                            var anterior = entrada.updateAndGet(e -> e == null ? null
+                                    : new Entrada(e.valor(), e.generada(), reintentarDesde, true));
+                            carga.set(null);
+                            contarRevalidacion("fallo");
+                            if (anterior == null) {
+                                futuro.completeExceptionally(fallo);
+                            } else {
+                                LOG.warnf("No se pudo revalidar el ranking; se sirve la copia de %s: %s",
+                                        anterior.generada(), fallo.toString());
+                                futuro.complete(anterior);
+                            }
+                        }));
+    }
+
+    private ResultadoCache<List<ProfesionalConReservasResponse>> resultado(Entrada copia) {
+        var edad = Duration.between(copia.generada(), Instant.now());
+        return new ResultadoCache<>(copia.valor(), edad, edad.compareTo(ttl) > 0, copia.revalidacionFallida());
+    }
+
+    private void contar(String resultado) {
+        Counter.builder("reservas.cache.ranking")
+                .description("Peticiones del ranking servidas desde la caché, por estado de la copia")
+                .tag("resultado", resultado)
+                .register(registry)
+                .increment();
+    }
+
+    private void contarRevalidacion(String resultado) {
+        Counter.builder("reservas.cache.ranking.cargas")
+                .description("Cargas del ranking contra la base de datos")
+                .tag("resultado", resultado)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Copia en caché. {@code revalidarDesde} es el instante a partir del cual una petición
+     * lanza la recarga: un TTL después de generarla o del último intento fallido.
+     */
+    private record Entrada(List<ProfesionalConReservasResponse> valor,
+                           Instant generada,
+                           Instant revalidarDesde,
+                           boolean revalidacionFallida) {
+    }
+}
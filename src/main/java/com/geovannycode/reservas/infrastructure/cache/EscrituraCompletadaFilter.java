@@ -0,0 +1,35 @@
+package com.geovannycode.reservas.infrastructure.cache;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+
+import java.util.Set;
+
+/**
+ * Avisa a {@link AgrupadorPeticiones} de cada escritura con éxito. Corre cuando la transacción
+ * ya se confirmó y antes de que el cliente reciba la respuesta, de modo que sus lecturas
+ * posteriores no se agrupan con consultas anteriores a la escritura.
+ */
+@Provider
+public class EscrituraCompletadaFilter implements ContainerResponseFilter {
+
+    private static final Set<String> LECTURAS = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS);
+
+    private final AgrupadorPeticiones agrupador;
+
+    public EscrituraCompletadaFilter(AgrupadorPeticiones agrupador) {
+        this.agrupador = agrupador;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext peticion, ContainerResponseContext respuesta) {
+        if (!LECTURAS.contains(peticion.getMethod())
+                && respuesta.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL) {
+            agrupador.registrarEscritura();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.geovannycode.reservas.infrastructure.cache;
+
+import java.time.Duration;
+
+/**
+ * Copia servida por una caché con revalidación en segundo plano.
+ *
+ * @param valor               último resultado bueno
+ * @param edad                tiempo desde que se generó (cabecera {@code Age})
+ * @param obsoleto            la edad supera el TTL y se está revalidando o se revalidará
+ * @param revalidacionFallida el último intento de revalidación falló; se sirve la copia anterior
+ */
+public record ResultadoCache<T>(T valor, Duration edad, boolean obsoleto, boolean revalidacionFallida) {
+}
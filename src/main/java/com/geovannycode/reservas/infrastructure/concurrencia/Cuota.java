@@ -0,0 +1,12 @@
+package com.geovannycode.reservas.infrastructure.concurrencia;
+
+/**
+ * Resultado de consumir un token de {@link LimitadorCuotas}.
+ *
+ * @param permitida            hay token: la petición puede seguir
+ * @param limite               capacidad del cubo (ráfaga máxima)
+ * @param restantes            tokens enteros que quedan tras esta petición
+ * @param reintentarEnSegundos si no hay token, cuándo habrá uno; {@code 0} si está permitida
+ */
+public record Cuota(boolean permitida, int limite, int restantes, long reintentarEnSegundos) {
+}
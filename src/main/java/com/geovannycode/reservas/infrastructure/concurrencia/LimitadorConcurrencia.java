@@ -0,0 +1,140 @@
+package com.geovannycode.reservas.infrastructure.concurrencia;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite adaptativo de peticiones en curso, calculado a partir de la latencia observada
+ * (algoritmo de gradiente, como {@code Gradient2Limit} de concurrency-limits de Netflix).
+ * <p>
+ * Se comparan dos medias de la latencia: la actual (últimas decenas de peticiones) y la base,
+ * aprendida solo con peticiones sin congestión (menos de medio límite en curso). Mientras la
+ * actual no supera a la base en más de {@value #TOLERANCIA} veces, el límite crece en
+ * {@code √límite}; cuando PostgreSQL se frena y la latencia actual sube, el gradiente
+ * {@code base × tolerancia / actual} baja de 1 y el límite se reduce en proporción. Así el
+ * exceso se rechaza en la entrada en lugar de esperar en la cola del pool hasta que todo venza
+ * por timeout.
+ * <p>
+ * Si la base se aprendiera también con la congestión, bajo sobrecarga sostenida acabaría
+ * igualando a la latencia degradada y el límite volvería a crecer. La excepción es el límite
+ * mínimo: ahí no queda nada que recortar y su latencia pasa a ser la nueva base (la base de
+ * datos se ha vuelto más lenta de forma estable).
+ * <p>
+ * Las peticiones {@link Prioridad.Nivel#NORMAL} solo pueden ocupar
+ * {@code 1 - reservas.concurrencia.reserva-critica} del límite; el resto queda para las
+ * {@link Prioridad.Nivel#CRITICA}, que se rechazan solo con el límite completo.
+ */
+@ApplicationScoped
+public class LimitadorConcurrencia {
+
+    static final double TOLERANCIA = 1.5;
+    private static final double ALFA_ACTUAL = 0.1;
+    private static final double ALFA_BASE = 0.01;
+    private static final double SUAVIZADO = 0.2;
+
+    private final MeterRegistry registry;
+    private final boolean habilitado;
+    private final int minimo;
+    private final int maximo;
+    private final double reservaCritica;
+
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private volatile double limite;
+    // Protegidas por el monitor de this
+    private double latenciaActual;
+    private double latenciaBase;
+
+    public LimitadorConcurrencia(MeterRegistry registry,
+                                 @ConfigProperty(name = "reservas.concurrencia.habilitado") boolean habilitado,
+                                 @ConfigProperty(name = "reservas.concurrencia.limite-inicial") int inicial,
+                                 @ConfigProperty(name = "reservas.concurrencia.limite-minimo") int minimo,
+                                 @ConfigProperty(name = "reservas.concurrencia.limite-maximo") int maximo,
+                                 @ConfigProperty(name = "reservas.concurrencia.reserva-critica") double reservaCritica) {
+        if (minimo < 1 || maximo < minimo || inicial < minimo || inicial > maximo) {
+            throw new IllegalArgumentException("Se requiere 1 <= limite-minimo <= limite-inicial <= limite-maximo");
+        }
+        if (reservaCritica < 0 || reservaCritica >= 1) {
+            throw new IllegalArgumentException("reservas.concurrencia.reserva-critica debe estar en [0, 1)");
+        }
+        this.registry = registry;
+        this.habilitado = habilitado;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.reservaCritica = reservaCritica;
+        this.limite = inicial;
+        Gauge.builder("reservas.concurrencia.limite", this, limitador -> limitador.limite)
+                .description("Límite adaptativo de peticiones en curso")
+                .register(registry);
+        Gauge.builder("reservas.concurrencia.en-curso", enCurso, AtomicInteger::get)
+                .description("Peticiones admitidas por el limitador que aún no han terminado")
+                .register(registry);
+    }
+
+    /**
+     * @return {@code true} si la petición puede ejecutarse; en ese caso hay que llamar a
+     *         {@link #liberar(long)} exactamente una vez al terminar
+     */
+    public boolean adquirir(Prioridad.Nivel nivel) {
+        if (!habilitado) {
+            return true;
+        }
+        var tope = nivel == Prioridad.Nivel.CRITICA ? limite : Math.max(1, limite * (1 - reservaCritica));
+        while (true) {
+            var actual = enCurso.get();
+            if (actual >= (int) tope) {
+                Counter.builder("reservas.concurrencia.rechazos")
+                        .description("Peticiones rechazadas con 503 por el limitador de concurrencia")
+                        .tag("prioridad", nivel.name())
+                        .register(registry)
+                        .increment();
+                return false;
+            }
+            if (enCurso.compareAndSet(actual, actual + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void liberar(long latenciaNanos) {
+        if (!habilitado) {
+            return;
+        }
+        var enVuelo = enCurso.getAndDecrement();
+        muestrear(TimeUnit.NANOSECONDS.toMicros(latenciaNanos), enVuelo);
+    }
+
+    /**
+     * Segundos que se sugieren en {@code Retry-After}: la latencia actual, redondeada hacia arriba.
+     */
+    public synchronized long reintentarEnSegundos() {
+        return Math.max(1, (long) Math.ceil(latenciaActual / 1_000_000));
+    }
+
+    private synchronized void muestrear(double latencia, int enVuelo) {
+        if (latenciaBase == 0) {
+            latenciaActual = latencia;
+            latenciaBase = latencia;
+            return;
+        }
+        latenciaActual += (latencia - latenciaActual) * ALFA_ACTUAL;
+        var actual = limite;
+        var congestion = enVuelo >= actual / 2;
+        if (!congestion || actual <= minimo) {
+            latenciaBase += (latencia - latenciaBase) * ALFA_BASE;
+        }
+        // Con menos de la mitad del límite en uso la latencia no dice nada sobre el límite
+        if (!congestion) {
+            return;
+        }
+        var gradiente = Math.max(0.5, Math.min(1.0, TOLERANCIA * latenciaBase / latenciaActual));
+        var nuevo = actual * gradiente + Math.sqrt(actual);
+        nuevo = actual * (1 - SUAVIZADO) + nuevo * SUAVIZADO;
+        limite = Math.max(minimo, Math.min(maximo, nuevo));
+    }
+}
@@ -0,0 +1,141 @@
+package com.geovannycode.reservas.infrastructure.concurrencia;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cuotas por cliente y llamante con cubos de tokens en memoria.
+ * <p>
+ * Cada cubo admite ráfagas de hasta {@code reservas.cuotas.capacidad} peticiones y se recarga a
+ * {@code reservas.cuotas.recarga-por-segundo} tokens por segundo. Su estado cabe en un solo
+ * {@code long} que se actualiza con CAS, sin bloqueos: el instante, en nanosegundos, en que el
+ * cubo volverá a estar lleno (algoritmo GCRA). Cada token consumido lo retrasa un intervalo de
+ * recarga y el tiempo transcurrido lo alcanza, así que la recarga es exacta por frecuentes que
+ * sean las peticiones, y una petición rechazada no modifica el cubo.
+ * <p>
+ * La memoria está acotada: como mucho {@code reservas.cuotas.max-claves} cubos propios. Con la
+ * tabla llena, las claves nuevas comparten uno de {@value #FRANJAS} cubos elegido por hash,
+ * más estrictos porque los reparten varias claves. {@link #limpiar()} elimina los cubos que ya
+ * se han recargado por completo: uno nuevo sería idéntico.
+ */
+@ApplicationScoped
+public class LimitadorCuotas {
+
+    /**
+     * Identifica a la integración que llama; sin ella se usa la dirección remota.
+     */
+    public static final String CABECERA_LLAMANTE = "X-Api-Key";
+    public static final String CABECERA_LIMITE = "X-RateLimit-Limit";
+    public static final String CABECERA_RESTANTES = "X-RateLimit-Remaining";
+
+    static final int FRANJAS = 4096;
+
+    private final MeterRegistry registry;
+    private final boolean habilitado;
+    private final int capacidad;
+    private final long intervalo;
+    private final long tolerancia;
+    private final int maxClaves;
+
+    private final long origen = System.nanoTime();
+    private final Map<String, AtomicLong> cubos = new ConcurrentHashMap<>();
+    private final AtomicLong[] franjas = new AtomicLong[FRANJAS];
+
+    public LimitadorCuotas(MeterRegistry registry,
+                           @ConfigProperty(name = "reservas.cuotas.habilitado") boolean habilitado,
+                           @ConfigProperty(name = "reservas.cuotas.capacidad") int capacidad,
+                           @ConfigProperty(name = "reservas.cuotas.recarga-por-segundo") double recargaPorSegundo,
+                           @ConfigProperty(name = "reservas.cuotas.max-claves") int maxClaves) {
+        if (capacidad < 1) {
+            throw new IllegalArgumentException("reservas.cuotas.capacidad debe ser al menos 1");
+        }
+        if (recargaPorSegundo <= 0) {
+            throw new IllegalArgumentException("reservas.cuotas.recarga-por-segundo debe ser positiva");
+        }
+        this.registry = registry;
+        this.habilitado = habilitado;
+        this.capacidad = capacidad;
+        this.intervalo = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / recargaPorSegundo));
+        // Cuánto puede adelantarse el instante de lleno a ahora y quedar aún un token
+        this.tolerancia = (capacidad - 1) * intervalo;
+        this.maxClaves = maxClaves;
+        for (int i = 0; i < FRANJAS; i++) {
+            franjas[i] = new AtomicLong();
+        }
+        Gauge.builder("reservas.cuotas.claves", cubos, Map::size)
+                .description("Cubos de tokens propios en memoria")
+                .register(registry);
+    }
+
+    /**
+     * Consume un token del cubo de {@code clienteId} para {@code llamante}.
+     */
+    public Cuota consumir(UUID clienteId, String llamante) {
+        return consumir(clienteId, llamante, ahora());
+    }
+
+    Cuota consumir(UUID clienteId, String llamante, long ahora) {
+        if (!habilitado) {
+            return new Cuota(true, capacidad, capacidad, 0);
+        }
+        var cubo = cubo(llamante + "|" + clienteId);
+        while (true) {
+            var lleno = cubo.get();
+            // Si otro hilo ya consumió con un instante posterior, se parte de él
+            var pendiente = Math.max(0, lleno - ahora);
+            if (pendiente > tolerancia) {
+                Counter.builder("reservas.cuotas.rechazos")
+                        .description("Peticiones rechazadas con 429 por agotar la cuota")
+                        .register(registry)
+                        .increment();
+                var espera = pendiente - tolerancia;
+                return new Cuota(false, capacidad, 0,
+                        Math.max(1, (espera + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1)));
+            }
+            var nuevo = ahora + pendiente + intervalo;
+            if (cubo.compareAndSet(lleno, nuevo)) {
+                return new Cuota(true, capacidad, (int) ((tolerancia - pendiente) / intervalo), 0);
+            }
+        }
+    }
+
+    /**
+     * Elimina los cubos llenos. Un consumo concurrente sobre un cubo que se está eliminando se
+     * pierde: como mucho un token de más para esa clave.
+     */
+    public void limpiar() {
+        var ahora = ahora();
+        cubos.values().removeIf(cubo -> cubo.get() <= ahora);
+    }
+
+    private AtomicLong cubo(String clave) {
+        var cubo = cubos.get(clave);
+        if (cubo != null) {
+            return cubo;
+        }
+        if (cubos.size() >= maxClaves) {
+            Counter.builder("reservas.cuotas.desbordamientos")
+                    .description("Claves sin cubo propio por tener la tabla llena (comparten franja)")
+                    .register(registry)
+                    .increment();
+            return franjas[Math.floorMod(clave.hashCode(), FRANJAS)];
+        }
+        return cubos.computeIfAbsent(clave, ignorada -> new AtomicLong());
+    }
+
+    /**
+     * Nanosegundos desde la creación. Un cubo nuevo vale {@code 0}: lleno desde el principio.
+     */
+    private long ahora() {
+        return System.nanoTime() - origen;
+    }
+}
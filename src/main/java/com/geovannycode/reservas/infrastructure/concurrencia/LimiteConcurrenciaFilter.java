@@ -0,0 +1,68 @@
+package com.geovannycode.reservas.infrastructure.concurrencia;
+
+import com.geovannycode.reservas.application.dto.response.ErrorResponse;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.annotation.Priority;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Pasa cada petición a un endpoint por el {@link LimitadorConcurrencia} antes de ejecutarla.
+ * Si no hay plaza responde 503 con {@code Retry-After} sin tocar la base de datos.
+ * <p>
+ * La plaza se libera al terminar la respuesta HTTP o al cerrarse la conexión (manejador de fin
+ * del {@link RoutingContext}), de modo que un cliente que se desconecta no la deja ocupada.
+ */
+@Provider
+@Priority(Priorities.AUTHENTICATION)
+public class LimiteConcurrenciaFilter implements ContainerRequestFilter {
+
+    private final LimitadorConcurrencia limitador;
+    private final RoutingContext peticionHttp;
+
+    @Context
+    ResourceInfo recurso;
+
+    public LimiteConcurrenciaFilter(LimitadorConcurrencia limitador, RoutingContext peticionHttp) {
+        this.limitador = limitador;
+        this.peticionHttp = peticionHttp;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext peticion) {
+        var nivel = nivel();
+        if (nivel == Prioridad.Nivel.EXENTA) {
+            return;
+        }
+        if (!limitador.adquirir(nivel)) {
+            var error = ErrorResponse.of(503, "Servicio saturado, intente de nuevo en unos segundos",
+                    peticion.getUriInfo().getPath());
+            peticion.abortWith(Response.status(503)
+                    .header(HttpHeaders.RETRY_AFTER, limitador.reintentarEnSegundos())
+                    .type(MediaType.APPLICATION_JSON_TYPE)
+                    .entity(error)
+                    .build());
+            return;
+        }
+        var inicio = System.nanoTime();
+        peticionHttp.addEndHandler(fin -> limitador.liberar(System.nanoTime() - inicio));
+    }
+
+    private Prioridad.Nivel nivel() {
+        if (recurso == null || recurso.getResourceMethod() == null) {
+            return Prioridad.Nivel.NORMAL;
+        }
+        var prioridad = recurso.getResourceMethod().getAnnotation(Prioridad.class);
+        if (prioridad == null) {
+            prioridad = recurso.getResourceClass().getAnnotation(Prioridad.class);
+        }
+        return prioridad == null ? Prioridad.Nivel.NORMAL : prioridad.value();
+    }
+}
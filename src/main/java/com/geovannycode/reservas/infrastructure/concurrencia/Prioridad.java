@@ -0,0 +1,34 @@
+package com.geovannycode.reservas.infrastructure.concurrencia;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Prioridad de un endpoint ante el {@link LimitadorConcurrencia}. Sin anotación, un endpoint
+ * es {@link Nivel#NORMAL}. En la clase aplica a todos sus métodos; en el método, prevalece.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Prioridad {
+
+    Nivel value();
+
+    enum Nivel {
+        /**
+         * Escrituras de negocio (crear y cancelar reservas): pueden usar todo el límite.
+         */
+        CRITICA,
+        /**
+         * Listados, reportes y CRUD: no entran en la reserva de {@code reservas.concurrencia.reserva-critica}.
+         */
+        NORMAL,
+        /**
+         * Diagnóstico (administración): no cuenta ni se rechaza, para poder usarse en plena sobrecarga.
+         * También las importaciones CSV, que no usan el pool reactivo y cuya duración no es una
+         * señal de congestión.
+         */
+        EXENTA
+    }
+}
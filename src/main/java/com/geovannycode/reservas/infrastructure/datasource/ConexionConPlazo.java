@@ -0,0 +1,131 @@
+package com.geovannycode.reservas.infrastructure.datasource;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.pgclient.PgConnection;
+import io.vertx.sqlclient.PrepareOptions;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.PreparedStatement;
+import io.vertx.sqlclient.Query;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Transaction;
+import io.vertx.sqlclient.spi.DatabaseMetadata;
+
+/**
+ * Conexión entregada bajo un {@link Plazo}: delega todo en la del pool y, al cancelarse el
+ * plazo, pide a PostgreSQL que cancele la consulta que esté ejecutando.
+ * <p>
+ * El {@code CancelRequest} va por otra conexión y llega al proceso del servidor, no a la
+ * consulta. Para que no alcance a la siguiente petición que reciba esta conexión del pool,
+ * {@link #close()} espera a que se haya enviado antes de devolverla. Sus consultas
+ * ({@link ConsultaConPlazo}) fallan con {@code PlazoVencidoException} si PostgreSQL las cancela
+ * por el plazo.
+ */
+final class ConexionConPlazo implements SqlConnection {
+
+    private final SqlConnection conexion;
+    private final Plazo plazo;
+    private final Plazos plazos;
+    private volatile Future<Void> cancelacion = Future.succeededFuture();
+
+    ConexionConPlazo(SqlConnection conexion, Plazo plazo, Plazos plazos) {
+        this.conexion = conexion;
+        this.plazo = plazo;
+        this.plazos = plazos;
+    }
+
+    void cancelarConsulta() {
+        if (conexion instanceof PgConnection pg) {
+            plazos.consultaCancelada();
+            cancelacion = pg.cancelRequest().recover(error -> Future.succeededFuture());
+        }
+    }
+
+    @Override
+    public Future<Void> close() {
+        plazo.liberar(this);
+        return cancelacion.compose(ignorado -> conexion.close());
+    }
+
+    @Override
+    public void close(Handler<AsyncResult<Void>> handler) {
+        close().onComplete(handler);
+    }
+
+    @Override
+    public Query<RowSet<Row>> query(String sql) {
+        return new ConsultaConPlazo(conexion.query(sql), plazo);
+    }
+
+    @Override
+    public PreparedQuery<RowSet<Row>> preparedQuery(String sql) {
+        return new ConsultaConPlazo.Preparada(conexion.preparedQuery(sql), plazo);
+    }
+
+    @Override
+    public PreparedQuery<RowSet<Row>> preparedQuery(String sql, PrepareOptions opciones) {
+        return new ConsultaConPlazo.Preparada(conexion.preparedQuery(sql, opciones), plazo);
+    }
+
+    @Override
+    public SqlConnection prepare(String sql, Handler<AsyncResult<PreparedStatement>> handler) {
+        conexion.prepare(sql, handler);
+        return this;
+    }
+
+    @Override
+    public Future<PreparedStatement> prepare(String sql) {
+        return conexion.prepare(sql);
+    }
+
+    @Override
+    public SqlConnection prepare(String sql, PrepareOptions opciones, Handler<AsyncResult<PreparedStatement>> handler) {
+        conexion.prepare(sql, opciones, handler);
+        return this;
+    }
+
+    @Override
+    public Future<PreparedStatement> prepare(String sql, PrepareOptions opciones) {
+        return conexion.prepare(sql, opciones);
+    }
+
+    @Override
+    public SqlConnection exceptionHandler(Handler<Throwable> handler) {
+        conexion.exceptionHandler(handler);
+        return this;
+    }
+
+    @Override
+    public SqlConnection closeHandler(Handler<Void> handler) {
+        conexion.closeHandler(handler);
+        return this;
+    }
+
+    @Override
+    public void begin(Handler<AsyncResult<Transaction>> handler) {
+        conexion.begin(handler);
+    }
+
+    @Override
+    public Future<Transaction> begin() {
+        return conexion.begin();
+    }
+
+    @Override
+    public Transaction transaction() {
+        return conexion.transaction();
+    }
+
+    @Override
+    public boolean isSSL() {
+        return conexion.isSSL();
+    }
+
+    @Override
+    public DatabaseMetadata databaseMetadata() {
+        return conexion.databaseMetadata();
+    }
+}
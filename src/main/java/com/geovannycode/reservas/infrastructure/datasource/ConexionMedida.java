@@ -0,0 +1,114 @@
+package com.geovannycode.reservas.infrastructure.datasource;
+
+import com.geovannycode.reservas.infrastructure.observability.EstadisticasConsultas;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.sqlclient.PrepareOptions;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.PreparedStatement;
+import io.vertx.sqlclient.Query;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Transaction;
+import io.vertx.sqlclient.spi.DatabaseMetadata;
+
+/**
+ * Conexión cuyas consultas se anotan en {@link EstadisticasConsultas}; el resto lo delega en la
+ * envuelta. Las sentencias de {@code prepare} (cursores) no se miden: Hibernate no las usa.
+ */
+final class ConexionMedida implements SqlConnection {
+
+    private final SqlConnection conexion;
+    private final EstadisticasConsultas estadisticas;
+
+    ConexionMedida(SqlConnection conexion, EstadisticasConsultas estadisticas) {
+        this.conexion = conexion;
+        this.estadisticas = estadisticas;
+    }
+
+    @Override
+    public Future<Void> close() {
+        return conexion.close();
+    }
+
+    @Override
+    public void close(Handler<AsyncResult<Void>> handler) {
+        conexion.close(handler);
+    }
+
+    @Override
+    public Query<RowSet<Row>> query(String sql) {
+        return new ConsultaSqlMedida(conexion.query(sql), sql, estadisticas);
+    }
+
+    @Override
+    public PreparedQuery<RowSet<Row>> preparedQuery(String sql) {
+        return new ConsultaSqlMedida.Preparada(conexion.preparedQuery(sql), sql, estadisticas);
+    }
+
+    @Override
+    public PreparedQuery<RowSet<Row>> preparedQuery(String sql, PrepareOptions opciones) {
+        return new ConsultaSqlMedida.Preparada(conexion.preparedQuery(sql, opciones), sql, estadisticas);
+    }
+
+    @Override
+    public SqlConnection prepare(String sql, Handler<AsyncResult<PreparedStatement>> handler) {
+        conexion.prepare(sql, handler);
+        return this;
+    }
+
+    @Override
+    public Future<PreparedStatement> prepare(String sql) {
+        return conexion.prepare(sql);
+    }
+
+    @Override
+    public SqlConnection prepare(String sql, PrepareOptions opciones, Handler<AsyncResult<PreparedStatement>> handler) {
+        conexion.prepare(sql, opciones, handler);
+        return this;
+    }
+
+    @Override
+    public Future<PreparedStatement> prepare(String sql, PrepareOptions opciones) {
+        return conexion.prepare(sql, opciones);
+    }
+
+    @Override
+    public SqlConnection exceptionHandler(Handler<Throwable> handler) {
+        conexion.exceptionHandler(handler);
+        return this;
+    }
+
+    @Override
+    public SqlConnection closeHandler(Handler<Void> handler) {
+        conexion.closeHandler(handler);
+        return this;
+    }
+
+    @Override
+    public void begin(Handler<AsyncResult<Transaction>> handler) {
+        conexion.begin(handler);
+    }
+
+    @Override
+    public Future<Transaction> begin() {
+        return conexion.begin();
+    }
+
+    @Override
+    public Transaction transaction() {
+        return conexion.transaction();
+    }
+
+    @Override
+    public boolean isSSL() {
+        return conexion.isSSL();
+    }
+
+    @Override
+    public DatabaseMetadata databaseMetadata() {
+        return conexion.databaseMetadata();
+    }
+}
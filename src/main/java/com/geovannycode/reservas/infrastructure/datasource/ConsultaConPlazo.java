@@ -0,0 +1,111 @@
+package com.geovannycode.reservas.infrastructure.datasource;
+
+import com.geovannycode.reservas.domain.exception.PlazoVencidoException;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.sqlclient.DatabaseException;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.Query;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlResult;
+import io.vertx.sqlclient.Tuple;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * Consulta de una {@link ConexionConPlazo}: si PostgreSQL la cancela ({@value #CANCELADA},
+ * {@code query_canceled}) porque su {@link Plazo} ya se canceló, falla con
+ * {@link PlazoVencidoException} (504) en lugar de con el error de la base de datos, que llegaba
+ * como un 500. Una cancelación por otro motivo ({@code statement_timeout}) no se traduce.
+ * {@link Preparada} hace lo mismo con las consultas preparadas.
+ */
+class ConsultaConPlazo implements Query<RowSet<Row>> {
+
+    static final String CANCELADA = "57014";
+
+    private final Query<RowSet<Row>> consulta;
+    private final Plazo plazo;
+
+    ConsultaConPlazo(Query<RowSet<Row>> consulta, Plazo plazo) {
+        this.consulta = consulta;
+        this.plazo = plazo;
+    }
+
+    @Override
+    public Future<RowSet<Row>> execute() {
+        return vigilar(consulta::execute);
+    }
+
+    @Override
+    public void execute(Handler<AsyncResult<RowSet<Row>>> handler) {
+        execute().onComplete(handler);
+    }
+
+    @Override
+    public <R> Query<SqlResult<R>> collecting(Collector<Row, ?, R> collector) {
+        return consulta.collecting(collector);
+    }
+
+    @Override
+    public <U> Query<RowSet<U>> mapping(Function<Row, U> mapper) {
+        return consulta.mapping(mapper);
+    }
+
+    final Future<RowSet<Row>> vigilar(Supplier<Future<RowSet<Row>>> ejecucion) {
+        return ejecucion.get().recover(fallo -> Future.failedFuture(traducir(fallo)));
+    }
+
+    private Throwable traducir(Throwable fallo) {
+        if (fallo instanceof DatabaseException error && CANCELADA.equals(error.getSqlState()) && plazo.vencido()) {
+            var vencido = new PlazoVencidoException();
+            vencido.initCause(fallo);
+            return vencido;
+        }
+        return fallo;
+    }
+
+    static final class Preparada extends ConsultaConPlazo implements PreparedQuery<RowSet<Row>> {
+
+        private final PreparedQuery<RowSet<Row>> consulta;
+
+        Preparada(PreparedQuery<RowSet<Row>> consulta, Plazo plazo) {
+            super(consulta, plazo);
+            this.consulta = consulta;
+        }
+
+        @Override
+        public Future<RowSet<Row>> execute(Tuple parametros) {
+            return vigilar(() -> consulta.execute(parametros));
+        }
+
+        @Override
+        public void execute(Tuple parametros, Handler<AsyncResult<RowSet<Row>>> handler) {
+            execute(parametros).onComplete(handler);
+        }
+
+        @Override
+        public Future<RowSet<Row>> executeBatch(List<Tuple> lotes) {
+            return vigilar(() -> consulta.executeBatch(lotes));
+        }
+
+        @Override
+        public void executeBatch(List<Tuple> lotes, Handler<AsyncResult<RowSet<Row>>> handler) {
+            executeBatch(lotes).onComplete(handler);
+        }
+
+        @Override
+        public <R> PreparedQuery<SqlResult<R>> collecting(Collector<Row, ?, R> collector) {
+            return consulta.collecting(collector);
+        }
+
+        @Override
+        public <U> PreparedQuery<RowSet<U>> mapping(Function<Row, U> mapper) {
+            return consulta.mapping(mapper);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.geovannycode.reservas.infrastructure.datasource;
+
+import com.geovannycode.reservas.infrastructure.observability.EstadisticasConsultas;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.Query;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlResult;
+import io.vertx.sqlclient.Tuple;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * Consulta que anota en {@link EstadisticasConsultas} la duración y las filas de cada ejecución.
+ * {@link Preparada} hace lo mismo con las consultas preparadas. {@code collecting} y
+ * {@code mapping} devuelven la consulta sin medir: Hibernate no los usa.
+ */
+class ConsultaSqlMedida implements Query<RowSet<Row>> {
+
+    private final Query<RowSet<Row>> consulta;
+    private final String sql;
+    private final EstadisticasConsultas estadisticas;
+
+    ConsultaSqlMedida(Query<RowSet<Row>> consulta, String sql, EstadisticasConsultas estadisticas) {
+        this.consulta = consulta;
+        this.sql = sql;
+        this.estadisticas = estadisticas;
+    }
+
+    @Override
+    public Future<RowSet<Row>> execute() {
+        return medir(consulta::execute);
+    }
+
+    @Override
+    public void execute(Handler<AsyncResult<RowSet<Row>>> handler) {
+        execute().onComplete(handler);
+    }
+
+    @Override
+    public <R> Query<SqlResult<R>> collecting(Collector<Row, ?, R> collector) {
+        return consulta.collecting(collector);
+    }
+
+    @Override
+    public <U> Query<RowSet<U>> mapping(Function<Row, U> mapper) {
+        return consulta.mapping(mapper);
+    }
+
+    final Future<RowSet<Row>> medir(Supplier<Future<RowSet<Row>>> ejecucion) {
+        var origen = EstadisticasConsultas.origen();
+        var inicio = System.nanoTime();
+        return ejecucion.get().andThen(resultado -> estadisticas.registrar(sql, origen,
+                System.nanoTime() - inicio, resultado.succeeded() ? filas(resultado.result()) : 0, resultado.failed()));
+    }
+
+    /**
+     * Suma las filas de todos los resultados (un lote devuelve uno por ejecución).
+     */
+    private static long filas(SqlResult<?> resultado) {
+        var total = 0L;
+        for (var actual = resultado; actual != null; actual = actual.next()) {
+            total += actual.rowCount();
+        }
+        return total;
+    }
+
+    static final class Preparada extends ConsultaSqlMedida implements PreparedQuery<RowSet<Row>> {
+
+        private final PreparedQuery<RowSet<Row>> consulta;
+
+        Preparada(PreparedQuery<RowSet<Row>> consulta, String sql, EstadisticasConsultas estadisticas) {
+            super(consulta, sql, estadisticas);
+            this.consulta = consulta;
+        }
+
+        @Override
+        public Future<RowSet<Row>> execute(Tuple parametros) {
+            return medir(() -> consulta.execute(parametros));
+        }
+
+        @Override
+        public void execute(Tuple parametros, Handler<AsyncResult<RowSet<Row>>> handler) {
+            execute(parametros).onComplete(handler);
+        }
+
+        @Override
+        public Future<RowSet<Row>> executeBatch(List<Tuple> lotes) {
+            return medir(() -> consulta.executeBatch(lotes));
+        }
+
+        @Override
+        public void executeBatch(List<Tuple> lotes, Handler<AsyncResult<RowSet<Row>>> handler) {
+            executeBatch(lotes).onComplete(handler);
+        }
+
+        @Override
+        public <R> PreparedQuery<SqlResult<R>> collecting(Collector<Row, ?, R> collector) {
+            return consulta.collecting(collector);
+        }
+
+        @Override
+        public <U> PreparedQuery<RowSet<U>> mapping(Function<Row, U> mapper) {
+            return consulta.mapping(mapper);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.geovannycode.reservas.infrastructure.datasource;
+
+import io.smallrye.common.vertx.ContextLocals;
+import io.smallrye.common.vertx.VertxContext;
+import io.vertx.core.Context;
+
+import java.util.OptionalLong;
+
+/**
+ * Datos de enrutado guardados en el contexto duplicado de Vert.x de cada petición, que
+ * acompaña a todas sus continuaciones Mutiny. Fuera de un contexto duplicado (hilos propios,
+ * tests sin Vert.x) no hay marca y todo va al primario.
+ */
+final class ContextoConexion {
+
+    private static final String LECTURA = "reservas.conexion.lectura";
+    private static final String REPORTE = "reservas.conexion.reporte";
+    private static final String LSN_MINIMO = "reservas.conexion.lsn-minimo";
+    private static final String FRAGMENTO = "reservas.conexion.fragmento";
+    private static final String PLAZO = "reservas.conexion.plazo";
+
+    private ContextoConexion() {
+    }
+
+    /**
+     * @return {@code false} si no hay contexto duplicado o la marca ya estaba puesta
+     *         (método de lectura anidado), en cuyo caso no hay que quitarla al terminar
+     */
+    static boolean marcarLectura() {
+        return marcar(LECTURA);
+    }
+
+    static void desmarcarLectura() {
+        desmarcar(LECTURA);
+    }
+
+    static boolean esLectura() {
+        return marcado(LECTURA);
+    }
+
+    /**
+     * Igual que {@link #marcarLectura()}, para los métodos {@link Reporte}.
+     */
+    static boolean marcarReporte() {
+        return marcar(REPORTE);
+    }
+
+    static void desmarcarReporte() {
+        desmarcar(REPORTE);
+    }
+
+    static boolean esReporte() {
+        return marcado(REPORTE);
+    }
+
+    private static boolean marcar(String marca) {
+        if (!VertxContext.isOnDuplicatedContext() || marcado(marca)) {
+            return false;
+        }
+        ContextLocals.put(marca, Boolean.TRUE);
+        return true;
+    }
+
+    private static void desmarcar(String marca) {
+        if (VertxContext.isOnDuplicatedContext()) {
+            ContextLocals.remove(marca);
+        }
+    }
+
+    private static boolean marcado(String marca) {
+        return VertxContext.isOnDuplicatedContext() && ContextLocals.get(marca, Boolean.FALSE);
+    }
+
+    static void exigirLsn(long lsn) {
+        if (VertxContext.isOnDuplicatedContext()) {
+            ContextLocals.put(LSN_MINIMO, lsn);
+        }
+    }
+
+    static OptionalLong lsnMinimo() {
+        if (!VertxContext.isOnDuplicatedContext()) {
+            return OptionalLong.empty();
+        }
+        return ContextLocals.<Long>get(LSN_MINIMO)
+                .map(OptionalLong::of)
+                .orElse(OptionalLong.empty());
+    }
+
+    /**
+     * Fija el fragmento de todas las conexiones pedidas desde {@code contexto}; lo usa
+     * {@link Fragmentos} sobre un contexto anidado creado para ese fragmento.
+     */
+    static void fijarFragmento(Context contexto, int fragmento) {
+        contexto.putLocal(FRAGMENTO, fragmento);
+    }
+
+    /**
+     * @return el fragmento fijado en el contexto actual, o {@code 0} (datasource por defecto)
+     */
+    static int fragmento() {
+        return VertxContext.isOnDuplicatedContext() ? ContextLocals.get(FRAGMENTO, 0) : 0;
+    }
+
+    /**
+     * Fija el plazo de las conexiones pedidas desde {@code contexto} y sus contextos anidados
+     * (ver {@link Plazos}).
+     */
+    static void fijarPlazo(Context contexto, Plazo plazo) {
+        contexto.putLocal(PLAZO, plazo);
+    }
+
+    /**
+     * @return el plazo del contexto actual, o {@code null} si no tiene
+     */
+    static Plazo plazo() {
+        return VertxContext.isOnDuplicatedContext() ? ContextLocals.<Plazo>get(PLAZO).orElse(null) : null;
+    }
+}
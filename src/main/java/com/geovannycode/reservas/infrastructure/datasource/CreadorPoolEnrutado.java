@@ -0,0 +1,114 @@
+package com.geovannycode.reservas.infrastructure.datasource;
+
+import com.geovannycode.reservas.infrastructure.observability.EstadisticasConsultas;
+import io.quarkus.arc.Arc;
+import io.quarkus.reactive.datasource.ReactiveDataSource;
+import io.quarkus.reactive.pg.client.PgPoolCreator;
+import io.vertx.pgclient.PgBuilder;
+import io.vertx.pgclient.PgConnectOptions;
+import io.vertx.sqlclient.Pool;
+import io.vertx.sqlclient.PoolOptions;
+import io.vertx.sqlclient.SqlConnectOptions;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Crea el pool del datasource por defecto como un {@link PoolEnrutado}: el primario con la
+ * configuración de {@code quarkus.datasource.reactive.*} y, detrás, la réplica
+ * ({@code quarkus.datasource.replica.*}) y los primarios de los demás fragmentos
+ * ({@code reservas.fragmentos.datasources}, ver {@link Fragmentos}). Crea además el pool de
+ * reportes ({@link Reporte}): mismas opciones y servidor que el primario, pero con
+ * {@code reservas.reportes.max-conexiones} conexiones y nombre {@code reportes} en las
+ * métricas {@code sql.pool.*}. Cada fragmento tiene el suyo ({@code reportes-<datasource>}),
+ * contra el servidor de {@code quarkus.datasource.<datasource>.reactive.url}.
+ * <p>
+ * La réplica, los fragmentos, el enrutador y las estadísticas de consultas se resuelven en la
+ * primera conexión, no aquí: este método se ejecuta mientras se crea el propio bean del pool.
+ */
+@Singleton
+public class CreadorPoolEnrutado implements PgPoolCreator {
+
+    private final List<String> fragmentos;
+    private final int conexionesReportes;
+
+    public CreadorPoolEnrutado(@ConfigProperty(name = "reservas.fragmentos.habilitado") boolean habilitado,
+                               @ConfigProperty(name = "reservas.fragmentos.datasources")
+                               Optional<List<String>> datasources,
+                               @ConfigProperty(name = "reservas.reportes.max-conexiones") int conexionesReportes) {
+        this.fragmentos = habilitado ? datasources.orElse(List.of()) : List.of();
+        this.conexionesReportes = conexionesReportes;
+    }
+
+    @Override
+    public Pool create(Input input) {
+        var servidores = List.<SqlConnectOptions>copyOf(input.pgConnectOptionsList());
+        var primario = PgBuilder.pool()
+                .with(input.poolOptions())
+                .connectingTo(servidores)
+                .using(input.vertx())
+                .build();
+        var reportes = PgBuilder.pool()
+                .with(new PoolOptions(input.poolOptions())
+                        .setMaxSize(conexionesReportes)
+                        .setName("reportes"))
+                .connectingTo(servidores)
+                .using(input.vertx())
+                .build();
+        Map<Destino, Supplier<Pool>> otros = Map.of(Destino.REPLICA, datasource("replica"));
+        var primarios = fragmentos.stream()
+                .map(CreadorPoolEnrutado::datasource)
+                .toList();
+        var reportesFragmentos = fragmentos.stream()
+                .map(nombre -> PgBuilder.pool()
+                        .with(new PoolOptions(input.poolOptions())
+                                .setMaxSize(conexionesReportes)
+                                .setName("reportes-" + nombre))
+                        .connectingTo(servidor(nombre))
+                        .using(input.vertx())
+                        .build())
+                .toList();
+        return new PoolEnrutado(primario, reportes, otros, primarios, reportesFragmentos,
+                perezoso(() -> Arc.container().select(EnrutadorConexiones.class).get()),
+                perezoso(() -> Arc.container().select(EstadisticasConsultas.class).get()));
+    }
+
+    /**
+     * Servidor y credenciales del datasource reactivo {@code nombre}, leídos de su configuración.
+     */
+    private static PgConnectOptions servidor(String nombre) {
+        var config = ConfigProvider.getConfig();
+        var prefijo = "quarkus.datasource." + nombre + ".";
+        var opciones = PgConnectOptions.fromUri(config.getValue(prefijo + "reactive.url", String.class));
+        config.getOptionalValue(prefijo + "username", String.class).ifPresent(opciones::setUser);
+        config.getOptionalValue(prefijo + "password", String.class).ifPresent(opciones::setPassword);
+        return opciones;
+    }
+
+    private static Supplier<Pool> datasource(String nombre) {
+        return perezoso(() -> Arc.container()
+                .select(Pool.class, new ReactiveDataSource.ReactiveDataSourceLiteral(nombre))
+                .get());
+    }
+
+    private static <T> Supplier<T> perezoso(Supplier<T> fuente) {
+        return new Supplier<>() {
+            private volatile T valor;
+
+            @Override
+            public T get() {
+                var actual = valor;
+                if (actual == null) {
+                    actual = fuente.get();
+                    valor = actual;
+                }
+                return actual;
+            }
+        };
+    }
+}
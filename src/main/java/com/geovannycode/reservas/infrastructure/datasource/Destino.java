@@ -0,0 +1,13 @@
+package com.geovannycode.reservas.infrastructure.datasource;
+
+/**
+ * Pool al que {@link PoolEnrutado} envía una conexión.
+ */
+public enum Destino {
+    PRIMARIO,
+    REPLICA,
+    /**
+     * Pool propio y más pequeño sobre el primario para las lecturas {@link Reporte}.
+     */
+    REPORTES
+}
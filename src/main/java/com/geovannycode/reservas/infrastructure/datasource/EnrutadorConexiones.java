@@ -0,0 +1,54 @@
+package com.geovannycode.reservas.infrastructure.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Decide a qué pool va cada conexión que pide Hibernate Reactive.
+ * <p>
+ * Solo las sesiones abiertas dentro de un método {@link SoloLectura} pueden ir a la réplica,
+ * y solo si está habilitada, disponible (ver {@link EstadoReplica}) y, cuando la petición
+ * trae {@code X-Reservas-Lsn}, si ya aplicó el WAL hasta esa posición. Todo lo demás,
+ * incluidas las transacciones de escritura, va al primario. Cada decisión se cuenta en
+ * {@code reservas.lecturas} por destino y motivo.
+ * <p>
+ * Dentro de un método {@link Reporte}, "el primario" es el pool de reportes: misma base de
+ * datos, pero sus conexiones no compiten con las del pool principal.
+ */
+@ApplicationScoped
+public class EnrutadorConexiones {
+
+    private final EstadoReplica estadoReplica;
+    private final MeterRegistry registry;
+
+    public EnrutadorConexiones(EstadoReplica estadoReplica, MeterRegistry registry) {
+        this.estadoReplica = estadoReplica;
+        this.registry = registry;
+    }
+
+    public Destino elegir() {
+        var primario = ContextoConexion.esReporte() ? Destino.REPORTES : Destino.PRIMARIO;
+        if (!estadoReplica.habilitada() || !ContextoConexion.esLectura()) {
+            return primario;
+        }
+        if (!estadoReplica.disponible()) {
+            return contar(primario, "replica-no-disponible");
+        }
+        var lsnMinimo = ContextoConexion.lsnMinimo();
+        if (lsnMinimo.isPresent() && !estadoReplica.alcanzo(lsnMinimo.getAsLong())) {
+            return contar(primario, "leer-escrituras");
+        }
+        return contar(Destino.REPLICA, "lectura");
+    }
+
+    private Destino contar(Destino destino, String motivo) {
+        Counter.builder("reservas.lecturas")
+                .description("Sesiones de solo lectura por pool de destino")
+                .tag("destino", destino.name().toLowerCase())
+                .tag("motivo", motivo)
+                .register(registry)
+                .increment();
+        return destino;
+    }
+}
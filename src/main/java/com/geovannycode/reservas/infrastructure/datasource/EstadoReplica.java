@@ -0,0 +1,143 @@
+package com.geovannycode.reservas.infrastructure.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.reactive.datasource.ReactiveDataSource;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+
+/**
+ * Sondea la réplica de lectura cada {@code reservas.replica.sondeo} y guarda su posición
+ * de WAL aplicada y su retraso.
+ * <p>
+ * El retraso es cero si la réplica está recibiendo WAL del primario y aplicó todo lo recibido;
+ * si no, el tiempo desde la última transacción aplicada. Sin el proceso {@code walreceiver}
+ * (replicación cortada) lo recibido deja de avanzar y coincide con lo aplicado, así que no basta
+ * comparar ambas posiciones: hay que mirar {@code pg_stat_wal_receiver}. Una réplica que no
+ * responde, que no está en recuperación (apunta a un primario), que nunca aplicó una
+ * transacción sin estar recibiendo o cuyo retraso supera {@code reservas.replica.retraso-maximo}
+ * se considera no disponible y las lecturas vuelven al primario.
+ */
+@ApplicationScoped
+public class EstadoReplica {
+
+    private static final Logger LOG = Logger.getLogger(EstadoReplica.class);
+
+    // status solo es visible con pg_read_all_stats; sin ese rol basta con que el proceso exista
+    private static final String SQL_ESTADO = """
+            SELECT pg_last_wal_replay_lsn()::text AS aplicado,
+                   CASE WHEN EXISTS (SELECT 1 FROM pg_stat_wal_receiver
+                                     WHERE coalesce(status, 'streaming') = 'streaming')
+                             AND pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())
+                   END AS retraso""";
+
+    private final Instance<Pool> replica;
+    private final Pool primario;
+    private final boolean habilitada;
+    private final Duration retrasoMaximo;
+
+    private volatile boolean disponible;
+    private volatile long lsnAplicado;
+    private volatile double retrasoSegundos;
+
+    public EstadoReplica(@ReactiveDataSource("replica") Instance<Pool> replica,
+                         Pool primario,
+                         MeterRegistry registry,
+                         @ConfigProperty(name = "reservas.replica.habilitada") boolean habilitada,
+                         @ConfigProperty(name = "reservas.replica.retraso-maximo") Duration retrasoMaximo) {
+        this.replica = replica;
+        this.primario = primario;
+        this.habilitada = habilitada;
+        this.retrasoMaximo = retrasoMaximo;
+        registry.gauge("reservas.replica.retraso", this, estado -> estado.retrasoSegundos);
+        registry.gauge("reservas.replica.disponible", this, estado -> estado.disponible ? 1 : 0);
+    }
+
+    public boolean habilitada() {
+        return habilitada;
+    }
+
+    public boolean disponible() {
+        return disponible;
+    }
+
+    /**
+     * Indica si la réplica ya aplicó el WAL hasta {@code lsn} (lectura de las propias escrituras).
+     */
+    public boolean alcanzo(long lsn) {
+        return lsnAplicado >= lsn;
+    }
+
+    /**
+     * Posición actual del WAL del primario, para devolverla tras una escritura.
+     */
+    public Uni<String> lsnPrimario() {
+        return primario.query("SELECT pg_current_wal_lsn()::text").execute()
+                .map(filas -> filas.iterator().next().getString(0));
+    }
+
+    @Scheduled(identity = "estado-replica",
+            every = "${reservas.replica.sondeo}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    Uni<Void> sondear() {
+        if (!habilitada) {
+            return Uni.createFrom().voidItem();
+        }
+        return replica.get().query(SQL_ESTADO).execute()
+                .map(filas -> filas.iterator().next())
+                .invoke(this::actualizar)
+                .onFailure().invoke(fallo -> {
+                    if (disponible) {
+                        LOG.warnf("Réplica de lectura no disponible: %s", fallo.getMessage());
+                    }
+                    disponible = false;
+                })
+                .onFailure().recoverWithNull()
+                .replaceWithVoid();
+    }
+
+    private void actualizar(Row fila) {
+        var retraso = fila.getNumeric("retraso");
+        actualizar(fila.getString("aplicado"), retraso == null ? null : retraso.doubleValue());
+    }
+
+    /**
+     * @param aplicado {@code pg_last_wal_replay_lsn()}; {@code null} fuera de recuperación
+     * @param retraso  segundos; {@code null} si no se puede acotar (sin recibir WAL y sin
+     *                 ninguna transacción aplicada)
+     */
+    void actualizar(String aplicado, Double retraso) {
+        if (aplicado == null) {
+            // pg_last_wal_replay_lsn() es NULL fuera de recuperación: no es una réplica
+            disponible = false;
+            return;
+        }
+        lsnAplicado = parsearLsn(aplicado);
+        retrasoSegundos = retraso == null ? Double.POSITIVE_INFINITY : retraso;
+        var estaba = disponible;
+        disponible = retrasoSegundos <= retrasoMaximo.toMillis() / 1000.0;
+        if (estaba && !disponible) {
+            LOG.warnf("Réplica de lectura con %.1f s de retraso: las lecturas vuelven al primario", retrasoSegundos);
+        }
+    }
+
+    /**
+     * Convierte un LSN de PostgreSQL ({@code 16/B374D848}) en un número comparable.
+     */
+    public static long parsearLsn(String lsn) {
+        var separador = lsn.indexOf('/');
+        if (separador < 0) {
+            throw new IllegalArgumentException("LSN inválido: " + lsn);
+        }
+        return Long.parseLong(lsn.substring(0, separador), 16) << 32
+                | Long.parseLong(lsn.substring(separador + 1), 16);
+    }
+}
@@ -0,0 +1,163 @@
+package com.geovannycode.reservas.infrastructure.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.vertx.core.runtime.context.VertxContextSafetyToggle;
+import io.smallrye.common.vertx.VertxContext;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Vertx;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Reparto horizontal de las reservas por profesional entre N bases de datos (fragmentos).
+ * <p>
+ * El fragmento 0 es el datasource por defecto; los fragmentos 1 a N-1 son los datasources
+ * reactivos de {@code reservas.fragmentos.datasources}. Las reservas y los horarios de un
+ * profesional viven en el fragmento {@link #fragmentoDe(UUID)}, de modo que la validación de
+ * solapamientos y la transacción de una reserva tocan una sola base de datos. Profesionales y
+ * clientes se escriben en el fragmento 0 y se replican a los demás (replicación lógica), porque
+ * las reservas los referencian con claves foráneas.
+ * <p>
+ * Cada trabajo se ejecuta en un contexto de Vert.x anidado con el fragmento fijado (ver
+ * {@link PoolEnrutado}): la sesión reactiva que se abra dentro es propia de ese fragmento.
+ * El contexto anidado copia los datos locales del actual (traza, marca de solo lectura), así
+ * que el trabajo no debe ejecutarse con una sesión ya abierta; los métodos que lo usan abren
+ * la suya con {@code Panache.withSession}/{@code withTransaction} dentro del trabajo.
+ * <p>
+ * Con {@code reservas.fragmentos.habilitado=false} hay un solo fragmento y todos los métodos
+ * ejecutan el trabajo directamente sobre el contexto actual.
+ */
+@ApplicationScoped
+public class Fragmentos {
+
+    private final Vertx vertx;
+    private final MeterRegistry registry;
+    private final int cantidad;
+
+    public Fragmentos(Vertx vertx,
+                      MeterRegistry registry,
+                      @ConfigProperty(name = "reservas.fragmentos.habilitado") boolean habilitado,
+                      @ConfigProperty(name = "reservas.fragmentos.datasources")
+                      Optional<List<String>> datasources) {
+        this.vertx = vertx;
+        this.registry = registry;
+        this.cantidad = habilitado ? 1 + datasources.map(List::size).orElse(0) : 1;
+    }
+
+    public int cantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Fragmento dueño de las reservas y horarios del profesional. Cambiar el número de
+     * fragmentos cambia el reparto: hay que mover los datos antes de desplegar.
+     */
+    public int fragmentoDe(UUID profesionalId) {
+        return Math.floorMod(profesionalId.hashCode(), cantidad);
+    }
+
+    /**
+     * Ejecuta {@code trabajo} en el fragmento del profesional: una transacción abierta dentro
+     * es local a esa base de datos.
+     */
+    public <T> Uni<T> en(UUID profesionalId, Supplier<Uni<T>> trabajo) {
+        if (cantidad == 1) {
+            return Uni.createFrom().deferred(trabajo::get);
+        }
+        return ejecutarEn(fragmentoDe(profesionalId), "local", trabajo);
+    }
+
+    /**
+     * Ejecuta {@code trabajo} en todos los fragmentos a la vez y devuelve sus resultados en
+     * orden de fragmento. Falla en cuanto falla uno.
+     */
+    public <T> Uni<List<T>> enTodos(Supplier<Uni<T>> trabajo) {
+        if (cantidad == 1) {
+            return Uni.createFrom().deferred(trabajo::get).map(resultado -> {
+                var resultados = new ArrayList<T>(1);
+                resultados.add(resultado);
+                return resultados;
+            });
+        }
+        var unis = IntStream.range(0, cantidad)
+                .mapToObj(fragmento -> ejecutarEn(fragmento, "dispersion", trabajo))
+                .toList();
+        return Uni.join().all(unis).andFailFast();
+    }
+
+    /**
+     * Consulta de listado repartida (scatter-gather): ejecuta {@code consulta} en todos los
+     * fragmentos y concatena los resultados. De cada fragmento solo se conservan los
+     * elementos de los profesionales que le pertenecen; así las filas que quedan en un
+     * fragmento antiguo tras mover datos (o los datos de demostración, que Flyway inserta en
+     * todos) no aparecen duplicadas.
+     */
+    public <T> Uni<List<T>> reunir(Supplier<Uni<List<T>>> consulta, Function<T, UUID> profesional) {
+        if (cantidad == 1) {
+            return Uni.createFrom().deferred(consulta::get);
+        }
+        return enTodos(consulta).map(porFragmento -> IntStream.range(0, cantidad)
+                .boxed()
+                .flatMap(fragmento -> porFragmento.get(fragmento).stream()
+                        .filter(elemento -> fragmentoDe(profesional.apply(elemento)) == fragmento))
+                .toList());
+    }
+
+    /**
+     * Ejecuta {@code trabajo} en el fragmento de un registro del que solo se conoce su id
+     * (cancelar una reserva, eliminar un horario). {@code localizar} devuelve el profesional
+     * del registro, o {@code null} si no está; se busca en todos los fragmentos. Si ninguno lo
+     * tiene, {@code trabajo} se ejecuta en el fragmento 0 para que informe que no existe.
+     */
+    public <T> Uni<T> enFragmentoDe(Supplier<Uni<UUID>> localizar, Supplier<Uni<T>> trabajo) {
+        if (cantidad == 1) {
+            return Uni.createFrom().deferred(trabajo::get);
+        }
+        return enTodos(localizar)
+                .flatMap(profesionales -> IntStream.range(0, cantidad)
+                        .filter(fragmento -> profesionales.get(fragmento) != null
+                                && fragmentoDe(profesionales.get(fragmento)) == fragmento)
+                        .boxed()
+                        .findFirst()
+                        .map(fragmento -> ejecutarEn(fragmento, "local", trabajo))
+                        .orElseGet(() -> ejecutarEn(0, "local", trabajo)));
+    }
+
+    private <T> Uni<T> ejecutarEn(int fragmento, String tipo, Supplier<Uni<T>> trabajo) {
+        return Uni.createFrom().deferred(() -> {
+            Counter.builder("reservas.fragmentos.operaciones")
+                    .description("Trabajos ejecutados por fragmento (local o parte de una dispersión)")
+                    .tag("fragmento", String.valueOf(fragmento))
+                    .tag("tipo", tipo)
+                    .register(registry)
+                    .increment();
+            var origen = Vertx.currentContext();
+            var anidado = VertxContext.newNestedContext(Objects.requireNonNullElseGet(origen, vertx::getOrCreateContext));
+            VertxContextSafetyToggle.setContextSafe(anidado, true);
+            ContextoConexion.fijarFragmento(anidado, fragmento);
+
+            Uni<T> uni = Uni.createFrom().emitter(emisor -> anidado.runOnContext(ignorado -> {
+                Uni<T> resultado;
+                try {
+                    resultado = trabajo.get();
+                } catch (RuntimeException e) {
+                    resultado = Uni.createFrom().failure(e);
+                }
+                var suscripcion = resultado.subscribe().with(emisor::complete, emisor::fail);
+                emisor.onTermination(suscripcion::cancel);
+            }));
+            // Continúa en el contexto de quien llamó, no en el anidado
+            return origen == null ? uni : uni.emitOn(tarea -> origen.runOnContext(ignorado -> tarea.run()));
+        });
+    }
+}
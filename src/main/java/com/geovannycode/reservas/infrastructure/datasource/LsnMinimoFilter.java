@@ -0,0 +1,24 @@
+package com.geovannycode.reservas.infrastructure.datasource;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Lectura de las propias escrituras (opcional): si la petición trae la cabecera
+ * {@value #CABECERA} devuelta por una escritura anterior, sus lecturas solo van a la réplica
+ * cuando esta ya aplicó el WAL hasta esa posición.
+ */
+@Provider
+public class LsnMinimoFilter implements ContainerRequestFilter {
+
+    public static final String CABECERA = "X-Reservas-Lsn";
+
+    @Override
+    public void filter(ContainerRequestContext peticion) {
+        var lsn = peticion.getHeaderString(CABECERA);
+        if (lsn != null && !lsn.isBlank()) {
+            ContextoConexion.exigirLsn(EstadoReplica.parsearLsn(lsn.trim()));
+        }
+    }
+}
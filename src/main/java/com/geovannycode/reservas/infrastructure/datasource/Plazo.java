@@ -0,0 +1,77 @@
+package com.geovannycode.reservas.infrastructure.datasource;
+
+import io.vertx.sqlclient.SqlConnection;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Plazo de una petición (o de un trabajo en segundo plano), guardado en su contexto de Vert.x
+ * y compartido por todas sus continuaciones Mutiny. Lo crea {@link Plazos}.
+ * <p>
+ * {@link PoolEnrutado} registra aquí cada conexión que entrega mientras el plazo está vigente.
+ * Al cancelarlo (vence, o el cliente se desconecta) se envía un {@code CancelRequest} de
+ * PostgreSQL a cada conexión en uso, así que la consulta se detiene también en el servidor; las
+ * conexiones que se pidan después fallan con {@code PlazoVencidoException}.
+ */
+public final class Plazo {
+
+    private final Plazos plazos;
+    private final long limiteNanos;
+    private final Set<ConexionConPlazo> activas = ConcurrentHashMap.newKeySet();
+    private final AtomicReference<String> cancelacion = new AtomicReference<>();
+    private volatile long temporizador = -1;
+
+    Plazo(Plazos plazos, Duration presupuesto) {
+        this.plazos = plazos;
+        this.limiteNanos = System.nanoTime() + presupuesto.toNanos();
+    }
+
+    public Duration restante() {
+        return Duration.ofNanos(Math.max(0, limiteNanos - System.nanoTime()));
+    }
+
+    public boolean vencido() {
+        return cancelacion.get() != null || System.nanoTime() - limiteNanos >= 0;
+    }
+
+    /**
+     * Cancela las consultas en curso. Solo la primera llamada tiene efecto.
+     *
+     * @param motivo {@code vencido} o {@code cliente}, para la métrica
+     */
+    public void cancelar(String motivo) {
+        if (!cancelacion.compareAndSet(null, motivo)) {
+            return;
+        }
+        plazos.cancelado(temporizador, motivo);
+        activas.forEach(ConexionConPlazo::cancelarConsulta);
+    }
+
+    /**
+     * El trabajo terminó a tiempo: deja de vigilar el plazo.
+     */
+    public void terminar() {
+        plazos.detener(temporizador);
+    }
+
+    void programar(long temporizador) {
+        this.temporizador = temporizador;
+    }
+
+    SqlConnection vigilar(SqlConnection conexion) {
+        var vigilada = new ConexionConPlazo(conexion, this, plazos);
+        activas.add(vigilada);
+        // Canceló entre la petición de la conexión y su entrega
+        if (cancelacion.get() != null) {
+            vigilada.cancelarConsulta();
+        }
+        return vigilada;
+    }
+
+    void liberar(ConexionConPlazo conexion) {
+        activas.remove(conexion);
+    }
+}
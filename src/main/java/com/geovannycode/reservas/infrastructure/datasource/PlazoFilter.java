@@ -0,0 +1,53 @@
+package com.geovannycode.reservas.infrastructure.datasource;
+
+import io.smallrye.common.vertx.VertxContext;
+import io.vertx.core.Vertx;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Fija el {@link Plazo} de cada petición (ver {@link Plazos}) y lo cancela si el cliente se
+ * desconecta antes de recibir la respuesta: su trabajo en PostgreSQL ya no le sirve a nadie.
+ */
+@Provider
+public class PlazoFilter implements ContainerRequestFilter {
+
+    public static final String CABECERA = "X-Reservas-Plazo-Ms";
+
+    private final Plazos plazos;
+    private final RoutingContext peticionHttp;
+
+    @Context
+    ResourceInfo recurso;
+
+    public PlazoFilter(Plazos plazos, RoutingContext peticionHttp) {
+        this.plazos = plazos;
+        this.peticionHttp = peticionHttp;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext peticion) {
+        var contexto = Vertx.currentContext();
+        if (contexto == null || !VertxContext.isDuplicatedContext(contexto)) {
+            return;
+        }
+        var endpoint = recurso != null && recurso.getResourceMethod() != null
+                ? recurso.getResourceClass().getSimpleName() + "." + recurso.getResourceMethod().getName()
+                : "desconocido";
+        plazos.presupuesto(endpoint, peticion.getHeaderString(CABECERA)).ifPresent(presupuesto -> {
+            var plazo = plazos.iniciar(contexto, presupuesto);
+            // Falla si la conexión se cierra antes de terminar la respuesta
+            peticionHttp.addEndHandler(fin -> {
+                if (fin.failed()) {
+                    plazo.cancelar("cliente");
+                } else {
+                    plazo.terminar();
+                }
+            });
+        });
+    }
+}
@@ -0,0 +1,118 @@
+package com.geovannycode.reservas.infrastructure.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Crea y vigila los {@link Plazo} de las peticiones.
+ * <p>
+ * El presupuesto de una petición es el menor entre la cabecera {@value PlazoFilter#CABECERA}
+ * (milisegundos que el cliente está dispuesto a esperar) y el configurado para su endpoint en
+ * {@code reservas.plazo.endpoints."<Recurso>.<método>"}, o en {@code reservas.plazo.por-defecto}
+ * si el endpoint no tiene uno propio.
+ */
+@ApplicationScoped
+public class Plazos {
+
+    private final Vertx vertx;
+    private final MeterRegistry registry;
+    private final Config config;
+    private final Optional<Duration> porDefecto;
+    private final Map<String, Optional<Duration>> porEndpoint = new ConcurrentHashMap<>();
+
+    public Plazos(Vertx vertx,
+                  MeterRegistry registry,
+                  Config config,
+                  @ConfigProperty(name = "reservas.plazo.por-defecto") Optional<Duration> porDefecto) {
+        this.vertx = vertx;
+        this.registry = registry;
+        this.config = config;
+        this.porDefecto = porDefecto;
+    }
+
+    /**
+     * @param cabecera valor de {@value PlazoFilter#CABECERA}, o {@code null}
+     * @return vacío si ni el cliente ni la configuración fijan un plazo
+     * @throws IllegalArgumentException si la cabecera no es un número positivo de milisegundos
+     */
+    Optional<Duration> presupuesto(String endpoint, String cabecera) {
+        var configurado = porEndpoint.computeIfAbsent(endpoint, clave -> config
+                .getOptionalValue("reservas.plazo.endpoints.\"" + clave + "\"", Duration.class)
+                .or(() -> porDefecto));
+        if (cabecera == null || cabecera.isBlank()) {
+            return configurado;
+        }
+        long milisegundos;
+        try {
+            milisegundos = Long.parseLong(cabecera.trim());
+        } catch (NumberFormatException e) {
+            milisegundos = 0;
+        }
+        if (milisegundos <= 0) {
+            throw new IllegalArgumentException(
+                    "La cabecera " + PlazoFilter.CABECERA + " debe ser un número positivo de milisegundos");
+        }
+        var pedido = Duration.ofMillis(milisegundos);
+        return Optional.of(configurado.filter(limite -> limite.compareTo(pedido) < 0).orElse(pedido));
+    }
+
+    /**
+     * Fija en {@code contexto} un plazo de {@code presupuesto} a partir de ahora; al vencer se
+     * cancelan las consultas en curso. Hay que llamar a {@link Plazo#terminar()} cuando el
+     * trabajo acabe a tiempo.
+     */
+    public Plazo iniciar(Context contexto, Duration presupuesto) {
+        var plazo = new Plazo(this, presupuesto);
+        plazo.programar(vertx.setTimer(Math.max(1, presupuesto.toMillis()), id -> plazo.cancelar("vencido")));
+        ContextoConexion.fijarPlazo(contexto, plazo);
+        return plazo;
+    }
+
+    /**
+     * Sustituye el plazo del contexto actual por otro independiente con el mismo tiempo restante,
+     * para trabajo que comparten varias peticiones: que se desconecte la que lo lanzó no debe
+     * cancelarlo para las demás.
+     *
+     * @return el nuevo plazo, que hay que {@link Plazo#terminar() terminar}; vacío si no había
+     */
+    public Optional<Plazo> desacoplar() {
+        var actual = ContextoConexion.plazo();
+        var contexto = Vertx.currentContext();
+        if (actual == null || contexto == null) {
+            return Optional.empty();
+        }
+        return Optional.of(iniciar(contexto, actual.restante()));
+    }
+
+    void detener(long temporizador) {
+        if (temporizador >= 0) {
+            vertx.cancelTimer(temporizador);
+        }
+    }
+
+    void cancelado(long temporizador, String motivo) {
+        detener(temporizador);
+        Counter.builder("reservas.plazo.cancelaciones")
+                .description("Plazos cancelados: vencidos o con el cliente desconectado")
+                .tag("motivo", motivo)
+                .register(registry)
+                .increment();
+    }
+
+    void consultaCancelada() {
+        Counter.builder("reservas.plazo.consultas-canceladas")
+                .description("Consultas canceladas en PostgreSQL (CancelRequest) al cancelarse su plazo")
+                .register(registry)
+                .increment();
+    }
+}
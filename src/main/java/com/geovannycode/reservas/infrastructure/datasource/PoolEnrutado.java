@@ -0,0 +1,160 @@
+package com.geovannycode.reservas.infrastructure.datasource;
+
+import com.geovannycode.reservas.domain.exception.PlazoVencidoException;
+import com.geovannycode.reservas.infrastructure.observability.EstadisticasConsultas;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.sqlclient.Pool;
+import io.vertx.sqlclient.PrepareOptions;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.Query;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlConnection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Pool por defecto de la aplicación (el que usa Hibernate Reactive): delega cada conexión y
+ * cada consulta en el pool que corresponda.
+ * <p>
+ * Si el contexto tiene fijado un fragmento distinto del 0 (ver {@link Fragmentos}), va al
+ * primario de ese fragmento, o a su pool de reportes dentro de un método {@link Reporte}. En el
+ * fragmento 0 decide {@link EnrutadorConexiones} entre el primario, el pool de reportes y la
+ * réplica.
+ * <p>
+ * Con un {@link Plazo} en el contexto, las conexiones se entregan vigiladas por él (su consulta
+ * se cancela en PostgreSQL si el plazo vence) y, con el plazo ya vencido, no se entregan.
+ * <p>
+ * Con {@code reservas.estadisticas-sql.habilitado}, cada consulta (de las conexiones entregadas
+ * o del propio pool) se anota en {@link EstadisticasConsultas}.
+ * <p>
+ * Solo es dueño del pool primario y de los de reportes (que crea {@link CreadorPoolEnrutado});
+ * los demás son datasources con nombre que cierra Quarkus.
+ */
+class PoolEnrutado implements Pool {
+
+    private final Pool primario;
+    private final Pool reportes;
+    private final Map<Destino, Supplier<Pool>> otros;
+    private final List<Supplier<Pool>> fragmentos;
+    private final List<Pool> reportesFragmentos;
+    private final Supplier<EnrutadorConexiones> enrutador;
+    private final Supplier<EstadisticasConsultas> estadisticas;
+
+    /**
+     * @param fragmentos         primarios de los fragmentos 1 a N-1; el 0 es {@code primario}
+     * @param reportesFragmentos pools de reportes de los fragmentos 1 a N-1; el 0 es {@code reportes}
+     */
+    PoolEnrutado(Pool primario,
+                 Pool reportes,
+                 Map<Destino, Supplier<Pool>> otros,
+                 List<Supplier<Pool>> fragmentos,
+                 List<Pool> reportesFragmentos,
+                 Supplier<EnrutadorConexiones> enrutador,
+                 Supplier<EstadisticasConsultas> estadisticas) {
+        this.primario = primario;
+        this.reportes = reportes;
+        this.otros = otros;
+        this.fragmentos = fragmentos;
+        this.reportesFragmentos = reportesFragmentos;
+        this.enrutador = enrutador;
+        this.estadisticas = estadisticas;
+    }
+
+    private Pool destino() {
+        var fragmento = ContextoConexion.fragmento();
+        if (fragmento > 0) {
+            return ContextoConexion.esReporte()
+                    ? reportesFragmentos.get(fragmento - 1)
+                    : fragmentos.get(fragmento - 1).get();
+        }
+        var destino = enrutador.get().elegir();
+        if (destino == Destino.REPORTES) {
+            return reportes;
+        }
+        var pool = otros.get(destino);
+        return pool != null ? pool.get() : primario;
+    }
+
+    @Override
+    public void getConnection(Handler<AsyncResult<SqlConnection>> handler) {
+        getConnection().onComplete(handler);
+    }
+
+    @Override
+    public Future<SqlConnection> getConnection() {
+        var plazo = ContextoConexion.plazo();
+        if (plazo == null) {
+            return destino().getConnection().map(this::medida);
+        }
+        if (plazo.vencido()) {
+            return Future.failedFuture(new PlazoVencidoException());
+        }
+        // El plazo necesita la conexión de PostgreSQL original para cancelar su consulta
+        return destino().getConnection().map(plazo::vigilar).map(this::medida);
+    }
+
+    private SqlConnection medida(SqlConnection conexion) {
+        var medicion = estadisticas.get();
+        return medicion.habilitado() ? new ConexionMedida(conexion, medicion) : conexion;
+    }
+
+    @Override
+    public Query<RowSet<Row>> query(String sql) {
+        var medicion = estadisticas.get();
+        var consulta = destino().query(sql);
+        return medicion.habilitado() ? new ConsultaSqlMedida(consulta, sql, medicion) : consulta;
+    }
+
+    @Override
+    public PreparedQuery<RowSet<Row>> preparedQuery(String sql) {
+        var medicion = estadisticas.get();
+        var consulta = destino().preparedQuery(sql);
+        return medicion.habilitado() ? new ConsultaSqlMedida.Preparada(consulta, sql, medicion) : consulta;
+    }
+
+    @Override
+    public PreparedQuery<RowSet<Row>> preparedQuery(String sql, PrepareOptions opciones) {
+        var medicion = estadisticas.get();
+        var consulta = destino().preparedQuery(sql, opciones);
+        return medicion.habilitado() ? new ConsultaSqlMedida.Preparada(consulta, sql, medicion) : consulta;
+    }
+
+    @Override
+    public void close(Handler<AsyncResult<Void>> handler) {
+        close().onComplete(handler);
+    }
+
+    @Override
+    public Future<Void> close() {
+        var cierres = new ArrayList<Future<Void>>();
+        cierres.add(primario.close());
+        cierres.add(reportes.close());
+        reportesFragmentos.forEach(pool -> cierres.add(pool.close()));
+        return Future.join(cierres).mapEmpty();
+    }
+
+    @Override
+    public Pool connectHandler(Handler<SqlConnection> handler) {
+        primario.connectHandler(handler);
+        return this;
+    }
+
+    @Override
+    public Pool connectionProvider(Function<Context, Future<SqlConnection>> provider) {
+        primario.connectionProvider(provider);
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return primario.size();
+    }
+}
@@ -0,0 +1,20 @@
+package com.geovannycode.reservas.infrastructure.datasource;
+
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca un método de lectura analítica (recorridos completos para paneles): sus conexiones
+ * del primario salen del pool de reportes ({@code reservas.reportes.max-conexiones}) y no del
+ * pool compartido con las reservas y el CRUD. Se combina con {@link SoloLectura} y con un
+ * {@code @Bulkhead} que limite cuántas se ejecutan a la vez.
+ */
+@InterceptorBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Reporte {
+}
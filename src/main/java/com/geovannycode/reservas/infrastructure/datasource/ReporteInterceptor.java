@@ -0,0 +1,32 @@
+package com.geovannycode.reservas.infrastructure.datasource;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.Priority;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Marca el contexto de Vert.x de la petición como de reporte mientras dura el {@link Uni}
+ * del método anotado con {@link Reporte}. Misma prioridad y motivo que
+ * {@link SoloLecturaInterceptor}.
+ */
+@Reporte
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 100)
+public class ReporteInterceptor {
+
+    @AroundInvoke
+    Object marcar(InvocationContext contexto) throws Exception {
+        if (!Uni.class.isAssignableFrom(contexto.getMethod().getReturnType())) {
+            return contexto.proceed();
+        }
+        var uni = (Uni<?>) contexto.proceed();
+        return Uni.createFrom().deferred(() -> {
+            if (!ContextoConexion.marcarReporte()) {
+                return uni;
+            }
+            return uni.onTermination().invoke(ContextoConexion::desmarcarReporte);
+        });
+    }
+}
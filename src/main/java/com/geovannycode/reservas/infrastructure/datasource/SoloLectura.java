@@ -0,0 +1,20 @@
+package com.geovannycode.reservas.infrastructure.datasource;
+
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca un método de servicio de solo lectura: sus consultas pueden ir a la réplica
+ * (ver {@link EnrutadorConexiones}). Debe acompañar a {@code @WithSession} o a un método que
+ * abra sus sesiones con {@code Panache.withSession} (ver {@link Fragmentos}), nunca a
+ * {@code @WithTransaction}.
+ */
+@InterceptorBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SoloLectura {
+}
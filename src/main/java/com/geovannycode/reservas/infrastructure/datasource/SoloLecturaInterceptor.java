@@ -0,0 +1,34 @@
+package com.geovannycode.reservas.infrastructure.datasource;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.Priority;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Marca el contexto de Vert.x de la petición como de solo lectura mientras dura el
+ * {@link Uni} del método anotado con {@link SoloLectura}.
+ * <p>
+ * Se ejecuta antes que {@code @WithSession} (prioridad 200): la sesión reactiva pide su
+ * conexión al suscribirse, y para entonces la marca ya tiene que estar puesta.
+ */
+@SoloLectura
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 100)
+public class SoloLecturaInterceptor {
+
+    @AroundInvoke
+    Object marcar(InvocationContext contexto) throws Exception {
+        if (!Uni.class.isAssignableFrom(contexto.getMethod().getReturnType())) {
+            return contexto.proceed();
+        }
+        var uni = (Uni<?>) contexto.proceed();
+        return Uni.createFrom().deferred(() -> {
+            if (!ContextoConexion.marcarLectura()) {
+                return uni;
+            }
+            return uni.onTermination().invoke(ContextoConexion::desmarcarLectura);
+        });
+    }
+}
@@ -0,0 +1,35 @@
+package com.geovannycode.reservas.infrastructure.handler;
+
+import com.geovannycode.reservas.application.dto.response.ErrorResponse;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
+
+/**
+ * Manejador para BulkheadException (endpoint de reportes con todas sus plazas y su cola ocupadas).
+ * Retorna HTTP 503 Service Unavailable con {@code Retry-After} para que el cliente reintente.
+ */
+@Provider
+public class BulkheadExceptionHandler implements ExceptionMapper<BulkheadException> {
+
+    @Context
+    UriInfo uriInfo;
+
+    @Override
+    public Response toResponse(BulkheadException exception) {
+        var errorResponse = ErrorResponse.of(
+                503,
+                "Demasiadas consultas de reportes en curso, intente de nuevo en unos segundos",
+                uriInfo != null ? uriInfo.getPath() : "desconocida"
+        );
+
+        return Response.status(503)
+                .header(HttpHeaders.RETRY_AFTER, 1)
+                .entity(errorResponse)
+                .build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.geovannycode.reservas.infrastructure.handler;
+
+import com.geovannycode.reservas.application.dto.response.ErrorResponse;
+import com.geovannycode.reservas.domain.exception.CuotaExcedidaException;
+import com.geovannycode.reservas.infrastructure.concurrencia.LimitadorCuotas;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Manejador para CuotaExcedidaException (cliente sin tokens en su cuota de reservas).
+ * Retorna HTTP 429 Too Many Requests con {@code Retry-After} y la cuota restante (cero).
+ */
+@Provider
+public class CuotaExcedidaExceptionHandler implements ExceptionMapper<CuotaExcedidaException> {
+
+    @Context
+    UriInfo uriInfo;
+
+    @Override
+    public Response toResponse(CuotaExcedidaException exception) {
+        var errorResponse = ErrorResponse.of(
+                429,
+                exception.getMessage(),
+                uriInfo != null ? uriInfo.getPath() : "desconocida"
+        );
+
+        return Response.status(Response.Status.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, exception.getReintentarEnSegundos())
+                .header(LimitadorCuotas.CABECERA_LIMITE, exception.getLimite())
+                .header(LimitadorCuotas.CABECERA_RESTANTES, 0)
+                .entity(errorResponse)
+                .build();
+    }
+}
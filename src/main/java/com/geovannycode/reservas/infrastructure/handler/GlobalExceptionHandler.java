@@ -2,6 +2,7 @@ package com.geovannycode.reservas.infrastructure.handler;
 
 import com.geovannycode.reservas.application.dto.response.ErrorResponse;
 import com.geovannycode.reservas.domain.exception.BusinessException;
+import com.geovannycode.reservas.infrastructure.observability.ReglaRechazadaEvento;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
@@ -11,7 +12,8 @@ import org.jboss.logging.Logger;
 
 /**
  * Manejador global para excepciones de negocio ({@link BusinessException} y subclases).
- * Convierte las excepciones del dominio en respuestas HTTP estructuradas y consistentes.
+ * Convierte las excepciones del dominio en respuestas HTTP estructuradas y consistentes
+ * y registra un evento JFR {@link ReglaRechazadaEvento} por cada rechazo.
  */
 @Provider
 public class GlobalExceptionHandler implements ExceptionMapper<BusinessException> {
@@ -27,10 +29,12 @@ public class GlobalExceptionHandler implements ExceptionMapper<BusinessException
                 exception.getClass().getSimpleName(), exception.getMessage());
 
         var statusCode = exception.getHttpStatusCode();
+        var ruta = uriInfo != null ? uriInfo.getPath() : "desconocida";
+        ReglaRechazadaEvento.registrar(exception, ruta);
         var errorResponse = ErrorResponse.of(
                 statusCode,
                 exception.getMessage(),
-                uriInfo != null ? uriInfo.getPath() : "desconocida"
+                ruta
         );
 
         return Response.status(statusCode)
@@ -2,10 +2,12 @@ package com.geovannycode.reservas.infrastructure.mapper;
 
 import com.geovannycode.reservas.application.dto.response.ReservaResponse;
 import com.geovannycode.reservas.domain.model.Reserva;
+import com.geovannycode.reservas.domain.model.ReservaHistorico;
 import jakarta.enterprise.context.ApplicationScoped;
 
 /**
  * Mapper para conversión entre la entidad {@link Reserva} y sus DTOs.
+ * Las reservas archivadas ({@link ReservaHistorico}) se exponen con el mismo DTO.
  */
 @ApplicationScoped
 public class ReservaMapper {
@@ -32,4 +34,19 @@ public class ReservaMapper {
                 reserva.getEstado()
         );
     }
+
+    /**
+     * Convierte una reserva archivada al mismo DTO que una reserva viva.
+     */
+    public ReservaResponse toResponse(ReservaHistorico reserva) {
+        return new ReservaResponse(
+                reserva.getId(),
+                reserva.getFecha(),
+                reserva.getHoraInicio(),
+                reserva.getHoraFin(),
+                clienteMapper.toResponse(reserva.getCliente()),
+                profesionalMapper.toResponse(reserva.getProfesional()),
+                reserva.getEstado()
+        );
+    }
 }
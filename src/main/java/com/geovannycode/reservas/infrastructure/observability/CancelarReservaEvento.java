@@ -0,0 +1,28 @@
+package com.geovannycode.reservas.infrastructure.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de la cancelación de una reserva, de la suscripción al commit de la transacción.
+ */
+@Name("reservas.CancelarReserva")
+@Label("Cancelar reserva")
+@Category({"Reservas", "Operaciones"})
+@Description("Cancelación de una reserva y liberación de su horario")
+@StackTrace(false)
+class CancelarReservaEvento extends Event {
+
+    @Label("Reserva")
+    String reservaId;
+
+    @Label("Profesional")
+    String profesionalId;
+
+    @Label("Resultado")
+    String resultado;
+}
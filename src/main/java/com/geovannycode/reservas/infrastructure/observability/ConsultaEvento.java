@@ -0,0 +1,29 @@
+package com.geovannycode.reservas.infrastructure.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de una consulta de repositorio, emitido por {@link ConsultaMedidaInterceptor}.
+ * Para los métodos reactivos la duración va de la suscripción al final del {@code Uni}.
+ */
+@Name("reservas.Consulta")
+@Label("Consulta de repositorio")
+@Category({"Reservas", "Base de datos"})
+@Description("Duración de un método de repositorio anotado con @ConsultaMedida")
+@StackTrace(false)
+class ConsultaEvento extends Event {
+
+    @Label("Repositorio")
+    String repositorio;
+
+    @Label("Método")
+    String metodo;
+
+    @Label("Resultado")
+    String resultado;
+}
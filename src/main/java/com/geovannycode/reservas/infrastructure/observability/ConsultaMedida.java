@@ -0,0 +1,18 @@
+package com.geovannycode.reservas.infrastructure.observability;
+
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca un repositorio (o un método) cuyas consultas se miden con el timer
+ * {@value ConsultaMedidaInterceptor#METRICA}.
+ */
+@InterceptorBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConsultaMedida {
+}
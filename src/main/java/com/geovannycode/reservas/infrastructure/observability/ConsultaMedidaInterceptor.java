@@ -0,0 +1,104 @@
+package com.geovannycode.reservas.infrastructure.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.arc.Subclass;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.Priority;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Mide la duración de cada método de repositorio anotado con {@link ConsultaMedida}.
+ * <p>
+ * Para los métodos reactivos el timer cubre desde la suscripción al {@link Uni} hasta que
+ * termina (no la construcción del pipeline); para los bloqueantes (JDBC), la llamada.
+ * Etiquetas: {@code repositorio}, {@code metodo} y {@code resultado} ({@code ok},
+ * {@code error} o {@code cancelado}). Con una grabación JFR activa emite además un
+ * {@link ConsultaEvento} con los mismos campos.
+ * <p>
+ * Anota además {@code Repositorio.metodo} como origen de las consultas SQL que se lancen a
+ * continuación en la petición (ver {@link EstadisticasConsultas}).
+ */
+@ConsultaMedida
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+public class ConsultaMedidaInterceptor {
+
+    static final String METRICA = "reservas.consultas";
+
+    private final MeterRegistry registry;
+
+    public ConsultaMedidaInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @AroundInvoke
+    Object medir(InvocationContext contexto) throws Exception {
+        var repositorio = repositorio(contexto.getTarget()).getSimpleName();
+        var metodo = contexto.getMethod().getName();
+        if (Uni.class.isAssignableFrom(contexto.getMethod().getReturnType())) {
+            var uni = (Uni<?>) contexto.proceed();
+            return Uni.createFrom().deferred(() -> {
+                EstadisticasConsultas.fijarOrigen(repositorio + "." + metodo);
+                var muestra = Timer.start(registry);
+                var evento = new ConsultaEvento();
+                evento.begin();
+                return uni.onTermination().invoke((item, fallo, cancelado) -> {
+                    var resultado = resultado(fallo, cancelado);
+                    muestra.stop(timer(repositorio, metodo, resultado));
+                    registrar(evento, repositorio, metodo, resultado);
+                });
+            });
+        }
+        var muestra = Timer.start(registry);
+        var evento = new ConsultaEvento();
+        evento.begin();
+        var resultado = "error";
+        try {
+            var valor = contexto.proceed();
+            resultado = "ok";
+            return valor;
+        } finally {
+            muestra.stop(timer(repositorio, metodo, resultado));
+            registrar(evento, repositorio, metodo, resultado);
+        }
+    }
+
+    /**
+     * Clase del repositorio invocado. No sirve la clase que declara el método: los heredados
+     * de Panache ({@code findById}, {@code listAll}...) se declaran en {@code PanacheRepositoryBase}.
+     * El destino es la subclase que genera ArC para interceptar, así que se toma su padre.
+     */
+    private static Class<?> repositorio(Object destino) {
+        var clase = destino.getClass();
+        return destino instanceof Subclass ? clase.getSuperclass() : clase;
+    }
+
+    private static void registrar(ConsultaEvento evento, String repositorio, String metodo, String resultado) {
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.repositorio = repositorio;
+            evento.metodo = metodo;
+            evento.resultado = resultado;
+            evento.commit();
+        }
+    }
+
+    private Timer timer(String repositorio, String metodo, String resultado) {
+        return Timer.builder(METRICA)
+                .description("Duración de las consultas de los repositorios")
+                .tag("repositorio", repositorio)
+                .tag("metodo", metodo)
+                .tag("resultado", resultado)
+                .register(registry);
+    }
+
+    private static String resultado(Throwable fallo, boolean cancelado) {
+        if (cancelado) {
+            return "cancelado";
+        }
+        return fallo == null ? "ok" : "error";
+    }
+}
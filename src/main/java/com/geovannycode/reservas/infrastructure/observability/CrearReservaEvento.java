@@ -0,0 +1,34 @@
+package com.geovannycode.reservas.infrastructure.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de la creación de una reserva, de la suscripción al commit de la transacción.
+ */
+@Name("reservas.CrearReserva")
+@Label("Crear reserva")
+@Category({"Reservas", "Operaciones"})
+@Description("Creación de una reserva, con el resultado de las reglas de negocio")
+@StackTrace(false)
+class CrearReservaEvento extends Event {
+
+    @Label("Profesional")
+    String profesionalId;
+
+    @Label("Cliente")
+    String clienteId;
+
+    @Label("Fecha")
+    String fecha;
+
+    @Label("Reserva")
+    String reservaId;
+
+    @Label("Resultado")
+    String resultado;
+}
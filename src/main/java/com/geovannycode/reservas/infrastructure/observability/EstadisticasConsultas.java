@@ -0,0 +1,290 @@
+package com.geovannycode.reservas.infrastructure.observability;
+
+import com.geovannycode.reservas.application.dto.response.EstadisticaConsultaResponse;
+import com.geovannycode.reservas.application.dto.response.EstadisticasConsultasResponse;
+import io.smallrye.common.vertx.ContextLocals;
+import io.smallrye.common.vertx.VertxContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Estadísticas de las consultas SQL que la aplicación envía a PostgreSQL, agrupadas por huella
+ * (el equivalente de {@code pg_stat_statements} desde la aplicación, sin permisos de superusuario).
+ * <p>
+ * La huella es el SQL generado por Hibernate con los literales, los parámetros {@code $n} y las
+ * listas de {@code IN} sustituidos por {@code ?}. Por cada una se acumulan llamadas, errores,
+ * tiempo total y máximo, filas y un histograma logarítmico (8 cubos por potencia de dos, en
+ * microsegundos) del que sale el p99. Todo con contadores atómicos: registrar no bloquea.
+ * <p>
+ * Como mucho hay {@code reservas.estadisticas-sql.max-huellas} huellas propias; con la tabla
+ * llena, las nuevas se acumulan en una sola entrada {@value #OTRAS}. El origen de cada huella es
+ * el último método de repositorio {@link ConsultaMedida} que la ejecutó en la petición.
+ * <p>
+ * Hibernate genera un texto SQL por consulta, así que la normalización de cada texto se guarda y
+ * se hace una sola vez (hasta {@value #MAX_SQL_NORMALIZADOS} textos; por encima, en cada llamada).
+ * <p>
+ * Solo se miden las consultas del pool reactivo; las de los repositorios JDBC no pasan por él.
+ */
+@ApplicationScoped
+public class EstadisticasConsultas {
+
+    static final String OTRAS = "<otras>";
+    static final int MAX_SQL_NORMALIZADOS = 10_000;
+
+    private static final String ORIGEN = "reservas.consulta.origen";
+    private static final Pattern LISTA_IN = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Map<String, Comparator<EstadisticaConsultaResponse>> ORDENES = Map.of(
+            "total", Comparator.comparingDouble(EstadisticaConsultaResponse::totalMs),
+            "media", Comparator.comparingDouble(EstadisticaConsultaResponse::mediaMs),
+            "p99", Comparator.comparingDouble(EstadisticaConsultaResponse::p99Ms),
+            "llamadas", Comparator.comparingLong(EstadisticaConsultaResponse::llamadas),
+            "filas", Comparator.comparingLong(EstadisticaConsultaResponse::filas));
+
+    private final boolean habilitado;
+    private final int maxHuellas;
+
+    private final Map<String, String> normalizados = new ConcurrentHashMap<>();
+    private final Map<String, Huella> huellas = new ConcurrentHashMap<>();
+    private volatile Huella otras = new Huella(OTRAS);
+    private volatile Instant desde = Instant.now();
+
+    public EstadisticasConsultas(@ConfigProperty(name = "reservas.estadisticas-sql.habilitado") boolean habilitado,
+                                 @ConfigProperty(name = "reservas.estadisticas-sql.max-huellas") int maxHuellas) {
+        this.habilitado = habilitado;
+        this.maxHuellas = maxHuellas;
+    }
+
+    public boolean habilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Anota el método de repositorio que se está ejecutando en la petición actual.
+     */
+    static void fijarOrigen(String origen) {
+        if (VertxContext.isOnDuplicatedContext()) {
+            ContextLocals.put(ORIGEN, origen);
+        }
+    }
+
+    /**
+     * @return el último método de repositorio de la petición actual, o {@code null}
+     */
+    public static String origen() {
+        return VertxContext.isOnDuplicatedContext() ? ContextLocals.<String>get(ORIGEN).orElse(null) : null;
+    }
+
+    /**
+     * @param origen valor de {@link #origen()} al lanzar la consulta
+     * @param filas  filas devueltas o afectadas; se ignoran si la consulta falló
+     */
+    public void registrar(String sql, String origen, long nanos, long filas, boolean error) {
+        var normalizado = normalizados.get(sql);
+        if (normalizado == null) {
+            normalizado = normalizar(sql);
+            if (normalizados.size() < MAX_SQL_NORMALIZADOS) {
+                normalizados.put(sql, normalizado);
+            }
+        }
+        var huella = huellas.get(normalizado);
+        if (huella == null) {
+            huella = huellas.size() < maxHuellas
+                    ? huellas.computeIfAbsent(normalizado, Huella::new)
+                    : otras;
+        }
+        huella.registrar(origen, nanos, error ? 0 : filas, error);
+    }
+
+    /**
+     * @param orden  {@code total}, {@code media}, {@code p99}, {@code llamadas} o {@code filas}, de mayor a menor
+     * @param limite número máximo de huellas
+     * @throws IllegalArgumentException si el orden no existe o el límite no es positivo
+     */
+    public EstadisticasConsultasResponse consultar(String orden, int limite) {
+        var comparador = ORDENES.get(orden);
+        if (comparador == null) {
+            throw new IllegalArgumentException("Orden no válido: " + orden + " (total, media, p99, llamadas o filas)");
+        }
+        if (limite <= 0) {
+            throw new IllegalArgumentException("El límite debe ser positivo");
+        }
+        var todas = new ArrayList<>(huellas.values());
+        todas.add(otras);
+        var consultas = todas.stream()
+                .filter(huella -> huella.llamadas.sum() > 0)
+                .map(Huella::resumen)
+                .sorted(comparador.reversed())
+                .limit(limite)
+                .toList();
+        return new EstadisticasConsultasResponse(desde, huellas.size(), maxHuellas, consultas);
+    }
+
+    /**
+     * Descarta todo lo acumulado. Las consultas en curso pueden sumarse a las entradas descartadas.
+     */
+    public void reiniciar() {
+        huellas.clear();
+        otras = new Huella(OTRAS);
+        desde = Instant.now();
+    }
+
+    /**
+     * Sustituye literales de texto y numéricos y parámetros {@code $n} por {@code ?}, colapsa los
+     * espacios y reduce las listas {@code IN (?, ?, ...)} a {@code IN (?)}.
+     */
+    static String normalizar(String sql) {
+        var salida = new StringBuilder(sql.length());
+        var longitud = sql.length();
+        var i = 0;
+        while (i < longitud) {
+            var c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                while (i < longitud && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (!salida.isEmpty()) {
+                    salida.append(' ');
+                }
+            } else if (c == '\'') {
+                i++;
+                while (i < longitud) {
+                    if (sql.charAt(i) == '\'') {
+                        // '' es una comilla escapada dentro del literal
+                        if (i + 1 < longitud && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+                salida.append('?');
+            } else if ((c == '$' || Character.isDigit(c)) && !parteDeIdentificador(salida)
+                    && (c != '$' || (i + 1 < longitud && Character.isDigit(sql.charAt(i + 1))))) {
+                i++;
+                while (i < longitud && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                salida.append('?');
+            } else {
+                salida.append(c);
+                i++;
+            }
+        }
+        var largo = salida.length();
+        if (largo > 0 && salida.charAt(largo - 1) == ' ') {
+            salida.setLength(largo - 1);
+        }
+        return LISTA_IN.matcher(salida).replaceAll("in (?)");
+    }
+
+    private static boolean parteDeIdentificador(StringBuilder salida) {
+        if (salida.isEmpty()) {
+            return false;
+        }
+        var anterior = salida.charAt(salida.length() - 1);
+        return Character.isLetterOrDigit(anterior) || anterior == '_' || anterior == '"';
+    }
+
+    /**
+     * Contadores de una huella. El histograma tiene 8 cubos por potencia de dos a partir de
+     * 8 µs (los 8 primeros son exactos), hasta unas 38 horas.
+     */
+    static final class Huella {
+
+        private static final int SUBCUBOS = 8;
+        private static final int MAX_EXPONENTE = 37;
+
+        private final String sql;
+        private final String id;
+        private final LongAdder llamadas = new LongAdder();
+        private final LongAdder errores = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder filas = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray cubos = new AtomicLongArray(SUBCUBOS * (MAX_EXPONENTE - 1));
+        private volatile String origen;
+
+        Huella(String sql) {
+            this.sql = sql;
+            this.id = String.format("%016x", fnv1a(sql));
+        }
+
+        void registrar(String origen, long duracion, long filasConsulta, boolean error) {
+            llamadas.increment();
+            if (error) {
+                errores.increment();
+            }
+            nanos.add(duracion);
+            filas.add(filasConsulta);
+            maxNanos.accumulateAndGet(duracion, Math::max);
+            cubos.incrementAndGet(cubo(TimeUnit.NANOSECONDS.toMicros(duracion)));
+            if (origen != null) {
+                this.origen = origen;
+            }
+        }
+
+        EstadisticaConsultaResponse resumen() {
+            var total = llamadas.sum();
+            var totalMs = nanos.sum() / 1e6;
+            var maxMs = maxNanos.get() / 1e6;
+            return new EstadisticaConsultaResponse(id, sql, origen, total, errores.sum(), totalMs,
+                    total == 0 ? 0 : totalMs / total, Math.min(p99(total) / 1e3, maxMs), maxMs, filas.sum());
+        }
+
+        /**
+         * @return cota superior, en microsegundos, del cubo que contiene el percentil 99
+         */
+        private long p99(long total) {
+            // Las lecturas de los cubos no son atómicas en conjunto: el total puede no cuadrar
+            var objetivo = Math.max(1, (long) Math.ceil(total * 0.99));
+            var acumulado = 0L;
+            for (var indice = 0; indice < cubos.length(); indice++) {
+                acumulado += cubos.get(indice);
+                if (acumulado >= objetivo) {
+                    return limiteSuperior(indice);
+                }
+            }
+            return limiteSuperior(cubos.length() - 1);
+        }
+
+        static int cubo(long micros) {
+            if (micros < SUBCUBOS) {
+                return (int) Math.max(0, micros);
+            }
+            var exponente = Math.min(63 - Long.numberOfLeadingZeros(micros), MAX_EXPONENTE);
+            var sub = micros >= (1L << (MAX_EXPONENTE + 1)) ? SUBCUBOS - 1 : (int) ((micros >> (exponente - 3)) & 7);
+            return SUBCUBOS * (exponente - 2) + sub;
+        }
+
+        static long limiteSuperior(int indice) {
+            if (indice < SUBCUBOS) {
+                return indice + 1;
+            }
+            var exponente = indice / SUBCUBOS + 2;
+            return (long) (SUBCUBOS + indice % SUBCUBOS + 1) << (exponente - 3);
+        }
+
+        private static long fnv1a(String texto) {
+            var hash = 0xcbf29ce484222325L;
+            for (var i = 0; i < texto.length(); i++) {
+                hash ^= texto.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+}
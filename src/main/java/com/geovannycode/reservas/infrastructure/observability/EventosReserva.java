@@ -0,0 +1,63 @@
+package com.geovannycode.reservas.infrastructure.observability;
+
+import com.geovannycode.reservas.application.dto.request.ReservaRequest;
+import com.geovannycode.reservas.application.dto.response.ReservaResponse;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.UUID;
+
+/**
+ * Eventos JFR {@link CrearReservaEvento} y {@link CancelarReservaEvento}: miden el
+ * {@link Uni} de la operación desde la suscripción hasta que termina (commit incluido).
+ */
+@ApplicationScoped
+public class EventosReserva {
+
+    public Uni<ReservaResponse> crear(ReservaRequest request, Uni<ReservaResponse> uni) {
+        return Uni.createFrom().deferred(() -> {
+            var evento = new CrearReservaEvento();
+            if (!evento.isEnabled()) {
+                return uni;
+            }
+            evento.begin();
+            return uni.onTermination().invoke((reserva, fallo, cancelado) -> {
+                evento.end();
+                if (evento.shouldCommit()) {
+                    evento.profesionalId = String.valueOf(request.profesionalId());
+                    evento.clienteId = String.valueOf(request.clienteId());
+                    evento.fecha = String.valueOf(request.fecha());
+                    evento.reservaId = reserva != null ? reserva.id().toString() : null;
+                    evento.resultado = resultado(fallo, cancelado);
+                    evento.commit();
+                }
+            });
+        });
+    }
+
+    public Uni<ReservaResponse> cancelar(UUID reservaId, Uni<ReservaResponse> uni) {
+        return Uni.createFrom().deferred(() -> {
+            var evento = new CancelarReservaEvento();
+            if (!evento.isEnabled()) {
+                return uni;
+            }
+            evento.begin();
+            return uni.onTermination().invoke((reserva, fallo, cancelado) -> {
+                evento.end();
+                if (evento.shouldCommit()) {
+                    evento.reservaId = reservaId.toString();
+                    evento.profesionalId = reserva != null ? reserva.profesional().id().toString() : null;
+                    evento.resultado = resultado(fallo, cancelado);
+                    evento.commit();
+                }
+            });
+        });
+    }
+
+    private static String resultado(Throwable fallo, boolean cancelado) {
+        if (cancelado) {
+            return "cancelado";
+        }
+        return fallo == null ? "ok" : fallo.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,117 @@
+package com.geovannycode.reservas.infrastructure.observability;
+
+import com.geovannycode.reservas.application.dto.response.GrabacionJfrResponse;
+import com.geovannycode.reservas.domain.exception.BusinessException;
+import com.geovannycode.reservas.domain.exception.ResourceNotFoundException;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.core.Response;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * Grabación JFR bajo demanda, acotada en duración ({@code reservas.jfr.duracion-maxima}) y
+ * tamaño ({@code reservas.jfr.tamano-maximo-mb}). Solo puede haber una a la vez.
+ * <p>
+ * Usa la configuración {@code reservas.jfr.configuracion} del JDK ({@code default} o
+ * {@code profile}); los eventos {@code reservas.*} están habilitados en ambas porque no
+ * declaran umbral.
+ */
+@ApplicationScoped
+public class GrabacionesJfr {
+
+    private static final String NOMBRE = "reservas-bajo-demanda";
+
+    private final Duration duracionMaxima;
+    private final long tamanoMaximoBytes;
+    private final String configuracion;
+
+    private Recording grabacion;
+
+    public GrabacionesJfr(@ConfigProperty(name = "reservas.jfr.duracion-maxima") Duration duracionMaxima,
+                          @ConfigProperty(name = "reservas.jfr.tamano-maximo-mb") long tamanoMaximoMb,
+                          @ConfigProperty(name = "reservas.jfr.configuracion") String configuracion) {
+        this.duracionMaxima = duracionMaxima;
+        this.tamanoMaximoBytes = tamanoMaximoMb * 1024 * 1024;
+        this.configuracion = configuracion;
+    }
+
+    public synchronized GrabacionJfrResponse iniciar(Duration duracion) {
+        if (duracion.isNegative() || duracion.isZero() || duracion.compareTo(duracionMaxima) > 0) {
+            throw new IllegalArgumentException(String.format(
+                    "La duración debe estar entre 1 y %d segundos", duracionMaxima.toSeconds()));
+        }
+        if (grabacion != null && grabacion.getState() == RecordingState.RUNNING) {
+            throw new BusinessException("Ya hay una grabación JFR en curso", Response.Status.CONFLICT);
+        }
+        cerrar();
+        try {
+            grabacion = new Recording(Configuration.getConfiguration(configuracion));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Configuración JFR inválida: " + configuracion, e);
+        }
+        grabacion.setName(NOMBRE);
+        grabacion.setDuration(duracion);
+        grabacion.setMaxSize(tamanoMaximoBytes);
+        grabacion.setToDisk(true);
+        grabacion.start();
+        return estado(grabacion);
+    }
+
+    public synchronized GrabacionJfrResponse consultar() {
+        return estado(actual());
+    }
+
+    /**
+     * Detiene la grabación (si no terminó ya por duración) y la vuelca a un archivo temporal
+     * que el llamador debe borrar.
+     */
+    public synchronized Path detener() {
+        var actual = actual();
+        if (actual.getState() == RecordingState.RUNNING) {
+            actual.stop();
+        }
+        try {
+            var archivo = Files.createTempFile(NOMBRE + "-", ".jfr");
+            actual.dump(archivo);
+            return archivo;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            cerrar();
+        }
+    }
+
+    private Recording actual() {
+        if (grabacion == null) {
+            throw new ResourceNotFoundException("No hay ninguna grabación JFR");
+        }
+        return grabacion;
+    }
+
+    private void cerrar() {
+        if (grabacion != null) {
+            grabacion.close();
+            grabacion = null;
+        }
+    }
+
+    private static GrabacionJfrResponse estado(Recording grabacion) {
+        return new GrabacionJfrResponse(
+                grabacion.getName(),
+                grabacion.getState().name(),
+                grabacion.getStartTime(),
+                grabacion.getDuration() != null ? grabacion.getDuration().toSeconds() : 0,
+                grabacion.getMaxSize());
+    }
+}
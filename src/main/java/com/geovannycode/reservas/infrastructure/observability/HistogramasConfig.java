@@ -0,0 +1,48 @@
+package com.geovannycode.reservas.infrastructure.observability;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+
+import java.util.Set;
+
+/**
+ * Publica buckets de histograma ({@code _bucket} en Prometheus) para los timers de
+ * latencia, de modo que los percentiles se calculen en el servidor de métricas y se
+ * puedan agregar entre instancias:
+ * <ul>
+ *   <li>{@code http.server.requests}: una serie por método y plantilla de URI, es decir,
+ *       por método de recurso.</li>
+ *   <li>{@code reservas.consultas}: por método de repositorio.</li>
+ *   <li>{@code sql.pool.queue.delay}: espera para obtener conexión del pool reactivo.</li>
+ *   <li>{@code reservas.bucle.retraso}: retraso de cada bucle de eventos ({@link MonitorBucleEventos}).</li>
+ * </ul>
+ */
+@Singleton
+public class HistogramasConfig {
+
+    private static final Set<String> CON_HISTOGRAMA = Set.of(
+            "http.server.requests",
+            ConsultaMedidaInterceptor.METRICA,
+            "sql.pool.queue.delay",
+            "reservas.bucle.retraso");
+
+    @Produces
+    @Singleton
+    public MeterFilter histogramasLatencia() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!CON_HISTOGRAMA.contains(id.getName())) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
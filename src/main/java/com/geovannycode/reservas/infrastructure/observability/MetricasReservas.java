@@ -0,0 +1,35 @@
+package com.geovannycode.reservas.infrastructure.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Contador {@value #METRICA} de resultados de las operaciones sobre reservas, por
+ * operación y resultado: {@code ok} o el nombre de la excepción que la rechazó
+ * ({@code HorarioNoDisponibleException}, {@code ReservaSolapamientoException}, ...).
+ * <p>
+ * Se aplica en el recurso, después de la transacción, para contar también los fallos
+ * que aparecen al confirmar.
+ */
+@ApplicationScoped
+public class MetricasReservas {
+
+    static final String METRICA = "reservas.resultado";
+
+    private final MeterRegistry registry;
+
+    public MetricasReservas(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public <T> Uni<T> contar(String operacion, Uni<T> uni) {
+        return uni.onItemOrFailure().invoke((item, fallo) -> Counter.builder(METRICA)
+                .description("Resultados de las operaciones sobre reservas")
+                .tag("operacion", operacion)
+                .tag("resultado", fallo == null ? "ok" : fallo.getClass().getSimpleName())
+                .register(registry)
+                .increment());
+    }
+}
@@ -0,0 +1,207 @@
+package com.geovannycode.reservas.infrastructure.observability;
+
+import com.geovannycode.reservas.application.dto.response.BloqueoBucleResponse;
+import com.geovannycode.reservas.application.dto.response.MonitorBucleResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.util.concurrent.EventExecutor;
+import io.quarkus.runtime.StartupEvent;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Mide el retraso de cada bucle de eventos de Vert.x y registra los bloqueos.
+ * <p>
+ * Cada {@code reservas.bucle.intervalo} un hilo vigilante encola una sonda en cada bucle; el
+ * tiempo que tarda en ejecutarse es el retraso del bucle ({@code reservas.bucle.retraso}).
+ * Si una sonda lleva más de {@code reservas.bucle.umbral} sin ejecutarse, el bucle está
+ * ocupado: el vigilante captura la pila de su hilo en ese momento y la ruta del último
+ * método de recurso iniciado en él (ver {@link RutaActualFilter}). Cuando la sonda por fin
+ * corre, el bloqueo se cuenta en {@code reservas.bucle.bloqueos} y se guarda entre los
+ * últimos {@code reservas.bucle.max-bloqueos}.
+ * <p>
+ * Complementa al aviso de Vert.x ({@code BlockedThreadChecker}), que solo salta a partir de
+ * 2 s; aquí el umbral es del orden de la latencia objetivo de una petición.
+ */
+@ApplicationScoped
+public class MonitorBucleEventos {
+
+    private static final Logger LOG = Logger.getLogger(MonitorBucleEventos.class);
+    private static final int MAX_MARCOS = 40;
+
+    private final Vertx vertx;
+    private final MeterRegistry registry;
+    private final boolean habilitado;
+    private final Duration intervalo;
+    private final Duration umbral;
+    private final int maxBloqueos;
+
+    private final Map<Thread, String> rutas = new ConcurrentHashMap<>();
+    private final Deque<BloqueoBucleResponse> bloqueos = new ArrayDeque<>();
+    private final List<Sonda> sondas = new ArrayList<>();
+    private ScheduledExecutorService vigilante;
+
+    public MonitorBucleEventos(Vertx vertx,
+                               MeterRegistry registry,
+                               @ConfigProperty(name = "reservas.bucle.habilitado") boolean habilitado,
+                               @ConfigProperty(name = "reservas.bucle.intervalo") Duration intervalo,
+                               @ConfigProperty(name = "reservas.bucle.umbral") Duration umbral,
+                               @ConfigProperty(name = "reservas.bucle.max-bloqueos") int maxBloqueos) {
+        this.vertx = vertx;
+        this.registry = registry;
+        this.habilitado = habilitado;
+        this.intervalo = intervalo;
+        this.umbral = umbral;
+        this.maxBloqueos = maxBloqueos;
+    }
+
+    /**
+     * Crea una sonda por bucle de eventos. Vert.x 4 solo enumera sus bucles con
+     * {@code nettyEventLoopGroup()}, obsoleto sin sustituto público: {@code getOrCreateContext()}
+     * reparte los contextos entre bucles por turnos y desde un mismo hilo devuelve siempre el
+     * mismo, así que no garantiza una sonda en cada bucle.
+     */
+    @SuppressWarnings("deprecation")
+    void iniciar(@Observes StartupEvent evento) {
+        if (!habilitado) {
+            return;
+        }
+        for (EventExecutor bucle : vertx.nettyEventLoopGroup()) {
+            sondas.add(new Sonda(bucle));
+        }
+        vigilante = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            var hilo = new Thread(tarea, "reservas-monitor-bucle");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        vigilante.scheduleAtFixedRate(this::vigilar, intervalo.toNanos(), intervalo.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    void detener() {
+        if (vigilante != null) {
+            vigilante.shutdownNow();
+        }
+    }
+
+    /**
+     * Anota la ruta que empieza a ejecutarse en el hilo actual si es un bucle de eventos.
+     */
+    void registrarRuta(String ruta) {
+        if (habilitado && Context.isOnEventLoopThread()) {
+            rutas.put(Thread.currentThread(), ruta);
+        }
+    }
+
+    public MonitorBucleResponse consultar() {
+        List<BloqueoBucleResponse> recientes;
+        synchronized (bloqueos) {
+            recientes = List.copyOf(bloqueos);
+        }
+        return new MonitorBucleResponse(intervalo.toMillis(), umbral.toMillis(), recientes);
+    }
+
+    private void vigilar() {
+        try {
+            var ahora = System.nanoTime();
+            for (var sonda : sondas) {
+                sonda.vigilar(ahora);
+            }
+        } catch (RuntimeException e) {
+            // Una excepción cancelaría las siguientes ejecuciones del vigilante
+            LOG.warn("Error en el monitor de bucles de eventos", e);
+        }
+    }
+
+    private void registrarBloqueo(Captura captura, long retrasoNanos) {
+        var duracionMs = TimeUnit.NANOSECONDS.toMillis(retrasoNanos);
+        Counter.builder("reservas.bucle.bloqueos")
+                .description("Bloqueos de bucles de eventos por encima de reservas.bucle.umbral")
+                .tag("ruta", captura.ruta())
+                .register(registry)
+                .increment();
+        LOG.warnf("Bucle de eventos %s bloqueado %d ms (ruta: %s) en %s",
+                captura.hilo(), duracionMs, captura.ruta(), captura.pila().isEmpty() ? "?" : captura.pila().get(0));
+        var bloqueo = new BloqueoBucleResponse(captura.detectado(), captura.hilo(), duracionMs,
+                captura.ruta(), captura.pila());
+        synchronized (bloqueos) {
+            bloqueos.addFirst(bloqueo);
+            while (bloqueos.size() > maxBloqueos) {
+                bloqueos.removeLast();
+            }
+        }
+    }
+
+    private record Captura(long enviadaEn, Instant detectado, String hilo, String ruta, List<String> pila) {
+    }
+
+    /**
+     * Estado de la sonda de un bucle. {@code enviadaEn} vale cero cuando no hay sonda pendiente.
+     * El hilo del bucle se averigua al crearla, con el bucle aún libre, para poder capturar su
+     * pila aunque la primera sonda ya se encuentre el bucle bloqueado.
+     */
+    private final class Sonda {
+
+        private final EventExecutor bucle;
+        private final Thread hilo;
+        private final Timer retraso;
+        private final AtomicLong enviadaEn = new AtomicLong();
+        private final AtomicReference<Captura> captura = new AtomicReference<>();
+
+        Sonda(EventExecutor bucle) {
+            this.bucle = bucle;
+            this.hilo = bucle.submit(Thread::currentThread).syncUninterruptibly().getNow();
+            this.retraso = Timer.builder("reservas.bucle.retraso")
+                    .description("Retraso de los bucles de eventos de Vert.x")
+                    .tag("bucle", hilo.getName())
+                    .register(registry);
+        }
+
+        void vigilar(long ahora) {
+            var pendiente = enviadaEn.get();
+            if (pendiente == 0) {
+                enviadaEn.set(ahora);
+                bucle.execute(() -> ejecutar(ahora));
+            } else if (ahora - pendiente > umbral.toNanos() && captura.get() == null) {
+                var pila = Arrays.stream(hilo.getStackTrace())
+                        .limit(MAX_MARCOS)
+                        .map(StackTraceElement::toString)
+                        .toList();
+                captura.set(new Captura(pendiente, Instant.now(), hilo.getName(),
+                        rutas.getOrDefault(hilo, "desconocida"), pila));
+            }
+        }
+
+        private void ejecutar(long enviada) {
+            var retrasoNanos = System.nanoTime() - enviada;
+            retraso.record(retrasoNanos, TimeUnit.NANOSECONDS);
+            var capturada = captura.getAndSet(null);
+            enviadaEn.set(0);
+            // Una captura de una sonda anterior (carrera con el vigilante) se descarta
+            if (capturada != null && capturada.enviadaEn() == enviada) {
+                registrarBloqueo(capturada, retrasoNanos);
+            }
+        }
+    }
+}
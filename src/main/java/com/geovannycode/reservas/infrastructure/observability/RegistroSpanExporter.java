@@ -0,0 +1,56 @@
+package com.geovannycode.reservas.infrastructure.observability;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exportador de spans al log, para ver las trazas sin un colector OTLP (modo dev, pruebas
+ * locales). Quarkus registra cualquier {@link SpanExporter} CDI junto al exportador OTLP;
+ * este solo escribe si {@code reservas.trazas.log=true}.
+ * <p>
+ * Formato: {@code traza span<-padre nombre duración atributos}.
+ */
+@ApplicationScoped
+public class RegistroSpanExporter implements SpanExporter {
+
+    private static final Logger LOG = Logger.getLogger(RegistroSpanExporter.class);
+
+    private final boolean habilitado;
+
+    public RegistroSpanExporter(@ConfigProperty(name = "reservas.trazas.log", defaultValue = "false") boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        if (habilitado) {
+            for (var span : spans) {
+                LOG.infof("%s %s<-%s %-24s %8d us %s",
+                        span.getTraceId(),
+                        span.getSpanId(),
+                        span.getParentSpanId(),
+                        span.getName(),
+                        TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()),
+                        span.getAttributes());
+            }
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
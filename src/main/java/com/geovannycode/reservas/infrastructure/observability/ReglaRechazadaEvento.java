@@ -0,0 +1,43 @@
+package com.geovannycode.reservas.infrastructure.observability;
+
+import com.geovannycode.reservas.domain.exception.BusinessException;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR instantáneo por cada {@link BusinessException} convertida en respuesta HTTP.
+ */
+@Name("reservas.ReglaRechazada")
+@Label("Regla de negocio rechazada")
+@Category({"Reservas", "Operaciones"})
+@Description("Petición rechazada por una regla de negocio")
+@StackTrace(false)
+public class ReglaRechazadaEvento extends Event {
+
+    @Label("Excepción")
+    String excepcion;
+
+    @Label("Estado HTTP")
+    int estadoHttp;
+
+    @Label("Ruta")
+    String ruta;
+
+    @Label("Mensaje")
+    String mensaje;
+
+    public static void registrar(BusinessException exception, String ruta) {
+        var evento = new ReglaRechazadaEvento();
+        if (evento.shouldCommit()) {
+            evento.excepcion = exception.getClass().getSimpleName();
+            evento.estadoHttp = exception.getHttpStatusCode();
+            evento.ruta = ruta;
+            evento.mensaje = exception.getMessage();
+            evento.commit();
+        }
+    }
+}
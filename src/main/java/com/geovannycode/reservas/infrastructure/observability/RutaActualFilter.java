@@ -0,0 +1,35 @@
+package com.geovannycode.reservas.infrastructure.observability;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Anota en {@link MonitorBucleEventos} el método de recurso que empieza a ejecutarse en cada
+ * bucle de eventos, para atribuir los bloqueos a una ruta.
+ * <p>
+ * Es una aproximación: un bucle intercala las continuaciones de muchas peticiones, así que la
+ * ruta es la última que empezó en ese bucle; la pila capturada es la que lo confirma.
+ */
+@Provider
+public class RutaActualFilter implements ContainerRequestFilter {
+
+    private final MonitorBucleEventos monitor;
+
+    @Context
+    ResourceInfo recurso;
+
+    public RutaActualFilter(MonitorBucleEventos monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext peticion) {
+        if (recurso != null && recurso.getResourceMethod() != null) {
+            monitor.registrarRuta(recurso.getResourceClass().getSimpleName()
+                    + "." + recurso.getResourceMethod().getName());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.geovannycode.reservas.infrastructure.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de la escritura del cuerpo de una respuesta, emitido por
+ * {@link SerializacionJfrInterceptor}.
+ */
+@Name("reservas.Serializacion")
+@Label("Serialización de respuesta")
+@Category({"Reservas", "HTTP"})
+@Description("Escritura del cuerpo de una respuesta REST (JSON u otro formato)")
+@StackTrace(false)
+class SerializacionEvento extends Event {
+
+    @Label("Tipo")
+    String tipo;
+
+    @Label("Media type")
+    String mediaType;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
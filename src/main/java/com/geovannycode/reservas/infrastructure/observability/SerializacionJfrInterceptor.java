@@ -0,0 +1,64 @@
+package com.geovannycode.reservas.infrastructure.observability;
+
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Emite un {@link SerializacionEvento} por cada cuerpo de respuesta escrito. Si el evento
+ * no está habilitado en la grabación en curso (o no hay grabación) no envuelve el stream.
+ */
+@Provider
+public class SerializacionJfrInterceptor implements WriterInterceptor {
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext contexto) throws IOException, WebApplicationException {
+        var evento = new SerializacionEvento();
+        if (!evento.isEnabled()) {
+            contexto.proceed();
+            return;
+        }
+        var original = contexto.getOutputStream();
+        var contador = new ContadorBytes(original);
+        contexto.setOutputStream(contador);
+        evento.begin();
+        try {
+            contexto.proceed();
+        } finally {
+            contexto.setOutputStream(original);
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.tipo = contexto.getType() != null ? contexto.getType().getSimpleName() : "desconocido";
+                evento.mediaType = String.valueOf(contexto.getMediaType());
+                evento.bytes = contador.bytes;
+                evento.commit();
+            }
+        }
+    }
+
+    private static final class ContadorBytes extends FilterOutputStream {
+
+        private long bytes;
+
+        ContadorBytes(OutputStream destino) {
+            super(destino);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            bytes += len;
+        }
+    }
+}
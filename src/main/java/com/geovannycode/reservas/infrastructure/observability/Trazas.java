@@ -0,0 +1,100 @@
+package com.geovannycode.reservas.infrastructure.observability;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.function.Supplier;
+
+/**
+ * Spans OpenTelemetry para las etapas de un pipeline Mutiny.
+ * <p>
+ * Los endpoints ya tienen su span de servidor (Quarkus REST) y cada sentencia SQL el suyo
+ * (cliente reactivo de Vert.x); esta clase añade los spans intermedios de negocio, de modo
+ * que en una traza lenta se vea qué etapa consumió el tiempo. El span cubre desde la
+ * suscripción al {@link Uni} hasta que termina y lleva el atributo {@link #RESULTADO}:
+ * {@code ok}, {@code cancelado} o el nombre de la excepción.
+ * <p>
+ * Mientras dura la etapa su span es el actual. Quarkus guarda el contexto OpenTelemetry en el
+ * contexto duplicado de Vert.x de la petición, no en el hilo, así que las sentencias SQL que
+ * la etapa lanza después de un salto asíncrono quedan también como hijas del span de la etapa.
+ */
+@ApplicationScoped
+public class Trazas {
+
+    public static final AttributeKey<String> PROFESIONAL_ID = AttributeKey.stringKey("reservas.profesional.id");
+    public static final AttributeKey<String> RESERVA_ID = AttributeKey.stringKey("reservas.reserva.id");
+    public static final AttributeKey<String> RESULTADO = AttributeKey.stringKey("reservas.resultado");
+
+    private final Tracer tracer;
+
+    public Trazas(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * Ejecuta {@code etapa} dentro de un span hijo del contexto actual, que pasa a ser el
+     * actual hasta que la etapa termina.
+     */
+    public <T> Uni<T> span(String nombre, Supplier<Uni<T>> etapa) {
+        return span(nombre, Attributes.empty(), etapa);
+    }
+
+    public <T> Uni<T> span(String nombre, Attributes atributos, Supplier<Uni<T>> etapa) {
+        return Uni.createFrom().deferred(() -> {
+            var span = iniciar(nombre, atributos);
+            var alcance = span.makeCurrent();
+            Uni<T> uni;
+            try {
+                uni = etapa.get();
+            } catch (RuntimeException e) {
+                uni = Uni.createFrom().failure(e);
+            }
+            return uni.onTermination().invoke((item, fallo, cancelado) -> {
+                alcance.close();
+                terminar(span, fallo, cancelado);
+            });
+        });
+    }
+
+    /**
+     * Añade {@code atributos} y el resultado de {@code uni} al span actual, que en un
+     * método de recurso es el span de servidor de la petición.
+     */
+    public <T> Uni<T> anotar(Attributes atributos, Uni<T> uni) {
+        var span = Span.current();
+        span.setAllAttributes(atributos);
+        return uni.onTermination().invoke((item, fallo, cancelado) ->
+                span.setAttribute(RESULTADO, resultado(fallo, cancelado)));
+    }
+
+    /**
+     * Abre un span que se cierra con {@link #terminar(Span, Throwable, boolean)}; para
+     * tramos que no corresponden a un único {@link Uni}, como el commit de una transacción.
+     */
+    public Span iniciar(String nombre, Attributes atributos) {
+        return tracer.spanBuilder(nombre)
+                .setAllAttributes(atributos)
+                .startSpan();
+    }
+
+    public void terminar(Span span, Throwable fallo, boolean cancelado) {
+        span.setAttribute(RESULTADO, resultado(fallo, cancelado));
+        if (fallo != null && !cancelado) {
+            span.setStatus(StatusCode.ERROR, fallo.getMessage());
+            span.recordException(fallo);
+        }
+        span.end();
+    }
+
+    private static String resultado(Throwable fallo, boolean cancelado) {
+        if (cancelado) {
+            return "cancelado";
+        }
+        return fallo == null ? "ok" : fallo.getClass().getSimpleName();
+    }
+}
@@ -1,6 +1,7 @@
 package com.geovannycode.reservas.infrastructure.repository;
 
 import com.geovannycode.reservas.domain.model.Cliente;
+import com.geovannycode.reservas.infrastructure.observability.ConsultaMedida;
 import io.quarkus.hibernate.reactive.panache.PanacheRepositoryBase;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -14,6 +15,7 @@ import java.util.UUID;
  * Extiende {@link PanacheRepositoryBase} para obtener operaciones CRUD reactivas base.
  */
 @ApplicationScoped
+@ConsultaMedida
 public class ClienteRepository implements PanacheRepositoryBase<Cliente, UUID> {
 
     /**
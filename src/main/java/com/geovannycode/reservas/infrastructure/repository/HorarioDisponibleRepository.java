@@ -1,9 +1,12 @@
 package com.geovannycode.reservas.infrastructure.repository;
 
 import com.geovannycode.reservas.domain.model.HorarioDisponible;
+import com.geovannycode.reservas.infrastructure.observability.ConsultaMedida;
 import io.quarkus.hibernate.reactive.panache.PanacheRepositoryBase;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.reactive.common.AffectedEntities;
+import org.hibernate.reactive.mutiny.Mutiny;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -14,15 +17,34 @@ import java.util.UUID;
 /**
  * Repositorio reactivo para la entidad {@link HorarioDisponible}.
  * Contiene las consultas especializadas para validar solapamientos y disponibilidad.
+ * <p>
+ * Las consultas por intervalo usan la columna generada {@code rango} ({@code tsrange} de
+ * fecha + horas, semiabierto {@code [inicio, fin)}) y el índice GiST
+ * {@code idx_horarios_profesional_rango}, por lo que son consultas SQL nativas:
+ * HQL no conoce los operadores de rangos {@code &&}, {@code @>} y {@code -|-}.
+ * <p>
+ * La tabla está particionada por mes sobre {@code fecha} (migración V5). El planificador no
+ * deduce la fecha a partir de {@code rango}, así que cada consulta repite {@code h.fecha = :fecha}
+ * para que solo se recorra la partición del mes.
  */
 @ApplicationScoped
+@ConsultaMedida
 public class HorarioDisponibleRepository implements PanacheRepositoryBase<HorarioDisponible, UUID> {
 
+    private static final String COLUMNAS =
+            "SELECT h.id, h.profesional_id, h.fecha, h.hora_inicio, h.hora_fin, h.estado " +
+                    "FROM horarios_disponibles h ";
+
+    private static final String RANGO_SOLICITADO =
+            "tsrange(CAST(:fecha AS date) + CAST(:horaInicio AS time), " +
+                    "CAST(:fecha AS date) + CAST(:horaFin AS time), '[)')";
+
     /**
      * Busca horarios disponibles de un profesional que se solapen con el intervalo dado.
      * <p>
      * Lógica de solapamiento: existe solapamiento si
-     * {@code existente.horaInicio < horaFin && existente.horaFin > horaInicio}.
+     * {@code existente.horaInicio < horaFin && existente.horaFin > horaInicio},
+     * expresado como {@code rango && tsrange(horaInicio, horaFin)}.
      *
      * @param profesionalId ID del profesional
      * @param fecha         Fecha a verificar
@@ -33,14 +55,35 @@ public class HorarioDisponibleRepository implements PanacheRepositoryBase<Horari
                                                       LocalDate fecha,
                                                       LocalTime horaInicio,
                                                       LocalTime horaFin) {
-        return list(
-                "profesional.id = ?1 AND fecha = ?2 AND horaInicio < ?3 AND horaFin > ?4",
-                profesionalId, fecha, horaFin, horaInicio);
+        return consultaPorRango(
+                COLUMNAS + "WHERE h.profesional_id = :profesionalId AND h.fecha = :fecha " +
+                        "AND h.rango && " + RANGO_SOLICITADO,
+                profesionalId, fecha, horaInicio, horaFin)
+                .flatMap(Mutiny.SelectionQuery::getResultList);
+    }
+
+    /**
+     * Bloquea hasta el final de la transacción la agenda de un profesional en una fecha
+     * ({@code pg_advisory_xact_lock}). Las reservas y cancelaciones dividen y fusionan los
+     * bloques de ese día, así que se ejecutan de una en una; al obtener el bloqueo, la
+     * transacción ya ve los bloques que dejó la anterior.
+     */
+    public Uni<Void> bloquearAgenda(UUID profesionalId, LocalDate fecha) {
+        return getSession().flatMap(session -> session
+                        .createNativeQuery("SELECT 1 FROM pg_advisory_xact_lock(hashtext(:clave))", Integer.class)
+                        .setParameter("clave", "reservas.agenda|" + profesionalId + "|" + fecha)
+                        .getSingleResult())
+                .replaceWithVoid();
     }
 
     /**
      * Busca el horario disponible (estado=true) de un profesional que cubra completamente
-     * el intervalo solicitado para una reserva.
+     * el intervalo solicitado para una reserva ({@code rango @> tsrange(horaInicio, horaFin)}).
+     * <p>
+     * Debe llamarse con la agenda bloqueada ({@link #bloquearAgenda}): la reserva recorta esta
+     * fila al tramo reservado y deja el resto en filas nuevas. Con solo {@code FOR UPDATE}, una
+     * segunda reserva concurrente en el mismo bloque esperaría a la fila, la vería ya ocupada y
+     * no encontraría los fragmentos libres, que su consulta no ve.
      *
      * @param profesionalId ID del profesional
      * @param fecha         Fecha de la reserva
@@ -51,17 +94,18 @@ public class HorarioDisponibleRepository implements PanacheRepositoryBase<Horari
                                                                       LocalDate fecha,
                                                                       LocalTime horaInicio,
                                                                       LocalTime horaFin) {
-        return find(
-                "profesional.id = ?1 AND fecha = ?2 AND estado = true " +
-                        "AND horaInicio <= ?3 AND horaFin >= ?4",
+        return consultaPorRango(
+                COLUMNAS + "WHERE h.profesional_id = :profesionalId AND h.fecha = :fecha AND h.estado = true " +
+                        "AND h.rango @> " + RANGO_SOLICITADO + " LIMIT 1 FOR UPDATE",
                 profesionalId, fecha, horaInicio, horaFin)
-                .firstResult()
+                .flatMap(Mutiny.SelectionQuery::getSingleResultOrNull)
                 .map(Optional::ofNullable);
     }
 
     /**
      * Busca el horario ocupado (estado=false) de un profesional que cubra el intervalo dado.
-     * Usado al cancelar una reserva para liberar la disponibilidad.
+     * Solo se usa al cancelar reservas sin {@code horario_id} (creadas antes de la migración V3);
+     * las demás liberan su bloque por clave primaria.
      *
      * @param profesionalId ID del profesional
      * @param fecha         Fecha de la reserva
@@ -72,18 +116,65 @@ public class HorarioDisponibleRepository implements PanacheRepositoryBase<Horari
                                                                   LocalDate fecha,
                                                                   LocalTime horaInicio,
                                                                   LocalTime horaFin) {
-        return find(
-                "profesional.id = ?1 AND fecha = ?2 AND estado = false " +
-                        "AND horaInicio <= ?3 AND horaFin >= ?4",
+        return consultaPorRango(
+                COLUMNAS + "WHERE h.profesional_id = :profesionalId AND h.fecha = :fecha AND h.estado = false " +
+                        "AND h.rango @> " + RANGO_SOLICITADO + " LIMIT 1",
                 profesionalId, fecha, horaInicio, horaFin)
-                .firstResult()
+                .flatMap(Mutiny.SelectionQuery::getSingleResultOrNull)
                 .map(Optional::ofNullable);
     }
 
+    /**
+     * Busca los bloques libres (estado=true) de un profesional que terminan justo donde empieza
+     * el intervalo dado o empiezan justo donde termina ({@code rango -|- tsrange(horaInicio, horaFin)}).
+     * Usado para fusionar fragmentos al liberar.
+     *
+     * @param profesionalId ID del profesional
+     * @param fecha         Fecha del bloque liberado
+     * @param horaInicio    Hora de inicio del bloque liberado
+     * @param horaFin       Hora de fin del bloque liberado
+     */
+    public Uni<List<HorarioDisponible>> findLibresAdyacentes(UUID profesionalId,
+                                                             LocalDate fecha,
+                                                             LocalTime horaInicio,
+                                                             LocalTime horaFin) {
+        return consultaPorRango(
+                COLUMNAS + "WHERE h.profesional_id = :profesionalId AND h.fecha = :fecha AND h.estado = true " +
+                        "AND h.rango -|- " + RANGO_SOLICITADO,
+                profesionalId, fecha, horaInicio, horaFin)
+                .flatMap(Mutiny.SelectionQuery::getResultList);
+    }
+
+    /**
+     * Busca un horario por clave primaria incluyendo la fecha, para que la consulta
+     * se limite a la partición del mes en lugar de sondear el índice de cada partición.
+     */
+    public Uni<HorarioDisponible> findByIdAndFecha(UUID id, LocalDate fecha) {
+        return find("id = ?1 AND fecha = ?2", id, fecha).firstResult();
+    }
+
     /**
      * Busca todos los horarios de un profesional específico.
      */
     public Uni<List<HorarioDisponible>> findByProfesionalId(UUID profesionalId) {
         return list("profesional.id", profesionalId);
     }
+
+    /**
+     * Prepara una consulta nativa sobre la columna {@code rango}. Se declara {@link HorarioDisponible}
+     * como entidad afectada para que la sesión vacíe antes los cambios pendientes sobre horarios
+     * (p. ej. los fragmentos creados al dividir un bloque dentro de la misma transacción).
+     */
+    private Uni<Mutiny.SelectionQuery<HorarioDisponible>> consultaPorRango(String sql,
+                                                                           UUID profesionalId,
+                                                                           LocalDate fecha,
+                                                                           LocalTime horaInicio,
+                                                                           LocalTime horaFin) {
+        return getSession().map(session -> session
+                .createNativeQuery(sql, HorarioDisponible.class, new AffectedEntities(HorarioDisponible.class))
+                .setParameter("profesionalId", profesionalId)
+                .setParameter("fecha", fecha)
+                .setParameter("horaInicio", horaInicio)
+                .setParameter("horaFin", horaFin));
+    }
 }
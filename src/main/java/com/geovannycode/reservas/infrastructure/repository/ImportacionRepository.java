@@ -0,0 +1,284 @@
+package com.geovannycode.reservas.infrastructure.repository;
+
+import com.geovannycode.reservas.application.dto.response.ImportacionResponse;
+import com.geovannycode.reservas.application.dto.response.RechazoImportacionResponse;
+import com.geovannycode.reservas.domain.exception.ImportacionInvalidaException;
+import com.geovannycode.reservas.infrastructure.observability.ConsultaMedida;
+import io.agroal.api.AgroalDataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.jboss.logging.Logger;
+import org.postgresql.PGConnection;
+import org.postgresql.util.PSQLException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repositorio de importación masiva basado en el protocolo {@code COPY FROM STDIN} de PostgreSQL.
+ * <p>
+ * A diferencia de los repositorios Panache, usa el datasource JDBC (el mismo que Flyway),
+ * porque el cliente reactivo de Vert.x no soporta COPY. Cada importación:
+ * <ol>
+ *   <li>Crea una tabla temporal de staging con columnas de texto ({@code ON COMMIT DROP}).</li>
+ *   <li>Vuelca el CSV completo con un único {@code COPY}.</li>
+ *   <li>Marca las filas inválidas con sentencias SQL sobre el conjunto completo.</li>
+ *   <li>Inserta las filas válidas en la tabla destino con un único {@code INSERT ... SELECT}
+ *       que devuelve cuántas se insertaron.</li>
+ * </ol>
+ * Todo ocurre en una sola transacción: o se importan todas las filas válidas o ninguna.
+ * <p>
+ * Los métodos son bloqueantes y deben invocarse desde un hilo worker.
+ */
+@ApplicationScoped
+@ConsultaMedida
+public class ImportacionRepository {
+
+    private static final Logger LOG = Logger.getLogger(ImportacionRepository.class);
+
+    // Públicas para ConsultasPlanTest, que explica la comprobación de duplicados sobre esta tabla
+    public static final String STAGING_CLIENTES = """
+            CREATE TEMP TABLE stg_clientes (
+                linea     BIGINT GENERATED ALWAYS AS IDENTITY,
+                nombres   TEXT,
+                apellidos TEXT,
+                email     TEXT,
+                telefono  TEXT,
+                motivo    TEXT
+            ) ON COMMIT DROP
+            """;
+
+    // La resuelve idx_clientes_email_lower (V9)
+    public static final String EMAIL_YA_REGISTRADO = """
+            UPDATE stg_clientes s SET motivo = 'Email ya registrado'
+            WHERE s.motivo IS NULL
+              AND EXISTS (SELECT 1 FROM clientes c WHERE lower(c.email) = lower(trim(s.email)))
+            """;
+
+    private static final String COPY_CLIENTES =
+            "COPY stg_clientes (nombres, apellidos, email, telefono) FROM STDIN WITH (FORMAT csv, HEADER MATCH)";
+
+    // Las reglas se aplican en orden; cada una solo evalúa filas aún no rechazadas.
+    private static final List<String> VALIDACIONES_CLIENTES = List.of(
+            "ANALYZE stg_clientes",
+            """
+            UPDATE stg_clientes SET motivo = 'Campos obligatorios vacíos'
+            WHERE coalesce(trim(nombres), '') = '' OR coalesce(trim(apellidos), '') = ''
+               OR coalesce(trim(email), '') = '' OR coalesce(trim(telefono), '') = ''
+            """,
+            """
+            UPDATE stg_clientes SET motivo = 'Longitud de campo excedida'
+            WHERE motivo IS NULL
+              AND (length(trim(nombres)) > 100 OR length(trim(apellidos)) > 100 OR length(trim(email)) > 255)
+            """,
+            """
+            UPDATE stg_clientes SET motivo = 'El email no tiene un formato válido'
+            WHERE motivo IS NULL AND trim(email) !~ '^[^@[:space:]]+@[^@[:space:]]+\\.[^@[:space:]]+$'
+            """,
+            """
+            UPDATE stg_clientes SET motivo = 'El teléfono no tiene un formato válido'
+            WHERE motivo IS NULL AND trim(telefono) !~ '^[+]?[0-9[:space:]-]{7,20}$'
+            """,
+            EMAIL_YA_REGISTRADO,
+            """
+            UPDATE stg_clientes s SET motivo = 'Email duplicado en el archivo'
+            FROM (SELECT linea,
+                         row_number() OVER (PARTITION BY lower(trim(email)) ORDER BY linea) AS orden
+                  FROM stg_clientes
+                  WHERE motivo IS NULL) d
+            WHERE s.linea = d.linea AND d.orden > 1
+            """
+    );
+
+    // Un cliente dado de alta por otra petición después de las validaciones choca con
+    // uk_clientes_email: la fila no se inserta y se reporta como rechazada.
+    private static final String MERGE_CLIENTES = """
+            WITH insertados AS (
+                INSERT INTO clientes (id, nombres, apellidos, email, telefono, estado_activo)
+                SELECT uuid_v7(), trim(nombres), trim(apellidos), trim(email), trim(telefono), TRUE
+                FROM stg_clientes
+                WHERE motivo IS NULL
+                ON CONFLICT ON CONSTRAINT uk_clientes_email DO NOTHING
+                RETURNING email
+            ), omitidos AS (
+                UPDATE stg_clientes s SET motivo = 'Email ya registrado'
+                WHERE s.motivo IS NULL
+                  AND NOT EXISTS (SELECT 1 FROM insertados i WHERE i.email = trim(s.email))
+            )
+            SELECT count(*) FROM insertados
+            """;
+
+    private static final String RECHAZOS_CLIENTES =
+            "SELECT linea, email, motivo FROM stg_clientes WHERE motivo IS NOT NULL ORDER BY linea";
+
+    private static final String STAGING_HORARIOS = """
+            CREATE TEMP TABLE stg_horarios (
+                linea          BIGINT GENERATED ALWAYS AS IDENTITY,
+                profesional_id TEXT,
+                fecha          TEXT,
+                hora_inicio    TEXT,
+                hora_fin       TEXT,
+                p_id           UUID,
+                f              DATE,
+                hi             TIME,
+                hf             TIME,
+                motivo         TEXT
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_HORARIOS =
+            "COPY stg_horarios (profesional_id, fecha, hora_inicio, hora_fin) FROM STDIN WITH (FORMAT csv, HEADER MATCH)";
+
+    private static final List<String> VALIDACIONES_HORARIOS = List.of(
+            """
+            UPDATE stg_horarios SET motivo = 'Formato inválido de profesional, fecha u hora'
+            WHERE NOT (pg_input_is_valid(coalesce(trim(profesional_id), ''), 'uuid')
+                   AND pg_input_is_valid(coalesce(trim(fecha), ''), 'date')
+                   AND pg_input_is_valid(coalesce(trim(hora_inicio), ''), 'time')
+                   AND pg_input_is_valid(coalesce(trim(hora_fin), ''), 'time'))
+            """,
+            """
+            UPDATE stg_horarios
+            SET p_id = trim(profesional_id)::uuid, f = trim(fecha)::date,
+                hi = trim(hora_inicio)::time, hf = trim(hora_fin)::time
+            WHERE motivo IS NULL
+            """,
+            // Índice y estadísticas para que las comprobaciones de solapamiento no sean O(n²)
+            "CREATE INDEX ON stg_horarios (p_id, f)",
+            "ANALYZE stg_horarios",
+            """
+            UPDATE stg_horarios SET motivo = 'La hora de fin debe ser posterior a la hora de inicio'
+            WHERE motivo IS NULL AND hf <= hi
+            """,
+            """
+            UPDATE stg_horarios s SET motivo = 'Profesional no encontrado'
+            WHERE s.motivo IS NULL AND NOT EXISTS (SELECT 1 FROM profesionales p WHERE p.id = s.p_id)
+            """,
+            """
+            UPDATE stg_horarios s SET motivo = 'Se solapa con un horario existente'
+            WHERE s.motivo IS NULL
+              AND EXISTS (SELECT 1 FROM horarios_disponibles h
+                          WHERE h.profesional_id = s.p_id AND h.fecha = s.f
+                            AND h.hora_inicio < s.hf AND h.hora_fin > s.hi)
+            """,
+            // Recorre las filas de cada profesional y día en orden de línea acumulando los tramos
+            // aceptados: una fila solo se rechaza si se solapa con una anterior que se importa, no
+            // con otra ya rechazada. Los rangos son [inicio, fin), así que los bloques contiguos
+            // (09:00-10:00 y 10:00-11:00) no se solapan.
+            """
+            WITH RECURSIVE filas AS MATERIALIZED (
+                SELECT linea, p_id, f, numrange(extract(epoch FROM hi), extract(epoch FROM hf)) AS tramo,
+                       row_number() OVER (PARTITION BY p_id, f ORDER BY linea) AS orden
+                FROM stg_horarios
+                WHERE motivo IS NULL
+            ), recorrido AS (
+                SELECT p_id, f, orden, linea, TRUE AS aceptada, nummultirange(tramo) AS ocupado
+                FROM filas
+                WHERE orden = 1
+                UNION ALL
+                SELECT s.p_id, s.f, s.orden, s.linea, NOT (r.ocupado && s.tramo),
+                       CASE WHEN r.ocupado && s.tramo THEN r.ocupado ELSE r.ocupado + nummultirange(s.tramo) END
+                FROM recorrido r
+                JOIN filas s ON s.p_id = r.p_id AND s.f = r.f AND s.orden = r.orden + 1
+            )
+            UPDATE stg_horarios s SET motivo = 'Se solapa con otra fila del archivo'
+            FROM recorrido r
+            WHERE s.linea = r.linea AND NOT r.aceptada
+            """
+    );
+
+    private static final String MERGE_HORARIOS = """
+            WITH insertados AS (
+                INSERT INTO horarios_disponibles (id, profesional_id, fecha, hora_inicio, hora_fin, estado)
+                SELECT uuid_v7(), p_id, f, hi, hf, TRUE
+                FROM stg_horarios
+                WHERE motivo IS NULL
+                RETURNING 1
+            )
+            SELECT count(*) FROM insertados
+            """;
+
+    private static final String RECHAZOS_HORARIOS = """
+            SELECT linea, concat_ws(' ', profesional_id, fecha, hora_inicio, hora_fin), motivo
+            FROM stg_horarios WHERE motivo IS NOT NULL ORDER BY linea
+            """;
+
+    private final AgroalDataSource dataSource;
+
+    public ImportacionRepository(AgroalDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Importa clientes desde un CSV con cabecera {@code nombres,apellidos,email,telefono}.
+     * Rechaza emails ya registrados o repetidos dentro del propio archivo (se conserva la primera aparición).
+     */
+    public ImportacionResponse importarClientes(Reader csv) {
+        return importar(csv, STAGING_CLIENTES, COPY_CLIENTES, VALIDACIONES_CLIENTES, MERGE_CLIENTES, RECHAZOS_CLIENTES);
+    }
+
+    /**
+     * Importa horarios disponibles desde un CSV con cabecera {@code profesional_id,fecha,hora_inicio,hora_fin}.
+     * Rechaza bloques que se solapen con horarios existentes o con filas anteriores del archivo
+     * que sí se importan.
+     */
+    public ImportacionResponse importarHorarios(Reader csv) {
+        return importar(csv, STAGING_HORARIOS, COPY_HORARIOS, VALIDACIONES_HORARIOS, MERGE_HORARIOS, RECHAZOS_HORARIOS);
+    }
+
+    private ImportacionResponse importar(Reader csv,
+                                         String staging,
+                                         String copy,
+                                         List<String> validaciones,
+                                         String merge,
+                                         String rechazosSql) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(staging);
+
+                long totalFilas = connection.unwrap(PGConnection.class)
+                        .getCopyAPI()
+                        .copyIn(copy, csv);
+
+                for (String validacion : validaciones) {
+                    statement.executeUpdate(validacion);
+                }
+                long importadas;
+                try (var rs = statement.executeQuery(merge)) {
+                    rs.next();
+                    importadas = rs.getLong(1);
+                }
+
+                List<RechazoImportacionResponse> rechazos = new ArrayList<>();
+                try (var rs = statement.executeQuery(rechazosSql)) {
+                    while (rs.next()) {
+                        // +1 porque la cabecera ocupa la primera línea del archivo
+                        rechazos.add(new RechazoImportacionResponse(rs.getLong(1) + 1, rs.getString(2), rs.getString(3)));
+                    }
+                }
+                connection.commit();
+
+                LOG.debugf("Importación finalizada: %d filas, %d importadas, %d rechazadas",
+                        totalFilas, importadas, rechazos.size());
+                return new ImportacionResponse(totalFilas, importadas, rechazos.size(), rechazos);
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (PSQLException e) {
+            // Errores de formato del propio archivo (columnas de más/de menos, comillas sin cerrar, encoding)
+            if (e.getSQLState() != null && e.getSQLState().startsWith("22")) {
+                var detalle = e.getServerErrorMessage() != null ? e.getServerErrorMessage().getMessage() : e.getMessage();
+                throw new ImportacionInvalidaException("El archivo CSV no es válido: " + detalle);
+            }
+            throw new IllegalStateException("Error ejecutando la importación", e);
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("Error ejecutando la importación", e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.geovannycode.reservas.infrastructure.repository;
+
+import com.geovannycode.reservas.infrastructure.observability.ConsultaMedida;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Repositorio de mantenimiento de las particiones mensuales de {@code reservas} y
+ * {@code horarios_disponibles} (migración V5).
+ * <p>
+ * Invoca las funciones {@code crear_particiones_mes} y {@code desacoplar_particiones_mes}
+ * directamente sobre el pool reactivo: son sentencias DDL sin relación con las sesiones de
+ * Hibernate. El pool es el enrutado, así que cada método actúa sobre el fragmento desde el que
+ * se invoca (ver {@code Fragmentos}).
+ * <p>
+ * Varias instancias ejecutan el mismo mantenimiento; {@link #conBloqueo(Supplier)} toma un
+ * bloqueo consultivo para que solo una lo haga a la vez en cada base de datos.
+ */
+@ApplicationScoped
+@ConsultaMedida
+public class ParticionRepository {
+
+    private static final String BLOQUEO = "SELECT pg_try_advisory_lock(hashtext('reservas.mantenimiento-particiones'))";
+    private static final String DESBLOQUEO = "SELECT pg_advisory_unlock(hashtext('reservas.mantenimiento-particiones'))";
+
+    private final Pool pool;
+
+    public ParticionRepository(Pool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Ejecuta {@code mantenimiento} con el bloqueo consultivo del mantenimiento tomado, sin
+     * esperar si otra instancia lo tiene. El bloqueo es de sesión: se conserva una conexión
+     * propia mientras dura el mantenimiento y se libera al terminar, también si falla.
+     *
+     * @return {@code false} si otra instancia está haciendo el mantenimiento y no se ejecutó
+     */
+    public Uni<Boolean> conBloqueo(Supplier<Uni<Void>> mantenimiento) {
+        return pool.withConnection(conexion -> conexion.query(BLOQUEO).execute()
+                .map(filas -> filas.iterator().next().getBoolean(0))
+                .flatMap(tomado -> {
+                    if (!tomado) {
+                        return Uni.createFrom().item(false);
+                    }
+                    return mantenimiento.get()
+                            .eventually(() -> conexion.query(DESBLOQUEO).execute())
+                            .replaceWith(true);
+                }));
+    }
+
+    /**
+     * Garantiza que existan las particiones desde el mes {@code desde} hasta
+     * {@code mesesAdelante} meses después. Cada mes se crea en su propia transacción
+     * para no retener el bloqueo de las tablas padre más de lo necesario.
+     */
+    public Uni<Void> crearParticiones(YearMonth desde, int mesesAdelante) {
+        return Multi.createFrom().items(IntStream.rangeClosed(0, mesesAdelante).boxed())
+                .onItem().transformToUniAndConcatenate(i -> pool.preparedQuery("SELECT crear_particiones_mes($1)")
+                        .execute(Tuple.of(desde.plusMonths(i).atDay(1))))
+                .collect().last()
+                .replaceWithVoid();
+    }
+
+    /**
+     * Desacopla las particiones del mes indicado para archivarlas. Las tablas
+     * {@code reservas_AAAA_MM} y {@code horarios_disponibles_AAAA_MM} siguen existiendo
+     * pero dejan de formar parte de las tablas de la aplicación.
+     */
+    public Uni<Void> desacoplarParticiones(YearMonth mes) {
+        return pool.preparedQuery("SELECT desacoplar_particiones_mes($1)")
+                .execute(Tuple.of(mes.atDay(1)))
+                .replaceWithVoid();
+    }
+
+    /**
+     * Mes más antiguo con partición propia (excluye DEFAULT), o {@code null} si no hay ninguna.
+     */
+    public Uni<LocalDate> mesMasAntiguo() {
+        return pool.query("""
+                        SELECT min(to_date(substring(c.relname FROM '(\\d{4}_\\d{2})$'), 'YYYY_MM'))
+                        FROM pg_inherits i
+                        JOIN pg_class c ON c.oid = i.inhrelid
+                        WHERE i.inhparent = 'reservas'::regclass
+                          AND c.relname ~ '_\\d{4}_\\d{2}$'
+                        """)
+                .execute()
+                .map(filas -> filas.iterator().next().getLocalDate(0));
+    }
+}
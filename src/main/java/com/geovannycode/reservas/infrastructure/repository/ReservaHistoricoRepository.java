@@ -0,0 +1,68 @@
+package com.geovannycode.reservas.infrastructure.repository;
+
+import com.geovannycode.reservas.domain.model.ReservaHistorico;
+import com.geovannycode.reservas.infrastructure.observability.ConsultaMedida;
+import io.quarkus.hibernate.reactive.panache.PanacheRepositoryBase;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repositorio reactivo para la tabla de archivo {@link ReservaHistorico}.
+ */
+@ApplicationScoped
+@ConsultaMedida
+public class ReservaHistoricoRepository implements PanacheRepositoryBase<ReservaHistorico, UUID> {
+
+    /**
+     * Mueve a {@code reservas_historico} un lote de hasta {@code tamanoLote} reservas
+     * finalizadas con fecha anterior a {@code limite}, en una única sentencia
+     * ({@code DELETE ... RETURNING} encadenado con {@code INSERT}).
+     * <p>
+     * Igual que el cierre de reservas, usa {@code FOR UPDATE SKIP LOCKED} para que varias
+     * instancias puedan archivar a la vez sin esperar unas a otras, y como allí el lote se
+     * busca por la PK con {@code id = ANY (ARRAY(...))} en las particiones anteriores al límite.
+     *
+     * @return número de reservas archivadas
+     */
+    public Uni<Integer> archivarFinalizadasAnterioresA(LocalDate limite, int tamanoLote) {
+        return getSession().flatMap(session -> session
+                .createNativeQuery("""
+                        WITH movidas AS (
+                            DELETE FROM reservas
+                            WHERE fecha < :limite
+                              AND id = ANY (ARRAY(SELECT id
+                                                  FROM reservas
+                                                  WHERE estado IN ('CANCELADA', 'COMPLETADA')
+                                                    AND fecha < :limite
+                                                  ORDER BY fecha
+                                                  LIMIT :lote
+                                                  FOR UPDATE SKIP LOCKED))
+                            RETURNING id, fecha, hora_inicio, hora_fin, cliente_id, profesional_id, estado, horario_id)
+                        INSERT INTO reservas_historico
+                            (id, fecha, hora_inicio, hora_fin, cliente_id, profesional_id, estado, horario_id)
+                        SELECT id, fecha, hora_inicio, hora_fin, cliente_id, profesional_id, estado, horario_id
+                        FROM movidas
+                        """)
+                .setParameter("limite", limite)
+                .setParameter("lote", tamanoLote)
+                .executeUpdate());
+    }
+
+    /**
+     * Busca las reservas archivadas de un cliente.
+     */
+    public Uni<List<ReservaHistorico>> findByClienteId(UUID clienteId) {
+        return list("cliente.id", clienteId);
+    }
+
+    /**
+     * Busca las reservas archivadas de un profesional.
+     */
+    public Uni<List<ReservaHistorico>> findByProfesionalId(UUID profesionalId) {
+        return list("profesional.id", profesionalId);
+    }
+}
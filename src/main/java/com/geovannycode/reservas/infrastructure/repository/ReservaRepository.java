@@ -2,13 +2,16 @@ package com.geovannycode.reservas.infrastructure.repository;
 
 import com.geovannycode.reservas.domain.enums.EstadoReserva;
 import com.geovannycode.reservas.domain.model.Reserva;
+import com.geovannycode.reservas.infrastructure.observability.ConsultaMedida;
 import io.quarkus.hibernate.reactive.panache.PanacheRepositoryBase;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -16,8 +19,12 @@ import java.util.UUID;
  * Contiene las consultas especializadas para validar solapamientos y consultas funcionales.
  */
 @ApplicationScoped
+@ConsultaMedida
 public class ReservaRepository implements PanacheRepositoryBase<Reserva, UUID> {
 
+    private static final String VENCIDA =
+            "estado = 'CREADA' AND (fecha < :hoy OR (fecha = :hoy AND hora_fin <= :ahora))";
+
     /**
      * Busca todas las reservas en estado CREADA (activas).
      * Usado para el ranking funcional de profesionales y la vista por fecha.
@@ -67,5 +74,48 @@ public class ReservaRepository implements PanacheRepositoryBase<Reserva, UUID> {
     public Uni<List<Reserva>> findByFecha(LocalDate fecha) {
         return list("fecha", fecha);
     }
-}
 
+    /**
+     * Pasa a COMPLETADA un lote de hasta {@code tamanoLote} reservas activas cuya hora de fin
+     * ya pasó, empezando por las más antiguas.
+     * <p>
+     * {@code FOR UPDATE SKIP LOCKED} hace que varias instancias puedan ejecutarlo a la vez:
+     * cada una toma filas distintas en lugar de esperar a las que otra ya tiene bloqueadas.
+     * La subconsulta va dentro de {@code ARRAY(...)}: se evalúa una vez y el UPDATE busca esos
+     * ids por la PK de las particiones hasta hoy. Con {@code (id, fecha) IN (...)} el planificador
+     * elegía un hash join que recorría todas las particiones.
+     *
+     * @return número de reservas completadas
+     */
+    public Uni<Integer> completarVencidas(LocalDate hoy, LocalTime ahora, int tamanoLote) {
+        return getSession().flatMap(session -> session
+                .createNativeQuery("""
+                        UPDATE reservas SET estado = 'COMPLETADA'
+                        WHERE fecha <= :hoy
+                          AND id = ANY (ARRAY(SELECT id
+                                              FROM reservas
+                                              WHERE %s
+                                              ORDER BY fecha, hora_fin
+                                              LIMIT :lote
+                                              FOR UPDATE SKIP LOCKED))
+                        """.formatted(VENCIDA))
+                .setParameter("hoy", hoy)
+                .setParameter("ahora", ahora)
+                .setParameter("lote", tamanoLote)
+                .executeUpdate());
+    }
+
+    /**
+     * Fecha y hora de fin de la reserva activa vencida más antigua, o vacío si no queda ninguna.
+     * Mide cuánto va por detrás {@link #completarVencidas}.
+     */
+    public Uni<Optional<LocalDateTime>> findFinVencidaMasAntigua(LocalDate hoy, LocalTime ahora) {
+        return getSession().flatMap(session -> session
+                .createNativeQuery("SELECT min(fecha + hora_fin) FROM reservas WHERE " + VENCIDA,
+                        LocalDateTime.class)
+                .setParameter("hoy", hoy)
+                .setParameter("ahora", ahora)
+                .getSingleResultOrNull())
+                .map(Optional::ofNullable);
+    }
+}
@@ -0,0 +1,38 @@
+package com.geovannycode.reservas.infrastructure.resource;
+
+import com.geovannycode.reservas.application.dto.response.MonitorBucleResponse;
+import com.geovannycode.reservas.infrastructure.concurrencia.Prioridad;
+import com.geovannycode.reservas.infrastructure.observability.MonitorBucleEventos;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+/**
+ * Recurso de administración con los bloqueos recientes de los bucles de eventos de Vert.x.
+ * Los histogramas de retraso se publican en {@code /q/metrics} ({@code reservas_bucle_retraso_seconds}).
+ */
+@Path("/api/admin/bucle-eventos")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Administración", description = "Diagnóstico en producción")
+@Prioridad(Prioridad.Nivel.EXENTA)
+public class AdminBucleEventosResource {
+
+    private final MonitorBucleEventos monitor;
+
+    public AdminBucleEventosResource(MonitorBucleEventos monitor) {
+        this.monitor = monitor;
+    }
+
+    @GET
+    @Operation(summary = "Bloqueos recientes de los bucles de eventos",
+            description = "Cada bloqueo incluye su duración, el último método de recurso iniciado en el bucle " +
+                    "y la pila del hilo capturada mientras estaba bloqueado.")
+    @APIResponse(responseCode = "200", description = "Configuración del monitor y bloqueos recientes")
+    public MonitorBucleResponse consultar() {
+        return monitor.consultar();
+    }
+}
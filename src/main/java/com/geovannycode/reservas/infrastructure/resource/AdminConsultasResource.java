@@ -0,0 +1,50 @@
+package com.geovannycode.reservas.infrastructure.resource;
+
+import com.geovannycode.reservas.application.dto.response.EstadisticasConsultasResponse;
+import com.geovannycode.reservas.infrastructure.concurrencia.Prioridad;
+import com.geovannycode.reservas.infrastructure.observability.EstadisticasConsultas;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+/**
+ * Recurso de administración con las estadísticas de las consultas SQL por huella, para detectar
+ * regresiones sin acceso a {@code pg_stat_statements} en el servidor.
+ */
+@Path("/api/admin/consultas")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Administración", description = "Diagnóstico en producción")
+@Prioridad(Prioridad.Nivel.EXENTA)
+public class AdminConsultasResource {
+
+    private final EstadisticasConsultas estadisticas;
+
+    public AdminConsultasResource(EstadisticasConsultas estadisticas) {
+        this.estadisticas = estadisticas;
+    }
+
+    @GET
+    @Operation(summary = "Estadísticas de las consultas SQL por huella",
+            description = "Llamadas, errores, tiempo total, medio, p99 y máximo y filas de cada consulta normalizada " +
+                    "desde el arranque o el último reinicio, ordenadas de mayor a menor.")
+    @APIResponse(responseCode = "200", description = "Huellas ordenadas")
+    @APIResponse(responseCode = "400", description = "Orden no válido o límite no positivo")
+    public EstadisticasConsultasResponse consultar(@QueryParam("orden") @DefaultValue("total") String orden,
+                                                   @QueryParam("limite") @DefaultValue("50") int limite) {
+        return estadisticas.consultar(orden, limite);
+    }
+
+    @DELETE
+    @Operation(summary = "Reiniciar las estadísticas de consultas SQL")
+    @APIResponse(responseCode = "204", description = "Estadísticas reiniciadas")
+    public void reiniciar() {
+        estadisticas.reiniciar();
+    }
+}
@@ -0,0 +1,79 @@
+package com.geovannycode.reservas.infrastructure.resource;
+
+import com.geovannycode.reservas.application.dto.response.GrabacionJfrResponse;
+import com.geovannycode.reservas.infrastructure.concurrencia.Prioridad;
+import com.geovannycode.reservas.infrastructure.observability.GrabacionesJfr;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.nio.file.Files;
+import java.time.Duration;
+
+/**
+ * Recurso de administración para grabaciones Java Flight Recorder bajo demanda.
+ * <p>
+ * Los métodos no son reactivos: arrancar y volcar una grabación escribe en disco, así que
+ * se ejecutan en un hilo worker. Debe exponerse solo en la red interna.
+ */
+@Path("/api/admin/jfr")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Administración", description = "Diagnóstico en producción")
+@Prioridad(Prioridad.Nivel.EXENTA)
+public class AdminJfrResource {
+
+    private final GrabacionesJfr grabaciones;
+
+    public AdminJfrResource(GrabacionesJfr grabaciones) {
+        this.grabaciones = grabaciones;
+    }
+
+    @POST
+    @Operation(summary = "Iniciar una grabación JFR",
+            description = "Graba los eventos del JDK y los eventos reservas.* durante la duración indicada " +
+                    "(acotada por reservas.jfr.duracion-maxima) o hasta que se detenga.")
+    @APIResponse(responseCode = "200", description = "Grabación iniciada")
+    @APIResponse(responseCode = "400", description = "Duración fuera de rango")
+    @APIResponse(responseCode = "409", description = "Ya hay una grabación en curso")
+    public GrabacionJfrResponse iniciar(@QueryParam("duracionSegundos") @DefaultValue("60") long duracionSegundos) {
+        return grabaciones.iniciar(Duration.ofSeconds(duracionSegundos));
+    }
+
+    @GET
+    @Operation(summary = "Estado de la grabación JFR")
+    @APIResponse(responseCode = "200", description = "Estado de la grabación")
+    @APIResponse(responseCode = "404", description = "No hay ninguna grabación")
+    public GrabacionJfrResponse consultar() {
+        return grabaciones.consultar();
+    }
+
+    @POST
+    @Path("/detener")
+    @Produces(MediaType.APPLICATION_OCTET_STREAM)
+    @Operation(summary = "Detener la grabación JFR y descargarla",
+            description = "Detiene la grabación (si sigue activa) y devuelve el archivo .jfr para JDK Mission Control o `jfr print`.")
+    @APIResponse(responseCode = "200", description = "Archivo .jfr")
+    @APIResponse(responseCode = "404", description = "No hay ninguna grabación")
+    public Response detener() {
+        var archivo = grabaciones.detener();
+        StreamingOutput contenido = salida -> {
+            try {
+                Files.copy(archivo, salida);
+            } finally {
+                Files.deleteIfExists(archivo);
+            }
+        };
+        return Response.ok(contenido)
+                .header("Content-Disposition", "attachment; filename=\"" + archivo.getFileName() + "\"")
+                .build();
+    }
+}
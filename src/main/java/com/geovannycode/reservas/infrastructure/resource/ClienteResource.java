@@ -2,7 +2,9 @@ package com.geovannycode.reservas.infrastructure.resource;
 
 import com.geovannycode.reservas.application.dto.request.ClienteRequest;
 import com.geovannycode.reservas.application.dto.response.ClienteResponse;
+import com.geovannycode.reservas.application.dto.response.ReservaResponse;
 import com.geovannycode.reservas.application.service.ClienteService;
+import com.geovannycode.reservas.application.service.HistorialReservasService;
 import io.smallrye.mutiny.Uni;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.Consumes;
@@ -34,9 +36,11 @@ import java.util.UUID;
 public class ClienteResource {
 
     private final ClienteService clienteService;
+    private final HistorialReservasService historialService;
 
-    public ClienteResource(ClienteService clienteService) {
+    public ClienteResource(ClienteService clienteService, HistorialReservasService historialService) {
         this.clienteService = clienteService;
+        this.historialService = historialService;
     }
 
     @GET
@@ -90,4 +94,15 @@ public class ClienteResource {
         return clienteService.eliminar(id)
                 .map(v -> Response.noContent().build());
     }
+
+    @GET
+    @Path("/{id}/reservas")
+    @Operation(summary = "Historial de reservas del cliente",
+            description = "Incluye las reservas vigentes y las archivadas en reservas_historico, " +
+                    "ordenadas de la más reciente a la más antigua.")
+    @APIResponse(responseCode = "200", description = "Historial de reservas")
+    @APIResponse(responseCode = "404", description = "Cliente no encontrado")
+    public Uni<List<ReservaResponse>> historialReservas(@PathParam("id") UUID id) {
+        return historialService.listarPorCliente(id);
+    }
 }
@@ -3,9 +3,12 @@ package com.geovannycode.reservas.infrastructure.resource;
 import com.geovannycode.reservas.application.dto.request.HorarioDisponibleRequest;
 import com.geovannycode.reservas.application.dto.response.HorarioDisponibleResponse;
 import com.geovannycode.reservas.application.service.HorarioDisponibleService;
+import com.geovannycode.reservas.infrastructure.cache.AgrupadorPeticiones;
+import com.geovannycode.reservas.infrastructure.datasource.LsnMinimoFilter;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
@@ -13,6 +16,9 @@ import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import io.smallrye.mutiny.Uni;
@@ -33,9 +39,12 @@ import java.util.UUID;
 public class HorarioDisponibleResource {
 
     private final HorarioDisponibleService horarioService;
+    private final AgrupadorPeticiones agrupador;
 
-    public HorarioDisponibleResource(HorarioDisponibleService horarioService) {
+    public HorarioDisponibleResource(HorarioDisponibleService horarioService,
+                                     AgrupadorPeticiones agrupador) {
         this.horarioService = horarioService;
+        this.agrupador = agrupador;
     }
 
     @GET
@@ -48,9 +57,12 @@ public class HorarioDisponibleResource {
     @GET
     @Path("/profesional/{profesionalId}")
     @Operation(summary = "Listar horarios de un profesional específico")
-    @APIResponse(responseCode = "200", description = "Lista de horarios del profesional")
-    public Uni<List<HorarioDisponibleResponse>> listarPorProfesional(@PathParam("profesionalId") UUID profesionalId) {
-        return horarioService.listarPorProfesional(profesionalId);
+    @APIResponse(responseCode = "200", description = "Lista de horarios del profesional",
+            content = @Content(schema = @Schema(type = SchemaType.ARRAY, implementation = HorarioDisponibleResponse.class)))
+    public Uni<Response> listarPorProfesional(@PathParam("profesionalId") UUID profesionalId,
+                                              @HeaderParam(LsnMinimoFilter.CABECERA) String lsn) {
+        return agrupador.compartir("horarios-profesional", AgrupadorPeticiones.clave(profesionalId, lsn),
+                () -> horarioService.listarPorProfesional(profesionalId));
     }
 
     @POST
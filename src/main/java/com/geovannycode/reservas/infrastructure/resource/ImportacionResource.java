@@ -0,0 +1,65 @@
+package com.geovannycode.reservas.infrastructure.resource;
+
+import com.geovannycode.reservas.application.dto.response.ImportacionResponse;
+import com.geovannycode.reservas.application.service.ImportacionService;
+import com.geovannycode.reservas.infrastructure.concurrencia.Prioridad;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Uni;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.io.InputStream;
+
+/**
+ * Recurso REST para la importación masiva de datos desde archivos CSV.
+ * <p>
+ * El cuerpo de la petición se transmite directamente a PostgreSQL mediante {@code COPY FROM STDIN},
+ * por lo que los endpoints son bloqueantes y se ejecutan en un hilo worker.
+ * <p>
+ * Son {@link Prioridad.Nivel#EXENTA exentos} del limitador de concurrencia: usan JDBC y no el
+ * pool reactivo, y su latencia de segundos o minutos falsearía el gradiente que protege a las
+ * consultas reactivas.
+ */
+@Path("/api/importaciones")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes("text/csv")
+@Tag(name = "Importaciones", description = "Carga masiva de clientes y horarios desde CSV")
+@Prioridad(Prioridad.Nivel.EXENTA)
+public class ImportacionResource {
+
+    private final ImportacionService importacionService;
+
+    public ImportacionResource(ImportacionService importacionService) {
+        this.importacionService = importacionService;
+    }
+
+    @POST
+    @Path("/clientes")
+    @Blocking
+    @Operation(summary = "Importar clientes desde CSV",
+            description = "Cabecera esperada: nombres,apellidos,email,telefono. " +
+                    "Los emails ya registrados o repetidos en el archivo se reportan como rechazos.")
+    @APIResponse(responseCode = "200", description = "Reporte de la importación con las filas rechazadas")
+    @APIResponse(responseCode = "400", description = "El archivo CSV no tiene el formato esperado")
+    public Uni<ImportacionResponse> importarClientes(InputStream csv) {
+        return importacionService.importarClientes(csv);
+    }
+
+    @POST
+    @Path("/horarios")
+    @Blocking
+    @Operation(summary = "Importar horarios disponibles desde CSV",
+            description = "Cabecera esperada: profesional_id,fecha,hora_inicio,hora_fin. " +
+                    "Los bloques que se solapan con horarios existentes o con otras filas se reportan como rechazos.")
+    @APIResponse(responseCode = "200", description = "Reporte de la importación con las filas rechazadas")
+    @APIResponse(responseCode = "400", description = "El archivo CSV no tiene el formato esperado")
+    public Uni<ImportacionResponse> importarHorarios(InputStream csv) {
+        return importacionService.importarHorarios(csv);
+    }
+}
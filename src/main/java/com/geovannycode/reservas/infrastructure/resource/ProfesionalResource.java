@@ -3,8 +3,10 @@ package com.geovannycode.reservas.infrastructure.resource;
 import com.geovannycode.reservas.application.dto.request.ProfesionalRequest;
 import com.geovannycode.reservas.application.dto.response.ProfesionalConReservasResponse;
 import com.geovannycode.reservas.application.dto.response.ProfesionalResponse;
+import com.geovannycode.reservas.application.dto.response.ReservaResponse;
+import com.geovannycode.reservas.application.service.HistorialReservasService;
 import com.geovannycode.reservas.application.service.ProfesionalService;
-import com.geovannycode.reservas.application.service.ReservaService;
+import com.geovannycode.reservas.infrastructure.cache.CacheRanking;
 import io.smallrye.mutiny.Uni;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.Consumes;
@@ -18,6 +20,9 @@ import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
@@ -36,11 +41,15 @@ import java.util.UUID;
 public class ProfesionalResource {
 
     private final ProfesionalService profesionalService;
-    private final ReservaService reservaService;
+    private final CacheRanking cacheRanking;
+    private final HistorialReservasService historialService;
 
-    public ProfesionalResource(ProfesionalService profesionalService, ReservaService reservaService) {
+    public ProfesionalResource(ProfesionalService profesionalService,
+                               CacheRanking cacheRanking,
+                               HistorialReservasService historialService) {
         this.profesionalService = profesionalService;
-        this.reservaService = reservaService;
+        this.cacheRanking = cacheRanking;
+        this.historialService = historialService;
     }
 
     @GET
@@ -99,9 +108,33 @@ public class ProfesionalResource {
     @Path("/ranking/por-reservas-activas")
     @Operation(summary = "Ranking de profesionales por reservas activas",
             description = "Lista profesionales ordenados de forma descendente por número de reservas activas. " +
-                    "El conteo y ordenamiento se realiza en memoria con programación funcional (Streams).")
-    @APIResponse(responseCode = "200", description = "Ranking de profesionales")
-    public Uni<List<ProfesionalConReservasResponse>> rankingPorReservasActivas() {
-        return reservaService.listarProfesionalesPorReservasActivas();
+                    "El conteo y ordenamiento se realiza en memoria con programación funcional (Streams). " +
+                    "Se sirve desde caché: la cabecera Age indica su antigüedad en segundos y Warning " +
+                    "avisa si la copia está pendiente de revalidar (110) o si la revalidación falló (111).")
+    @APIResponse(responseCode = "200", description = "Ranking de profesionales",
+            content = @Content(schema = @Schema(type = SchemaType.ARRAY, implementation = ProfesionalConReservasResponse.class)))
+    @APIResponse(responseCode = "503", description = "Aún no hay copia en caché y la cola de reportes está llena")
+    public Uni<Response> rankingPorReservasActivas() {
+        return cacheRanking.obtener().map(copia -> {
+            var respuesta = Response.ok(copia.valor())
+                    .header("Age", copia.edad().toSeconds());
+            if (copia.revalidacionFallida()) {
+                respuesta.header("Warning", "111 - \"Revalidation Failed\"");
+            } else if (copia.obsoleto()) {
+                respuesta.header("Warning", "110 - \"Response is Stale\"");
+            }
+            return respuesta.build();
+        });
     }
-}
\ No newline at end of file
+
+    @GET
+    @Path("/{id}/reservas")
+    @Operation(summary = "Historial de reservas del profesional",
+            description = "Incluye las reservas vigentes y las archivadas en reservas_historico, " +
+                    "ordenadas de la más reciente a la más antigua.")
+    @APIResponse(responseCode = "200", description = "Historial de reservas")
+    @APIResponse(responseCode = "404", description = "Profesional no encontrado")
+    public Uni<List<ReservaResponse>> historialReservas(@PathParam("id") UUID id) {
+        return historialService.listarPorProfesional(id);
+    }
+}
@@ -3,25 +3,40 @@ package com.geovannycode.reservas.infrastructure.resource;
 import com.geovannycode.reservas.application.dto.request.ReservaRequest;
 import com.geovannycode.reservas.application.dto.response.ReservaResponse;
 import com.geovannycode.reservas.application.service.ReservaService;
+import com.geovannycode.reservas.domain.exception.CuotaExcedidaException;
+import com.geovannycode.reservas.infrastructure.cache.AgrupadorPeticiones;
+import com.geovannycode.reservas.infrastructure.concurrencia.LimitadorCuotas;
+import com.geovannycode.reservas.infrastructure.concurrencia.Prioridad;
+import com.geovannycode.reservas.infrastructure.datasource.EstadoReplica;
+import com.geovannycode.reservas.infrastructure.datasource.LsnMinimoFilter;
+import com.geovannycode.reservas.infrastructure.observability.EventosReserva;
+import com.geovannycode.reservas.infrastructure.observability.MetricasReservas;
+import com.geovannycode.reservas.infrastructure.observability.Trazas;
+import io.opentelemetry.api.common.Attributes;
 import io.smallrye.mutiny.Uni;
+import io.vertx.core.http.HttpServerRequest;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.PATCH;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.logging.Logger;
 
 import java.net.URI;
-import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -38,10 +53,30 @@ import java.util.UUID;
 @Tag(name = "Reservas", description = "Gestión de reservas entre clientes y profesionales")
 public class ReservaResource {
 
+    private static final Logger LOG = Logger.getLogger(ReservaResource.class);
+
     private final ReservaService reservaService;
+    private final MetricasReservas metricas;
+    private final Trazas trazas;
+    private final EventosReserva eventos;
+    private final EstadoReplica estadoReplica;
+    private final AgrupadorPeticiones agrupador;
+    private final LimitadorCuotas cuotas;
 
-    public ReservaResource(ReservaService reservaService) {
+    public ReservaResource(ReservaService reservaService,
+                           MetricasReservas metricas,
+                           Trazas trazas,
+                           EventosReserva eventos,
+                           EstadoReplica estadoReplica,
+                           AgrupadorPeticiones agrupador,
+                           LimitadorCuotas cuotas) {
         this.reservaService = reservaService;
+        this.metricas = metricas;
+        this.trazas = trazas;
+        this.eventos = eventos;
+        this.estadoReplica = estadoReplica;
+        this.agrupador = agrupador;
+        this.cuotas = cuotas;
     }
 
     @GET
@@ -70,12 +105,26 @@ public class ReservaResource {
     @APIResponse(responseCode = "404", description = "Cliente o profesional no encontrado")
     @APIResponse(responseCode = "409", description = "Solapamiento con otra reserva activa")
     @APIResponse(responseCode = "422", description = "Cliente o profesional inactivo")
-    public Uni<Response> crear(@Valid ReservaRequest request) {
-        return reservaService.crearReserva(request)
-                .map(reserva -> Response
+    @APIResponse(responseCode = "429", description = "Cuota de reservas del cliente agotada")
+    @APIResponse(responseCode = "503", description = "Servicio saturado (limitador de concurrencia)")
+    @Prioridad(Prioridad.Nivel.CRITICA)
+    public Uni<Response> crear(@Valid ReservaRequest request,
+                               @HeaderParam(LimitadorCuotas.CABECERA_LLAMANTE) String apiKey,
+                               @Context HttpServerRequest peticionHttp) {
+        // Antes de cualquier consulta: un reintento en bucle no debe llegar a la base de datos
+        var cuota = cuotas.consumir(request.clienteId(), llamante(apiKey, peticionHttp));
+        if (!cuota.permitida()) {
+            return Uni.createFrom().failure(
+                    new CuotaExcedidaException(cuota.limite(), cuota.reintentarEnSegundos()));
+        }
+        var creacion = eventos.crear(request, reservaService.crearReserva(request));
+        var atributos = Attributes.of(Trazas.PROFESIONAL_ID, String.valueOf(request.profesionalId()));
+        return trazas.anotar(atributos, metricas.contar("crear", creacion))
+                .flatMap(reserva -> conLsn(Response
                         .created(URI.create("/api/reservas/" + reserva.id()))
                         .entity(reserva)
-                        .build());
+                        .header(LimitadorCuotas.CABECERA_LIMITE, cuota.limite())
+                        .header(LimitadorCuotas.CABECERA_RESTANTES, cuota.restantes())));
     }
 
     @PATCH
@@ -85,9 +134,13 @@ public class ReservaResource {
     @APIResponse(responseCode = "200", description = "Reserva cancelada exitosamente")
     @APIResponse(responseCode = "400", description = "La reserva ya está cancelada o completada")
     @APIResponse(responseCode = "404", description = "Reserva no encontrada")
+    @APIResponse(responseCode = "503", description = "Servicio saturado (limitador de concurrencia)")
+    @Prioridad(Prioridad.Nivel.CRITICA)
     public Uni<Response> cancelar(@PathParam("id") UUID id) {
-        return reservaService.cancelarReserva(id)
-                .map(reserva -> Response.ok(reserva).build());
+        var cancelacion = eventos.cancelar(id, reservaService.cancelarReserva(id));
+        var atributos = Attributes.of(Trazas.RESERVA_ID, id.toString());
+        return trazas.anotar(atributos, metricas.contar("cancelar", cancelacion))
+                .flatMap(reserva -> conLsn(Response.ok(reserva)));
     }
 
     @GET
@@ -96,8 +149,41 @@ public class ReservaResource {
             description = "Retorna un mapa de fechas con sus reservas activas correspondientes. " +
                     "Procesado en memoria con programación funcional (Map<LocalDate, List<Reserva>>). " +
                     "Ejemplo: 2025-11-10: [Reserva 1 (Ana Torres / Luis Salazar), ...]")
-    @APIResponse(responseCode = "200", description = "Mapa de fechas con reservas activas")
-    public Uni<Map<LocalDate, List<ReservaResponse>>> reservasPorFecha() {
-        return reservaService.listarReservasPorFecha();
+    @APIResponse(responseCode = "200", description = "Mapa de fechas con reservas activas",
+            content = @Content(schema = @Schema(type = SchemaType.OBJECT)))
+    public Uni<Response> reservasPorFecha(@HeaderParam(LsnMinimoFilter.CABECERA) String lsn) {
+        return agrupador.compartir("por-fecha", AgrupadorPeticiones.clave(lsn),
+                reservaService::listarReservasPorFecha);
+    }
+
+    /**
+     * Integración que llama: su {@value LimitadorCuotas#CABECERA_LLAMANTE} o, sin ella, la
+     * dirección remota (tras un proxy, con {@code quarkus.http.proxy.proxy-address-forwarding}).
+     */
+    private static String llamante(String apiKey, HttpServerRequest peticionHttp) {
+        if (apiKey != null && !apiKey.isBlank()) {
+            return "clave:" + apiKey.trim();
+        }
+        var remota = peticionHttp.remoteAddress();
+        return remota == null ? "desconocido" : "ip:" + remota.hostAddress();
+    }
+
+    /**
+     * Con réplica de lectura, añade a la respuesta de una escritura la posición del WAL del
+     * primario; el cliente que la reenvíe en {@code X-Reservas-Lsn} leerá sus propias escrituras.
+     * <p>
+     * La cabecera es opcional: la escritura ya se confirmó, y si la consulta del LSN falla se
+     * responde sin ella en lugar de con un 500 que invitaría a repetir la operación.
+     */
+    private Uni<Response> conLsn(Response.ResponseBuilder respuesta) {
+        if (!estadoReplica.habilitada()) {
+            return Uni.createFrom().item(respuesta.build());
+        }
+        return estadoReplica.lsnPrimario()
+                .map(lsn -> respuesta.header(LsnMinimoFilter.CABECERA, lsn).build())
+                .onFailure().invoke(fallo ->
+                        LOG.warnf("Respuesta sin %s: no se pudo leer el LSN del primario: %s",
+                                LsnMinimoFilter.CABECERA, fallo.getMessage()))
+                .onFailure().recoverWithItem(() -> respuesta.build());
     }
 }
@@ -0,0 +1,78 @@
+package com.geovannycode.reservas.infrastructure.scheduler;
+
+import com.geovannycode.reservas.application.service.HistorialReservasService;
+import com.geovannycode.reservas.infrastructure.datasource.Fragmentos;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDate;
+import java.util.stream.Collectors;
+
+/**
+ * Tarea periódica que mueve a {@code reservas_historico} las reservas {@code CANCELADA}
+ * y {@code COMPLETADA} con más de {@code reservas.archivo.antiguedad-dias} días.
+ * <p>
+ * Misma estructura que {@link CompletarReservasJob}: lotes de
+ * {@code reservas.archivo.tamano-lote} filas, como máximo {@code reservas.archivo.max-lotes}
+ * por ejecución y fragmento. El contador {@code reservas.archivadas} expone el throughput.
+ * <p>
+ * Si se usa {@code reservas.particiones.meses-retencion}, debe cubrir más tiempo que la
+ * antigüedad de archivo: las particiones desacopladas ya no pasan por aquí.
+ */
+@ApplicationScoped
+public class ArchivarReservasJob {
+
+    private static final Logger LOG = Logger.getLogger(ArchivarReservasJob.class);
+
+    private final HistorialReservasService historialService;
+    private final Fragmentos fragmentos;
+    private final int antiguedadDias;
+    private final int tamanoLote;
+    private final int maxLotes;
+    private final Counter archivadas;
+
+    public ArchivarReservasJob(HistorialReservasService historialService,
+                               Fragmentos fragmentos,
+                               MeterRegistry registry,
+                               @ConfigProperty(name = "reservas.archivo.antiguedad-dias") int antiguedadDias,
+                               @ConfigProperty(name = "reservas.archivo.tamano-lote") int tamanoLote,
+                               @ConfigProperty(name = "reservas.archivo.max-lotes") int maxLotes) {
+        this.historialService = historialService;
+        this.fragmentos = fragmentos;
+        this.antiguedadDias = antiguedadDias;
+        this.tamanoLote = tamanoLote;
+        this.maxLotes = maxLotes;
+        this.archivadas = Counter.builder("reservas.archivadas")
+                .description("Reservas finalizadas movidas a reservas_historico")
+                .register(registry);
+    }
+
+    @Scheduled(identity = "archivar-reservas",
+            every = "${reservas.archivo.intervalo}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    Uni<Void> archivarFinalizadas() {
+        var limite = LocalDate.now().minusDays(antiguedadDias);
+        return fragmentos.enTodos(() -> archivarFragmento(limite))
+                .replaceWithVoid();
+    }
+
+    private Uni<Integer> archivarFragmento(LocalDate limite) {
+        return Multi.createBy().repeating()
+                .uni(() -> historialService.archivarLote(limite, tamanoLote))
+                .whilst(movidas -> movidas == tamanoLote)
+                .select().first(maxLotes)
+                .onItem().invoke(movidas -> archivadas.increment(movidas))
+                .collect().with(Collectors.summingInt(Integer::intValue))
+                .invoke(total -> {
+                    if (total > 0) {
+                        LOG.debugf("Reservas archivadas anteriores a %s: %d", limite, total);
+                    }
+                });
+    }
+}
@@ -0,0 +1,86 @@
+package com.geovannycode.reservas.infrastructure.scheduler;
+
+import com.geovannycode.reservas.application.service.CierreReservasService;
+import com.geovannycode.reservas.infrastructure.datasource.Fragmentos;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Tarea periódica que pasa a {@code COMPLETADA} las reservas activas ya finalizadas.
+ * <p>
+ * Cada ejecución procesa como máximo {@code reservas.completado.max-lotes} lotes de
+ * {@code reservas.completado.tamano-lote} filas y se detiene antes si un lote sale incompleto.
+ * Es seguro ejecutarla en varios nodos a la vez: los lotes usan {@code FOR UPDATE SKIP LOCKED}.
+ * Con varios fragmentos (ver {@link Fragmentos}) cada uno se procesa por separado y a la vez.
+ * <p>
+ * Métricas expuestas:
+ * <ul>
+ *   <li>{@code reservas.completadas}: contador de reservas completadas (throughput).</li>
+ *   <li>{@code reservas.completado.retraso}: segundos desde el fin de la reserva vencida
+ *       más antigua aún activa (lag), la mayor entre fragmentos; cero si el job va al día.</li>
+ * </ul>
+ */
+@ApplicationScoped
+public class CompletarReservasJob {
+
+    private static final Logger LOG = Logger.getLogger(CompletarReservasJob.class);
+
+    private final CierreReservasService cierreReservasService;
+    private final Fragmentos fragmentos;
+    private final int tamanoLote;
+    private final int maxLotes;
+    private final Counter completadas;
+    private final AtomicLong retrasoSegundos = new AtomicLong();
+
+    public CompletarReservasJob(CierreReservasService cierreReservasService,
+                                Fragmentos fragmentos,
+                                MeterRegistry registry,
+                                @ConfigProperty(name = "reservas.completado.tamano-lote") int tamanoLote,
+                                @ConfigProperty(name = "reservas.completado.max-lotes") int maxLotes) {
+        this.cierreReservasService = cierreReservasService;
+        this.fragmentos = fragmentos;
+        this.tamanoLote = tamanoLote;
+        this.maxLotes = maxLotes;
+        this.completadas = Counter.builder("reservas.completadas")
+                .description("Reservas pasadas a COMPLETADA por el job de cierre")
+                .register(registry);
+        registry.gauge("reservas.completado.retraso", retrasoSegundos);
+    }
+
+    @Scheduled(identity = "completar-reservas",
+            every = "${reservas.completado.intervalo}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    Uni<Void> completarVencidas() {
+        return fragmentos.enTodos(this::completarFragmento)
+                .invoke(retrasos -> retrasoSegundos.set(retrasos.stream()
+                        .mapToLong(Duration::toSeconds)
+                        .max()
+                        .orElse(0)))
+                .replaceWithVoid();
+    }
+
+    private Uni<Duration> completarFragmento() {
+        return Multi.createBy().repeating()
+                .uni(() -> cierreReservasService.completarLote(tamanoLote))
+                .whilst(procesadas -> procesadas == tamanoLote)
+                .select().first(maxLotes)
+                .onItem().invoke(procesadas -> completadas.increment(procesadas))
+                .collect().with(Collectors.summingInt(Integer::intValue))
+                .invoke(total -> {
+                    if (total > 0) {
+                        LOG.debugf("Reservas completadas: %d", total);
+                    }
+                })
+                .flatMap(total -> cierreReservasService.calcularRetraso());
+    }
+}
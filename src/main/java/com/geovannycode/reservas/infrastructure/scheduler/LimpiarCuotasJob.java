@@ -0,0 +1,27 @@
+package com.geovannycode.reservas.infrastructure.scheduler;
+
+import com.geovannycode.reservas.infrastructure.concurrencia.LimitadorCuotas;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Tarea periódica que libera los cubos de tokens inactivos de {@link LimitadorCuotas}, cada
+ * {@code reservas.cuotas.limpieza}. Un cubo que ya se recargó por completo equivale a uno nuevo,
+ * así que eliminarlo no cambia la cuota de nadie.
+ */
+@ApplicationScoped
+public class LimpiarCuotasJob {
+
+    private final LimitadorCuotas limitadorCuotas;
+
+    public LimpiarCuotasJob(LimitadorCuotas limitadorCuotas) {
+        this.limitadorCuotas = limitadorCuotas;
+    }
+
+    @Scheduled(identity = "limpiar-cuotas",
+            every = "${reservas.cuotas.limpieza}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void limpiar() {
+        limitadorCuotas.limpiar();
+    }
+}
@@ -0,0 +1,85 @@
+package com.geovannycode.reservas.infrastructure.scheduler;
+
+import com.geovannycode.reservas.infrastructure.datasource.Fragmentos;
+import com.geovannycode.reservas.infrastructure.repository.ParticionRepository;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.YearMonth;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Tarea periódica que mantiene las particiones mensuales de {@code reservas} y
+ * {@code horarios_disponibles}.
+ * <ul>
+ *   <li>Crea por adelantado las particiones de los próximos
+ *       {@code reservas.particiones.meses-adelante} meses, para que las filas nuevas no
+ *       caigan en la partición DEFAULT.</li>
+ *   <li>Si se configura {@code reservas.particiones.meses-retencion}, desacopla las
+ *       particiones más antiguas que ese número de meses para archivarlas.</li>
+ * </ul>
+ * Se ejecuta al arrancar y luego cada {@code reservas.particiones.intervalo}, en todos los
+ * fragmentos a la vez. Con varias instancias, en cada fragmento solo la que obtiene el bloqueo
+ * consultivo de {@link ParticionRepository} hace el mantenimiento; las demás se lo saltan.
+ */
+@ApplicationScoped
+public class MantenimientoParticionesJob {
+
+    private static final Logger LOG = Logger.getLogger(MantenimientoParticionesJob.class);
+
+    private final ParticionRepository particionRepository;
+    private final Fragmentos fragmentos;
+    private final int mesesAdelante;
+    private final Optional<Integer> mesesRetencion;
+
+    public MantenimientoParticionesJob(ParticionRepository particionRepository,
+                                       Fragmentos fragmentos,
+                                       @ConfigProperty(name = "reservas.particiones.meses-adelante")
+                                       int mesesAdelante,
+                                       @ConfigProperty(name = "reservas.particiones.meses-retencion")
+                                       Optional<Integer> mesesRetencion) {
+        this.particionRepository = particionRepository;
+        this.fragmentos = fragmentos;
+        this.mesesAdelante = mesesAdelante;
+        this.mesesRetencion = mesesRetencion;
+    }
+
+    @Scheduled(identity = "mantenimiento-particiones",
+            every = "${reservas.particiones.intervalo}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    Uni<Void> mantenerParticiones() {
+        var mesActual = YearMonth.now();
+        return fragmentos.enTodos(() -> particionRepository.conBloqueo(() -> mantenerFragmento(mesActual)))
+                .invoke(hechos -> {
+                    if (hechos.contains(false)) {
+                        LOG.debugf("Otra instancia está manteniendo las particiones de %d de %d fragmentos",
+                                hechos.stream().filter(hecho -> !hecho).count(), hechos.size());
+                    }
+                })
+                .replaceWithVoid();
+    }
+
+    private Uni<Void> mantenerFragmento(YearMonth mesActual) {
+        return particionRepository.crearParticiones(mesActual, mesesAdelante)
+                .invoke(() -> LOG.debugf("Particiones garantizadas desde %s hasta %s",
+                        mesActual, mesActual.plusMonths(mesesAdelante)))
+                .flatMap(ignorado -> mesesRetencion
+                        .map(retencion -> archivarAnterioresA(mesActual.minusMonths(retencion)))
+                        .orElseGet(() -> Uni.createFrom().voidItem()));
+    }
+
+    private Uni<Void> archivarAnterioresA(YearMonth limite) {
+        return particionRepository.mesMasAntiguo()
+                .onItem().ifNotNull().transformToUni(masAntiguo -> Multi.createFrom()
+                        .items(Stream.iterate(YearMonth.from(masAntiguo), mes -> mes.isBefore(limite), mes -> mes.plusMonths(1)))
+                        .onItem().transformToUniAndConcatenate(mes -> particionRepository.desacoplarParticiones(mes)
+                                .invoke(() -> LOG.infof("Particiones de %s desacopladas para archivo", mes)))
+                        .collect().last())
+                .replaceWithVoid();
+    }
+}
@@ -0,0 +1,41 @@
+-- ============================================================
+-- V3: Referencia directa de la reserva al bloque horario que ocupa
+-- ============================================================
+-- Permite liberar el horario al cancelar con una actualización por clave
+-- primaria, en lugar de buscarlo por rango (profesional, fecha, horas).
+
+ALTER TABLE reservas
+    ADD COLUMN horario_id UUID;
+
+ALTER TABLE reservas
+    ADD CONSTRAINT fk_reservas_horario
+        FOREIGN KEY (horario_id)
+            REFERENCES horarios_disponibles (id)
+            ON DELETE SET NULL;
+
+-- Necesario para que ON DELETE SET NULL no recorra toda la tabla de reservas
+CREATE INDEX idx_reservas_horario ON reservas (horario_id);
+
+-- Backfill: asociar cada reserva activa al bloque ocupado más ajustado que la contiene.
+-- Antes de dividir bloques varias reservas podían ocupar el mismo bloque (por ejemplo,
+-- 09:00-10:00 y 10:00-11:00 dentro de 09:00-13:00): al cancelar una, el bloque se recorta
+-- y las demás quedarían apuntando a un tramo que ya no es el suyo. Solo se asocian los
+-- bloques que cubren una única reserva activa; las demás se liberan buscando por rango.
+UPDATE reservas r
+SET horario_id = (SELECT h.id
+                  FROM horarios_disponibles h
+                  WHERE h.profesional_id = r.profesional_id
+                    AND h.fecha = r.fecha
+                    AND h.estado = FALSE
+                    AND h.hora_inicio <= r.hora_inicio
+                    AND h.hora_fin >= r.hora_fin
+                    AND (SELECT count(*)
+                         FROM reservas o
+                         WHERE o.profesional_id = h.profesional_id
+                           AND o.fecha = h.fecha
+                           AND o.estado = 'CREADA'
+                           AND o.hora_inicio >= h.hora_inicio
+                           AND o.hora_fin <= h.hora_fin) = 1
+                  ORDER BY h.hora_fin - h.hora_inicio
+                  LIMIT 1)
+WHERE r.estado = 'CREADA';
@@ -0,0 +1,16 @@
+-- ============================================================
+-- V4: Rango horario tipado e índice GiST para consultas de contención
+-- ============================================================
+-- Las consultas de disponibilidad (@>), solapamiento (&&) y adyacencia (-|-)
+-- filtran por profesional + rango en un único índice, en lugar de recorrer
+-- todos los bloques del día con cuatro comparaciones escalares.
+
+-- btree_gist permite incluir profesional_id (uuid) en un índice GiST
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE horarios_disponibles
+    ADD COLUMN rango TSRANGE
+        GENERATED ALWAYS AS (tsrange(fecha + hora_inicio, fecha + hora_fin, '[)')) STORED;
+
+CREATE INDEX idx_horarios_profesional_rango
+    ON horarios_disponibles USING GIST (profesional_id, rango);
@@ -0,0 +1,200 @@
+-- ============================================================
+-- V5: Particionado por rango mensual de reservas y horarios_disponibles
+-- ============================================================
+-- Ambas tablas crecen sin límite y casi todas las consultas calientes filtran
+-- por una única fecha. Con particiones mensuales por `fecha`:
+--   * las consultas con `fecha = ?` se podan a una sola partición (índices pequeños);
+--   * los meses antiguos se archivan desacoplando la partición (sin DELETE masivo).
+--
+-- Restricciones de PostgreSQL que condicionan el esquema:
+--   * La PK de una tabla particionada debe incluir la clave de partición: (id, fecha).
+--   * Una FK hacia una tabla particionada debe apuntar a una restricción única que
+--     incluya la clave de partición: reservas (horario_id, fecha) -> horarios (id, fecha).
+--     La reserva y su bloque siempre comparten fecha.
+--
+-- Las particiones futuras las crea MantenimientoParticionesJob; la partición DEFAULT
+-- recoge cualquier fila fuera del horizonte creado y crear_particiones_mes() la vacía.
+
+-- ------------------------------------------------------------
+-- 1. Apartar las tablas actuales
+-- ------------------------------------------------------------
+ALTER TABLE reservas RENAME TO reservas_v4;
+ALTER TABLE horarios_disponibles RENAME TO horarios_disponibles_v4;
+
+-- ------------------------------------------------------------
+-- 2. Tablas particionadas (sin índices: se crean tras copiar los datos)
+-- ------------------------------------------------------------
+CREATE TABLE horarios_disponibles (
+                                      id              UUID    NOT NULL,
+                                      profesional_id  UUID    NOT NULL,
+                                      fecha           DATE    NOT NULL,
+                                      hora_inicio     TIME    NOT NULL,
+                                      hora_fin        TIME    NOT NULL,
+                                      estado          BOOLEAN NOT NULL DEFAULT TRUE,
+                                      rango           TSRANGE
+                                          GENERATED ALWAYS AS (tsrange(fecha + hora_inicio, fecha + hora_fin, '[)')) STORED
+) PARTITION BY RANGE (fecha);
+
+CREATE TABLE reservas (
+                          id              UUID        NOT NULL,
+                          fecha           DATE        NOT NULL,
+                          hora_inicio     TIME        NOT NULL,
+                          hora_fin        TIME        NOT NULL,
+                          cliente_id      UUID        NOT NULL,
+                          profesional_id  UUID        NOT NULL,
+                          estado          VARCHAR(20) NOT NULL DEFAULT 'CREADA',
+                          horario_id      UUID,
+                          CONSTRAINT chk_reservas_estado
+                              CHECK (estado IN ('CREADA', 'CANCELADA', 'COMPLETADA'))
+) PARTITION BY RANGE (fecha);
+
+CREATE TABLE horarios_disponibles_default PARTITION OF horarios_disponibles DEFAULT;
+CREATE TABLE reservas_default PARTITION OF reservas DEFAULT;
+
+-- ------------------------------------------------------------
+-- 3. Creación de particiones mensuales
+-- ------------------------------------------------------------
+-- Crea la partición del mes de p_mes en ambas tablas (idempotente).
+-- PostgreSQL no permite crear una partición si DEFAULT ya contiene filas de su rango:
+-- esas filas se apartan en tablas temporales y se reinsertan tras crearla.
+-- Se apartan primero las reservas y luego los horarios, para que el borrado de horarios
+-- no dispare el ON DELETE SET NULL de fk_reservas_horario; al reinsertar, el orden se invierte.
+CREATE FUNCTION crear_particiones_mes(p_mes DATE)
+    RETURNS VOID
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_desde    DATE := date_trunc('month', p_mes)::DATE;
+    v_hasta    DATE := (date_trunc('month', p_mes) + INTERVAL '1 month')::DATE;
+    v_sufijo   TEXT := to_char(p_mes, 'YYYY_MM');
+    v_tabla    TEXT;
+    v_columnas TEXT;
+BEGIN
+    IF to_regclass('reservas_' || v_sufijo) IS NOT NULL
+        AND to_regclass('horarios_disponibles_' || v_sufijo) IS NOT NULL THEN
+        RETURN;
+    END IF;
+
+    FOREACH v_tabla IN ARRAY ARRAY ['reservas', 'horarios_disponibles']
+        LOOP
+            EXECUTE format('CREATE TEMP TABLE %I AS SELECT * FROM %I WHERE fecha >= %L AND fecha < %L',
+                           'mover_' || v_tabla, v_tabla || '_default', v_desde, v_hasta);
+            EXECUTE format('DELETE FROM %I WHERE fecha >= %L AND fecha < %L',
+                           v_tabla || '_default', v_desde, v_hasta);
+        END LOOP;
+
+    FOREACH v_tabla IN ARRAY ARRAY ['horarios_disponibles', 'reservas']
+        LOOP
+            EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                           v_tabla || '_' || v_sufijo, v_tabla, v_desde, v_hasta);
+
+            -- Las columnas generadas (rango) no admiten valores explícitos
+            SELECT string_agg(quote_ident(attname), ', ' ORDER BY attnum)
+            INTO v_columnas
+            FROM pg_attribute
+            WHERE attrelid = v_tabla::REGCLASS
+              AND attnum > 0
+              AND NOT attisdropped
+              AND attgenerated = '';
+
+            EXECUTE format('INSERT INTO %I (%s) SELECT %s FROM %I',
+                           v_tabla, v_columnas, v_columnas, 'mover_' || v_tabla);
+            EXECUTE format('DROP TABLE %I', 'mover_' || v_tabla);
+        END LOOP;
+END;
+$$;
+
+-- Desacopla las particiones del mes de p_mes para archivarlas (pg_dump + DROP, o moverlas
+-- a otro tablespace). Las tablas resultantes conservan los datos pero dejan de ser visibles
+-- para la aplicación. La partición de reservas se desacopla primero y pierde su FK hacia
+-- horarios: de lo contrario seguiría referenciando la partición de horarios e impediría
+-- desacoplarla.
+CREATE FUNCTION desacoplar_particiones_mes(p_mes DATE)
+    RETURNS VOID
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_sufijo TEXT := to_char(p_mes, 'YYYY_MM');
+BEGIN
+    IF to_regclass('reservas_' || v_sufijo) IS NOT NULL THEN
+        EXECUTE format('ALTER TABLE reservas DETACH PARTITION %I', 'reservas_' || v_sufijo);
+        EXECUTE format('ALTER TABLE %I DROP CONSTRAINT fk_reservas_horario', 'reservas_' || v_sufijo);
+    END IF;
+    IF to_regclass('horarios_disponibles_' || v_sufijo) IS NOT NULL THEN
+        EXECUTE format('ALTER TABLE horarios_disponibles DETACH PARTITION %I', 'horarios_disponibles_' || v_sufijo);
+    END IF;
+END;
+$$;
+
+-- Particiones desde el mes más antiguo con datos hasta 12 meses en el futuro
+DO
+$$
+DECLARE
+    v_mes DATE;
+BEGIN
+    FOR v_mes IN
+        SELECT generate_series(
+                       date_trunc('month', least(
+                               coalesce((SELECT min(fecha) FROM horarios_disponibles_v4), CURRENT_DATE),
+                               coalesce((SELECT min(fecha) FROM reservas_v4), CURRENT_DATE))),
+                       date_trunc('month', CURRENT_DATE) + INTERVAL '12 months',
+                       INTERVAL '1 month')::DATE
+        LOOP
+            PERFORM crear_particiones_mes(v_mes);
+        END LOOP;
+END;
+$$;
+
+-- ------------------------------------------------------------
+-- 4. Copia de datos y retiro de las tablas anteriores
+-- ------------------------------------------------------------
+INSERT INTO horarios_disponibles (id, profesional_id, fecha, hora_inicio, hora_fin, estado)
+SELECT id, profesional_id, fecha, hora_inicio, hora_fin, estado
+FROM horarios_disponibles_v4;
+
+INSERT INTO reservas (id, fecha, hora_inicio, hora_fin, cliente_id, profesional_id, estado, horario_id)
+SELECT id, fecha, hora_inicio, hora_fin, cliente_id, profesional_id, estado, horario_id
+FROM reservas_v4;
+
+DROP TABLE reservas_v4;
+DROP TABLE horarios_disponibles_v4;
+
+-- ------------------------------------------------------------
+-- 5. Claves, restricciones e índices (se propagan a cada partición)
+-- ------------------------------------------------------------
+ALTER TABLE horarios_disponibles
+    ADD CONSTRAINT pk_horarios_disponibles PRIMARY KEY (id, fecha),
+    ADD CONSTRAINT fk_horarios_profesional
+        FOREIGN KEY (profesional_id)
+            REFERENCES profesionales (id)
+            ON DELETE CASCADE;
+
+CREATE INDEX idx_horarios_profesional_fecha
+    ON horarios_disponibles (profesional_id, fecha);
+
+CREATE INDEX idx_horarios_profesional_rango
+    ON horarios_disponibles USING GIST (profesional_id, rango);
+
+ALTER TABLE reservas
+    ADD CONSTRAINT pk_reservas PRIMARY KEY (id, fecha),
+    ADD CONSTRAINT fk_reservas_cliente
+        FOREIGN KEY (cliente_id)
+            REFERENCES clientes (id),
+    ADD CONSTRAINT fk_reservas_profesional
+        FOREIGN KEY (profesional_id)
+            REFERENCES profesionales (id),
+    -- Solo se anula horario_id: fecha forma parte de la PK
+    ADD CONSTRAINT fk_reservas_horario
+        FOREIGN KEY (horario_id, fecha)
+            REFERENCES horarios_disponibles (id, fecha)
+            ON DELETE SET NULL (horario_id);
+
+CREATE INDEX idx_reservas_profesional_fecha ON reservas (profesional_id, fecha);
+CREATE INDEX idx_reservas_cliente           ON reservas (cliente_id);
+CREATE INDEX idx_reservas_estado            ON reservas (estado);
+CREATE INDEX idx_reservas_horario           ON reservas (horario_id);
+
+ANALYZE horarios_disponibles;
+ANALYZE reservas;
@@ -0,0 +1,10 @@
+-- ============================================================
+-- V6: Índice parcial sobre reservas activas
+-- ============================================================
+-- CompletarReservasJob pasa a COMPLETADA las reservas CREADA ya finalizadas, por lo que
+-- el conjunto activo queda acotado al horizonte futuro. Este índice solo contiene esas
+-- filas: sirve a la búsqueda de vencidas del job (ORDER BY fecha, hora_fin) y a
+-- findAllActivas(), sin crecer con el histórico.
+CREATE INDEX idx_reservas_activas_fin
+    ON reservas (fecha, hora_fin)
+    WHERE estado = 'CREADA';
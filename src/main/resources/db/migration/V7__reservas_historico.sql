@@ -0,0 +1,35 @@
+-- ============================================================
+-- V7: Tabla de archivo para reservas finalizadas
+-- ============================================================
+-- ArchivarReservasJob mueve aquí, por lotes, las reservas CANCELADA/COMPLETADA más
+-- antiguas que reservas.archivo.antiguedad-dias. Así la tabla viva y sus índices
+-- (los que usa el flujo de reserva) solo contienen el horizonte reciente.
+-- No tiene FK a horarios_disponibles: el bloque puede haberse fusionado o archivado.
+CREATE TABLE reservas_historico (
+                                    id              UUID        NOT NULL,
+                                    fecha           DATE        NOT NULL,
+                                    hora_inicio     TIME        NOT NULL,
+                                    hora_fin        TIME        NOT NULL,
+                                    cliente_id      UUID        NOT NULL,
+                                    profesional_id  UUID        NOT NULL,
+                                    estado          VARCHAR(20) NOT NULL,
+                                    horario_id      UUID,
+                                    archivada_en    TIMESTAMP   NOT NULL DEFAULT now(),
+                                    CONSTRAINT pk_reservas_historico PRIMARY KEY (id),
+                                    CONSTRAINT fk_reservas_historico_cliente
+                                        FOREIGN KEY (cliente_id)
+                                            REFERENCES clientes (id),
+                                    CONSTRAINT fk_reservas_historico_profesional
+                                        FOREIGN KEY (profesional_id)
+                                            REFERENCES profesionales (id),
+                                    CONSTRAINT chk_reservas_historico_estado
+                                        CHECK (estado IN ('CANCELADA', 'COMPLETADA'))
+);
+
+CREATE INDEX idx_reservas_historico_cliente     ON reservas_historico (cliente_id, fecha);
+CREATE INDEX idx_reservas_historico_profesional ON reservas_historico (profesional_id, fecha);
+
+-- Candidatas a archivar: solo reservas finalizadas, por antigüedad
+CREATE INDEX idx_reservas_finalizadas_fecha
+    ON reservas (fecha)
+    WHERE estado IN ('CANCELADA', 'COMPLETADA');
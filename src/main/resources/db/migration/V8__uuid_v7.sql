@@ -0,0 +1,27 @@
+-- ============================================================
+-- V8: Generación de UUIDv7 en SQL
+-- ============================================================
+-- Las entidades generan sus ids como UUIDv7 (@UuidGenerator VERSION_7): los 48 bits
+-- altos son el instante en milisegundos, por lo que las inserciones caen al final del
+-- índice de la PK en lugar de en una hoja aleatoria como con v4.
+-- PostgreSQL 16 no trae uuidv7(); esta función la sustituye en las rutas que insertan
+-- directamente por SQL (importación masiva con COPY) para no mezclar ids aleatorios.
+-- Parte de un v4 de gen_random_uuid(): sustituye los 6 primeros bytes por el instante
+-- y cambia la versión 0100 -> 0111 (bits 52 y 53); la variante se conserva.
+CREATE OR REPLACE FUNCTION uuid_v7(p_instante TIMESTAMPTZ DEFAULT clock_timestamp())
+    RETURNS UUID
+    LANGUAGE sql
+    VOLATILE
+AS
+$$
+SELECT encode(
+               set_bit(
+                       set_bit(
+                               overlay(uuid_send(gen_random_uuid())
+                                       PLACING substring(int8send(floor(extract(EPOCH FROM p_instante) * 1000)::BIGINT)
+                                                         FROM 3)
+                                       FROM 1 FOR 6),
+                               52, 1),
+                       53, 1),
+               'hex')::UUID
+$$;
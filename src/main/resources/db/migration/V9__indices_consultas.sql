@@ -0,0 +1,18 @@
+-- ============================================================
+-- V9: Índices que faltaban según ConsultasPlanTest
+-- ============================================================
+-- ClienteRepository busca por lower(email) (existsByEmail, findByEmail) y la importación
+-- de clientes comprueba duplicados con la misma expresión. uk_clientes_email distingue
+-- mayúsculas, así que no sirve a ninguna de las dos y cada búsqueda recorría la tabla
+-- completa. No es UNIQUE: la unicidad sigue siendo la de uk_clientes_email, que usa el
+-- ON CONFLICT de la importación.
+CREATE INDEX idx_clientes_email_lower
+    ON clientes (lower(email));
+
+-- ReservaRepository.findByFecha: la poda deja una partición mensual, pero dentro de ella
+-- solo había índices parciales por estado (V6, V7) y la consulta pide todos los estados.
+CREATE INDEX idx_reservas_fecha
+    ON reservas (fecha);
+
+ANALYZE clientes;
+ANALYZE reservas;
@@ -0,0 +1,181 @@
+package com.geovannycode.reservas.infrastructure.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geovannycode.reservas.infrastructure.datasource.Plazos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.common.vertx.VertxContext;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Vertx;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Pruebas de {@link AgrupadorPeticiones} sin base de datos: la consulta es un {@link Uni} que
+ * la prueba completa cuando todas las peticiones ya se agruparon.
+ */
+class AgrupadorPeticionesTest {
+
+    private static final String ENDPOINT = "por-fecha";
+    private static final int PETICIONES = 10;
+
+    private static Vertx vertx;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AgrupadorPeticiones agrupador = new AgrupadorPeticiones(new ObjectMapper(), registry,
+            new Plazos(vertx, registry, null, Optional.empty()), Optional.of(List.of(ENDPOINT)));
+
+    private final AtomicInteger ejecuciones = new AtomicInteger();
+    private CompletableFuture<List<String>> resultado = new CompletableFuture<>();
+
+    @BeforeAll
+    static void arrancar() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterAll
+    static void parar() {
+        vertx.close();
+    }
+
+    @Test
+    void deberiaCompartirUnaSolaConsultaEntreLasPeticionesConcurrentes() {
+        var respuestas = lanzarConcurrentes(PETICIONES);
+        esperarPeticiones(PETICIONES);
+
+        resultado.complete(List.of("09:00", "10:00"));
+
+        var cuerpos = respuestas.stream().map(this::esperar).map(Response::getEntity).toList();
+        assertEquals(1, ejecuciones.get());
+        cuerpos.forEach(cuerpo -> assertSame(cuerpos.get(0), cuerpo));
+        assertArrayEquals("[\"09:00\",\"10:00\"]".getBytes(), (byte[]) cuerpos.get(0));
+        assertEquals(1, contador("lider"));
+        assertEquals(PETICIONES - 1, contador("seguidor"));
+    }
+
+    @Test
+    void deberiaLiberarLaClaveAlTerminarLaConsulta() {
+        resultado.complete(List.of("09:00"));
+        esperar(lanzar());
+
+        resultado = new CompletableFuture<>();
+        var siguiente = lanzar();
+        resultado.complete(List.of("10:00"));
+
+        assertArrayEquals("[\"10:00\"]".getBytes(), (byte[]) esperar(siguiente).getEntity());
+        assertEquals(2, ejecuciones.get());
+        assertEquals(2, contador("lider"));
+        assertEquals(0, contador("seguidor"));
+    }
+
+    @Test
+    void deberiaPropagarElFalloATodasLasPeticionesAgrupadas() {
+        var respuestas = lanzarConcurrentes(PETICIONES);
+        esperarPeticiones(PETICIONES);
+
+        var caida = new IllegalStateException("consulta caída");
+        resultado.completeExceptionally(caida);
+
+        respuestas.forEach(respuesta -> {
+            var fallo = assertThrows(CompletionException.class, () -> esperar(respuesta));
+            assertSame(caida, fallo.getCause());
+        });
+        assertEquals(1, ejecuciones.get());
+
+        resultado = CompletableFuture.completedFuture(List.of());
+        esperar(lanzar());
+        assertEquals(2, ejecuciones.get());
+    }
+
+    @Test
+    void noDeberiaUnirLecturasPosterioresAUnaEscrituraConUnaConsultaAnterior() {
+        var anterior = lanzar();
+        esperarPeticiones(1);
+        var pendiente = resultado;
+
+        agrupador.registrarEscritura();
+        resultado = new CompletableFuture<>();
+        var posterior = lanzar();
+        esperarPeticiones(2);
+
+        pendiente.complete(List.of("antes"));
+        resultado.complete(List.of("después"));
+
+        assertArrayEquals("[\"antes\"]".getBytes(), (byte[]) esperar(anterior).getEntity());
+        assertArrayEquals("[\"después\"]".getBytes(StandardCharsets.UTF_8),
+                (byte[]) esperar(posterior).getEntity());
+        assertEquals(2, ejecuciones.get());
+        assertEquals(2, contador("lider"));
+    }
+
+    @Test
+    void noDeberiaAgruparLosEndpointsNoConfigurados() {
+        var respuestas = IntStream.range(0, 3)
+                .mapToObj(i -> lanzar(() -> agrupador.compartir("otro", "clave", this::consultar)))
+                .toList();
+        resultado.complete(List.of());
+
+        respuestas.forEach(this::esperar);
+        assertEquals(3, ejecuciones.get());
+        assertEquals(0, contador("lider") + contador("seguidor"));
+    }
+
+    private Uni<List<String>> consultar() {
+        ejecuciones.incrementAndGet();
+        return Uni.createFrom().completionStage(resultado);
+    }
+
+    private List<CompletableFuture<Response>> lanzarConcurrentes(int cantidad) {
+        return IntStream.range(0, cantidad).mapToObj(i -> lanzar()).toList();
+    }
+
+    private CompletableFuture<Response> lanzar() {
+        return lanzar(() -> agrupador.compartir(ENDPOINT, AgrupadorPeticiones.clave("2026-10-19", null),
+                this::consultar));
+    }
+
+    /**
+     * Cada petición corre, como en el servidor, en su propio contexto duplicado.
+     */
+    private CompletableFuture<Response> lanzar(Supplier<Uni<Response>> peticion) {
+        var respuesta = new CompletableFuture<Response>();
+        VertxContext.createNewDuplicatedContext(vertx.getOrCreateContext()).runOnContext(ignorado ->
+                peticion.get().subscribe().with(respuesta::complete, respuesta::completeExceptionally));
+        return respuesta;
+    }
+
+    private Response esperar(CompletableFuture<Response> respuesta) {
+        return respuesta.orTimeout(5, TimeUnit.SECONDS).join();
+    }
+
+    private void esperarPeticiones(int cantidad) {
+        var limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (contador("lider") + contador("seguidor") < cantidad) {
+            if (System.nanoTime() > limite) {
+                throw new AssertionError("Solo llegaron " + (contador("lider") + contador("seguidor")) + " peticiones");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private long contador(String rol) {
+        var contador = registry.find("reservas.agrupacion.peticiones").tag("endpoint", ENDPOINT).tag("rol", rol).counter();
+        return contador == null ? 0 : (long) contador.count();
+    }
+}
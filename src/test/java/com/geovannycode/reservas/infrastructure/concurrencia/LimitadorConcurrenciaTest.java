@@ -0,0 +1,118 @@
+package com.geovannycode.reservas.infrastructure.concurrencia;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del gradiente de {@link LimitadorConcurrencia} con latencias simuladas: cada ronda
+ * llena el límite (congestión) y libera una petición con la latencia indicada.
+ */
+class LimitadorConcurrenciaTest {
+
+    private static final long RAPIDA = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long LENTA = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void deberiaCrecerMientrasLaLatenciaNoSuperaLaTolerancia() {
+        var limitador = new LimitadorConcurrencia(registry, true, 10, 4, 50, 0);
+
+        var anterior = limite();
+        for (var ronda = 0; ronda < 20; ronda++) {
+            congestionar(limitador, RAPIDA);
+            assertTrue(limite() >= anterior, "el límite bajó con latencia estable");
+            anterior = limite();
+        }
+        assertTrue(limite() > 15, "el límite no creció: " + limite());
+
+        for (var ronda = 0; ronda < 200; ronda++) {
+            congestionar(limitador, RAPIDA);
+        }
+        assertEquals(50, limite());
+    }
+
+    @Test
+    void deberiaReducirseCuandoLaLatenciaSuperaLaToleranciaHastaElMinimo() {
+        var limitador = new LimitadorConcurrencia(registry, true, 40, 4, 200, 0);
+        for (var ronda = 0; ronda < 10; ronda++) {
+            congestionar(limitador, RAPIDA);
+        }
+        var antes = limite();
+
+        // La latencia actual tarda unas rondas en superar 1,5 veces la base
+        for (var ronda = 0; ronda < 30; ronda++) {
+            congestionar(limitador, LENTA);
+        }
+        assertTrue(limite() < antes / 2, "el límite no se redujo: " + antes + " -> " + limite());
+
+        for (var ronda = 0; ronda < 200; ronda++) {
+            congestionar(limitador, LENTA);
+        }
+        assertTrue(limite() >= 4 && limite() < 10, "límite: " + limite());
+    }
+
+    @Test
+    void noDeberiaAjustarseSinCongestion() {
+        var limitador = new LimitadorConcurrencia(registry, true, 20, 4, 200, 0);
+
+        // Una petición cada vez: menos de medio límite en curso
+        for (var ronda = 0; ronda < 50; ronda++) {
+            assertTrue(limitador.adquirir(Prioridad.Nivel.NORMAL));
+            limitador.liberar(ronda < 25 ? RAPIDA : LENTA);
+        }
+        assertEquals(20, limite());
+    }
+
+    @Test
+    void deberiaReservarParteDelLimiteParaLasPeticionesCriticas() {
+        var limitador = new LimitadorConcurrencia(registry, true, 10, 4, 200, 0.2);
+
+        for (var i = 0; i < 8; i++) {
+            assertTrue(limitador.adquirir(Prioridad.Nivel.NORMAL));
+        }
+        assertFalse(limitador.adquirir(Prioridad.Nivel.NORMAL));
+        assertTrue(limitador.adquirir(Prioridad.Nivel.CRITICA));
+        assertTrue(limitador.adquirir(Prioridad.Nivel.CRITICA));
+        assertFalse(limitador.adquirir(Prioridad.Nivel.CRITICA));
+
+        assertEquals(1, rechazos(Prioridad.Nivel.NORMAL));
+        assertEquals(1, rechazos(Prioridad.Nivel.CRITICA));
+        assertEquals(10, registry.get("reservas.concurrencia.en-curso").gauge().value());
+    }
+
+    @Test
+    void noDeberiaLimitarSiEstaDeshabilitado() {
+        var limitador = new LimitadorConcurrencia(registry, false, 4, 4, 4, 0);
+
+        for (var i = 0; i < 100; i++) {
+            assertTrue(limitador.adquirir(Prioridad.Nivel.NORMAL));
+        }
+        assertEquals(0, registry.get("reservas.concurrencia.en-curso").gauge().value());
+    }
+
+    /**
+     * Ocupa todas las plazas disponibles y libera una con la latencia dada; el resto sigue en
+     * curso para la ronda siguiente.
+     */
+    private void congestionar(LimitadorConcurrencia limitador, long latenciaNanos) {
+        while (limitador.adquirir(Prioridad.Nivel.CRITICA)) {
+            // Llenar hasta el límite
+        }
+        limitador.liberar(latenciaNanos);
+    }
+
+    private double limite() {
+        return registry.get("reservas.concurrencia.limite").gauge().value();
+    }
+
+    private double rechazos(Prioridad.Nivel nivel) {
+        return registry.get("reservas.concurrencia.rechazos").tag("prioridad", nivel.name()).counter().count();
+    }
+}
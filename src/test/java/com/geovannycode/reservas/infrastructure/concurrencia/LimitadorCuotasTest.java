@@ -0,0 +1,110 @@
+package com.geovannycode.reservas.infrastructure.concurrencia;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de la recarga de los cubos de {@link LimitadorCuotas} con un reloj simulado.
+ */
+class LimitadorCuotasTest {
+
+    private static final UUID CLIENTE = UUID.fromString("b2000000-0000-0000-0000-000000000001");
+    private static final String LLAMANTE = "clave:integracion";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void deberiaAdmitirLaRafagaYRechazarConLaEsperaHastaElSiguienteToken() {
+        var limitador = new LimitadorCuotas(registry, true, 3, 0.5, 100);
+
+        for (var restantes = 2; restantes >= 0; restantes--) {
+            var cuota = limitador.consumir(CLIENTE, LLAMANTE, ms(1));
+            assertTrue(cuota.permitida());
+            assertEquals(restantes, cuota.restantes());
+        }
+        var rechazo = limitador.consumir(CLIENTE, LLAMANTE, ms(1));
+
+        assertFalse(rechazo.permitida());
+        assertEquals(0, rechazo.restantes());
+        assertEquals(2, rechazo.reintentarEnSegundos());
+        assertEquals(1, registry.get("reservas.cuotas.rechazos").counter().count());
+    }
+
+    @Test
+    void deberiaRecargarAunqueSeConsulteCadaMilisegundo() {
+        // Medio token por segundo: un token cada 2 s
+        var limitador = new LimitadorCuotas(registry, true, 1, 0.5, 100);
+        assertTrue(limitador.consumir(CLIENTE, LLAMANTE, ms(1)).permitida());
+
+        // Los intentos rechazados no retrasan ni descartan la recarga
+        for (var ahora = 2L; ahora < 2001; ahora++) {
+            assertFalse(limitador.consumir(CLIENTE, LLAMANTE, ms(ahora)).permitida(), "admitida en " + ahora);
+        }
+        assertTrue(limitador.consumir(CLIENTE, LLAMANTE, ms(2001)).permitida());
+    }
+
+    @Test
+    void deberiaRecargarAlRitmoExactoConIntervalosNoEnteros() {
+        // 0,3 tokens por segundo: un token cada 3333,3 ms, fracción que no cabe en milisegundos
+        var limitador = new LimitadorCuotas(registry, true, 1, 0.3, 100);
+        assertTrue(limitador.consumir(CLIENTE, LLAMANTE, ms(1)).permitida());
+
+        for (var ahora = 1L + 7; ahora < 1 + 3334; ahora += 7) {
+            assertFalse(limitador.consumir(CLIENTE, LLAMANTE, ms(ahora)).permitida(), "admitida en " + ahora);
+        }
+        assertTrue(limitador.consumir(CLIENTE, LLAMANTE, ms(1 + 3334)).permitida());
+    }
+
+    @Test
+    void deberiaAdmitirElRitmoConfiguradoConPeticionesContinuas() {
+        // Con capacidad 2 el cubo nunca vuelve a llenarse y no se pierde recarga por el tope
+        var limitador = new LimitadorCuotas(registry, true, 2, 0.3, 100);
+
+        var admitidas = 0;
+        for (var ahora = 0L; ahora <= 100_000; ahora++) {
+            if (limitador.consumir(CLIENTE, LLAMANTE, ms(ahora)).permitida()) {
+                admitidas++;
+            }
+        }
+        // La ráfaga inicial y una cada 3333,3 ms durante 100 s
+        assertEquals(2 + 30, admitidas);
+    }
+
+    @Test
+    void noDeberiaAcumularMasQueLaCapacidad() {
+        var limitador = new LimitadorCuotas(registry, true, 2, 10, 100);
+        assertTrue(limitador.consumir(CLIENTE, LLAMANTE, ms(1)).permitida());
+        assertTrue(limitador.consumir(CLIENTE, LLAMANTE, ms(1)).permitida());
+
+        // Diez minutos sin peticiones: el cubo se llena, pero solo hasta la capacidad
+        var ahora = 1 + 600_000L;
+        assertEquals(1, limitador.consumir(CLIENTE, LLAMANTE, ms(ahora)).restantes());
+        assertEquals(0, limitador.consumir(CLIENTE, LLAMANTE, ms(ahora)).restantes());
+        assertFalse(limitador.consumir(CLIENTE, LLAMANTE, ms(ahora)).permitida());
+
+        // Y desde que se vació recarga al ritmo configurado: un token cada 100 ms
+        assertFalse(limitador.consumir(CLIENTE, LLAMANTE, ms(ahora + 99)).permitida());
+        assertTrue(limitador.consumir(CLIENTE, LLAMANTE, ms(ahora + 100)).permitida());
+    }
+
+    @Test
+    void deberiaSepararLosCubosPorLlamanteYCliente() {
+        var limitador = new LimitadorCuotas(registry, true, 1, 1, 100);
+
+        assertTrue(limitador.consumir(CLIENTE, LLAMANTE, ms(1)).permitida());
+        assertFalse(limitador.consumir(CLIENTE, LLAMANTE, ms(1)).permitida());
+        assertTrue(limitador.consumir(CLIENTE, "ip:10.0.0.1", ms(1)).permitida());
+        assertTrue(limitador.consumir(UUID.randomUUID(), LLAMANTE, ms(1)).permitida());
+    }
+
+    private static long ms(long milisegundos) {
+        return TimeUnit.MILLISECONDS.toNanos(milisegundos);
+    }
+}
@@ -0,0 +1,168 @@
+package com.geovannycode.reservas.infrastructure.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.common.vertx.VertxContext;
+import io.vertx.core.Vertx;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pruebas de la decisión de {@link EnrutadorConexiones} entre primario, réplica y reportes,
+ * con el estado de la réplica fijado a mano y las marcas puestas en un contexto duplicado.
+ */
+class EnrutadorConexionesTest {
+
+    private static final Duration RETRASO_MAXIMO = Duration.ofSeconds(5);
+
+    private static Vertx vertx;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeAll
+    static void arrancar() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterAll
+    static void parar() {
+        vertx.close();
+    }
+
+    @Test
+    void deberiaLeerDeLaReplicaDisponible() {
+        var enrutador = enrutador(true, "0/3000000", 0.0);
+
+        assertEquals(Destino.REPLICA, enContexto(() -> {
+            ContextoConexion.marcarLectura();
+            return enrutador.elegir();
+        }));
+        assertEquals(1.0, contador("replica", "lectura"));
+    }
+
+    @Test
+    void deberiaIrAlPrimarioSinMarcaDeLectura() {
+        var enrutador = enrutador(true, "0/3000000", 0.0);
+
+        assertEquals(Destino.PRIMARIO, enContexto(enrutador::elegir));
+        // Fuera de un contexto duplicado no hay marca posible
+        assertEquals(Destino.PRIMARIO, enrutador.elegir());
+        assertEquals(0, registry.find("reservas.lecturas").counters().size());
+    }
+
+    @Test
+    void deberiaIrAlPrimarioConLaReplicaDeshabilitada() {
+        var enrutador = enrutador(false, "0/3000000", 0.0);
+
+        assertEquals(Destino.PRIMARIO, enContexto(() -> {
+            ContextoConexion.marcarLectura();
+            return enrutador.elegir();
+        }));
+    }
+
+    @Test
+    void deberiaVolverAlPrimarioCuandoElRetrasoSuperaElMaximo() {
+        var estado = estado(true);
+        var enrutador = new EnrutadorConexiones(estado, registry);
+        Supplier<Destino> lectura = () -> {
+            ContextoConexion.marcarLectura();
+            return enrutador.elegir();
+        };
+
+        estado.actualizar("0/3000000", 5.0);
+        assertEquals(Destino.REPLICA, enContexto(lectura));
+
+        estado.actualizar("0/3000000", 5.001);
+        assertEquals(Destino.PRIMARIO, enContexto(lectura));
+        assertEquals(1.0, contador("primario", "replica-no-disponible"));
+
+        // Sin recibir WAL y sin transacciones aplicadas el retraso no se puede acotar
+        estado.actualizar("0/3000000", null);
+        assertEquals(Destino.PRIMARIO, enContexto(lectura));
+
+        // Fuera de recuperación no es una réplica
+        estado.actualizar(null, 0.0);
+        assertEquals(Destino.PRIMARIO, enContexto(lectura));
+
+        estado.actualizar("0/3000000", 0.5);
+        assertEquals(Destino.REPLICA, enContexto(lectura));
+    }
+
+    @Test
+    void deberiaLeerDelPrimarioHastaQueLaReplicaAlcanceElLsn() {
+        var estado = estado(true);
+        estado.actualizar("0/3000000", 0.0);
+        var enrutador = new EnrutadorConexiones(estado, registry);
+
+        assertEquals(Destino.PRIMARIO, enContexto(() -> {
+            ContextoConexion.marcarLectura();
+            ContextoConexion.exigirLsn(EstadoReplica.parsearLsn("0/3000001"));
+            return enrutador.elegir();
+        }));
+        assertEquals(1.0, contador("primario", "leer-escrituras"));
+
+        assertEquals(Destino.REPLICA, enContexto(() -> {
+            ContextoConexion.marcarLectura();
+            ContextoConexion.exigirLsn(EstadoReplica.parsearLsn("0/3000000"));
+            return enrutador.elegir();
+        }));
+    }
+
+    @Test
+    void deberiaUsarElPoolDeReportesComoPrimarioDeUnReporte() {
+        var estado = estado(true);
+        estado.actualizar("0/3000000", 60.0);
+        var enrutador = new EnrutadorConexiones(estado, registry);
+
+        assertEquals(Destino.REPORTES, enContexto(() -> {
+            ContextoConexion.marcarReporte();
+            ContextoConexion.marcarLectura();
+            return enrutador.elegir();
+        }));
+        assertEquals(1.0, contador("reportes", "replica-no-disponible"));
+
+        estado.actualizar("0/3000000", 0.0);
+        assertEquals(Destino.REPLICA, enContexto(() -> {
+            ContextoConexion.marcarReporte();
+            ContextoConexion.marcarLectura();
+            return enrutador.elegir();
+        }));
+    }
+
+    private EstadoReplica estado(boolean habilitada) {
+        return new EstadoReplica(null, null, registry, habilitada, RETRASO_MAXIMO);
+    }
+
+    private EnrutadorConexiones enrutador(boolean habilitada, String aplicado, double retraso) {
+        var estado = estado(habilitada);
+        estado.actualizar(aplicado, retraso);
+        return new EnrutadorConexiones(estado, registry);
+    }
+
+    private double contador(String destino, String motivo) {
+        var contador = registry.find("reservas.lecturas").tags("destino", destino, "motivo", motivo).counter();
+        return contador == null ? 0 : contador.count();
+    }
+
+    /**
+     * Ejecuta {@code accion} en un contexto duplicado nuevo, como el de una petición.
+     */
+    private static <T> T enContexto(Supplier<T> accion) {
+        var resultado = new CompletableFuture<T>();
+        VertxContext.createNewDuplicatedContext(vertx.getOrCreateContext()).runOnContext(ignorado -> {
+            try {
+                resultado.complete(accion.get());
+            } catch (RuntimeException e) {
+                resultado.completeExceptionally(e);
+            }
+        });
+        return resultado.orTimeout(5, TimeUnit.SECONDS).join();
+    }
+}
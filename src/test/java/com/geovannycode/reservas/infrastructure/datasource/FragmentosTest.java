@@ -0,0 +1,172 @@
+package com.geovannycode.reservas.infrastructure.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.common.vertx.VertxContext;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del reparto por fragmentos sin bases de datos: los trabajos leen el fragmento que
+ * {@link Fragmentos} fija en el contexto, que es lo que {@link PoolEnrutado} usa para elegir pool.
+ */
+class FragmentosTest {
+
+    private static Vertx vertx;
+
+    private final Fragmentos fragmentos = new Fragmentos(vertx, new SimpleMeterRegistry(), true,
+            Optional.of(List.of("fragmento-1", "fragmento-2")));
+
+    @BeforeAll
+    static void arrancar() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterAll
+    static void parar() {
+        vertx.close();
+    }
+
+    @Test
+    void deberiaRepartirLosProfesionalesDeFormaEstableYEquilibrada() {
+        var aleatorio = new Random(42);
+        var profesionales = Stream.generate(() -> new UUID(aleatorio.nextLong(), aleatorio.nextLong()))
+                .limit(30_000)
+                .toList();
+
+        var porFragmento = profesionales.stream()
+                .collect(Collectors.groupingBy(fragmentos::fragmentoDe, Collectors.counting()));
+
+        assertEquals(3, fragmentos.cantidad());
+        assertEquals(Set.of(0, 1, 2), porFragmento.keySet());
+        porFragmento.values().forEach(cantidad ->
+                assertTrue(Math.abs(cantidad - 10_000) < 500, "Reparto desequilibrado: " + porFragmento));
+        // Depende solo del id, no de la instancia del UUID
+        assertTrue(profesionales.stream().allMatch(id ->
+                fragmentos.fragmentoDe(id) == fragmentos.fragmentoDe(UUID.fromString(id.toString()))));
+    }
+
+    @Test
+    void deberiaUsarUnSoloFragmentoSinReparto() {
+        var sinReparto = new Fragmentos(vertx, new SimpleMeterRegistry(), false,
+                Optional.of(List.of("fragmento-1", "fragmento-2")));
+
+        assertEquals(1, sinReparto.cantidad());
+        assertEquals(0, sinReparto.fragmentoDe(UUID.randomUUID()));
+        assertEquals(List.of(0), enContexto(() -> sinReparto.enTodos(FragmentosTest::fragmentoActual)));
+    }
+
+    @Test
+    void deberiaEjecutarEnTodosEnOrdenDeFragmento() {
+        assertEquals(List.of(0, 1, 2), enContexto(() -> fragmentos.enTodos(FragmentosTest::fragmentoActual)));
+    }
+
+    @Test
+    void deberiaConservarDeCadaFragmentoSoloLosProfesionalesPropios() {
+        var profesionales = IntStream.range(0, 60)
+                .mapToObj(i -> UUID.nameUUIDFromBytes(("profesional-" + i).getBytes()))
+                .toList();
+
+        // Cada fragmento devuelve todas las filas, como los datos replicados en todos
+        List<Map.Entry<UUID, Integer>> reunidos = enContexto(() -> fragmentos.reunir(
+                () -> Uni.createFrom().item(() -> profesionales.stream()
+                        .map(id -> Map.entry(id, ContextoConexion.fragmento()))
+                        .toList()),
+                Map.Entry::getKey));
+
+        assertEquals(profesionales.size(), reunidos.size());
+        assertEquals(Set.copyOf(profesionales), reunidos.stream().map(Map.Entry::getKey).collect(Collectors.toSet()));
+        assertTrue(reunidos.stream().allMatch(fila -> fila.getValue() == fragmentos.fragmentoDe(fila.getKey())));
+    }
+
+    @Test
+    void deberiaEjecutarEnElFragmentoQueTieneElRegistro() {
+        var profesional = profesionalDelFragmento(2);
+
+        // Solo el fragmento dueño lo encuentra; una copia en otro fragmento no cuenta
+        var fragmento = enContexto(() -> fragmentos.enFragmentoDe(
+                () -> Uni.createFrom().item(() -> ContextoConexion.fragmento() == 1 || ContextoConexion.fragmento() == 2
+                        ? profesional : null),
+                FragmentosTest::fragmentoActual));
+
+        assertEquals(2, fragmento);
+    }
+
+    @Test
+    void deberiaEjecutarEnElFragmentoCeroSiNingunoTieneElRegistro() {
+        assertEquals(0, enContexto(() -> fragmentos.enFragmentoDe(
+                () -> Uni.createFrom().nullItem(),
+                FragmentosTest::fragmentoActual)));
+    }
+
+    @Test
+    void deberiaPropagarElContextoAlAnidadoYVolverAlDeQuienLlama() {
+        var profesional = profesionalDelFragmento(1);
+        var resultado = new CompletableFuture<List<Object>>();
+        var origen = VertxContext.createNewDuplicatedContext(vertx.getOrCreateContext());
+
+        origen.runOnContext(ignorado -> {
+            ContextoConexion.marcarLectura();
+            fragmentos.enFragmentoDe(
+                            () -> Uni.createFrom().item(() ->
+                                    ContextoConexion.fragmento() == 1 ? profesional : null),
+                            () -> Uni.createFrom().item(() -> List.<Object>of(
+                                    ContextoConexion.fragmento(),
+                                    ContextoConexion.esLectura(),
+                                    Vertx.currentContext() != origen)))
+                    .map(dentro -> Stream.concat(dentro.stream(), Stream.of(Vertx.currentContext())).toList())
+                    .subscribe().with(resultado::complete, resultado::completeExceptionally);
+        });
+        var valores = resultado.orTimeout(5, TimeUnit.SECONDS).join();
+
+        assertEquals(1, valores.get(0), "Fragmento fijado en el contexto anidado");
+        assertEquals(true, valores.get(1), "Marca de solo lectura copiada al contexto anidado");
+        assertEquals(true, valores.get(2), "El trabajo corre en un contexto anidado");
+        assertSame(origen, valores.get(3), "La continuación vuelve al contexto de quien llamó");
+        // El fragmento no se filtra al contexto de quien llamó
+        assertEquals(0, enContextoDe(origen, () -> Uni.createFrom().item(ContextoConexion::fragmento)));
+    }
+
+    private UUID profesionalDelFragmento(int fragmento) {
+        return IntStream.range(0, 1000)
+                .mapToObj(i -> UUID.nameUUIDFromBytes(("profesional-" + i).getBytes()))
+                .filter(id -> fragmentos.fragmentoDe(id) == fragmento)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static Uni<Integer> fragmentoActual() {
+        return Uni.createFrom().item(ContextoConexion::fragmento);
+    }
+
+    private static <T> T enContexto(Supplier<Uni<T>> trabajo) {
+        return enContextoDe(VertxContext.createNewDuplicatedContext(vertx.getOrCreateContext()), trabajo);
+    }
+
+    private static <T> T enContextoDe(Context contexto, Supplier<Uni<T>> trabajo) {
+        var resultado = new CompletableFuture<T>();
+        contexto.runOnContext(ignorado -> trabajo.get()
+                .subscribe().with(resultado::complete, resultado::completeExceptionally));
+        return resultado.orTimeout(5, TimeUnit.SECONDS).join();
+    }
+}
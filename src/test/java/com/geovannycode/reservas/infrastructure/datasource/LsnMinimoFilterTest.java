@@ -0,0 +1,106 @@
+package com.geovannycode.reservas.infrastructure.datasource;
+
+import io.smallrye.common.vertx.VertxContext;
+import io.vertx.core.Vertx;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del formato de LSN de PostgreSQL ({@link EstadoReplica#parsearLsn(String)}) y de la
+ * cabecera {@value LsnMinimoFilter#CABECERA}.
+ */
+class LsnMinimoFilterTest {
+
+    private static Vertx vertx;
+
+    @BeforeAll
+    static void arrancar() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterAll
+    static void parar() {
+        vertx.close();
+    }
+
+    @Test
+    void deberiaParsearLasDosMitadesEnHexadecimal() {
+        assertEquals(0L, EstadoReplica.parsearLsn("0/0"));
+        assertEquals(0x16B374D848L, EstadoReplica.parsearLsn("16/B374D848"));
+        assertEquals(0x16B374D848L, EstadoReplica.parsearLsn("16/b374d848"));
+        assertEquals(0xFFFFFFFFFFFFFFFFL, EstadoReplica.parsearLsn("FFFFFFFF/FFFFFFFF"));
+    }
+
+    @Test
+    void deberiaOrdenarPorLaParteAltaAntesQuePorLaBaja() {
+        // La parte baja no lleva ceros a la izquierda: 0/FFFFFFFF va antes que 1/0
+        assertTrue(EstadoReplica.parsearLsn("0/FFFFFFFF") < EstadoReplica.parsearLsn("1/0"));
+        assertTrue(EstadoReplica.parsearLsn("1/9") < EstadoReplica.parsearLsn("1/10"));
+    }
+
+    @Test
+    void deberiaRechazarUnLsnMalFormado() {
+        assertThrows(IllegalArgumentException.class, () -> EstadoReplica.parsearLsn("16B374D848"));
+        assertThrows(IllegalArgumentException.class, () -> EstadoReplica.parsearLsn("16/XYZ"));
+        assertThrows(IllegalArgumentException.class, () -> EstadoReplica.parsearLsn("/B374D848"));
+    }
+
+    @Test
+    void deberiaExigirElLsnDeLaCabecera() {
+        assertEquals(OptionalLong.of(0x16B374D848L), filtrar(" 16/B374D848 "));
+    }
+
+    @Test
+    void deberiaIgnorarLaCabeceraAusenteOVacia() {
+        assertEquals(OptionalLong.empty(), filtrar(null));
+        assertEquals(OptionalLong.empty(), filtrar("  "));
+    }
+
+    @Test
+    void deberiaRechazarUnaCabeceraMalFormada() {
+        assertThrows(IllegalArgumentException.class, () -> filtrar("basura"));
+    }
+
+    /**
+     * Pasa una petición con la cabecera {@code valor} por el filtro en un contexto duplicado y
+     * devuelve el LSN mínimo que queda fijado.
+     */
+    private static OptionalLong filtrar(String valor) {
+        var peticion = (ContainerRequestContext) Proxy.newProxyInstance(
+                LsnMinimoFilterTest.class.getClassLoader(),
+                new Class<?>[]{ContainerRequestContext.class},
+                (proxy, metodo, argumentos) -> {
+                    if (metodo.getName().equals("getHeaderString")
+                            && LsnMinimoFilter.CABECERA.equals(argumentos[0])) {
+                        return valor;
+                    }
+                    throw new UnsupportedOperationException(metodo.getName());
+                });
+        var resultado = new CompletableFuture<OptionalLong>();
+        VertxContext.createNewDuplicatedContext(vertx.getOrCreateContext()).runOnContext(ignorado -> {
+            try {
+                new LsnMinimoFilter().filter(peticion);
+                resultado.complete(ContextoConexion.lsnMinimo());
+            } catch (RuntimeException e) {
+                resultado.completeExceptionally(e);
+            }
+        });
+        try {
+            return resultado.orTimeout(5, TimeUnit.SECONDS).join();
+        } catch (CompletionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+}
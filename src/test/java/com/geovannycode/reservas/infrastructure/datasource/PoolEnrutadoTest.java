@@ -0,0 +1,100 @@
+package com.geovannycode.reservas.infrastructure.datasource;
+
+import com.geovannycode.reservas.infrastructure.observability.EstadisticasConsultas;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.common.vertx.VertxContext;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.sqlclient.Pool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pruebas del pool al que {@link PoolEnrutado} pide cada conexión según el fragmento y las marcas
+ * de reporte y de solo lectura del contexto. Los pools son falsos: fallan con su propio nombre.
+ */
+class PoolEnrutadoTest {
+
+    private static Vertx vertx;
+
+    private final PoolEnrutado pool;
+
+    PoolEnrutadoTest() {
+        var registry = new SimpleMeterRegistry();
+        var estado = new EstadoReplica(null, null, registry, true, Duration.ofSeconds(5));
+        estado.actualizar("0/3000000", 0.0);
+        var enrutador = new EnrutadorConexiones(estado, registry);
+        var estadisticas = new EstadisticasConsultas(false, 10);
+        pool = new PoolEnrutado(falso("primario"), falso("reportes"),
+                Map.of(Destino.REPLICA, () -> falso("replica")),
+                List.of(() -> falso("fragmento-1"), () -> falso("fragmento-2")),
+                List.of(falso("reportes-fragmento-1"), falso("reportes-fragmento-2")),
+                () -> enrutador, () -> estadisticas);
+    }
+
+    @BeforeAll
+    static void arrancar() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterAll
+    static void parar() {
+        vertx.close();
+    }
+
+    @Test
+    void deberiaElegirEntrePrimarioReportesYReplicaEnElFragmentoCero() {
+        assertEquals("primario", destino(0, false, false));
+        assertEquals("reportes", destino(0, true, false));
+        assertEquals("replica", destino(0, false, true));
+        assertEquals("replica", destino(0, true, true));
+    }
+
+    @Test
+    void deberiaUsarElPoolDeReportesDelFragmento() {
+        assertEquals("fragmento-2", destino(2, false, false));
+        assertEquals("reportes-fragmento-2", destino(2, true, false));
+        assertEquals("reportes-fragmento-1", destino(1, true, true));
+        // La réplica solo existe en el fragmento 0
+        assertEquals("fragmento-1", destino(1, false, true));
+    }
+
+    /**
+     * @return nombre del pool al que se pidió la conexión
+     */
+    private String destino(int fragmento, boolean reporte, boolean lectura) {
+        var resultado = new CompletableFuture<String>();
+        var contexto = VertxContext.createNewDuplicatedContext(vertx.getOrCreateContext());
+        ContextoConexion.fijarFragmento(contexto, fragmento);
+        contexto.runOnContext(ignorado -> {
+            if (reporte) {
+                ContextoConexion.marcarReporte();
+            }
+            if (lectura) {
+                ContextoConexion.marcarLectura();
+            }
+            pool.getConnection().onComplete(conexion -> resultado.complete(conexion.cause().getMessage()));
+        });
+        return resultado.orTimeout(5, TimeUnit.SECONDS).join();
+    }
+
+    private static Pool falso(String nombre) {
+        return (Pool) Proxy.newProxyInstance(PoolEnrutadoTest.class.getClassLoader(), new Class<?>[]{Pool.class},
+                (proxy, metodo, argumentos) -> {
+                    if (metodo.getName().equals("getConnection") && metodo.getParameterCount() == 0) {
+                        return Future.failedFuture(nombre);
+                    }
+                    throw new UnsupportedOperationException(metodo.getName());
+                });
+    }
+}
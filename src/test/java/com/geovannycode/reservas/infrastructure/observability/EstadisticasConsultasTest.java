@@ -0,0 +1,152 @@
+package com.geovannycode.reservas.infrastructure.observability;
+
+import com.geovannycode.reservas.application.dto.response.EstadisticaConsultaResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de la normalización del SQL, de los cubos del histograma del p99 y del desbordamiento
+ * de huellas de {@link EstadisticasConsultas}, sin base de datos.
+ */
+class EstadisticasConsultasTest {
+
+    @Test
+    void deberiaSustituirLiteralesDeTextoYNumericos() {
+        assertEquals("select * from clientes where email = ? and edad > ? and saldo < ?",
+                EstadisticasConsultas.normalizar(
+                        "select * from clientes where email = 'o''neil@correo.com' and edad > 30 and saldo < 1.5"));
+    }
+
+    @Test
+    void deberiaSustituirParametrosYConservarIdentificadoresConDigitos() {
+        assertEquals("select c1_0.id,c1_0.email from clientes c1_0 where lower(c1_0.email)=lower(?) offset ? rows fetch first ? rows only",
+                EstadisticasConsultas.normalizar(
+                        "select c1_0.id,c1_0.email from clientes c1_0 where lower(c1_0.email)=lower($1) offset $2 rows fetch first $3 rows only"));
+        assertEquals("select \"t1\".id from \"t1\" where h2_0.fecha=?",
+                EstadisticasConsultas.normalizar("select \"t1\".id from \"t1\" where h2_0.fecha=$1"));
+    }
+
+    @Test
+    void deberiaReducirLasListasInAUnSoloParametro() {
+        assertEquals("select r1_0.id from reservas r1_0 where r1_0.estado in (?) and r1_0.id in (?)",
+                EstadisticasConsultas.normalizar(
+                        "select r1_0.id from reservas r1_0 where r1_0.estado IN ('ACTIVA', 'CANCELADA') and r1_0.id in ($1,$2,$3)"));
+    }
+
+    @Test
+    void deberiaColapsarLosEspacios() {
+        assertEquals("select ? from dual",
+                EstadisticasConsultas.normalizar("  select\n\t42   from\r\n dual \n"));
+    }
+
+    @Test
+    void deberiaAgruparEnUnaHuellaLasConsultasQueSoloDifierenEnLosLiterales() {
+        var estadisticas = new EstadisticasConsultas(true, 10);
+
+        estadisticas.registrar("select * from clientes where id = 1", "ClienteRepository.findById", micros(100), 1, false);
+        estadisticas.registrar("select * from clientes where id = 2", "ClienteRepository.findById", micros(300), 1, false);
+        estadisticas.registrar("select * from clientes where id = 2", "ClienteRepository.findById", micros(200), 0, true);
+
+        var respuesta = estadisticas.consultar("total", 10);
+        assertEquals(1, respuesta.huellas());
+        var huella = respuesta.consultas().get(0);
+        assertEquals("select * from clientes where id = ?", huella.sql());
+        assertEquals("ClienteRepository.findById", huella.origen());
+        assertEquals(3, huella.llamadas());
+        assertEquals(1, huella.errores());
+        assertEquals(2, huella.filas());
+        assertEquals(0.6, huella.totalMs(), 1e-9);
+        assertEquals(0.3, huella.maxMs(), 1e-9);
+    }
+
+    @Test
+    void deberiaAcotarCadaDuracionEntreLosLimitesDeSuCubo() {
+        // Los 8 primeros cubos son exactos
+        for (var micros = 0; micros < 8; micros++) {
+            assertEquals(micros, EstadisticasConsultas.Huella.cubo(micros));
+            assertEquals(micros + 1, EstadisticasConsultas.Huella.limiteSuperior(micros));
+        }
+        var duraciones = LongStream.concat(LongStream.rangeClosed(0, 70_000),
+                LongStream.rangeClosed(17, 37).flatMap(exponente -> LongStream.of(
+                        (1L << exponente) - 1, 1L << exponente, (1L << exponente) + 1, 3L << (exponente - 1))));
+        duraciones.forEach(micros -> {
+            var cubo = EstadisticasConsultas.Huella.cubo(micros);
+            var superior = EstadisticasConsultas.Huella.limiteSuperior(cubo);
+            var inferior = cubo == 0 ? 0 : EstadisticasConsultas.Huella.limiteSuperior(cubo - 1);
+            assertTrue(inferior <= micros && micros < superior,
+                    micros + " µs fuera de su cubo " + cubo + " [" + inferior + ", " + superior + ")");
+            // 8 cubos por potencia de dos: ningún cubo mide más de 1/8 de su límite inferior
+            assertTrue(micros < 8 || (superior - inferior) * 8 <= inferior, "cubo " + cubo + " demasiado ancho");
+        });
+    }
+
+    @Test
+    void deberiaLlevarLosValoresFueraDeRangoALosCubosExtremos() {
+        assertEquals(0, EstadisticasConsultas.Huella.cubo(-5));
+        var ultimo = EstadisticasConsultas.Huella.cubo(1L << 37);
+        assertEquals(ultimo + 7, EstadisticasConsultas.Huella.cubo(Long.MAX_VALUE));
+        assertEquals(EstadisticasConsultas.Huella.cubo(Long.MAX_VALUE), EstadisticasConsultas.Huella.cubo(1L << 40));
+        assertEquals(1L << 38, EstadisticasConsultas.Huella.limiteSuperior(EstadisticasConsultas.Huella.cubo(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void deberiaCalcularElP99ConLaCotaDeSuCubo() {
+        var estadisticas = new EstadisticasConsultas(true, 10);
+        for (var i = 0; i < 99; i++) {
+            estadisticas.registrar("select 1", null, micros(100), 1, false);
+        }
+        estadisticas.registrar("select 1", null, micros(50_000), 1, false);
+
+        // 99 de 100 en el cubo [96, 104) µs
+        assertEquals(0.104, unica(estadisticas).p99Ms(), 1e-9);
+
+        estadisticas.registrar("select 1", null, micros(50_000), 1, false);
+
+        // Con 2 de 101 lentas el p99 cae en su cubo, acotado por el máximo observado
+        assertEquals(50.0, unica(estadisticas).p99Ms(), 1e-9);
+    }
+
+    @Test
+    void deberiaAcumularEnOtrasLasHuellasQueNoCabenEnLaTabla() {
+        var estadisticas = new EstadisticasConsultas(true, 2);
+
+        estadisticas.registrar("select * from clientes", null, micros(10), 0, false);
+        estadisticas.registrar("select * from profesionales", null, micros(10), 0, false);
+        estadisticas.registrar("select * from reservas", null, micros(10), 0, false);
+        estadisticas.registrar("select * from horarios_disponibles", null, micros(10), 0, false);
+        // Una huella que ya existía sigue acumulando en la suya
+        estadisticas.registrar("select * from clientes", null, micros(10), 0, false);
+
+        var respuesta = estadisticas.consultar("llamadas", 10);
+        assertEquals(2, respuesta.huellas());
+        assertEquals(2, respuesta.maxHuellas());
+        assertEquals(3, respuesta.consultas().size());
+        var otras = respuesta.consultas().stream()
+                .filter(consulta -> consulta.sql().equals(EstadisticasConsultas.OTRAS))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2, otras.llamadas());
+        assertEquals(2, respuesta.consultas().stream()
+                .filter(consulta -> consulta.sql().equals("select * from clientes"))
+                .mapToLong(EstadisticaConsultaResponse::llamadas)
+                .sum());
+
+        estadisticas.reiniciar();
+        assertEquals(0, estadisticas.consultar("total", 10).consultas().size());
+    }
+
+    private static EstadisticaConsultaResponse unica(EstadisticasConsultas estadisticas) {
+        var consultas = estadisticas.consultar("total", 10).consultas();
+        assertEquals(1, consultas.size());
+        return consultas.get(0);
+    }
+
+    private static long micros(long micros) {
+        return TimeUnit.MICROSECONDS.toNanos(micros);
+    }
+}
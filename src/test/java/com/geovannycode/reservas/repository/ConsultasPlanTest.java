@@ -0,0 +1,323 @@
+package com.geovannycode.reservas.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.geovannycode.reservas.domain.enums.EstadoReserva;
+import com.geovannycode.reservas.infrastructure.observability.EstadisticasConsultas;
+import com.geovannycode.reservas.infrastructure.repository.ClienteRepository;
+import com.geovannycode.reservas.infrastructure.repository.HorarioDisponibleRepository;
+import com.geovannycode.reservas.infrastructure.repository.ImportacionRepository;
+import com.geovannycode.reservas.infrastructure.repository.ProfesionalRepository;
+import com.geovannycode.reservas.infrastructure.repository.ReservaHistoricoRepository;
+import com.geovannycode.reservas.infrastructure.repository.ReservaRepository;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.InjectSpy;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+/**
+ * Regresión de planes de ejecución de todas las formas de consulta de los repositorios.
+ * <p>
+ * Antes de cargar datos ejecuta cada método de repositorio y captura el SQL que genera Hibernate
+ * (ver {@link SqlCapturado}). Después carga un conjunto realista dentro de una transacción
+ * (20.000 clientes, 200 profesionales, un año de horarios en torno a hoy, una reserva por cada
+ * horario ocupado y un año de histórico), actualiza estadísticas y, para cada forma, comprueba con
+ * {@code EXPLAIN (FORMAT JSON)} sobre ese SQL y unos valores de ejemplo:
+ * <ul>
+ *     <li>que no recorre secuencialmente ninguna tabla o partición de {@value #TABLA_PEQUENA}
+ *     filas o más, salvo en los listados completos, donde es lo correcto;</li>
+ *     <li>que el coste estimado no supera su presupuesto, con margen sobre el plan actual.</li>
+ * </ul>
+ * La comprobación de emails ya registrados de la importación de clientes (JDBC, fuera del pool
+ * reactivo) se explica desde su constante, sobre un staging de 100 filas. Las consultas por rango
+ * de horarios (índice GiST) se comprueban en {@link HorarioDisponiblePlanTest}. La transacción se
+ * revierte al final.
+ */
+@QuarkusTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConsultasPlanTest {
+
+    private static final int TABLA_PEQUENA = 1_000;
+
+    private static final UUID PROFESIONAL_ID = UUID.fromString("f1000000-0000-0000-0000-000000000042");
+    private static final UUID CLIENTE_ID = UUID.fromString("e1000000-0000-0000-0000-000000000042");
+    private static final UUID ID_INEXISTENTE = UUID.fromString("01900000-0000-7000-8000-000000000000");
+    private static final String EMAIL = "cliente.42@plan.example";
+    private static final LocalDate HOY = LocalDate.now();
+    private static final LocalDate FUTURA = HOY.plusDays(30);
+    private static final LocalDate LIMITE_ARCHIVO = HOY.minusDays(90);
+    private static final LocalTime MEDIODIA = LocalTime.of(12, 0);
+    private static final int LOTE = 500;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Inject
+    ClienteRepository clientes;
+
+    @Inject
+    ProfesionalRepository profesionales;
+
+    @Inject
+    ReservaRepository reservas;
+
+    @Inject
+    ReservaHistoricoRepository historico;
+
+    @Inject
+    HorarioDisponibleRepository horarios;
+
+    @InjectSpy
+    EstadisticasConsultas estadisticas;
+
+    private final Map<String, String> sqlCapturado = new HashMap<>();
+    private Connection connection;
+
+    /**
+     * Se ejecuta una vez, antes de la primera forma (el espía no existe aún en un {@code @BeforeAll}).
+     * El SQL se captura antes de cargar: la transacción de carga crea particiones y bloquearía
+     * las consultas de los repositorios hasta revertirse.
+     */
+    @BeforeEach
+    void prepararse() throws Throwable {
+        if (connection != null) {
+            return;
+        }
+        for (var forma : formas().toList()) {
+            if (forma.llamada() != null) {
+                sqlCapturado.put(forma.nombre(),
+                        SqlCapturado.capturar(estadisticas, forma.nombre(), forma.llamada()));
+            }
+        }
+        cargarDatos();
+    }
+
+    private void cargarDatos() throws SQLException {
+        connection = dataSource.getConnection();
+        connection.setAutoCommit(false);
+        try (Statement st = connection.createStatement()) {
+            st.execute("""
+                    SELECT crear_particiones_mes(m::date)
+                    FROM generate_series(date_trunc('month', CURRENT_DATE - 180),
+                                         date_trunc('month', CURRENT_DATE + 179), INTERVAL '1 month') m
+                    """);
+            st.execute("""
+                    INSERT INTO profesionales (id, nombres, apellidos, especialidad, estado_activo)
+                    SELECT ('f1000000-0000-0000-0000-' || lpad(p::text, 12, '0'))::uuid,
+                           'Prof ' || p, 'Plan', 'Carga', p % 10 <> 0
+                    FROM generate_series(1, 200) p
+                    """);
+            // Emails con mayúsculas, como llegan de los formularios
+            st.execute("""
+                    INSERT INTO clientes (id, nombres, apellidos, email, telefono, estado_activo)
+                    SELECT ('e1000000-0000-0000-0000-' || lpad(c::text, 12, '0'))::uuid,
+                           'Cliente ' || c, 'Plan', 'Cliente.' || c || '@Plan.example', '3000000000', c % 20 <> 0
+                    FROM generate_series(1, 20000) c
+                    """);
+            st.execute("""
+                    INSERT INTO horarios_disponibles (id, profesional_id, fecha, hora_inicio, hora_fin, estado)
+                    SELECT gen_random_uuid(),
+                           ('f1000000-0000-0000-0000-' || lpad(p::text, 12, '0'))::uuid,
+                           CURRENT_DATE + d,
+                           TIME '08:00' + make_interval(hours => b * 2),
+                           TIME '10:00' + make_interval(hours => b * 2),
+                           b % 2 = 0
+                    FROM generate_series(1, 200) p,
+                         generate_series(-180, 179) d,
+                         generate_series(0, 3) b
+                    """);
+            // Pasadas: completadas (1 de cada 10 canceladas); de hoy en adelante: activas
+            st.execute("""
+                    INSERT INTO reservas (id, fecha, hora_inicio, hora_fin, cliente_id, profesional_id, estado, horario_id)
+                    SELECT gen_random_uuid(), h.fecha, h.hora_inicio, h.hora_fin,
+                           ('e1000000-0000-0000-0000-' ||
+                            lpad((1 + abs(hashtext(h.id::text)) % 20000)::text, 12, '0'))::uuid,
+                           h.profesional_id,
+                           CASE
+                               WHEN h.fecha >= CURRENT_DATE THEN 'CREADA'
+                               WHEN abs(hashtext(h.id::text)) % 10 = 0 THEN 'CANCELADA'
+                               ELSE 'COMPLETADA'
+                               END,
+                           h.id
+                    FROM horarios_disponibles h
+                    WHERE NOT h.estado
+                      AND h.profesional_id::text LIKE 'f1000000-%'
+                    """);
+            st.execute("""
+                    INSERT INTO reservas_historico (id, fecha, hora_inicio, hora_fin, cliente_id, profesional_id, estado)
+                    SELECT gen_random_uuid(), CURRENT_DATE - 181 - d, TIME '08:00', TIME '10:00',
+                           ('e1000000-0000-0000-0000-' || lpad((1 + (p * 7919 + d) % 20000)::text, 12, '0'))::uuid,
+                           ('f1000000-0000-0000-0000-' || lpad(p::text, 12, '0'))::uuid,
+                           CASE WHEN d % 10 = 0 THEN 'CANCELADA' ELSE 'COMPLETADA' END
+                    FROM generate_series(1, 200) p,
+                         generate_series(0, 364) d
+                    """);
+            // Un archivo de importación típico: la mitad de los emails ya existen
+            st.execute(ImportacionRepository.STAGING_CLIENTES);
+            st.execute("""
+                    INSERT INTO stg_clientes (nombres, apellidos, email, telefono)
+                    SELECT 'Cliente', 'Importado', ' cliente.' || (c * 397) || '@plan.example ', '3000000000'
+                    FROM generate_series(1, 100) c
+                    """);
+            st.execute("ANALYZE profesionales");
+            st.execute("ANALYZE clientes");
+            st.execute("ANALYZE horarios_disponibles");
+            st.execute("ANALYZE reservas");
+            st.execute("ANALYZE reservas_historico");
+            st.execute("ANALYZE stg_clientes");
+        }
+    }
+
+    @AfterAll
+    void revertir() throws SQLException {
+        if (connection != null) {
+            connection.rollback();
+            connection.close();
+        }
+    }
+
+    /**
+     * Formas de consulta: el método de repositorio que la genera y un valor por parámetro, en el
+     * orden en que aparecen en el SQL (Hibernate numera cada aparición de un parámetro con nombre y
+     * añade el límite de {@code firstResult}). Los presupuestos son unas tres veces el coste del
+     * plan actual con estos datos.
+     */
+    Stream<Forma> formas() {
+        return Stream.of(
+                // ClienteRepository
+                forma("ClienteRepository.existsByEmail", 50,
+                        () -> clientes.existsByEmail("Cliente.42@Plan.example"), EMAIL),
+                forma("ClienteRepository.findByEmail", 50,
+                        () -> clientes.findByEmail("Cliente.42@Plan.example"), EMAIL, 1),
+                listado("ClienteRepository.findAllActivos", 1_500,
+                        () -> clientes.findAllActivos(), true),
+                forma("ClienteRepository.findById", 50,
+                        () -> clientes.findById(CLIENTE_ID), CLIENTE_ID),
+                // ProfesionalRepository
+                listado("ProfesionalRepository.findAllActivos", 50,
+                        () -> profesionales.findAllActivos(), true),
+                forma("ProfesionalRepository.existsById", 50,
+                        () -> profesionales.existsById(PROFESIONAL_ID), PROFESIONAL_ID),
+                // ReservaRepository
+                listado("ReservaRepository.findAllActivas", 8_000,
+                        () -> reservas.findAllActivas(), EstadoReserva.CREADA),
+                forma("ReservaRepository.findSolapadasActivas", 50,
+                        () -> reservas.findSolapadasActivas(PROFESIONAL_ID, FUTURA, LocalTime.of(10, 0), LocalTime.of(11, 0)),
+                        PROFESIONAL_ID, FUTURA, EstadoReserva.CREADA, LocalTime.of(11, 0), LocalTime.of(10, 0)),
+                forma("ReservaRepository.findByClienteId", 400,
+                        () -> reservas.findByClienteId(CLIENTE_ID), CLIENTE_ID),
+                forma("ReservaRepository.findByProfesionalId", 5_000,
+                        () -> reservas.findByProfesionalId(PROFESIONAL_ID), PROFESIONAL_ID),
+                forma("ReservaRepository.findByFecha", 100,
+                        () -> reservas.findByFecha(FUTURA), FUTURA),
+                // Con los clientes y profesionales (ManyToOne EAGER)
+                forma("ReservaRepository.findById", 400,
+                        () -> reservas.findById(ID_INEXISTENTE), ID_INEXISTENTE),
+                forma("ReservaRepository.completarVencidas", 2_000,
+                        () -> reservas.completarVencidas(HOY, MEDIODIA, LOTE),
+                        HOY, HOY, HOY, MEDIODIA, LOTE),
+                forma("ReservaRepository.findFinVencidaMasAntigua", 1_000,
+                        () -> reservas.findFinVencidaMasAntigua(HOY, MEDIODIA), HOY, HOY, MEDIODIA),
+                // ReservaHistoricoRepository
+                forma("ReservaHistoricoRepository.archivarFinalizadasAnterioresA", 1_000,
+                        () -> historico.archivarFinalizadasAnterioresA(LIMITE_ARCHIVO, LOTE),
+                        LIMITE_ARCHIVO, LIMITE_ARCHIVO, LOTE),
+                forma("ReservaHistoricoRepository.findByClienteId", 100,
+                        () -> historico.findByClienteId(CLIENTE_ID), CLIENTE_ID),
+                forma("ReservaHistoricoRepository.findByProfesionalId", 2_000,
+                        () -> historico.findByProfesionalId(PROFESIONAL_ID), PROFESIONAL_ID),
+                // HorarioDisponibleRepository (las consultas por rango, en HorarioDisponiblePlanTest)
+                forma("HorarioDisponibleRepository.findByIdAndFecha", 50,
+                        () -> horarios.findByIdAndFecha(ID_INEXISTENTE, FUTURA), ID_INEXISTENTE, FUTURA, 1),
+                forma("HorarioDisponibleRepository.findByProfesionalId", 10_000,
+                        () -> horarios.findByProfesionalId(PROFESIONAL_ID), PROFESIONAL_ID),
+                forma("HorarioDisponibleRepository.findById", 400,
+                        () -> horarios.findById(ID_INEXISTENTE), ID_INEXISTENTE),
+                // ImportacionRepository: idx_clientes_email_lower (V9). Con archivos de miles de
+                // filas lo correcto pasa a ser un hash join que recorre clientes una vez.
+                new Forma("ImportacionRepository.importarClientes (email ya registrado)", 2_000, false,
+                        null, ImportacionRepository.EMAIL_YA_REGISTRADO, List.of())
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("formas")
+    void planSinRecorridoSecuencialYDentroDelPresupuesto(Forma forma) throws Exception {
+        var sql = forma.llamada() != null ? sqlCapturado.get(forma.nombre()) : forma.sql();
+        var plan = SqlCapturado.explicar(connection, sql, forma.valores());
+        if (!forma.listado()) {
+            assertThat(forma.nombre() + " recorre secuencialmente", recorridosSecuenciales(plan), empty());
+        }
+        assertThat(forma.nombre() + " supera su presupuesto de coste",
+                plan.get("Total Cost").asDouble(), lessThanOrEqualTo(forma.costeMaximo()));
+    }
+
+    /**
+     * Tablas o particiones no pequeñas que el plan recorre secuencialmente. Las particiones
+     * vacías (meses futuros, la DEFAULT) se recorren sin coste y no cuentan.
+     */
+    private List<String> recorridosSecuenciales(JsonNode nodo) throws SQLException {
+        var encontrados = new ArrayList<String>();
+        if ("Seq Scan".equals(nodo.path("Node Type").asText())) {
+            var relacion = nodo.path("Relation Name").asText();
+            if (filasEstimadas(relacion) >= TABLA_PEQUENA) {
+                encontrados.add(relacion);
+            }
+        }
+        for (var hijo : nodo.path("Plans")) {
+            encontrados.addAll(recorridosSecuenciales(hijo));
+        }
+        return encontrados;
+    }
+
+    private double filasEstimadas(String relacion) throws SQLException {
+        try (var st = connection.prepareStatement("SELECT reltuples FROM pg_class WHERE relname = ?")) {
+            st.setString(1, relacion);
+            try (var rs = st.executeQuery()) {
+                return rs.next() ? rs.getDouble(1) : 0;
+            }
+        }
+    }
+
+    private static Forma forma(String nombre, double costeMaximo, Supplier<Uni<?>> llamada, Object... valores) {
+        return new Forma(nombre, costeMaximo, false, llamada, null, List.of(valores));
+    }
+
+    private static Forma listado(String nombre, double costeMaximo, Supplier<Uni<?>> llamada, Object... valores) {
+        return new Forma(nombre, costeMaximo, true, llamada, null, List.of(valores));
+    }
+
+    /**
+     * @param llamada método de repositorio que genera el SQL, o {@code null} si se da {@code sql}
+     */
+    record Forma(String nombre, double costeMaximo, boolean listado,
+                 Supplier<Uni<?>> llamada, String sql, List<Object> valores) {
+
+        @Override
+        public String toString() {
+            return nombre;
+        }
+    }
+}
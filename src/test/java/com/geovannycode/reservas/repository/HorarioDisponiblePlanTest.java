@@ -0,0 +1,154 @@
+package com.geovannycode.reservas.repository;
+
+import com.geovannycode.reservas.infrastructure.observability.EstadisticasConsultas;
+import com.geovannycode.reservas.infrastructure.repository.HorarioDisponibleRepository;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.InjectSpy;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Verificación de planes de ejecución de las consultas por rango de {@code HorarioDisponibleRepository}.
+ * <p>
+ * Captura el SQL que envía cada método (ver {@link SqlCapturado}), carga ~290.000 horarios
+ * (200 profesionales × 365 días × 4 bloques) dentro de una transacción, actualiza estadísticas y
+ * comprueba con {@code EXPLAIN} que cada forma de consulta se poda a una sola partición mensual y
+ * usa su copia del índice GiST {@code idx_horarios_profesional_rango} en lugar de un recorrido
+ * secuencial.
+ * La transacción se revierte al final, así que el resto de pruebas no ve estos datos.
+ */
+@QuarkusTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HorarioDisponiblePlanTest {
+
+    private static final UUID PROFESIONAL_ID = UUID.fromString("f0000000-0000-0000-0000-000000000042");
+    private static final LocalDate FECHA = LocalDate.now().plusDays(180);
+    private static final LocalTime INICIO = LocalTime.of(10, 0);
+    private static final LocalTime FIN = LocalTime.of(11, 0);
+    // :fecha aparece tres veces (filtro y las dos puntas del rango solicitado)
+    private static final List<Object> VALORES = List.of(PROFESIONAL_ID, FECHA, FECHA, INICIO, FECHA, FIN);
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Inject
+    HorarioDisponibleRepository horarios;
+
+    @InjectSpy
+    EstadisticasConsultas estadisticas;
+
+    private final Map<String, String> sqlCapturado = new HashMap<>();
+    private Connection connection;
+
+    /**
+     * Se ejecuta una vez, antes del primer test (el espía no existe aún en un {@code @BeforeAll}).
+     * El SQL se captura antes de cargar: la transacción de carga crea particiones y bloquearía
+     * las consultas del repositorio hasta revertirse.
+     */
+    @BeforeEach
+    void prepararse() throws Throwable {
+        if (connection != null) {
+            return;
+        }
+        capturar("findSolapados", () -> horarios.findSolapados(PROFESIONAL_ID, FECHA, INICIO, FIN));
+        capturar("findDisponibleParaReserva",
+                () -> horarios.findDisponibleParaReserva(PROFESIONAL_ID, FECHA, INICIO, FIN));
+        capturar("findOcupadoPorReserva", () -> horarios.findOcupadoPorReserva(PROFESIONAL_ID, FECHA, INICIO, FIN));
+        capturar("findLibresAdyacentes", () -> horarios.findLibresAdyacentes(PROFESIONAL_ID, FECHA, INICIO, FIN));
+        cargarDatos();
+    }
+
+    private void capturar(String metodo, Supplier<Uni<?>> llamada) throws Throwable {
+        sqlCapturado.put(metodo,
+                SqlCapturado.capturar(estadisticas, "HorarioDisponibleRepository." + metodo, llamada));
+    }
+
+    private void cargarDatos() throws SQLException {
+        connection = dataSource.getConnection();
+        connection.setAutoCommit(false);
+        try (Statement st = connection.createStatement()) {
+            st.execute("""
+                    SELECT crear_particiones_mes(m::date)
+                    FROM generate_series(date_trunc('month', CURRENT_DATE),
+                                         date_trunc('month', CURRENT_DATE + 364), INTERVAL '1 month') m
+                    """);
+            st.execute("""
+                    INSERT INTO profesionales (id, nombres, apellidos, especialidad, estado_activo)
+                    SELECT ('f0000000-0000-0000-0000-' || lpad(p::text, 12, '0'))::uuid,
+                           'Prof ' || p, 'Plan', 'Carga', TRUE
+                    FROM generate_series(1, 200) p
+                    """);
+            st.execute("""
+                    INSERT INTO horarios_disponibles (id, profesional_id, fecha, hora_inicio, hora_fin, estado)
+                    SELECT gen_random_uuid(),
+                           ('f0000000-0000-0000-0000-' || lpad(p::text, 12, '0'))::uuid,
+                           CURRENT_DATE + d,
+                           TIME '08:00' + make_interval(hours => b * 2),
+                           TIME '10:00' + make_interval(hours => b * 2),
+                           b % 2 = 0
+                    FROM generate_series(1, 200) p,
+                         generate_series(0, 364) d,
+                         generate_series(0, 3) b
+                    """);
+            st.execute("ANALYZE profesionales");
+            st.execute("ANALYZE horarios_disponibles");
+        }
+    }
+
+    @AfterAll
+    void revertir() throws SQLException {
+        if (connection != null) {
+            connection.rollback();
+            connection.close();
+        }
+    }
+
+    @Test
+    void findSolapadosUsaIndiceGist() throws Exception {
+        assertUsaIndiceGist("findSolapados");
+    }
+
+    @Test
+    void findDisponibleParaReservaUsaIndiceGist() throws Exception {
+        assertUsaIndiceGist("findDisponibleParaReserva");
+    }
+
+    @Test
+    void findOcupadoPorReservaUsaIndiceGist() throws Exception {
+        assertUsaIndiceGist("findOcupadoPorReserva");
+    }
+
+    @Test
+    void findLibresAdyacentesUsaIndiceGist() throws Exception {
+        assertUsaIndiceGist("findLibresAdyacentes");
+    }
+
+    private void assertUsaIndiceGist(String metodo) throws Exception {
+        var plan = SqlCapturado.explicar(connection, sqlCapturado.get(metodo), VALORES).toString();
+        // Índice GiST de la partición: PostgreSQL lo nombra <partición>_profesional_id_rango_idx
+        assertThat(plan, containsString("_profesional_id_rango_idx"));
+        assertThat(plan, not(containsString("Seq Scan")));
+        assertThat(plan.split("\"Relation Name\"", -1).length - 1, equalTo(1));
+    }
+}
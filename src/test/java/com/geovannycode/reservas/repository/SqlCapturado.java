@@ -0,0 +1,84 @@
+package com.geovannycode.reservas.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geovannycode.reservas.infrastructure.observability.EstadisticasConsultas;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.vertx.VertxContextSupport;
+import io.smallrye.mutiny.Uni;
+import org.hibernate.reactive.mutiny.Mutiny;
+import org.mockito.Mockito;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * SQL real de los repositorios para los tests de planes.
+ * <p>
+ * {@link #capturar} ejecuta un método de repositorio en una transacción que se revierte y
+ * devuelve el primer SQL que anotó {@link EstadisticasConsultas} con ese método como origen: el
+ * texto que genera Hibernate, con parámetros {@code $n}. {@link #explicar} lo prepara con
+ * {@code PREPARE} y lo explica con {@code EXPLAIN EXECUTE} y los valores dados, como una
+ * primera ejecución del pool: plan específico para esos valores, con la poda de particiones al
+ * planificar.
+ */
+final class SqlCapturado {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private SqlCapturado() {
+    }
+
+    /**
+     * @param estadisticas espía de {@link EstadisticasConsultas}
+     * @param origen       {@code Repositorio.metodo} que ejecuta {@code llamada}
+     */
+    static String capturar(EstadisticasConsultas estadisticas, String origen, Supplier<Uni<?>> llamada)
+            throws Throwable {
+        Mockito.clearInvocations(estadisticas);
+        VertxContextSupport.subscribeAndAwait(() -> Panache.withTransaction(() -> llamada.get()
+                .call(() -> Panache.currentTransaction().invoke(Mutiny.Transaction::markForRollback))));
+        return Mockito.mockingDetails(estadisticas).getInvocations().stream()
+                .filter(invocacion -> "registrar".equals(invocacion.getMethod().getName()))
+                .filter(invocacion -> origen.equals(invocacion.getArgument(1)))
+                .map(invocacion -> invocacion.<String>getArgument(0))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No se registró ningún SQL de " + origen));
+    }
+
+    /**
+     * @param valores un valor por cada {@code $n}, en orden
+     * @return el nodo {@code Plan} de {@code EXPLAIN (FORMAT JSON)}
+     */
+    static JsonNode explicar(Connection connection, String sql, List<?> valores) throws Exception {
+        var argumentos = valores.isEmpty() ? "" : valores.stream()
+                .map(SqlCapturado::literal)
+                .collect(Collectors.joining(", ", "(", ")"));
+        try (Statement st = connection.createStatement()) {
+            st.execute("PREPARE forma AS " + sql);
+            JsonNode plan;
+            try (var rs = st.executeQuery("EXPLAIN (FORMAT JSON) EXECUTE forma" + argumentos)) {
+                rs.next();
+                plan = MAPPER.readTree(rs.getString(1)).get(0).get("Plan");
+            }
+            st.execute("DEALLOCATE forma");
+            return plan;
+        }
+    }
+
+    private static String literal(Object valor) {
+        return switch (valor) {
+            case LocalDate fecha -> "DATE '" + fecha + "'";
+            case LocalTime hora -> "TIME '" + hora + "'";
+            case Number numero -> numero.toString();
+            case Boolean booleano -> booleano.toString();
+            case Enum<?> constante -> "'" + constante.name() + "'";
+            default -> "'" + valor.toString().replace("'", "''") + "'";
+        };
+    }
+}
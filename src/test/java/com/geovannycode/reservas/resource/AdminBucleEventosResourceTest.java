@@ -0,0 +1,89 @@
+package com.geovannycode.reservas.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.vertx.core.Vertx;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del monitor de bucles de eventos: configuración expuesta, histograma de retraso y
+ * detección de un bucle bloqueado con su pila.
+ */
+@QuarkusTest
+class AdminBucleEventosResourceTest {
+
+    @Inject
+    Vertx vertx;
+
+    @Test
+    void deberiaExponerConfiguracionBloqueosYRetraso() throws InterruptedException {
+        // Deja que el vigilante complete varias sondas
+        Thread.sleep(300);
+
+        given()
+                .when()
+                .get("/api/admin/bucle-eventos")
+                .then()
+                .statusCode(200)
+                .body("intervaloMs", equalTo(50))
+                .body("umbralMs", equalTo(100))
+                .body("bloqueos", notNullValue());
+
+        given()
+                .when()
+                .get("/q/metrics")
+                .then()
+                .statusCode(200)
+                .body(containsString("reservas_bucle_retraso_seconds_bucket"));
+    }
+
+    @Test
+    void deberiaRegistrarUnBloqueoConLaPilaDelBucle() throws InterruptedException {
+        // Bloquea un bucle 500 ms, cinco veces el umbral de %test
+        vertx.getOrCreateContext().runOnContext(ignorado -> bloquear(500));
+
+        Map<String, Object> bloqueo = null;
+        for (int intento = 0; intento < 50 && bloqueo == null; intento++) {
+            Thread.sleep(100);
+            List<Map<String, Object>> bloqueos = given()
+                    .when()
+                    .get("/api/admin/bucle-eventos")
+                    .then()
+                    .statusCode(200)
+                    .extract()
+                    .path("bloqueos");
+            bloqueo = bloqueos.stream()
+                    .filter(actual -> actual.get("pila").toString().contains("bloquear"))
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        assertTrue(bloqueo != null, "El bloqueo no se registró con la pila del bucle");
+        assertTrue(((Number) bloqueo.get("duracionMs")).longValue() >= 300, "Duración: " + bloqueo.get("duracionMs"));
+        assertTrue(bloqueo.get("hilo").toString().startsWith("vert.x-eventloop-thread-"), "Hilo: " + bloqueo.get("hilo"));
+
+        given()
+                .when()
+                .get("/q/metrics")
+                .then()
+                .statusCode(200)
+                .body(containsString("reservas_bucle_bloqueos_total"));
+    }
+
+    private static void bloquear(long milisegundos) {
+        try {
+            Thread.sleep(milisegundos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.geovannycode.reservas.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+
+/**
+ * Pruebas de las estadísticas de consultas SQL por huella.
+ */
+@QuarkusTest
+class AdminConsultasResourceTest {
+
+    @Test
+    void deberiaAgruparConsultasPorHuella() {
+        given().when().delete("/api/admin/consultas").then().statusCode(204);
+
+        given().when().get("/api/clientes").then().statusCode(200);
+        given().when().get("/api/clientes").then().statusCode(200);
+
+        given()
+                .queryParam("orden", "llamadas")
+                .when()
+                .get("/api/admin/consultas")
+                .then()
+                .statusCode(200)
+                .body("maxHuellas", equalTo(500))
+                .body("desde", notNullValue())
+                .body("consultas", not(empty()))
+                .body("consultas.llamadas", everyItem(greaterThan(0)))
+                .body("consultas.sql", hasItem(containsString("clientes")))
+                // listAll lo hereda ClienteRepository de PanacheRepositoryBase
+                .body("consultas.origen", hasItem("ClienteRepository.listAll"));
+    }
+
+    @Test
+    void deberiaRechazarOrdenDesconocido() {
+        given()
+                .queryParam("orden", "nombre")
+                .when()
+                .get("/api/admin/consultas")
+                .then()
+                .statusCode(400)
+                .body("codigo", equalTo(400));
+    }
+}
@@ -0,0 +1,101 @@
+package com.geovannycode.reservas.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jdk.jfr.EventType;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de la grabación JFR bajo demanda y de los eventos {@code reservas.*}.
+ */
+@QuarkusTest
+class AdminJfrResourceTest {
+
+    // María Fernanda Torres y Sofía Ramírez (V2__demo_data.sql)
+    private static final String PROFESIONAL_ID = "a1000000-0000-0000-0000-000000000002";
+    private static final String CLIENTE_ID = "b2000000-0000-0000-0000-000000000003";
+
+    @Test
+    void deberiaGrabarEventosDeReservasYDescargarElArchivo() throws IOException {
+        given()
+                .queryParam("duracionSegundos", 60)
+                .when()
+                .post("/api/admin/jfr")
+                .then()
+                .statusCode(200)
+                .body("estado", equalTo("RUNNING"));
+
+        given()
+                .when()
+                .post("/api/admin/jfr")
+                .then()
+                .statusCode(409);
+
+        given()
+                .when()
+                .get("/api/profesionales/ranking/por-reservas-activas")
+                .then()
+                .statusCode(200);
+
+        // Sin horario publicado para esa fecha: regla de negocio rechazada
+        given()
+                .contentType(ContentType.JSON)
+                .body(String.format("""
+                        {
+                          "fecha": "%s",
+                          "horaInicio": "07:00",
+                          "horaFin": "08:00",
+                          "clienteId": "%s",
+                          "profesionalId": "%s"
+                        }
+                        """, LocalDate.now().plusYears(3), CLIENTE_ID, PROFESIONAL_ID))
+                .when()
+                .post("/api/reservas")
+                .then()
+                .statusCode(400);
+
+        byte[] contenido = given()
+                .when()
+                .post("/api/admin/jfr/detener")
+                .then()
+                .statusCode(200)
+                .contentType("application/octet-stream")
+                .extract()
+                .asByteArray();
+
+        var archivo = Files.createTempFile("reservas-test-", ".jfr");
+        try {
+            Files.write(archivo, contenido);
+            Set<String> tipos = RecordingFile.readAllEvents(archivo).stream()
+                    .map(RecordedEvent::getEventType)
+                    .map(EventType::getName)
+                    .filter(nombre -> nombre.startsWith("reservas."))
+                    .collect(Collectors.toSet());
+            assertTrue(tipos.containsAll(Set.of(
+                    "reservas.Consulta",
+                    "reservas.CrearReserva",
+                    "reservas.ReglaRechazada",
+                    "reservas.Serializacion")), () -> "Eventos grabados: " + tipos);
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+
+        given()
+                .when()
+                .get("/api/admin/jfr")
+                .then()
+                .statusCode(404);
+    }
+}
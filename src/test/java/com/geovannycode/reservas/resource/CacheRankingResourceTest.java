@@ -0,0 +1,174 @@
+package com.geovannycode.reservas.resource;
+
+import com.geovannycode.reservas.application.dto.response.ProfesionalConReservasResponse;
+import com.geovannycode.reservas.application.service.ReservaService;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.response.Response;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Vertx;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de la caché del ranking con un TTL de 1 s. El servicio es un doble: cada carga tarda
+ * 300 ms y devuelve un ranking con su número de carga, o falla si así se indica. La caché se
+ * comparte entre las pruebas: la primera es la que la encuentra vacía.
+ */
+@QuarkusTest
+@TestProfile(CacheRankingResourceTest.TtlCorto.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CacheRankingResourceTest {
+
+    private static final String RANKING = "/api/profesionales/ranking/por-reservas-activas";
+    private static final long TTL_MS = 1000;
+    private static final long CARGA_MS = 300;
+
+    @InjectMock
+    ReservaService reservaService;
+
+    @Inject
+    Vertx vertx;
+
+    private final AtomicInteger cargas = new AtomicInteger();
+    private final AtomicReference<RuntimeException> fallo = new AtomicReference<>();
+
+    @BeforeEach
+    void simularCargas() {
+        Mockito.when(reservaService.listarProfesionalesPorReservasActivas()).thenAnswer(invocacion ->
+                Uni.createFrom().<List<ProfesionalConReservasResponse>>emitter(emisor -> {
+                    var numero = cargas.incrementAndGet();
+                    vertx.setTimer(CARGA_MS, id -> {
+                        var error = fallo.get();
+                        if (error != null) {
+                            emisor.fail(error);
+                        } else {
+                            emisor.complete(List.of(new ProfesionalConReservasResponse(null, numero)));
+                        }
+                    });
+                }));
+    }
+
+    @Test
+    @Order(1)
+    void deberiaServirLaCopiaObsoletaMientrasRevalidaUnaSolaVez() throws InterruptedException {
+        // Primera carga: las peticiones esperan por ella y la comparten
+        var primeras = enParalelo(3);
+        primeras.forEach(respuesta -> {
+            assertEquals(200, respuesta.statusCode());
+            assertEquals(1, version(respuesta));
+            assertNull(respuesta.header("Warning"));
+        });
+        assertEquals(1, cargas.get());
+
+        // Copia fresca: sin consultar
+        var fresca = pedir();
+        assertEquals(1, version(fresca));
+        assertNull(fresca.header("Warning"));
+        assertEquals(1, cargas.get());
+
+        // Pasado el TTL: todas reciben la copia anterior al instante, con Warning 110 y Age >= 1,
+        // y solo una lanza la recarga
+        Thread.sleep(TTL_MS + 200);
+        var inicio = System.nanoTime();
+        var obsoletas = enParalelo(5);
+        var duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        obsoletas.forEach(respuesta -> {
+            assertEquals(200, respuesta.statusCode());
+            assertEquals(1, version(respuesta));
+            assertTrue(respuesta.header("Warning").startsWith("110 "), respuesta.header("Warning"));
+            assertTrue(Long.parseLong(respuesta.header("Age")) >= 1);
+        });
+        assertTrue(duracionMs < CARGA_MS, "Las peticiones esperaron a la recarga: " + duracionMs + " ms");
+        assertEquals(2, cargas.get());
+
+        // Terminada la recarga se sirve la copia nueva
+        Thread.sleep(CARGA_MS + 200);
+        var nueva = pedir();
+        assertEquals(2, version(nueva));
+        assertNull(nueva.header("Warning"));
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    @Order(2)
+    void deberiaConservarLaUltimaCopiaBuenaSiLaRecargaFalla() throws InterruptedException {
+        // Parte de una copia recién recargada por este doble
+        Thread.sleep(TTL_MS + 200);
+        pedir();
+        Thread.sleep(CARGA_MS + 200);
+        var buena = pedir();
+        assertNull(buena.header("Warning"));
+        var version = version(buena);
+        assertEquals(version, cargas.get());
+
+        Thread.sleep(TTL_MS + 200);
+        fallo.set(new IllegalStateException("Base de datos saturada"));
+        var obsoleta = pedir();
+        assertEquals(version, version(obsoleta));
+        assertTrue(obsoleta.header("Warning").startsWith("110 "));
+        assertEquals(version + 1, cargas.get());
+
+        // La recarga falló: la copia anterior sigue sirviéndose, ahora con Warning 111
+        Thread.sleep(CARGA_MS + 200);
+        var fallida = pedir();
+        assertEquals(200, fallida.statusCode());
+        assertEquals(version, version(fallida));
+        assertTrue(fallida.header("Warning").startsWith("111 "), fallida.header("Warning"));
+
+        // No se reintenta hasta pasado otro TTL
+        pedir();
+        assertEquals(version + 1, cargas.get());
+
+        fallo.set(null);
+        Thread.sleep(TTL_MS + 200);
+        pedir();
+        Thread.sleep(CARGA_MS + 200);
+        var recuperada = pedir();
+        assertEquals(version + 2, cargas.get());
+        assertEquals(version + 2, version(recuperada));
+        assertNull(recuperada.header("Warning"));
+    }
+
+    private static Response pedir() {
+        return given().when().get(RANKING);
+    }
+
+    private static List<Response> enParalelo(int peticiones) {
+        var futuros = IntStream.range(0, peticiones)
+                .mapToObj(i -> CompletableFuture.supplyAsync(CacheRankingResourceTest::pedir))
+                .toList();
+        return futuros.stream().map(CompletableFuture::join).toList();
+    }
+
+    private static long version(Response respuesta) {
+        return respuesta.jsonPath().getLong("[0].totalReservasActivas");
+    }
+
+    public static class TtlCorto implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("reservas.ranking.ttl", "1s");
+        }
+    }
+}
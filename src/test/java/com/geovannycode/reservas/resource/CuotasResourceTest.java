@@ -0,0 +1,68 @@
+package com.geovannycode.reservas.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pruebas de la cuota por cliente y llamante de {@code POST /api/reservas}.
+ */
+@QuarkusTest
+class CuotasResourceTest {
+
+    // Luis Alberto Salazar y Ana Torres (V2__demo_data.sql)
+    private static final String PROFESIONAL_ID = "a1000000-0000-0000-0000-000000000001";
+    private static final String CLIENTE_ID = "b2000000-0000-0000-0000-000000000001";
+
+    @Test
+    void deberiaResponder429AlAgotarLaCuotaDelLlamante() {
+        // Llamante propio: no comparte cubo con las demás pruebas
+        var apiKey = UUID.randomUUID().toString();
+        Response respuesta = null;
+        // La capacidad es 10; se deja margen por la recarga mientras corren las peticiones
+        for (int intento = 0; intento < 30; intento++) {
+            respuesta = crearSinHorario(apiKey);
+            if (respuesta.statusCode() == 429) {
+                break;
+            }
+            // Sin horario publicado: la regla de negocio la rechaza, pero consume cuota
+            assertEquals(400, respuesta.statusCode());
+        }
+
+        respuesta.then()
+                .statusCode(429)
+                .header("Retry-After", notNullValue())
+                .header("X-RateLimit-Limit", equalTo("10"))
+                .header("X-RateLimit-Remaining", equalTo("0"))
+                .body("codigo", equalTo(429));
+
+        // Otro llamante para el mismo cliente tiene su propia cuota
+        crearSinHorario(UUID.randomUUID().toString()).then().statusCode(400);
+    }
+
+    private Response crearSinHorario(String apiKey) {
+        return given()
+                .contentType(ContentType.JSON)
+                .header("X-Api-Key", apiKey)
+                .body(String.format("""
+                        {
+                          "fecha": "%s",
+                          "horaInicio": "07:00",
+                          "horaFin": "08:00",
+                          "clienteId": "%s",
+                          "profesionalId": "%s"
+                        }
+                        """, LocalDate.now().plusYears(3), CLIENTE_ID, PROFESIONAL_ID))
+                .when()
+                .post("/api/reservas");
+    }
+}
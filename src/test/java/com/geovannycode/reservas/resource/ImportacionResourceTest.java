@@ -0,0 +1,142 @@
+package com.geovannycode.reservas.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItems;
+
+/**
+ * Pruebas de integración para {@code ImportacionResource}.
+ * <p>
+ * Valida la carga masiva vía COPY y el reporte de rechazos por validación en conjunto.
+ */
+@QuarkusTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ImportacionResourceTest {
+
+    private static final String PROFESIONAL_CARLOS_ID = "a1000000-0000-0000-0000-000000000003";
+
+    @Test
+    @Order(1)
+    void deberiaImportarClientesYReportarRechazos() {
+        var csv = """
+                nombres,apellidos,email,telefono
+                Lucía,Méndez Ortiz,lucia.mendez@import.com,+57 311 000 1111
+                Lucía,Duplicada,LUCIA.MENDEZ@import.com,+57 311 000 2222
+                Ana,Ya Registrada,ana.torres@email.com,+57 311 000 3333
+                Pedro,Sin Email,no-es-un-email,+57 311 000 4444
+                """;
+
+        given()
+                .contentType("text/csv")
+                .body(csv)
+                .when()
+                .post("/api/importaciones/clientes")
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .body("totalFilas", equalTo(4))
+                .body("importadas", equalTo(1))
+                .body("rechazadas", equalTo(3))
+                .body("rechazos.linea", hasItems(3, 4, 5))
+                .body("rechazos.motivo", hasItems(
+                        "Email duplicado en el archivo",
+                        "Email ya registrado",
+                        "El email no tiene un formato válido"));
+    }
+
+    @Test
+    @Order(2)
+    void deberiaImportarHorariosYRechazarSolapados() {
+        var csv = String.format("""
+                profesional_id,fecha,hora_inicio,hora_fin
+                %1$s,2027-03-01,08:00,10:00
+                %1$s,2027-03-01,09:00,11:00
+                %1$s,2027-03-01,12:00,11:00
+                00000000-0000-0000-0000-000000000099,2027-03-01,08:00,10:00
+                """, PROFESIONAL_CARLOS_ID);
+
+        given()
+                .contentType("text/csv")
+                .body(csv)
+                .when()
+                .post("/api/importaciones/horarios")
+                .then()
+                .statusCode(200)
+                .body("totalFilas", equalTo(4))
+                .body("importadas", equalTo(1))
+                .body("rechazos.motivo", hasItems(
+                        "Se solapa con otra fila del archivo",
+                        "La hora de fin debe ser posterior a la hora de inicio",
+                        "Profesional no encontrado"));
+    }
+
+    @Test
+    @Order(3)
+    void deberiaAceptarBloquesContiguosAunqueSeSolapenConUnaFilaRechazada() {
+        // 09:00-10:30 se rechaza por solaparse con 09:00-10:00; 10:00-11:00 solo se solaparía con
+        // la fila rechazada y comparte con 09:00-10:00 únicamente el extremo
+        var csv = String.format("""
+                profesional_id,fecha,hora_inicio,hora_fin
+                %1$s,2027-03-02,09:00,10:00
+                %1$s,2027-03-02,09:00,10:30
+                %1$s,2027-03-02,10:00,11:00
+                """, PROFESIONAL_CARLOS_ID);
+
+        given()
+                .contentType("text/csv")
+                .body(csv)
+                .when()
+                .post("/api/importaciones/horarios")
+                .then()
+                .statusCode(200)
+                .body("totalFilas", equalTo(3))
+                .body("importadas", equalTo(2))
+                .body("rechazos.linea", contains(3))
+                .body("rechazos.motivo", contains("Se solapa con otra fila del archivo"));
+    }
+
+    @Test
+    @Order(4)
+    void deberiaRechazarArchivoConCabeceraIncorrecta() {
+        var csv = """
+                nombre,apellidos,email,telefono
+                Lucía,Méndez Ortiz,lucia.cabecera@import.com,+57 311 000 1111
+                """;
+
+        given()
+                .contentType("text/csv")
+                .body(csv)
+                .when()
+                .post("/api/importaciones/clientes")
+                .then()
+                .statusCode(400)
+                .body("mensaje", containsString("nombres"));
+    }
+
+    @Test
+    @Order(5)
+    void deberiaRechazarArchivoConColumnasIncorrectas() {
+        var csv = """
+                nombres,apellidos,email,telefono
+                Solo,Tres,columnas
+                """;
+
+        given()
+                .contentType("text/csv")
+                .body(csv)
+                .when()
+                .post("/api/importaciones/clientes")
+                .then()
+                .statusCode(400)
+                .body("mensaje", containsString("CSV"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.geovannycode.reservas.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de las métricas expuestas en {@code /q/metrics}: latencia por endpoint y por
+ * consulta, resultados de negocio, pools reactivos (principal y de reportes), Fault Tolerance,
+ * agrupación de peticiones y limitador de concurrencia.
+ */
+@QuarkusTest
+class MetricasResourceTest {
+
+    // Luis Alberto Salazar y Ana Torres (V2__demo_data.sql)
+    private static final String PROFESIONAL_ID = "a1000000-0000-0000-0000-000000000001";
+    private static final String CLIENTE_ID = "b2000000-0000-0000-0000-000000000001";
+    private static final String POR_FECHA =
+            "com.geovannycode.reservas.application.service.ReservaService.listarReservasPorFecha";
+
+    @Test
+    void deberiaExponerMetricasDeEndpointsConsultasResultadosYPool() {
+        // Sin horario publicado para esa fecha: la reserva se rechaza
+        given()
+                .contentType(ContentType.JSON)
+                .body(String.format("""
+                        {
+                          "fecha": "%s",
+                          "horaInicio": "07:00",
+                          "horaFin": "08:00",
+                          "clienteId": "%s",
+                          "profesionalId": "%s"
+                        }
+                        """, LocalDate.now().plusYears(3), CLIENTE_ID, PROFESIONAL_ID))
+                .when()
+                .post("/api/reservas")
+                .then()
+                .statusCode(400);
+
+        given()
+                .when()
+                .get("/api/profesionales/ranking/por-reservas-activas")
+                .then()
+                .statusCode(200);
+
+        given()
+                .when()
+                .get("/api/reservas/agrupadas/por-fecha")
+                .then()
+                .statusCode(200);
+
+        var metricas = given()
+                .when()
+                .get("/q/metrics")
+                .then()
+                .statusCode(200)
+                .extract().asString();
+
+        // Endpoints: ruta plantilla, método y estado
+        assertTrue(valor(metricas, "http_server_requests_seconds_count",
+                "method=\"POST\"", "status=\"400\"", "uri=\"/api/reservas\"") >= 1);
+        assertTrue(valor(metricas, "http_server_requests_seconds_count",
+                "method=\"GET\"", "status=\"200\"", "uri=\"/api/reservas/agrupadas/por-fecha\"") >= 1);
+        assertTrue(metricas.contains("http_server_requests_seconds_bucket"));
+
+        // Consultas: por método y por repositorio real
+        assertTrue(valor(metricas, "reservas_consultas_seconds_count",
+                "metodo=\"findAllActivas\"", "resultado=\"ok\"") >= 1);
+        // findById es heredado de Panache: la etiqueta es el repositorio, no PanacheRepositoryBase
+        assertTrue(valor(metricas, "reservas_consultas_seconds_count",
+                "metodo=\"findById\"", "repositorio=\"ProfesionalRepository\"") >= 1);
+        assertFalse(metricas.contains("repositorio=\"PanacheRepositoryBase\""));
+        assertTrue(metricas.contains("reservas_consultas_seconds_bucket"));
+
+        // Resultado de negocio de la reserva rechazada
+        assertTrue(valor(metricas, "reservas_resultado_total",
+                "operacion=\"crear\"", "resultado=\"HorarioNoDisponibleException\"") >= 1);
+
+        // Pool principal y pool de reportes: el ranking y por-fecha salen de "reportes"
+        assertTrue(valor(metricas, "sql_pool_queue_delay_seconds_count", "pool_name=\"reservas\"") >= 1);
+        assertTrue(valor(metricas, "sql_pool_queue_delay_seconds_count", "pool_name=\"reportes\"") >= 1);
+        assertTrue(valor(metricas, "sql_pool_queue_size", "pool_name=\"reservas\"") >= 0);
+
+        // Bulkhead de los reportes: la llamada a por-fecha entró y terminó bien
+        assertTrue(valor(metricas, "ft_bulkhead_calls_total", "bulkheadResult=\"accepted\"",
+                "method=\"" + POR_FECHA + "\"") >= 1);
+        assertTrue(valor(metricas, "ft_invocations_total", "method=\"" + POR_FECHA + "\"",
+                "result=\"valueReturned\"") >= 1);
+
+        // Agrupación: la petición a por-fecha fue líder de su consulta
+        assertTrue(valor(metricas, "reservas_agrupacion_peticiones_total",
+                "endpoint=\"por-fecha\"", "rol=\"lider\"") >= 1);
+
+        // Limitador: el límite está dentro de sus cotas
+        var limite = valor(metricas, "reservas_concurrencia_limite");
+        assertTrue(limite >= 4 && limite <= 200, "límite fuera de [4, 200]: " + limite);
+        var enCurso = valor(metricas, "reservas_concurrencia_en_curso");
+        assertTrue(enCurso >= 0 && enCurso <= limite, "en curso: " + enCurso);
+    }
+
+    /**
+     * Valor de la primera serie de {@code nombre} con todas las etiquetas dadas.
+     */
+    private static double valor(String metricas, String nombre, String... etiquetas) {
+        return metricas.lines()
+                .filter(linea -> linea.startsWith(nombre + "{") || linea.startsWith(nombre + " "))
+                .filter(linea -> Arrays.stream(etiquetas).allMatch(linea::contains))
+                .findFirst()
+                .map(linea -> Double.parseDouble(linea.substring(linea.lastIndexOf(' ') + 1)))
+                .orElseThrow(() -> new AssertionError("Sin serie " + nombre + " " + Arrays.toString(etiquetas)));
+    }
+}
@@ -0,0 +1,93 @@
+package com.geovannycode.reservas.resource;
+
+import com.geovannycode.reservas.domain.model.HorarioDisponible;
+import com.geovannycode.reservas.infrastructure.datasource.PlazoFilter;
+import com.geovannycode.reservas.infrastructure.repository.HorarioDisponibleRepository;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.InjectSpy;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del plazo de una petición ({@value PlazoFilter#CABECERA}). Con la consulta en curso,
+ * al vencer, PostgreSQL cancela el {@code pg_sleep} (SQLSTATE 57014) y la petición responde 504
+ * sin esperar a que termine.
+ */
+@QuarkusTest
+class PlazoResourceTest {
+
+    // Luis Salazar (V2__demo_data.sql), con horarios de demo
+    private static final String PROFESIONAL_LUIS_ID = "a1000000-0000-0000-0000-000000000001";
+
+    @InjectSpy
+    HorarioDisponibleRepository horarioRepository;
+
+    @Test
+    void deberiaResponderDentroDelPlazoPedido() {
+        given()
+                .header(PlazoFilter.CABECERA, "5000")
+                .when()
+                .get("/api/horarios/profesional/" + PROFESIONAL_LUIS_ID)
+                .then()
+                .statusCode(200)
+                .body("$", not(empty()));
+    }
+
+    @Test
+    void deberiaRechazarPlazoInvalido() {
+        given()
+                .header(PlazoFilter.CABECERA, "-1")
+                .when()
+                .get("/api/horarios/profesional/" + PROFESIONAL_LUIS_ID)
+                .then()
+                .statusCode(400)
+                .body("codigo", equalTo(400));
+    }
+
+    @Test
+    void deberiaCancelarLaConsultaYResponder504AlVencerElPlazo() {
+        Mockito.doAnswer(invocacion -> horarioRepository.getSession()
+                        .chain(sesion -> sesion.createNativeQuery("SELECT 1 FROM pg_sleep(10)").getSingleResult())
+                        .replaceWith(List.<HorarioDisponible>of()))
+                .when(horarioRepository).listAll();
+        var canceladasAntes = contador("reservas_plazo_consultas_canceladas_total");
+
+        var inicio = System.nanoTime();
+        var respuesta = given()
+                .header(PlazoFilter.CABECERA, "300")
+                .when()
+                .get("/api/horarios");
+        var milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertEquals(504, respuesta.statusCode(), respuesta.asString());
+        assertEquals(504, respuesta.jsonPath().getInt("codigo"));
+        assertTrue(milisegundos < 5_000, "Respondió en " + milisegundos + " ms: la consulta no se canceló");
+        assertEquals(canceladasAntes + 1, contador("reservas_plazo_consultas_canceladas_total"));
+        assertTrue(contador("reservas_plazo_cancelaciones_total{motivo=\"vencido\"") >= 1);
+    }
+
+    /**
+     * Suma de las series que empiezan por {@code prefijo}; 0 si aún no existe ninguna.
+     */
+    private static double contador(String prefijo) {
+        return given()
+                .when()
+                .get("/q/metrics")
+                .then()
+                .statusCode(200)
+                .extract().asString()
+                .lines()
+                .filter(linea -> linea.startsWith(prefijo))
+                .mapToDouble(linea -> Double.parseDouble(linea.substring(linea.lastIndexOf(' ') + 1)))
+                .sum();
+    }
+}
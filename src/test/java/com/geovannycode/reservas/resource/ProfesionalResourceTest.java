@@ -158,6 +158,7 @@ class ProfesionalResourceTest {
                 .then()
                 .statusCode(200)
                 .contentType(ContentType.JSON)
+                .header("Age", notNullValue())
                 .body("$", instanceOf(java.util.List.class));
         // El primer elemento debe tener más reservas que el siguiente
         // (verificado implícitamente por el orden descendente)
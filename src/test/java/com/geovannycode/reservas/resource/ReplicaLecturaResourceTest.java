@@ -0,0 +1,189 @@
+package com.geovannycode.reservas.resource;
+
+import com.geovannycode.reservas.infrastructure.datasource.EstadoReplica;
+import com.geovannycode.reservas.infrastructure.datasource.LsnMinimoFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.junit.mockito.InjectSpy;
+import io.restassured.http.ContentType;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+/**
+ * Pruebas del enrutado de lecturas a la réplica. La "réplica" es la propia base de datos de
+ * test y su estado se fija con un espía: disponible y con el WAL aplicado hasta
+ * {@value #LSN_APLICADO}.
+ */
+@QuarkusTest
+@TestProfile(ReplicaLecturaResourceTest.ConReplica.class)
+class ReplicaLecturaResourceTest {
+
+    private static final String LSN_APLICADO = "0/3000000";
+
+    @InjectSpy
+    EstadoReplica estadoReplica;
+
+    @Inject
+    MeterRegistry registry;
+
+    @BeforeEach
+    void fijarEstado() {
+        var aplicado = EstadoReplica.parsearLsn(LSN_APLICADO);
+        Mockito.doReturn(true).when(estadoReplica).disponible();
+        Mockito.doAnswer(invocacion -> invocacion.<Long>getArgument(0) <= aplicado)
+                .when(estadoReplica).alcanzo(anyLong());
+    }
+
+    @Test
+    void deberiaEnviarLasLecturasALaReplica() {
+        var antes = lecturas("replica", "lectura");
+
+        given()
+                .when()
+                .get("/api/clientes")
+                .then()
+                .statusCode(200)
+                .body("$", not(empty()));
+
+        assertEquals(antes + 1, lecturas("replica", "lectura"));
+    }
+
+    @Test
+    void deberiaLeerDelPrimarioHastaQueLaReplicaAlcanceElLsnDeLaCabecera() {
+        var replica = lecturas("replica", "lectura");
+        var primario = lecturas("primario", "leer-escrituras");
+
+        given()
+                .header(LsnMinimoFilter.CABECERA, "0/3000001")
+                .when()
+                .get("/api/clientes")
+                .then()
+                .statusCode(200);
+
+        assertEquals(primario + 1, lecturas("primario", "leer-escrituras"));
+        Mockito.verify(estadoReplica).alcanzo(EstadoReplica.parsearLsn("0/3000001"));
+
+        given()
+                .header(LsnMinimoFilter.CABECERA, LSN_APLICADO)
+                .when()
+                .get("/api/clientes")
+                .then()
+                .statusCode(200);
+
+        assertEquals(replica + 1, lecturas("replica", "lectura"));
+    }
+
+    @Test
+    void deberiaRechazarUnaCabeceraLsnMalFormada() {
+        given()
+                .header(LsnMinimoFilter.CABECERA, "basura")
+                .when()
+                .get("/api/clientes")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    void deberiaEscribirSiempreEnElPrimario() {
+        var total = registry.find("reservas.lecturas").counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {
+                          "nombres": "Réplica",
+                          "apellidos": "De Prueba",
+                          "email": "replica.prueba@email.com",
+                          "telefono": "+57 300 000 0000",
+                          "estadoActivo": true
+                        }
+                        """)
+                .when()
+                .post("/api/clientes")
+                .then()
+                .statusCode(201);
+
+        // Las escrituras no pasan por la decisión de lectura
+        assertEquals(total, registry.find("reservas.lecturas").counters().stream()
+                .mapToDouble(Counter::count)
+                .sum());
+    }
+
+    @Test
+    void deberiaConfirmarLaReservaAunqueNoSePuedaLeerElLsnDelPrimario() {
+        // Ana Paredes y Carlos Gutiérrez (V2__demo_data.sql), en una fecha sin horarios de demo
+        var fecha = LocalDate.now().plusDays(22);
+        given()
+                .contentType(ContentType.JSON)
+                .body(String.format("""
+                        {
+                          "profesionalId": "a1000000-0000-0000-0000-000000000004",
+                          "fecha": "%s",
+                          "horaInicio": "09:00",
+                          "horaFin": "10:00"
+                        }
+                        """, fecha))
+                .when()
+                .post("/api/horarios")
+                .then()
+                .statusCode(201);
+        Mockito.doReturn(Uni.createFrom().failure(new IllegalStateException("primario caído")))
+                .when(estadoReplica).lsnPrimario();
+
+        // La reserva ya se confirmó: 201 sin la cabecera, no un 500 que invite a repetirla
+        given()
+                .contentType(ContentType.JSON)
+                .body(String.format("""
+                        {
+                          "fecha": "%s",
+                          "horaInicio": "09:00",
+                          "horaFin": "10:00",
+                          "clienteId": "b2000000-0000-0000-0000-000000000004",
+                          "profesionalId": "a1000000-0000-0000-0000-000000000004"
+                        }
+                        """, fecha))
+                .when()
+                .post("/api/reservas")
+                .then()
+                .statusCode(201)
+                .header(LsnMinimoFilter.CABECERA, nullValue());
+    }
+
+    private double lecturas(String destino, String motivo) {
+        var contador = registry.find("reservas.lecturas").tags("destino", destino, "motivo", motivo).counter();
+        return contador == null ? 0 : contador.count();
+    }
+
+    /**
+     * Habilita la réplica apuntando a la base de datos de Dev Services.
+     */
+    public static class ConReplica implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "reservas.replica.habilitada", "true",
+                    "quarkus.datasource.replica.reactive.url", "${quarkus.datasource.reactive.url}",
+                    "quarkus.datasource.replica.username", "${quarkus.datasource.username}",
+                    "quarkus.datasource.replica.password", "${quarkus.datasource.password}");
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.geovannycode.reservas.resource;
+
+import com.geovannycode.reservas.domain.model.Reserva;
+import com.geovannycode.reservas.infrastructure.datasource.LsnMinimoFilter;
+import com.geovannycode.reservas.infrastructure.repository.ReservaRepository;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.junit.mockito.InjectSpy;
+import io.restassured.response.Response;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Vertx;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Prueba del {@code @Bulkhead} de los reportes con una plaza y una en cola: con la consulta
+ * ralentizada, la tercera petición simultánea se rechaza con 503 y {@code Retry-After}.
+ */
+@QuarkusTest
+@TestProfile(ReportesBulkheadResourceTest.BulkheadMinimo.class)
+class ReportesBulkheadResourceTest {
+
+    private static final String METODO =
+            "\"com.geovannycode.reservas.application.service.ReservaService/listarReservasPorFecha\"";
+
+    @InjectSpy
+    ReservaRepository reservaRepository;
+
+    @Inject
+    Vertx vertx;
+
+    @Test
+    void deberiaRechazarConRetryAfterCuandoElBulkheadEstaLleno() {
+        // La consulta tarda 1,5 s; el temporizador corre en el contexto de la petición
+        Mockito.doAnswer(invocacion -> Uni.createFrom().<List<Reserva>>emitter(emisor ->
+                        vertx.setTimer(1500, id -> emisor.complete(List.of()))))
+                .when(reservaRepository).findAllActivas();
+
+        // Un LSN distinto por petición para que la agrupación no las junte en una sola consulta
+        var peticiones = IntStream.rangeClosed(1, 3)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> given()
+                        .header(LsnMinimoFilter.CABECERA, "0/" + i)
+                        .when()
+                        .get("/api/reservas/agrupadas/por-fecha")))
+                .toList();
+        var respuestas = peticiones.stream().map(CompletableFuture::join).toList();
+
+        var rechazadas = respuestas.stream().filter(respuesta -> respuesta.statusCode() == 503).toList();
+        assertEquals(2, respuestas.stream().filter(respuesta -> respuesta.statusCode() == 200).count(),
+                "Estados: " + respuestas.stream().map(Response::statusCode).toList());
+        assertEquals(1, rechazadas.size());
+        assertEquals("1", rechazadas.get(0).header("Retry-After"));
+        assertEquals(503, rechazadas.get(0).jsonPath().getInt("codigo"));
+    }
+
+    public static class BulkheadMinimo implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "quarkus.fault-tolerance." + METODO + ".bulkhead.value", "1",
+                    "quarkus.fault-tolerance." + METODO + ".bulkhead.waiting-task-queue", "1");
+        }
+    }
+}
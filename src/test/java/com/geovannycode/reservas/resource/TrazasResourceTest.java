@@ -0,0 +1,127 @@
+package com.geovannycode.reservas.resource;
+
+import com.geovannycode.reservas.infrastructure.observability.Trazas;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de las trazas OpenTelemetry de la creación de reservas, con un exportador en memoria.
+ */
+@QuarkusTest
+class TrazasResourceTest {
+
+    // Carlos Mendoza y Marco Díaz (V2__demo_data.sql)
+    private static final String PROFESIONAL_ID = "a1000000-0000-0000-0000-000000000003";
+    private static final String CLIENTE_ID = "b2000000-0000-0000-0000-000000000002";
+
+    private static final Set<String> ETAPAS = Set.of(
+            "reserva.profesional", "reserva.cliente", "reserva.horario",
+            "reserva.solapamiento", "reserva.persistir", "reserva.commit");
+
+    // Etapas que lanzan al menos una consulta SQL
+    private static final Set<String> ETAPAS_CON_CONSULTA = Set.of(
+            "reserva.profesional", "reserva.cliente", "reserva.horario", "reserva.solapamiento");
+
+    @Inject
+    InMemorySpanExporter exportador;
+
+    @Test
+    void deberiaTrazarCadaEtapaDeLaCreacionDeReserva() throws InterruptedException {
+        var fecha = LocalDate.now().plusDays(45);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(String.format("""
+                        {
+                          "profesionalId": "%s",
+                          "fecha": "%s",
+                          "horaInicio": "06:00",
+                          "horaFin": "07:00"
+                        }
+                        """, PROFESIONAL_ID, fecha))
+                .when()
+                .post("/api/horarios")
+                .then()
+                .statusCode(201);
+
+        exportador.reset();
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(String.format("""
+                        {
+                          "fecha": "%s",
+                          "horaInicio": "06:00",
+                          "horaFin": "07:00",
+                          "clienteId": "%s",
+                          "profesionalId": "%s"
+                        }
+                        """, fecha, CLIENTE_ID, PROFESIONAL_ID))
+                .when()
+                .post("/api/reservas")
+                .then()
+                .statusCode(201);
+
+        var spans = esperarSpans();
+        var servidor = spans.stream()
+                .filter(span -> PROFESIONAL_ID.equals(span.getAttributes().get(Trazas.PROFESIONAL_ID)))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("ok", servidor.getAttributes().get(Trazas.RESULTADO));
+
+        var etapas = spans.stream()
+                .filter(span -> ETAPAS.contains(span.getName()))
+                .toList();
+        assertEquals(ETAPAS, etapas.stream().map(SpanData::getName).collect(Collectors.toSet()));
+        assertTrue(etapas.stream().allMatch(span ->
+                span.getTraceId().equals(servidor.getTraceId())
+                        && "ok".equals(span.getAttributes().get(Trazas.RESULTADO))));
+
+        // El span de la etapa es el actual mientras dura: los spans SQL cuelgan de él
+        var padres = spans.stream().map(SpanData::getParentSpanId).collect(Collectors.toSet());
+        assertTrue(etapas.stream()
+                        .filter(span -> ETAPAS_CON_CONSULTA.contains(span.getName()))
+                        .allMatch(span -> padres.contains(span.getSpanId())),
+                "Etapas sin spans hijos");
+    }
+
+    /**
+     * Los spans se exportan por lotes; espera a que llegue el último (el de servidor).
+     */
+    private List<SpanData> esperarSpans() throws InterruptedException {
+        for (int intento = 0; intento < 50; intento++) {
+            var spans = exportador.getFinishedSpanItems();
+            if (spans.stream().anyMatch(span -> span.getAttributes().get(Trazas.PROFESIONAL_ID) != null)) {
+                return spans;
+            }
+            Thread.sleep(100);
+        }
+        return exportador.getFinishedSpanItems();
+    }
+
+    @ApplicationScoped
+    static class ExportadorEnMemoria {
+
+        @Produces
+        @Singleton
+        InMemorySpanExporter exportador() {
+            return InMemorySpanExporter.create();
+        }
+    }
+}
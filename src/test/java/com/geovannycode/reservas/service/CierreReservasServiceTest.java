@@ -0,0 +1,91 @@
+package com.geovannycode.reservas.service;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Pruebas del cierre automático de reservas vencidas ({@code CompletarReservasJob}).
+ * <p>
+ * En el perfil de test el job se ejecuta cada segundo, así que basta con crear una reserva
+ * en el pasado y esperar a que pase a {@code COMPLETADA}.
+ */
+@QuarkusTest
+class CierreReservasServiceTest {
+
+    // Ana Paredes y Sofía Ramírez (V2__demo_data.sql), sin horarios en fechas pasadas
+    private static final String PROFESIONAL_ID = "a1000000-0000-0000-0000-000000000004";
+    private static final String CLIENTE_ID = "b2000000-0000-0000-0000-000000000003";
+    private static final String RESERVA_FUTURA_ID = "d4000000-0000-0000-0000-000000000001";
+
+    @Test
+    void deberiaCompletarReservasVencidasYExponerMetricas() throws InterruptedException {
+        var ayer = LocalDate.now().minusDays(1);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(String.format("""
+                        {
+                          "profesionalId": "%s",
+                          "fecha": "%s",
+                          "horaInicio": "10:00",
+                          "horaFin": "11:00"
+                        }
+                        """, PROFESIONAL_ID, ayer))
+                .when()
+                .post("/api/horarios")
+                .then()
+                .statusCode(201);
+
+        String reservaId = given()
+                .contentType(ContentType.JSON)
+                .body(String.format("""
+                        {
+                          "fecha": "%s",
+                          "horaInicio": "10:00",
+                          "horaFin": "11:00",
+                          "clienteId": "%s",
+                          "profesionalId": "%s"
+                        }
+                        """, ayer, CLIENTE_ID, PROFESIONAL_ID))
+                .when()
+                .post("/api/reservas")
+                .then()
+                .statusCode(201)
+                .extract()
+                .path("id");
+
+        var estado = "CREADA";
+        for (int intento = 0; intento < 50 && "CREADA".equals(estado); intento++) {
+            Thread.sleep(200);
+            estado = given().when().get("/api/reservas/" + reservaId).then().extract().path("estado");
+        }
+        assertEstado(reservaId, "COMPLETADA");
+
+        // Las reservas futuras siguen activas
+        assertEstado(RESERVA_FUTURA_ID, "CREADA");
+
+        given()
+                .when()
+                .get("/q/metrics")
+                .then()
+                .statusCode(200)
+                .body(containsString("reservas_completadas_total"))
+                .body(containsString("reservas_completado_retraso"));
+    }
+
+    private void assertEstado(String reservaId, String estado) {
+        given()
+                .when()
+                .get("/api/reservas/" + reservaId)
+                .then()
+                .statusCode(200)
+                .body("estado", equalTo(estado));
+    }
+}
@@ -0,0 +1,105 @@
+package com.geovannycode.reservas.service;
+
+import com.geovannycode.reservas.application.service.HistorialReservasService;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.vertx.core.runtime.context.VertxContextSafetyToggle;
+import io.smallrye.common.vertx.VertxContext;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Pruebas del archivo de reservas finalizadas y del historial combinado.
+ * <p>
+ * En el perfil de test {@code ArchivarReservasJob} está desactivado para no mover datos de
+ * otras pruebas; aquí se archiva un lote con una antigüedad de 3 días, de modo que la reserva
+ * cancelada de demo (hace 5 días) pasa a {@code reservas_historico}.
+ */
+@QuarkusTest
+class HistorialReservasServiceTest {
+
+    // Reserva CANCELADA en CURRENT_DATE - 5: Carlos Gutiérrez con Ana Paredes (V2__demo_data.sql)
+    private static final String RESERVA_CANCELADA_ID = "d4000000-0000-0000-0000-000000000004";
+    private static final String CLIENTE_ID = "b2000000-0000-0000-0000-000000000004";
+    private static final String PROFESIONAL_ID = "a1000000-0000-0000-0000-000000000004";
+    // Reserva COMPLETADA en CURRENT_DATE - 2 (V2__demo_data.sql)
+    private static final String RESERVA_COMPLETADA_ID = "d4000000-0000-0000-0000-000000000005";
+
+    @Inject
+    HistorialReservasService historialService;
+
+    @Inject
+    Vertx vertx;
+
+    @Test
+    void deberiaIncluirReservasArchivadasEnElHistorial() {
+        archivarLote(LocalDate.now().minusDays(3));
+
+        // Ya no está en la tabla viva...
+        given()
+                .when()
+                .get("/api/reservas")
+                .then()
+                .statusCode(200)
+                .body("id", not(hasItem(RESERVA_CANCELADA_ID)));
+
+        // ...pero sigue en el historial del cliente y del profesional
+        given()
+                .when()
+                .get("/api/clientes/" + CLIENTE_ID + "/reservas")
+                .then()
+                .statusCode(200)
+                .body("find { it.id == '" + RESERVA_CANCELADA_ID + "' }.estado", equalTo("CANCELADA"));
+
+        given()
+                .when()
+                .get("/api/profesionales/" + PROFESIONAL_ID + "/reservas")
+                .then()
+                .statusCode(200)
+                .body("id", hasItem(RESERVA_CANCELADA_ID));
+    }
+
+    @Test
+    void deberiaConservarLasReservasFinalizadasMasRecientesQueElLimite() {
+        // La reserva completada de demo es de hace 2 días
+        archivarLote(LocalDate.now().minusDays(3));
+
+        given()
+                .when()
+                .get("/api/reservas")
+                .then()
+                .statusCode(200)
+                .body("id", hasItem(RESERVA_COMPLETADA_ID));
+    }
+
+    @Test
+    void deberiaRetornar404ParaHistorialDeClienteInexistente() {
+        given()
+                .when()
+                .get("/api/clientes/00000000-0000-0000-0000-000000000099/reservas")
+                .then()
+                .statusCode(404);
+    }
+
+    /**
+     * Ejecuta un lote del archivo como lo hace el job: en un contexto duplicado de Vert.x,
+     * que es donde Hibernate Reactive puede abrir la transacción.
+     */
+    private int archivarLote(LocalDate limite) {
+        Context contexto = VertxContext.createNewDuplicatedContext(vertx.getOrCreateContext());
+        VertxContextSafetyToggle.setContextSafe(contexto, true);
+        return Uni.createFrom().<Integer>emitter(emisor -> contexto.runOnContext(ignorado ->
+                        historialService.archivarLote(limite, 1000).subscribe().with(emisor::complete, emisor::fail)))
+                .await().atMost(Duration.ofSeconds(10));
+    }
+}
@@ -2,16 +2,21 @@ package com.geovannycode.reservas.service;
 
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 
+import java.time.LocalDate;
+
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.anyOf;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.not;
 
@@ -24,6 +29,7 @@ import static org.hamcrest.Matchers.not;
  *   <li>Rechazo cuando no hay horario disponible.</li>
  *   <li>Rechazo cuando el profesional o cliente está inactivo.</li>
  *   <li>Cancelación de reserva y liberación de disponibilidad.</li>
+ *   <li>División del bloque horario al reservar y fusión de fragmentos al cancelar.</li>
  *   <li>Consulta funcional de reservas agrupadas por fecha.</li>
  * </ul>
  */
@@ -37,6 +43,11 @@ class ReservaServiceTest {
     private static final String PROFESIONAL_INACTIVO_ID  = "a1000000-0000-0000-0000-000000000005";
     private static final String CLIENTE_INACTIVO_ID      = "b2000000-0000-0000-0000-000000000005";
     private static final String RESERVA_ACTIVA_ID        = "d4000000-0000-0000-0000-000000000001";
+    private static final String RESERVA_COMPARTIDA_ID    = "d4000000-0000-0000-0000-000000000002";
+
+    // Carlos Mendoza tiene libre el bloque 14:00-18:00 en CURRENT_DATE + 2 (V2__demo_data.sql)
+    private static final String PROFESIONAL_BLOQUE_ID    = "a1000000-0000-0000-0000-000000000003";
+    private static final String CLIENTE_BLOQUE_ID        = "b2000000-0000-0000-0000-000000000002";
 
     private static String reservaCreadaId;
 
@@ -222,4 +233,103 @@ class ReservaServiceTest {
                 .statusCode(200)
                 .body("$", instanceOf(java.util.List.class));
     }
+
+    // --- División y fusión de bloques horarios ---
+
+    @Test
+    @Order(12)
+    void deberiaPermitirVariasReservasDentroDelMismoBloque() {
+        reservaCreadaId = crearReservaEnBloque("14:00:00", "15:00:00")
+                .statusCode(201)
+                .extract()
+                .path("id");
+
+        // Antes de dividir bloques, el resto de la tarde quedaba marcado como ocupado
+        crearReservaEnBloque("16:00:00", "17:00:00")
+                .statusCode(201);
+    }
+
+    @Test
+    @Order(13)
+    void deberiaDejarLibresLosFragmentosNoReservados() {
+        var fecha = LocalDate.now().plusDays(2).toString();
+
+        given()
+                .when()
+                .get("/api/horarios/profesional/" + PROFESIONAL_BLOQUE_ID)
+                .then()
+                .statusCode(200)
+                .body("findAll { it.fecha == '" + fecha + "' && it.estado }.horaInicio",
+                        hasItems("15:00:00", "17:00:00"))
+                .body("findAll { it.fecha == '" + fecha + "' && !it.estado }.horaInicio",
+                        hasItems("14:00:00", "16:00:00"));
+    }
+
+    @Test
+    @Order(14)
+    void deberiaFusionarElBloqueLiberadoConLosFragmentosContiguos() {
+        var fecha = LocalDate.now().plusDays(2).toString();
+
+        given()
+                .when()
+                .patch("/api/reservas/" + reservaCreadaId + "/cancelar")
+                .then()
+                .statusCode(200)
+                .body("estado", equalTo("CANCELADA"));
+
+        // 14:00-15:00 liberado se une con 15:00-16:00 en un único bloque libre
+        given()
+                .when()
+                .get("/api/horarios/profesional/" + PROFESIONAL_BLOQUE_ID)
+                .then()
+                .statusCode(200)
+                .body("findAll { it.fecha == '" + fecha + "' && it.estado && it.horaInicio == '14:00:00' }.horaFin",
+                        hasItems("16:00:00"));
+    }
+
+    @Test
+    @Order(15)
+    void deberiaLiberarLaSegundaReservaDeUnBloqueCompartido() {
+        // RESERVA_ACTIVA_ID (09:00-10:00) y ésta (10:00-11:00) comparten el bloque ocupado
+        // 09:00-13:00, así que V3 no las asocia; el paso 8 ya canceló la primera y recortó el bloque
+        var fecha = LocalDate.now().plusDays(2).toString();
+
+        given()
+                .when()
+                .patch("/api/reservas/" + RESERVA_COMPARTIDA_ID + "/cancelar")
+                .then()
+                .statusCode(200)
+                .body("estado", equalTo("CANCELADA"));
+
+        given()
+                .when()
+                .get("/api/horarios/profesional/" + PROFESIONAL_ACTIVO_ID)
+                .then()
+                .statusCode(200)
+                .body("findAll { it.fecha == '" + fecha + "' && it.estado && it.horaInicio == '09:00:00' }.horaFin",
+                        contains("11:00:00"))
+                .body("findAll { it.fecha == '" + fecha + "' && !it.estado }.horaInicio",
+                        contains("11:00:00"))
+                .body("findAll { it.fecha == '" + fecha + "' && !it.estado }.horaFin",
+                        contains("13:00:00"));
+    }
+
+    private ValidatableResponse crearReservaEnBloque(String horaInicio, String horaFin) {
+        var request = String.format("""
+                {
+                  "fecha": "%s",
+                  "horaInicio": "%s",
+                  "horaFin": "%s",
+                  "clienteId": "%s",
+                  "profesionalId": "%s"
+                }
+                """, LocalDate.now().plusDays(2), horaInicio, horaFin, CLIENTE_BLOQUE_ID, PROFESIONAL_BLOQUE_ID);
+
+        return given()
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/api/reservas")
+                .then();
+    }
 }
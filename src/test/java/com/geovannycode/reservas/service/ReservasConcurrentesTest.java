@@ -0,0 +1,105 @@
+package com.geovannycode.reservas.service;
+
+import com.geovannycode.reservas.infrastructure.repository.HorarioDisponibleRepository;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.InjectSpy;
+import io.restassured.http.ContentType;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasItems;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * Dos reservas simultáneas en tramos distintos del mismo bloque libre.
+ * <p>
+ * Tras la búsqueda del bloque, un espía hace esperar a la transacción 300 ms para que la
+ * segunda reserva llegue mientras la primera lo está dividiendo. Sin el bloqueo de la agenda,
+ * la segunda esperaba la fila, la encontraba ya recortada y ocupada y respondía que no había
+ * horario.
+ */
+@QuarkusTest
+class ReservasConcurrentesTest {
+
+    // Ana Paredes y Carlos Gutiérrez (V2__demo_data.sql), en una fecha sin horarios de demo
+    private static final String PROFESIONAL_ID = "a1000000-0000-0000-0000-000000000004";
+    private static final String CLIENTE_ID = "b2000000-0000-0000-0000-000000000004";
+    private static final LocalDate FECHA = LocalDate.now().plusDays(20);
+
+    @InjectSpy
+    HorarioDisponibleRepository horarioRepository;
+
+    @Test
+    void deberiaAceptarDosReservasSimultaneasEnElMismoBloque() throws Exception {
+        given()
+                .contentType(ContentType.JSON)
+                .body(String.format("""
+                        {
+                          "profesionalId": "%s",
+                          "fecha": "%s",
+                          "horaInicio": "14:00",
+                          "horaFin": "18:00"
+                        }
+                        """, PROFESIONAL_ID, FECHA))
+                .when()
+                .post("/api/horarios")
+                .then()
+                .statusCode(201);
+
+        // La pausa va en la base de datos, dentro de la transacción y con el bloque ya bloqueado
+        Mockito.doAnswer(invocacion -> ((Uni<?>) invocacion.callRealMethod())
+                        .call(() -> horarioRepository.getSession().chain(session -> session
+                                .createNativeQuery("SELECT 1 FROM pg_sleep(0.3)", Integer.class)
+                                .getSingleResult())))
+                .when(horarioRepository).findDisponibleParaReserva(any(), any(), any(), any());
+
+        var salida = new CyclicBarrier(2);
+        var primera = CompletableFuture.supplyAsync(() -> reservar(salida, "14:00", "15:00"));
+        var segunda = CompletableFuture.supplyAsync(() -> reservar(salida, "16:00", "17:00"));
+
+        assertEquals(201, primera.get());
+        assertEquals(201, segunda.get());
+
+        given()
+                .when()
+                .get("/api/horarios/profesional/" + PROFESIONAL_ID)
+                .then()
+                .statusCode(200)
+                .body("findAll { it.fecha == '" + FECHA + "' && !it.estado }.horaInicio",
+                        containsInAnyOrder("14:00:00", "16:00:00"))
+                .body("findAll { it.fecha == '" + FECHA + "' && it.estado }.horaInicio",
+                        hasItems("15:00:00", "17:00:00"));
+    }
+
+    private int reservar(CyclicBarrier salida, String horaInicio, String horaFin) {
+        try {
+            salida.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return given()
+                .contentType(ContentType.JSON)
+                .body(String.format("""
+                        {
+                          "fecha": "%s",
+                          "horaInicio": "%s",
+                          "horaFin": "%s",
+                          "clienteId": "%s",
+                          "profesionalId": "%s"
+                        }
+                        """, FECHA, horaInicio, horaFin, CLIENTE_ID, PROFESIONAL_ID))
+                .when()
+                .post("/api/reservas")
+                .then()
+                .extract()
+                .statusCode();
+    }
+}